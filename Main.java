@@ -1,11 +1,23 @@
+import pImpls.BatchSimulationRunner;
 import pImpls.SimulationEnvironment;
+import pImpls.XmlParser;
 public class Main 
 {
 	public static void main(String[] args)
 	{
         try
         {
-            SimulationEnvironment.getInstance().startSimulation();
+            int replicas = XmlParser.getReplicas();
+            if (replicas > 1)
+            {
+                long baseSeed = XmlParser.getConfig().hasSeed() ? XmlParser.getConfig().getSeed() : System.currentTimeMillis();
+                BatchSimulationRunner runner = new BatchSimulationRunner(XmlParser.getConfig(), replicas, Runtime.getRuntime().availableProcessors(), baseSeed);
+                runner.run().printReport(System.out);
+            }
+            else
+            {
+                SimulationEnvironment.getInstance().startSimulation();
+            }
         }
         catch (Exception e)
         {
@@ -13,5 +25,3 @@ public class Main
         }
 	}
 }
-
-
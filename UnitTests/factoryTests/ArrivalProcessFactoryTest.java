@@ -0,0 +1,52 @@
+package UnitTests.factoryTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pFactories.ArrivalProcessFactory;
+import pImpls.DeterministicArrivalProcess;
+import pImpls.EmpiricalArrivalProcess;
+import pImpls.PoissonArrivalProcess;
+import pImpls.SimulationConfig;
+import pImpls.XmlParser;
+
+/**
+ *
+ */
+public class ArrivalProcessFactoryTest
+{
+	/**
+	 * Test of createArrivalProcess method, of class ArrivalProcessFactory.
+	 */
+	@Test
+	public void testCreateArrivalProcess()
+	{
+		System.out.println("createArrivalProcess");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+
+		assertTrue(ArrivalProcessFactory.createArrivalProcess(config) instanceof PoissonArrivalProcess);
+		assertEquals(config.getPeoplePerMin(), ArrivalProcessFactory.createArrivalProcess(config).getMeanRate(), 1e-9);
+
+		config.setArrivalProcess(ArrivalProcessFactory.DETERMINISTIC);
+		assertTrue(ArrivalProcessFactory.createArrivalProcess(config) instanceof DeterministicArrivalProcess);
+
+		config.setArrivalProcess(ArrivalProcessFactory.EMPIRICAL);
+		config.setArrivalSamples("500,1500");
+		assertTrue(ArrivalProcessFactory.createArrivalProcess(config) instanceof EmpiricalArrivalProcess);
+		assertEquals(60, ArrivalProcessFactory.createArrivalProcess(config).getMeanRate(), 1e-9);
+		assertEquals(6, ArrivalProcessFactory.createArrivalProcess(config, 6).getMeanRate(), 1e-9);
+
+		config.setArrivalProcess("unknown");
+		try
+		{
+			ArrivalProcessFactory.createArrivalProcess(config);
+			fail("An unknown arrival process should be rejected");
+		}
+		catch (IllegalArgumentException e)
+		{
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package UnitTests.factoryTests;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.junit.After;
@@ -13,7 +14,15 @@ import pExceptions.NegativeCapacityException;
 import pExceptions.NegativeElevatorException;
 import pExceptions.NegativeFloorException;
 import pFactories.ControlImplFactory;
+import pImpls.AbstractControlModule;
+import pImpls.DestinationDispatchControlModule;
+import pImpls.EtaControlModule;
+import pImpls.NearestElevatorControlModule;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
 import pInterfaces.ControlModuleInterface;
+import pInterfaces.ControlStrategyInterface;
 
 /**
  *
@@ -55,4 +64,109 @@ public class ControlImplFactoryTest
 			fail(e.getMessage());
 		}
 	}
+
+	/**
+	 * Test of createElevatorController method with a context that selects the ETA controller, of class ControlImplFactory.
+	 */
+	@Test
+	public void testCreateEtaController() {
+		System.out.println("createEtaController");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController(ControlImplFactory.ETA);
+		try
+		{
+			ControlModuleInterface result = ControlImplFactory.createElevatorController(new SimulationContext(config));
+			assertTrue(result instanceof EtaControlModule);
+			result.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException
+				| NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Test of createElevatorController method with a context that selects the nearest-elevator controller, of class ControlImplFactory.
+	 */
+	@Test
+	public void testCreateNearestController() {
+		System.out.println("createNearestController");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController(ControlImplFactory.NEAREST);
+		try
+		{
+			ControlModuleInterface result = ControlImplFactory.createElevatorController(new SimulationContext(config));
+			assertTrue(result instanceof NearestElevatorControlModule);
+			result.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException
+				| NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Test of createElevatorController method with a context that selects the destination-dispatch controller, of class ControlImplFactory.
+	 */
+	@Test
+	public void testCreateDestinationController() {
+		System.out.println("createDestinationController");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController(ControlImplFactory.DESTINATION);
+		try
+		{
+			ControlModuleInterface result = ControlImplFactory.createElevatorController(new SimulationContext(config));
+			assertTrue(result instanceof DestinationDispatchControlModule);
+			result.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException
+				| NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Test of registerStrategy and getStrategyNames methods, of class ControlImplFactory.
+	 */
+	@Test
+	public void testRegisterStrategy() {
+		System.out.println("registerStrategy");
+		assertTrue(ControlImplFactory.getStrategyNames().contains(ControlImplFactory.ETA));
+		ControlImplFactory.registerStrategy("lowestEta", new ControlStrategyInterface()
+		{
+			@Override
+			public AbstractControlModule createControlModule(SimulationContext inContext)
+			{
+				return new EtaControlModule(inContext);
+			}
+
+			@Override
+			public AbstractControlModule takeOver(AbstractControlModule inPrevious)
+			{
+				return new EtaControlModule(inPrevious);
+			}
+		});
+		assertTrue(ControlImplFactory.getStrategyNames().contains("lowestEta"));
+
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController("LOWESTETA");
+		try
+		{
+			ControlModuleInterface result = ControlImplFactory.createElevatorController(new SimulationContext(config));
+			assertTrue(result instanceof EtaControlModule);
+			result.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException
+				| NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
 }
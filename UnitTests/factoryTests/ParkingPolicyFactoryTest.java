@@ -0,0 +1,45 @@
+package UnitTests.factoryTests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pFactories.ParkingPolicyFactory;
+import pImpls.DemandParkingPolicy;
+import pImpls.LobbyParkingPolicy;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+
+/**
+ *
+ */
+public class ParkingPolicyFactoryTest
+{
+	/**
+	 * Test of createParkingPolicy method, of class ParkingPolicyFactory.
+	 */
+	@Test
+	public void testCreateParkingPolicy()
+	{
+		System.out.println("createParkingPolicy");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+
+		assertTrue(ParkingPolicyFactory.createParkingPolicy(new SimulationContext(config)) instanceof LobbyParkingPolicy);
+
+		config.setParkingPolicy(ParkingPolicyFactory.DEMAND);
+		assertTrue(ParkingPolicyFactory.createParkingPolicy(new SimulationContext(config)) instanceof DemandParkingPolicy);
+		assertTrue(new SimulationContext(config).getParkingPolicy() instanceof DemandParkingPolicy);
+
+		config.setParkingPolicy("unknown");
+		try
+		{
+			new SimulationContext(config);
+			fail("An unknown parking policy should be rejected");
+		}
+		catch (IllegalArgumentException e)
+		{
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import pImpls.BurstArrivalProcess;
+import pImpls.DeterministicArrivalProcess;
+import pImpls.EmpiricalArrivalProcess;
+import pImpls.PoissonArrivalProcess;
+import pInterfaces.ArrivalProcessInterface;
+
+/**
+ * Tests of the arrival processes which decide when passengers arrive.
+ */
+public class ArrivalProcessTest
+{
+	/**
+	 * The sample mean of many Poisson inter-arrival times should be close to 60000 / rate, and their standard deviation should be close to
+	 * their mean, as it is for any exponential distribution.
+	 */
+	@Test
+	public void testPoisson()
+	{
+		System.out.println("poisson");
+		ArrivalProcessInterface process = new PoissonArrivalProcess(12);
+		Random randomGenerator = new Random(1);
+		int sampleCount = 100000;
+		double sum = 0;
+		double sumOfSquares = 0;
+		for(int i = 0; i < sampleCount; ++i)
+		{
+			long gap = process.nextInterArrivalTime(randomGenerator);
+			assertTrue(gap >= 0);
+			sum += gap;
+			sumOfSquares += (double) gap * gap;
+		}
+		double mean = sum / sampleCount;
+		double stdDev = Math.sqrt(sumOfSquares / sampleCount - mean * mean);
+		assertEquals(5000, mean, 100);
+		assertEquals(5000, stdDev, 150);
+		assertEquals(12, process.getMeanRate(), 1e-9);
+	}
+
+	/**
+	 * Deterministic arrivals should always be exactly 60000 / rate apart.
+	 */
+	@Test
+	public void testDeterministic()
+	{
+		System.out.println("deterministic");
+		ArrivalProcessInterface process = new DeterministicArrivalProcess(4);
+		Random randomGenerator = new Random(1);
+		for(int i = 0; i < 10; ++i)
+		{
+			assertEquals(15000, process.nextInterArrivalTime(randomGenerator));
+		}
+		assertEquals(4, process.getMeanRate(), 1e-9);
+	}
+
+	/**
+	 * Empirical arrivals should only ever be one of the observed samples, and every sample should eventually be drawn.
+	 */
+	@Test
+	public void testEmpirical()
+	{
+		System.out.println("empirical");
+		ArrivalProcessInterface process = EmpiricalArrivalProcess.parse("1000, 2000,3000 6000");
+		Random randomGenerator = new Random(1);
+		boolean[] seen = new boolean[7];
+		for(int i = 0; i < 1000; ++i)
+		{
+			long gap = process.nextInterArrivalTime(randomGenerator);
+			assertTrue(gap == 1000 || gap == 2000 || gap == 3000 || gap == 6000);
+			seen[(int) ( gap / 1000 )] = true;
+		}
+		assertTrue(seen[1] && seen[2] && seen[3] && seen[6]);
+		assertEquals(20, process.getMeanRate(), 1e-9);
+		ArrivalProcessInterface scaled = EmpiricalArrivalProcess.parse("1000, 2000,3000 6000").scaledTo(10);
+		for(int i = 0; i < 100; ++i)
+		{
+			long gap = scaled.nextInterArrivalTime(randomGenerator);
+			assertTrue(gap == 2000 || gap == 4000 || gap == 6000 || gap == 12000);
+		}
+		assertEquals(10, scaled.getMeanRate(), 1e-9);
+		try
+		{
+			EmpiricalArrivalProcess.parse("");
+			fail("An empty sample list should be rejected");
+		}
+		catch (IllegalArgumentException e)
+		{
+		}
+	}
+
+	/**
+	 * Burst arrivals should create a whole minute's passengers at once and then wait a minute.
+	 */
+	@Test
+	public void testBurst()
+	{
+		System.out.println("burst");
+		ArrivalProcessInterface process = new BurstArrivalProcess(3);
+		Random randomGenerator = new Random(1);
+		for(int burst = 0; burst < 2; ++burst)
+		{
+			assertEquals(0, process.nextInterArrivalTime(randomGenerator));
+			assertEquals(0, process.nextInterArrivalTime(randomGenerator));
+			assertEquals(60000, process.nextInterArrivalTime(randomGenerator));
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import pImpls.AssignmentSolver;
+
+/**
+ * Tests of the Hungarian algorithm used to assign batches of hall calls.
+ */
+public class AssignmentSolverTest
+{
+	/**
+	 * Test of solve method, of class AssignmentSolver, on a matrix where the greedy choice is wrong.
+	 */
+	@Test
+	public void testSolve()
+	{
+		System.out.println("solve");
+		//greedily giving the first row its cheapest column costs 1 + 10, while the optimum is 2 + 3
+		long[][] costs = { { 1, 2 }, { 3, 10 } };
+		assertArrayEquals(new int[] { 1, 0 }, AssignmentSolver.solve(costs));
+	}
+
+	/**
+	 * Rows without an allowed column, and rows beyond the number of columns, should be left unmatched.
+	 */
+	@Test
+	public void testUnmatchedRows()
+	{
+		System.out.println("unmatchedRows");
+		long forbidden = AssignmentSolver.FORBIDDEN;
+		assertArrayEquals(new int[] { 0, -1 }, AssignmentSolver.solve(new long[][] { { 5, forbidden }, { forbidden, forbidden } }));
+		assertArrayEquals(new int[] { -1, 0, -1 }, AssignmentSolver.solve(new long[][] { { 4 }, { 1 }, { 7 } }));
+		assertEquals(0, AssignmentSolver.solve(new long[0][0]).length);
+	}
+
+	/**
+	 * The solver should always find the cheapest assignment. Compared against trying every assignment of small random matrices.
+	 */
+	@Test
+	public void testMatchesBruteForce()
+	{
+		System.out.println("matchesBruteForce");
+		Random random = new Random(14);
+		for(int trial = 0; trial < 200; ++trial)
+		{
+			int rows = 1 + random.nextInt(5);
+			int columns = 1 + random.nextInt(5);
+			long[][] costs = new long[rows][columns];
+			for(int i = 0; i < rows; ++i)
+			{
+				for(int j = 0; j < columns; ++j)
+				{
+					costs[i][j] = random.nextInt(100);
+				}
+			}
+			int[] match = AssignmentSolver.solve(costs);
+			long total = 0;
+			int matched = 0;
+			boolean[] used = new boolean[columns];
+			for(int i = 0; i < rows; ++i)
+			{
+				if(match[i] >= 0)
+				{
+					assertEquals(false, used[match[i]]);
+					used[match[i]] = true;
+					total += costs[i][match[i]];
+					matched++;
+				}
+			}
+			assertEquals(Math.min(rows, columns), matched);
+			assertEquals(bruteForce(costs, 0, new boolean[columns], Math.min(rows, columns)), total);
+		}
+	}
+
+	/**
+	 * Finds the cheapest total cost of matching the remaining rows, trying every column for every row
+	 * @param costs the cost matrix
+	 * @param row the first row that has not been decided yet
+	 * @param used the columns that have been matched already
+	 * @param toMatch how many of the remaining rows still need a column
+	 * @return the cheapest total cost
+	 */
+	private long bruteForce(long[][] costs, int row, boolean[] used, int toMatch)
+	{
+		if(toMatch == 0)
+		{
+			return 0;
+		}
+		if(costs.length - row < toMatch)
+		{
+			return Long.MAX_VALUE;
+		}
+		//leave this row unmatched
+		long best = bruteForce(costs, row + 1, used, toMatch);
+		for(int j = 0; j < used.length; ++j)
+		{
+			if(!used[j])
+			{
+				used[j] = true;
+				long rest = bruteForce(costs, row + 1, used, toMatch - 1);
+				used[j] = false;
+				if(rest != Long.MAX_VALUE)
+				{
+					best = Math.min(best, costs[row][j] + rest);
+				}
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,119 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pExceptions.NullPassengerException;
+import pFactories.ControlImplFactory;
+import pFactories.PersonFactory;
+import pImpls.BatchControlModule;
+import pImpls.ElevatorControlModule;
+import pImpls.SimulationConfig;
+import pImpls.SimulationConsole;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+
+/**
+ * Tests of the controller which assigns hall calls in batches.
+ */
+public class BatchControlModuleTest
+{
+	/**
+	 * Calls made within one window should be assigned together once the window has passed, and everybody should still be delivered.
+	 */
+	@Test
+	public void testCallsAreAssignedInBatches()
+	{
+		System.out.println("callsAreAssignedInBatches");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController(ControlImplFactory.BATCH);
+		config.setBatchWindow(1000);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ElevatorControlModule controlModule = (ElevatorControlModule) context.getControlModule();
+			BatchControlModule batchModule = (BatchControlModule) controlModule.getDelegate();
+
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 4, 1), 4);
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 1, 6, 2), 6);
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 2, 8, 9), 8);
+
+			//nothing is sent until the window has passed, but the calls are queued rather than deferred
+			assertEquals(0, batchModule.getPendingCalls().getTotalDeferred());
+			for(int i = 1; i <= controlModule.getElevatorNum(); ++i)
+			{
+				assertTrue(controlModule.getElevator(i).getRequestQueue().isEmpty());
+			}
+			context.getClock().runUntil(1000);
+			int busyElevators = 0;
+			for(int i = 1; i <= controlModule.getElevatorNum(); ++i)
+			{
+				if(!controlModule.getElevator(i).getRequestQueue().isEmpty())
+				{
+					busyElevators++;
+				}
+			}
+			assertEquals(3, busyElevators);
+			assertEquals(1, batchModule.getBatchCount());
+			assertTrue(batchModule.getLastSolverLatency() > 0);
+
+			context.getClock().runUntil(120000);
+			assertEquals(3, context.getStatistics().getPeopleDelivered());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * In a threaded simulation the dispatcher thread should time the window and assign the batch once it has passed.
+	 */
+	@Test
+	public void testThreadedBatchWindow()
+	{
+		System.out.println("threadedBatchWindow");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.THREADED_ENGINE);
+		config.setConsole(SimulationConsole.CONSOLE_OFF);
+		config.setController(ControlImplFactory.BATCH);
+		config.setBatchWindow(200);
+		SimulationContext context = new SimulationContext(config);
+		ElevatorControlModule controlModule = null;
+		try
+		{
+			controlModule = (ElevatorControlModule) context.getControlModule();
+			BatchControlModule batchModule = (BatchControlModule) controlModule.getDelegate();
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 4, 1), 4);
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 1, 6, 2), 6);
+			assertEquals(0, batchModule.getBatchCount());
+
+			long deadline = System.currentTimeMillis() + 5000;
+			while(batchModule.getBatchCount() == 0 && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(10);
+			}
+			assertEquals(1, batchModule.getBatchCount());
+			assertEquals(0, batchModule.getPendingCalls().getTotalDeferred());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException | InterruptedException e)
+		{
+			fail(e.getMessage());
+		}
+		finally
+		{
+			if(controlModule != null)
+			{
+				controlModule.shutDown();
+			}
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pExceptions.NegativeFloorException;
+import pImpls.BatchReport;
+import pImpls.Person;
+import pImpls.SimulationClock;
+import pImpls.SimulationStatistics;
+
+/**
+ * Tests the aggregation of replica statistics performed by BatchReport.
+ */
+public class BatchReportTest
+{
+	private static final int WAIT_METRIC = 2;
+	private static final double DELTA = 0.001;
+	private BatchReport report;
+
+	@Before
+	public void setUp()
+	{
+		report = new BatchReport();
+	}
+
+	/**
+	 * Test of getMean, getStandardDeviation and getConfidenceHalfWidth with three replicas whose only passenger waited 100, 200 and 300 ms.
+	 */
+	@Test
+	public void testAggregation()
+	{
+		System.out.println("aggregation");
+		report.addReplica(createReplica(100));
+		report.addReplica(createReplica(200));
+		report.addReplica(createReplica(300));
+
+		assertEquals(3, report.getReplicaCount());
+		assertEquals(200.0, report.getMean(WAIT_METRIC), DELTA);
+		assertEquals(100.0, report.getStandardDeviation(WAIT_METRIC), DELTA);
+		//t(0.975, 2) = 4.303
+		assertEquals(4.303 * 100.0 / Math.sqrt(3), report.getConfidenceHalfWidth(WAIT_METRIC), DELTA);
+	}
+
+	/**
+	 * A single replica has no spread, so its standard deviation and confidence interval are reported as zero.
+	 */
+	@Test
+	public void testSingleReplica()
+	{
+		System.out.println("singleReplica");
+		report.addReplica(createReplica(100));
+		assertEquals(100.0, report.getMean(WAIT_METRIC), DELTA);
+		assertEquals(0.0, report.getStandardDeviation(WAIT_METRIC), DELTA);
+		assertEquals(0.0, report.getConfidenceHalfWidth(WAIT_METRIC), DELTA);
+	}
+
+	private SimulationStatistics createReplica(long waitTime)
+	{
+		SimulationStatistics statistics = new SimulationStatistics(new SimulationClock());
+		try
+		{
+			Person person = new Person(0, 1, 2);
+			person.setArrivalTime(0);
+			person.setBoardingTime(waitTime);
+			statistics.personCreated();
+			statistics.personDelivered(person);
+		}
+		catch (NegativeFloorException e)
+		{
+			fail(e.getMessage());
+		}
+		return statistics;
+	}
+}
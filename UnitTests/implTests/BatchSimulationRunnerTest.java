@@ -0,0 +1,67 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import pImpls.BatchReport;
+import pImpls.BatchSimulationRunner;
+import pImpls.SimulationConfig;
+import pImpls.XmlParser;
+
+/**
+ * Tests of running seeded replicas in parallel.
+ */
+public class BatchSimulationRunnerTest
+{
+	/**
+	 * The seed of a replica should be added to the name of the event log file, in front of its extension if it has one.
+	 */
+	@Test
+	public void testGetReplicaLogPath()
+	{
+		System.out.println("getReplicaLogPath");
+		assertEquals("events-42.log", BatchSimulationRunner.getReplicaLogPath("events.log", 42));
+		assertEquals("logs/events-7", BatchSimulationRunner.getReplicaLogPath("logs/events", 7));
+		assertEquals("logs.d/events-7", BatchSimulationRunner.getReplicaLogPath("logs.d/events", 7));
+		assertEquals(".events-3", BatchSimulationRunner.getReplicaLogPath(".events", 3));
+	}
+
+	/**
+	 * Replicas running at the same time should each write a complete event log of their own.
+	 */
+	@Test
+	public void testReplicaEventLogs()
+	{
+		System.out.println("replicaEventLogs");
+		try
+		{
+			File directory = Files.createTempDirectory("replicas").toFile();
+			String logPath = new File(directory, "events.log").getPath();
+			SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+			config.setEventLogPath(logPath);
+			BatchReport report = new BatchSimulationRunner(config, 2, 2, 10).run();
+			assertEquals(2, report.getReplicaCount());
+
+			List<String> first = Files.readAllLines(new File(BatchSimulationRunner.getReplicaLogPath(logPath, 10)).toPath());
+			List<String> second = Files.readAllLines(new File(BatchSimulationRunner.getReplicaLogPath(logPath, 11)).toPath());
+			assertTrue(first.size() > 0);
+			assertTrue(second.size() > 0);
+			assertNotEquals(first, second);
+			assertTrue(!new File(logPath).exists());
+		}
+		catch (IOException | InterruptedException | ExecutionException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
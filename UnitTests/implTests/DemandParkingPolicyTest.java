@@ -0,0 +1,103 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pExceptions.NullPassengerException;
+import pFactories.ParkingPolicyFactory;
+import pFactories.PersonFactory;
+import pImpls.DemandParkingPolicy;
+import pImpls.ElevatorPositionIndex;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ControlModuleInterface;
+
+/**
+ * Tests of the parking policy which spreads idle elevators over the floors where calls have been most frequent lately.
+ */
+public class DemandParkingPolicyTest
+{
+	/**
+	 * Test of recordCall and chooseParkingFloor methods, of class DemandParkingPolicy.
+	 */
+	@Test
+	public void testChooseParkingFloor()
+	{
+		System.out.println("chooseParkingFloor");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			DemandParkingPolicy policy = new DemandParkingPolicy(config.getTotalFloorNumber(), 60000, new ElevatorPositionIndex());
+
+			//nothing has been learned yet, so elevators park at the lobby
+			assertEquals(1, policy.chooseParkingFloor(controlModule.getElevator(1), 0));
+
+			policy.recordCall(7, 0);
+			policy.recordCall(7, 1000);
+			policy.recordCall(7, 2000);
+			policy.recordCall(2, 3000);
+			assertEquals(3, policy.getCallCount(7, 3000));
+			assertEquals(7, policy.chooseParkingFloor(controlModule.getElevator(1), 3000));
+
+			//floor 7 is taken care of by the first elevator, so the next one covers the remaining calls
+			assertEquals(2, policy.chooseParkingFloor(controlModule.getElevator(2), 3000));
+
+			//once the first elevator has work again, floor 7 needs a new elevator
+			policy.releaseParkingFloor(controlModule.getElevator(1));
+			assertEquals(7, policy.chooseParkingFloor(controlModule.getElevator(3), 3000));
+
+			//calls older than the window are forgotten
+			assertEquals(0, policy.getCallCount(7, 62000));
+			assertEquals(1, policy.getCallCount(2, 62000));
+			assertEquals(0, policy.getCallCount(2, 63000));
+			assertEquals(1, policy.chooseParkingFloor(controlModule.getElevator(4), 63000));
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * An elevator that has been idle should park on the floor calls come from instead of returning to the lobby.
+	 */
+	@Test
+	public void testIdleElevatorParksNearDemand()
+	{
+		System.out.println("idleElevatorParksNearDemand");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setParkingPolicy(ParkingPolicyFactory.DEMAND);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 8, 10), 8);
+			context.getClock().runUntil(60000);
+			assertEquals(1, context.getStatistics().getPeopleDelivered());
+
+			boolean bParkedOnCallFloor = false;
+			for(int i = 1; i <= controlModule.getElevatorNum(); ++i)
+			{
+				bParkedOnCallFloor |= controlModule.getElevator(i).getCurrentFloor() == 8;
+			}
+			assertTrue(bParkedOnCallFloor);
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pExceptions.NullPassengerException;
+import pFactories.ControlImplFactory;
+import pFactories.PersonFactory;
+import pImpls.Person;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ControlModuleInterface;
+
+/**
+ * Tests of the destination-dispatch controller, which assigns every passenger to a specific elevator.
+ */
+public class DestinationDispatchControlModuleTest
+{
+	/**
+	 * Passengers going to the same floor should share an elevator, and a passenger going the other way should get a different one.
+	 */
+	@Test
+	public void testPassengersAreGroupedByDestination()
+	{
+		System.out.println("passengersAreGroupedByDestination");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController(ControlImplFactory.DESTINATION);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			Person first = PersonFactory.createPerson(context, 0, 1, 5);
+			Person second = PersonFactory.createPerson(context, 1, 1, 5);
+			Person third = PersonFactory.createPerson(context, 2, 3, 1);
+			controlModule.addPersonToFloor(first, 1);
+			controlModule.addPersonToFloor(second, 1);
+			controlModule.addPersonToFloor(third, 3);
+
+			//the first elevator is heading up, so the passenger going down from floor 3 is given the next elevator
+			assertEquals(0, first.getAssignedElevator());
+			assertEquals(0, second.getAssignedElevator());
+			assertEquals(1, third.getAssignedElevator());
+			assertEquals(2, controlModule.getElevator(1).getPassengers().size());
+
+			context.getClock().runUntil(120000);
+			assertEquals(3, context.getStatistics().getPeopleDelivered());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
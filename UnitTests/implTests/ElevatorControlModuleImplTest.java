@@ -6,6 +6,8 @@
 
 package UnitTests.implTests;
 
+import java.util.ArrayList;
+
 import static org.hamcrest.CoreMatchers.*;
 
 import org.junit.After;
@@ -16,11 +18,18 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
 import pExceptions.NegativeFloorException;
 import pExceptions.NullPassengerException;
+import pFactories.PersonFactory;
 import pImpls.Elevator;
 import pImpls.ElevatorControlModuleImpl;
+import pImpls.ElevatorZone;
 import pImpls.Person;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ControlModuleInterface;
 import pInterfaces.ElevatorInterface;
 
 /**
@@ -147,4 +156,210 @@ public class ElevatorControlModuleImplTest
 		}
 	}
 
+	/**
+	 * A hall call made behind a moving elevator should be retried once the elevator turns around instead of being dropped.
+	 */
+	@Test
+	public void testPendingCallIsRetried()
+	{
+		System.out.println("pendingCallIsRetried");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setTotalElevatorNumber(1);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 1, 6), 1);
+			context.getClock().runUntil(2500);
+			assertTrue(controlModule.getElevator(1).getCurrentFloor() > 2);
+
+			//the only elevator has already passed floor 2 on its way up
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 1, 2, 5), 2);
+			context.getClock().runUntil(120000);
+			assertEquals(2, context.getStatistics().getPeopleDelivered());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Elevators of a zoned bank should only serve their own floors, and a passenger travelling between two banks should change elevators at
+	 * the lobby.
+	 */
+	@Test
+	public void testZonedElevators()
+	{
+		System.out.println("zonedElevators");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setTotalElevatorNumber(4);
+		ArrayList<ElevatorZone> zones = new ArrayList<ElevatorZone>();
+		zones.add(new ElevatorZone("low", 2, 1, 5, true));
+		zones.add(new ElevatorZone("high", 2, 6, 10, true));
+		config.setZones(zones);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			ElevatorInterface lowElevator = controlModule.getElevator(1);
+			ElevatorInterface highElevator = controlModule.getElevator(3);
+			assertTrue(lowElevator.servesFloor(5));
+			assertFalse(lowElevator.servesFloor(6));
+			assertTrue(highElevator.servesFloor(1));
+			assertFalse(highElevator.servesFloor(3));
+			assertTrue(highElevator.servesFloor(10));
+
+			Person highRider = PersonFactory.createPerson(context, 0, 1, 8);
+			Person transferRider = PersonFactory.createPerson(context, 1, 8, 3);
+			controlModule.addPersonToFloor(highRider, 1);
+			controlModule.addPersonToFloor(transferRider, 8);
+			assertTrue(highElevator.getPassengers().contains(highRider) || controlModule.getElevator(4).getPassengers().contains(highRider));
+			assertFalse(lowElevator.getPassengers().contains(highRider));
+			assertTrue(transferRider.hasTransfer());
+			assertEquals(1, transferRider.getDestinationFloor());
+
+			context.getClock().runUntil(120000);
+			assertEquals(2, context.getStatistics().getPeopleDelivered());
+			assertFalse(transferRider.hasTransfer());
+			assertEquals(3, transferRider.getDestinationFloor());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * A layout whose banks leave some trip without a direct route or a change at the lobby should be rejected, unless some elevators are left
+	 * over to serve the whole building.
+	 */
+	@Test
+	public void testZoneLayout()
+	{
+		System.out.println("zoneLayout");
+		ArrayList<ElevatorZone> zones = new ArrayList<ElevatorZone>();
+		zones.add(new ElevatorZone("low", 2, 1, 5, true));
+		zones.add(new ElevatorZone("express", 2, 6, 10, false));
+		ElevatorZone.checkLayout(zones, 10, 5);
+		try
+		{
+			ElevatorZone.checkLayout(zones, 10, 4);
+			fail("Floors 6 to 10 cannot be reached from the lobby");
+		}
+		catch (IllegalArgumentException e)
+		{
+		}
+
+		zones.set(1, new ElevatorZone("high", 2, 6, 10, true));
+		ElevatorZone.checkLayout(zones, 10, 4);
+		try
+		{
+			ElevatorZone.checkLayout(zones, 12, 4);
+			fail("Floors 11 and 12 are not served by any zone");
+		}
+		catch (IllegalArgumentException e)
+		{
+		}
+	}
+
+	/**
+	 * A full elevator should not be sent to pick anybody up, and people it leaves behind should get a new hall call without waiting for an
+	 * elevator to change direction.
+	 */
+	@Test
+	public void testFullElevatorResummons()
+	{
+		System.out.println("fullElevatorResummons");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setTotalElevatorNumber(2);
+		config.setElevCapacity(1);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 3, 8), 3);
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 1, 3, 9), 3);
+
+			context.getClock().runUntil(60000);
+			assertEquals(2, context.getStatistics().getPeopleDelivered());
+			assertEquals(1, context.getStatistics().getResummonedCalls());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * A second call from the same floor and direction should not be dispatched again while the elevator on its way has room for everybody
+	 * waiting.
+	 */
+	@Test
+	public void testRepeatedCallIsCoalesced()
+	{
+		System.out.println("repeatedCallIsCoalesced");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setElevCapacity(2);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 6, 9), 6);
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 1, 6, 8), 6);
+			assertEquals(1, context.getStatistics().getDispatchedCalls());
+			assertEquals(1, context.getStatistics().getCoalescedCalls());
+
+			//the elevator on its way only has room for two, so the third Person needs another elevator
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 2, 6, 10), 6);
+			assertEquals(2, context.getStatistics().getDispatchedCalls());
+			assertEquals(1, context.getStatistics().getCoalescedCalls());
+
+			context.getClock().runUntil(60000);
+			assertEquals(3, context.getStatistics().getPeopleDelivered());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * A threaded elevator that is already on the calling floor should run the door cycle on its own thread and take the Person along.
+	 */
+	@Test
+	public void testDoorCycleAtFloor()
+	{
+		System.out.println("doorCycleAtFloor");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.THREADED_ENGINE);
+		config.setTotalElevatorNumber(1);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			assertEquals(1, controlModule.getElevator(1).getCurrentFloor());
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 1, 3), 1);
+
+			long deadline = System.currentTimeMillis() + 20000;
+			while(context.getStatistics().getPeopleDelivered() < 1 && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(50);
+			}
+			assertEquals(1, context.getStatistics().getPeopleDelivered());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException | InterruptedException e)
+		{
+			fail(e.getMessage());
+		}
+	}
 }
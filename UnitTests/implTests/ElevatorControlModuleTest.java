@@ -0,0 +1,148 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pExceptions.NullPassengerException;
+import pFactories.ControlImplFactory;
+import pFactories.PersonFactory;
+import pImpls.ElevatorControlModule;
+import pImpls.EtaControlModule;
+import pImpls.SimulationConfig;
+import pImpls.SimulationConsole;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ControlModuleInterface;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * Tests of the control module which delegates to a swappable elevator selection algorithm.
+ */
+public class ElevatorControlModuleTest
+{
+	/**
+	 * Switching strategies in the middle of a run should keep the same elevators, and nobody who was already travelling should be lost.
+	 */
+	@Test
+	public void testSwitchStrategy()
+	{
+		System.out.println("switchStrategy");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController(ControlImplFactory.DESTINATION);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ElevatorControlModule controlModule = (ElevatorControlModule) context.getControlModule();
+			ElevatorInterface firstElevator = controlModule.getElevator(1);
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 0, 1, 6), 1);
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 1, 4, 2), 4);
+			context.getClock().runUntil(2500);
+
+			controlModule.switchStrategy(ControlImplFactory.ETA);
+			assertEquals(ControlImplFactory.ETA, controlModule.getStrategyName());
+			assertSame(firstElevator, controlModule.getElevator(1));
+			controlModule.addPersonToFloor(PersonFactory.createPerson(context, 2, 3, 5), 3);
+
+			context.getClock().runUntil(120000);
+			assertEquals(3, context.getStatistics().getPeopleDelivered());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * In a threaded simulation the switch should be made on the dispatcher thread, in order with the calls and tasks handed to it.
+	 */
+	@Test
+	public void testThreadedSwitchStrategy()
+	{
+		System.out.println("threadedSwitchStrategy");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.THREADED_ENGINE);
+		config.setConsole(SimulationConsole.CONSOLE_OFF);
+		ElevatorControlModule controlModule = null;
+		try
+		{
+			controlModule = (ElevatorControlModule) new SimulationContext(config).getControlModule();
+			final ElevatorControlModule switchedModule = controlModule;
+			final CountDownLatch switched = new CountDownLatch(1);
+			final ArrayList<ControlModuleInterface> delegates = new ArrayList<ControlModuleInterface>();
+			controlModule.switchStrategy(ControlImplFactory.ETA);
+			controlModule.getDispatcher().execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					synchronized(delegates)
+					{
+						delegates.add(switchedModule.getDelegate());
+					}
+					switched.countDown();
+				}
+			});
+			assertTrue(switched.await(5, TimeUnit.SECONDS));
+			synchronized(delegates)
+			{
+				assertTrue(delegates.get(0) instanceof EtaControlModule);
+			}
+			assertEquals(ControlImplFactory.ETA, controlModule.getStrategyName());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | InterruptedException e)
+		{
+			fail(e.getMessage());
+		}
+		finally
+		{
+			if(controlModule != null)
+			{
+				controlModule.shutDown();
+			}
+		}
+	}
+
+	/**
+	 * Switching to a strategy that was never registered should leave the current one in place.
+	 */
+	@Test
+	public void testSwitchToUnknownStrategy()
+	{
+		System.out.println("switchToUnknownStrategy");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ElevatorControlModule controlModule = (ElevatorControlModule) context.getControlModule();
+			try
+			{
+				controlModule.switchStrategy("noSuchController");
+				fail("Switching to an unknown controller should have failed");
+			}
+			catch (IllegalArgumentException e)
+			{
+				assertTrue(e.getMessage().contains("noSuchController"));
+			}
+			assertEquals(ControlImplFactory.FIRST_FIT, controlModule.getStrategyName());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
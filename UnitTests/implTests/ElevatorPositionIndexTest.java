@@ -0,0 +1,104 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pImpls.Direction;
+import pImpls.ElevatorPositionIndex;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ControlModuleInterface;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * Tests of the index which keeps the running elevators of a simulation sorted by floor.
+ */
+public class ElevatorPositionIndexTest
+{
+	/**
+	 * Test of findNearest, move and remove methods, of class ElevatorPositionIndex.
+	 */
+	@Test
+	public void testFindNearest()
+	{
+		System.out.println("findNearest");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			ElevatorInterface first = controlModule.getElevator(1);
+			ElevatorInterface second = controlModule.getElevator(2);
+			ElevatorInterface third = controlModule.getElevator(3);
+
+			ElevatorPositionIndex index = new ElevatorPositionIndex();
+			int firstSlot = index.register();
+			int secondSlot = index.register();
+			int thirdSlot = index.register();
+			index.add(firstSlot, first, 5, Direction.UP);
+			index.add(secondSlot, second, 2, Direction.IDLE);
+			index.add(thirdSlot, third, 8, Direction.UP);
+
+			//the third elevator has already passed floor 6 on its way up
+			Iterator<ElevatorInterface> nearest = index.findNearest(6, Direction.UP);
+			assertSame(first, nearest.next());
+			assertSame(second, nearest.next());
+			assertFalse(nearest.hasNext());
+
+			//going down, only the idle elevator and the elevator that has turned around can answer
+			index.move(thirdSlot, third, 8, Direction.UP, 8, Direction.DOWN);
+			nearest = index.findNearest(6, Direction.DOWN);
+			assertSame(third, nearest.next());
+			assertSame(second, nearest.next());
+			assertFalse(nearest.hasNext());
+
+			index.remove(secondSlot, 2, Direction.IDLE);
+			assertEquals(2, index.size());
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Elevators should keep the index of their simulation up to date as they move, and leave it once shut down.
+	 */
+	@Test
+	public void testElevatorsUpdateIndex()
+	{
+		System.out.println("elevatorsUpdateIndex");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			assertEquals(controlModule.getElevatorNum(), context.getElevatorIndex().size());
+
+			//send the first elevator up to floor 6 and stop the clock before it returns to the lobby
+			controlModule.getElevator(1).addFloorToQueue(6);
+			context.getClock().runUntil(8000);
+			assertSame(controlModule.getElevator(1), context.getElevatorIndex().findNearest(6, Direction.DOWN).next());
+
+			controlModule.shutDown();
+			assertEquals(0, context.getElevatorIndex().size());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
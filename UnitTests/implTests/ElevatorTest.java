@@ -26,12 +26,16 @@ import pExceptions.NegativeElevatorException;
 import pExceptions.NegativeFloorException;
 import pExceptions.NullPassengerException;
 import pExceptions.PassengerNotFoundException;
+import pFactories.PersonFactory;
 import pImpls.Direction;
 import pImpls.Elevator;
 import pImpls.ElevatorControlModule;
 import pImpls.Person;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
 import pImpls.XmlParser;
 import pInterfaces.ControlModuleInterface;
+import pInterfaces.ElevatorInterface;
 
 /**
  * Tests the main functionality of the elevator system.
@@ -137,6 +141,34 @@ public class ElevatorTest
 
 	}
 
+	/**
+	 * Test of getRequestQueue method, of class Elevator. Stops should be listed once each, in the order the elevator reaches them.
+	 */
+	@Test
+	public void testGetRequestQueue()
+	{
+		System.out.println("getRequestQueue");
+		try
+		{
+			assertTrue(elevator.getRequestQueue().isEmpty());
+			assertTrue(elevator.addFloorToQueue(7));
+			assertTrue(elevator.addFloorToQueue(4));
+			assertTrue(elevator.addFloorToQueue(9));
+			assertTrue(elevator.addFloorToQueue(4));
+
+			ArrayList<Integer> expected = new ArrayList<Integer>();
+			expected.add(4);
+			expected.add(7);
+			expected.add(9);
+			assertEquals(Direction.UP, elevator.getDirection());
+			assertEquals(expected, elevator.getRequestQueue());
+		}
+		catch (NegativeFloorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
 	/**
 	 * Test of addPassenger method, of class Elevator.
 	 */
@@ -292,6 +324,38 @@ public class ElevatorTest
 		} 
 	}
 
+	/**
+	 * Only the passengers riding to the current floor should leave when the doors open, and the others should still be found and removable
+	 * after the passenger list has been rearranged.
+	 */
+	@Test
+	public void testUnloadAtDestination()
+	{
+		System.out.println("unloadAtDestination");
+		try
+		{
+			elevator.addPassengers(multiResult);
+			//the elevator is already on this Person's destination, so it opens its doors and lets them out right away
+			Person arrived = new Person(9, 3, FLOOR_ONE);
+			elevator.addPassenger(arrived);
+			ArrayList<Person> elevatorPassenger = elevator.getPassengers();
+			assertFalse(elevatorPassenger.contains(arrived));
+			assertEquals(multiResult.size(), elevatorPassenger.size());
+
+			elevator.removePassenger(multiResult.get(0));
+			assertEquals(multiResult.size() - 1, elevatorPassenger.size());
+			for(int i = 1; i < multiResult.size(); ++i)
+			{
+				elevator.removePassenger(multiResult.get(i));
+			}
+			assertTrue(elevatorPassenger.isEmpty());
+		}
+		catch (NullPassengerException | PassengerNotFoundException | NegativeFloorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
 	/**
 	 * Test of getCapacity method, of class Elevator.
 	 */
@@ -305,6 +369,41 @@ public class ElevatorTest
 		assertEquals(testResult, result);
 	}
 
+	/**
+	 * Test of getLoad and getFreeCapacityAt methods, of class Elevator.
+	 */
+	@Test
+	public void testGetFreeCapacityAt()
+	{
+		System.out.println("getFreeCapacityAt");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setElevCapacity(2);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			ControlModuleInterface controlModule = context.getControlModule();
+			ElevatorInterface freeElevator = controlModule.getElevator(1);
+			assertEquals(0, freeElevator.getLoad());
+			assertEquals(2, freeElevator.getFreeCapacityAt(5));
+
+			freeElevator.addPassenger(PersonFactory.createPerson(context, 0, 1, 4));
+			freeElevator.addPassenger(PersonFactory.createPerson(context, 1, 1, 8));
+			assertEquals(Direction.UP, freeElevator.getDirection());
+			assertEquals(2, freeElevator.getLoad());
+			assertEquals(0, freeElevator.getFreeCapacityAt(3));
+			//the first passenger gets off on floor 4, the second one on floor 8
+			assertEquals(1, freeElevator.getFreeCapacityAt(4));
+			assertEquals(1, freeElevator.getFreeCapacityAt(7));
+			assertEquals(2, freeElevator.getFreeCapacityAt(9));
+			controlModule.shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
 	/**
 	 * Test of getPassengers method, of class Elevator.
 	 */
@@ -0,0 +1,109 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pExceptions.NullPassengerException;
+import pFactories.ControlImplFactory;
+import pFactories.PersonFactory;
+import pImpls.Direction;
+import pImpls.EtaControlModule;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * Tests of the dispatcher which sends the elevator with the lowest estimated time of arrival.
+ */
+public class EtaControlModuleTest
+{
+	/**
+	 * Creates an event-driven context with the specified controller, so that elevators only move when the clock is run
+	 * @param controller the name of the controller to use
+	 * @return the new context
+	 */
+	private SimulationContext createContext(String controller)
+	{
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setController(controller);
+		return new SimulationContext(config);
+	}
+
+	/**
+	 * Test of estimateArrivalTime method, of class EtaControlModule.
+	 */
+	@Test
+	public void testEstimateArrivalTime()
+	{
+		System.out.println("estimateArrivalTime");
+		EtaControlModule controlModule = new EtaControlModule(createContext(ControlImplFactory.ETA));
+		try
+		{
+			ElevatorInterface elevator = controlModule.getElevator(1);
+			long travelTime = elevator.getSpeed();
+			long stopTime = 2L * elevator.getDoorSpeed();
+
+			//idle on the first floor
+			assertEquals(4 * travelTime, controlModule.estimateArrivalTime(elevator, 4, Direction.DOWN));
+
+			//heading up to floor 6: floor 4 is on the way, and a stop at floor 3 on the way to floor 4 costs a door cycle
+			elevator.addFloorToQueue(6);
+			assertEquals(Direction.UP, elevator.getDirection());
+			assertEquals(3 * travelTime, controlModule.estimateArrivalTime(elevator, 3, Direction.UP));
+			elevator.addFloorToQueue(3);
+			assertEquals(3 * travelTime + stopTime, controlModule.estimateArrivalTime(elevator, 3, Direction.UP));
+
+			//floor 3 and floor 8 going down can only be reached after turning around, so they are not estimated
+			assertEquals(Long.MAX_VALUE, controlModule.estimateArrivalTime(elevator, 2, Direction.DOWN));
+			assertEquals(Long.MAX_VALUE, controlModule.estimateArrivalTime(elevator, 7, Direction.DOWN));
+		}
+		catch (NegativeFloorException e)
+		{
+			fail(e.getMessage());
+		}
+		finally
+		{
+			controlModule.shutDown();
+		}
+	}
+
+	/**
+	 * The closest idle elevator should answer a call, even if it is not the first elevator.
+	 */
+	@Test
+	public void testClosestElevatorIsSent()
+	{
+		System.out.println("closestElevatorIsSent");
+		SimulationContext context = createContext(ControlImplFactory.ETA);
+		try
+		{
+			//send the first elevator to the top floor, and stop the clock before its idle timeout sends it back to the lobby
+			int topFloor = context.getConfig().getTotalFloorNumber();
+			context.getControlModule().addPersonToFloor(PersonFactory.createPerson(context, 0, 1, topFloor), 1);
+			context.getClock().runUntil(8000);
+			ElevatorInterface firstElevator = context.getControlModule().getElevator(1);
+			assertEquals(topFloor, firstElevator.getCurrentFloor());
+
+			//a call one floor below the first elevator should go to it rather than to an elevator waiting in the lobby
+			context.getControlModule().elevatorCallReceiver(topFloor - 2, Direction.DOWN);
+			assertTrue(firstElevator.getRequestQueue().contains(topFloor - 1));
+			for(int i = 2; i <= context.getControlModule().getElevatorNum(); ++i)
+			{
+				assertTrue(context.getControlModule().getElevator(i).getRequestQueue().isEmpty());
+			}
+			context.getControlModule().shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
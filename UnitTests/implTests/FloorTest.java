@@ -107,9 +107,9 @@ public class FloorTest
 		try
 		{
 			ArrayList<Person> expResult = new ArrayList<Person>();
-			ArrayList<Person> result = instance.getWaitingPeople();
 			inPerson = new Person(personSuccessID, personSuccessStartFloor, personSuccessDestinationFloor);
 			instance.addPersonToFloor(inPerson);
+			ArrayList<Person> result = instance.getWaitingPeople();
 			expResult.add(inPerson);
 			assertEquals(expResult, result);
 		}
@@ -180,6 +180,36 @@ public class FloorTest
 
 	}
 
+	/**
+	 * Test of registerHallCall, isHallCallRegistered and isHallCallCovered methods, of class Floor.
+	 */
+	@Test
+	public void testRegisterHallCall()
+	{
+		System.out.println("registerHallCall");
+		try
+		{
+			assertFalse(instance.isHallCallRegistered(Direction.UP));
+			assertFalse(instance.isHallCallCovered(Direction.UP));
+
+			instance.registerHallCall(Direction.UP, 2);
+			assertTrue(instance.isHallCallRegistered(Direction.UP));
+			assertTrue(instance.isHallCallCovered(Direction.UP));
+			assertFalse(instance.isHallCallRegistered(Direction.DOWN));
+
+			//the button goes out once an elevator opens its doors for the call
+			ElevatorInterface elevatorToEnter = new Elevator(defaultElevID, defaultElevCapacity, defaultElevMinFloors, defaultElevMaxFloors);
+			elevatorToEnter.shutDown();
+			instance.removeFromFloor(elevatorToEnter, Direction.UP);
+			assertFalse(instance.isHallCallRegistered(Direction.UP));
+			assertFalse(instance.isHallCallCovered(Direction.UP));
+		}
+		catch (NegativeCapacityException | NegativeFloorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
 	@Test
 	public void testGetWaitingPeople()
 	{
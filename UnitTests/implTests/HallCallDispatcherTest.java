@@ -0,0 +1,216 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pImpls.AbstractControlModule;
+import pImpls.Direction;
+import pImpls.ElevatorControlModule;
+import pImpls.HallCallDispatcher;
+import pImpls.SimulationConfig;
+import pImpls.SimulationConsole;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * Tests of the thread that assigns the hall calls of a threaded simulation.
+ */
+public class HallCallDispatcherTest
+{
+	/**
+	 * Creates the control module of a threaded simulation from the xmlInputs file
+	 * @return the control module, whose dispatcher thread is running
+	 */
+	private ElevatorControlModule createControlModule() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	{
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.THREADED_ENGINE);
+		config.setConsole(SimulationConsole.CONSOLE_OFF);
+		return (ElevatorControlModule) new SimulationContext(config).getControlModule();
+	}
+
+	/**
+	 * Tasks should run on the dispatcher thread, handed-over tasks right away and scheduled tasks once their delay has passed.
+	 */
+	@Test
+	public void testTasks()
+	{
+		System.out.println("tasks");
+		ElevatorControlModule controlModule = null;
+		try
+		{
+			controlModule = createControlModule();
+			HallCallDispatcher dispatcher = controlModule.getDispatcher();
+			final ArrayList<String> order = new ArrayList<String>();
+			final CountDownLatch done = new CountDownLatch(2);
+			long tStart = System.nanoTime();
+			dispatcher.schedule(50, new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					synchronized(order)
+					{
+						order.add("scheduled " + Thread.currentThread().getName());
+					}
+					done.countDown();
+				}
+			});
+			dispatcher.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					synchronized(order)
+					{
+						order.add("executed " + Thread.currentThread().getName());
+					}
+					done.countDown();
+				}
+			});
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			assertTrue(System.nanoTime() - tStart >= TimeUnit.MILLISECONDS.toNanos(50));
+			synchronized(order)
+			{
+				assertEquals("executed hall-call-dispatcher", order.get(0));
+				assertEquals("scheduled hall-call-dispatcher", order.get(1));
+			}
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | InterruptedException e)
+		{
+			fail(e.getMessage());
+		}
+		finally
+		{
+			if(controlModule != null)
+			{
+				controlModule.shutDown();
+			}
+		}
+	}
+
+	/**
+	 * A call that finds the buffer full should be deferred straight away instead of waiting for the dispatcher thread to make room, and should
+	 * be retried once the buffer has been emptied.
+	 */
+	@Test
+	public void testFullBuffer()
+	{
+		System.out.println("fullBuffer");
+		ElevatorControlModule controlModule = null;
+		try
+		{
+			controlModule = createControlModule();
+			HallCallDispatcher dispatcher = controlModule.getDispatcher();
+			AbstractControlModule delegate = (AbstractControlModule) controlModule.getDelegate();
+			final CountDownLatch dispatcherBlocked = new CountDownLatch(1);
+			final CountDownLatch release = new CountDownLatch(1);
+			dispatcher.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					dispatcherBlocked.countDown();
+					try
+					{
+						release.await();
+					}
+					catch (InterruptedException e)
+					{
+						e.printStackTrace();
+					}
+				}
+			});
+			assertTrue(dispatcherBlocked.await(5, TimeUnit.SECONDS));
+			for(int i = 0; i < HallCallDispatcher.QUEUE_SIZE; ++i)
+			{
+				dispatcher.submit(0, Direction.UP);
+			}
+			assertEquals(0, dispatcher.getOverflowCount());
+
+			dispatcher.submit(1, Direction.UP);
+			assertEquals(1, dispatcher.getOverflowCount());
+			assertEquals(1, delegate.getPendingCalls().size());
+			assertEquals(1, delegate.getPendingCalls().getTotalDeferred());
+
+			release.countDown();
+			long tEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while(delegate.getPendingCalls().size() > 0 && System.nanoTime() - tEnd < 0)
+			{
+				Thread.sleep(10);
+			}
+			assertEquals(0, delegate.getPendingCalls().size());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | InterruptedException e)
+		{
+			fail(e.getMessage());
+		}
+		finally
+		{
+			if(controlModule != null)
+			{
+				controlModule.shutDown();
+			}
+		}
+	}
+
+	/**
+	 * A task that throws should be reported without stopping the dispatcher thread, so calls made afterwards are still dispatched.
+	 */
+	@Test
+	public void testFailingTask()
+	{
+		System.out.println("failingTask");
+		ElevatorControlModule controlModule = null;
+		try
+		{
+			controlModule = createControlModule();
+			HallCallDispatcher dispatcher = controlModule.getDispatcher();
+			dispatcher.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					throw new IllegalStateException("failing task");
+				}
+			});
+			int topFloor = controlModule.getMaxFloors() - 1;
+			dispatcher.submit(topFloor, Direction.DOWN);
+
+			boolean bDispatched = false;
+			long tEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while(!bDispatched && System.nanoTime() - tEnd < 0)
+			{
+				for(int i = 1; i <= controlModule.getElevatorNum(); ++i)
+				{
+					ElevatorInterface elevator = controlModule.getElevator(i);
+					bDispatched |= elevator.getRequestQueue().contains(topFloor + 1) || elevator.getCurrentFloor() != 1;
+				}
+				Thread.sleep(10);
+			}
+			assertTrue(bDispatched);
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | InterruptedException e)
+		{
+			fail(e.getMessage());
+		}
+		finally
+		{
+			if(controlModule != null)
+			{
+				controlModule.shutDown();
+			}
+		}
+	}
+}
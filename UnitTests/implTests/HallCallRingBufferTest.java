@@ -0,0 +1,130 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import pImpls.Direction;
+import pImpls.HallCall;
+import pImpls.HallCallRingBuffer;
+
+/**
+ * Tests of the lock-free buffer that hall calls are queued in for the dispatcher thread.
+ */
+public class HallCallRingBufferTest
+{
+	/**
+	 * Calls should come out in the order they went in, and a full buffer should refuse new calls until one is taken out.
+	 */
+	@Test
+	public void testOfferAndPoll()
+	{
+		System.out.println("offerAndPoll");
+		HallCallRingBuffer instance = new HallCallRingBuffer(4);
+		assertTrue(instance.isEmpty());
+		assertNull(instance.poll());
+		//wrap around the buffer a few times
+		for(int lap = 0; lap < 3; ++lap)
+		{
+			for(int i = 0; i < 4; ++i)
+			{
+				assertTrue(instance.offer(new HallCall(i, Direction.UP)));
+			}
+			assertFalse(instance.offer(new HallCall(4, Direction.UP)));
+			assertEquals(new HallCall(0, Direction.UP), instance.poll());
+			assertTrue(instance.offer(new HallCall(4, Direction.DOWN)));
+
+			ArrayList<HallCall> batch = new ArrayList<HallCall>();
+			assertEquals(2, instance.drainTo(batch, 2));
+			assertEquals(new HallCall(1, Direction.UP), batch.get(0));
+			assertEquals(new HallCall(2, Direction.UP), batch.get(1));
+			assertEquals(2, instance.drainTo(batch, 10));
+			assertEquals(new HallCall(4, Direction.DOWN), batch.get(3));
+			assertTrue(instance.isEmpty());
+		}
+	}
+
+	/**
+	 * The capacity must be a power of two.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity()
+	{
+		System.out.println("invalidCapacity");
+		new HallCallRingBuffer(6);
+	}
+
+	/**
+	 * Calls offered by several threads at once should each be taken out exactly once, and the calls of every thread in the order that thread
+	 * offered them.
+	 */
+	@Test
+	public void testConcurrentProducers()
+	{
+		System.out.println("concurrentProducers");
+		final int producerNum = 4;
+		final int callsPerProducer = 20000;
+		final HallCallRingBuffer instance = new HallCallRingBuffer(64);
+		Thread[] producers = new Thread[producerNum];
+		for(int p = 0; p < producerNum; ++p)
+		{
+			final int producerId = p;
+			producers[p] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					for(int i = 0; i < callsPerProducer; ++i)
+					{
+						//the floor number encodes both the producer and the position of the call
+						HallCall call = new HallCall(i * producerNum + producerId, Direction.UP);
+						while(!instance.offer(call))
+						{
+							Thread.yield();
+						}
+					}
+				}
+			});
+			producers[p].start();
+		}
+
+		int[] nextCall = new int[producerNum];
+		int taken = 0;
+		long deadline = System.currentTimeMillis() + 30000;
+		while(taken < producerNum * callsPerProducer)
+		{
+			if(System.currentTimeMillis() > deadline)
+			{
+				fail("Only " + taken + " calls were taken out of the buffer");
+			}
+			HallCall call = instance.poll();
+			if(call == null)
+			{
+				Thread.yield();
+				continue;
+			}
+			int producerId = call.getFloorNumber() % producerNum;
+			assertEquals(nextCall[producerId], call.getFloorNumber() / producerNum);
+			nextCall[producerId]++;
+			taken++;
+		}
+		try
+		{
+			for(Thread producer : producers)
+			{
+				producer.join();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			fail(e.getMessage());
+		}
+		assertTrue(instance.isEmpty());
+	}
+}
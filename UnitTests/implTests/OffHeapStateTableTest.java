@@ -0,0 +1,157 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pImpls.Direction;
+import pImpls.OffHeapStateTable;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+
+/**
+ * Tests of the off-heap block of elevator and floor state.
+ */
+public class OffHeapStateTableTest
+{
+	/**
+	 * Elevator records should keep their values, including stops on both sides of a word boundary, and should only be handed out once.
+	 */
+	@Test
+	public void testElevatorRecords()
+	{
+		System.out.println("elevatorRecords");
+		OffHeapStateTable instance = new OffHeapStateTable(2, 100);
+		int first = instance.registerElevator();
+		int second = instance.registerElevator();
+		assertEquals(0, first);
+		assertEquals(1, second);
+		assertEquals(-1, instance.registerElevator());
+		assertEquals(Direction.IDLE, instance.getElevatorDirection(first));
+		assertTrue(instance.isElevatorActive(first));
+
+		instance.setElevatorFloor(second, 42);
+		instance.setElevatorDirection(second, Direction.DOWN);
+		instance.setElevatorLoad(second, 7);
+		instance.addStop(second, 63);
+		instance.addStop(second, 64);
+		instance.addStop(second, 99);
+		instance.addStop(second, 99);
+		instance.removeStop(second, 64);
+		assertEquals(42, instance.getElevatorFloor(second));
+		assertEquals(Direction.DOWN, instance.getElevatorDirection(second));
+		assertEquals(7, instance.getElevatorLoad(second));
+		assertTrue(instance.hasStop(second, 63));
+		assertFalse(instance.hasStop(second, 64));
+		assertTrue(instance.hasStop(second, 99));
+		assertEquals(2, instance.getStopCount(second));
+		assertEquals(0, instance.getStopCount(first));
+		assertEquals(0, instance.getElevatorFloor(first));
+
+		instance.releaseElevator(second);
+		assertFalse(instance.isElevatorActive(second));
+	}
+
+	/**
+	 * Only idle elevators and elevators that have not passed the floor of a call in its direction should answer it.
+	 */
+	@Test
+	public void testFindNearestElevator()
+	{
+		System.out.println("findNearestElevator");
+		OffHeapStateTable instance = new OffHeapStateTable(4, 20);
+		assertEquals(-1, instance.findNearestElevator(5, Direction.UP));
+		int idle = instance.registerElevator();
+		int goingUp = instance.registerElevator();
+		int goingDown = instance.registerElevator();
+		instance.setElevatorFloor(idle, 15);
+		instance.setElevatorFloor(goingUp, 8);
+		instance.setElevatorDirection(goingUp, Direction.UP);
+		instance.setElevatorFloor(goingDown, 12);
+		instance.setElevatorDirection(goingDown, Direction.DOWN);
+
+		assertEquals(goingUp, instance.findNearestElevator(10, Direction.UP));
+		assertEquals(idle, instance.findNearestElevator(5, Direction.UP));
+		assertEquals(goingDown, instance.findNearestElevator(10, Direction.DOWN));
+		assertEquals(idle, instance.findNearestElevator(14, Direction.DOWN));
+
+		instance.releaseElevator(idle);
+		assertEquals(-1, instance.findNearestElevator(5, Direction.UP));
+	}
+
+	/**
+	 * Floor records should keep the waiting counts and hall buttons of each direction apart.
+	 */
+	@Test
+	public void testFloorRecords()
+	{
+		System.out.println("floorRecords");
+		OffHeapStateTable instance = new OffHeapStateTable(1, 10);
+		instance.setWaiting(9, Direction.UP, 3);
+		instance.setWaiting(9, Direction.DOWN, 5);
+		instance.setHallCall(9, Direction.DOWN, true);
+		assertEquals(3, instance.getWaiting(9, Direction.UP));
+		assertEquals(5, instance.getWaiting(9, Direction.DOWN));
+		assertFalse(instance.isHallCallRegistered(9, Direction.UP));
+		assertTrue(instance.isHallCallRegistered(9, Direction.DOWN));
+		instance.setHallCall(9, Direction.DOWN, false);
+		assertFalse(instance.isHallCallRegistered(9, Direction.DOWN));
+		assertEquals(0, instance.getWaiting(8, Direction.UP));
+	}
+
+	/**
+	 * Records outside of the table should be refused.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testFloorOutOfRange()
+	{
+		System.out.println("floorOutOfRange");
+		OffHeapStateTable instance = new OffHeapStateTable(1, 10);
+		instance.addStop(instance.registerElevator(), 10);
+	}
+
+	/**
+	 * A simulation that keeps its state off the heap should run exactly like one that keeps it on the heap.
+	 */
+	@Test
+	public void testSimulationState()
+	{
+		System.out.println("simulationState");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setSeed(25);
+		SimulationContext heapContext = new SimulationContext(config);
+		assertNull(heapContext.getStateTable());
+
+		config.setStateStorage(OffHeapStateTable.OFF_HEAP_STATE);
+		SimulationContext offHeapContext = new SimulationContext(config);
+		OffHeapStateTable table = offHeapContext.getStateTable();
+		assertNotNull(table);
+		try
+		{
+			heapContext.getEnvironment().startSimulation();
+			offHeapContext.getEnvironment().startSimulation();
+			assertEquals(heapContext.getStatistics().getPeopleCreated(), offHeapContext.getStatistics().getPeopleCreated());
+			assertEquals(heapContext.getStatistics().getPeopleDelivered(), offHeapContext.getStatistics().getPeopleDelivered());
+			assertEquals(heapContext.getStatistics().getAverageWaitTime(), offHeapContext.getStatistics().getAverageWaitTime(), 0);
+			for(int i = 1; i <= config.getTotalElevatorNumber(); ++i)
+			{
+				assertEquals(heapContext.getControlModule().getElevator(i).getCurrentFloor(), offHeapContext.getControlModule().getElevator(i).getCurrentFloor());
+				assertEquals(heapContext.getControlModule().getElevator(i).getLoad(), table.getElevatorLoad(i - 1));
+			}
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pFactories.PersonFactory;
+import pImpls.PassengerStore;
+import pImpls.Person;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+
+/**
+ * Tests of the compact per-passenger records.
+ */
+public class PassengerStoreTest
+{
+	/**
+	 * Records should keep their values across chunk boundaries, and deliveries should only be counted once.
+	 */
+	@Test
+	public void testAddAndDeliver()
+	{
+		System.out.println("addAndDeliver");
+		PassengerStore instance = new PassengerStore();
+		int recordNum = 100000;
+		for(int i = 0; i < recordNum; ++i)
+		{
+			assertEquals(i, instance.add(i * 3, 1 + i % 7, 2 + i % 5, i * 10L));
+		}
+		assertEquals(recordNum, instance.size());
+		assertEquals(0, instance.getDeliveredCount());
+
+		int record = 70001;
+		assertEquals(record * 3, instance.getId(record));
+		assertEquals(1 + record % 7, instance.getOrigin(record));
+		assertEquals(2 + record % 5, instance.getDestination(record));
+		assertEquals(record * 10L, instance.getArrivalTime(record));
+		assertEquals(PassengerStore.NOT_YET, instance.getDeliveryTime(record));
+
+		instance.recordDelivery(record, 700020, 705000);
+		instance.recordDelivery(record, 700020, 705000);
+		assertEquals(1, instance.getDeliveredCount());
+		assertEquals(700020, instance.getBoardingTime(record));
+		assertEquals(705000, instance.getDeliveryTime(record));
+		assertEquals(PassengerStore.NOT_YET, instance.getDeliveryTime(record + 1));
+	}
+
+	/**
+	 * Times that do not fit into a record should be refused.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTimeOutOfRange()
+	{
+		System.out.println("timeOutOfRange");
+		new PassengerStore().add(0, 1, 2, Integer.MAX_VALUE + 1L);
+	}
+
+	/**
+	 * A simulation that keeps passenger records should have one for every Person it created, completed for every Person it delivered, and
+	 * a Person rebuilt from a record should match it.
+	 */
+	@Test
+	public void testSimulationRecords()
+	{
+		System.out.println("simulationRecords");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setSeed(24);
+		assertNull(new SimulationContext(config).getPassengerStore());
+
+		config.setPassengerRecords(PassengerStore.COMPACT_RECORDS);
+		SimulationContext context = new SimulationContext(config);
+		try
+		{
+			context.getEnvironment().startSimulation();
+			PassengerStore store = context.getPassengerStore();
+			assertEquals(context.getStatistics().getPeopleCreated(), store.size());
+			assertEquals(context.getStatistics().getPeopleDelivered(), store.getDeliveredCount());
+			assertTrue(store.size() > 0);
+			for(int record = 0; record < store.size(); ++record)
+			{
+				if(store.getDeliveryTime(record) != PassengerStore.NOT_YET)
+				{
+					assertTrue(store.getBoardingTime(record) >= store.getArrivalTime(record));
+					assertTrue(store.getDeliveryTime(record) >= store.getBoardingTime(record));
+				}
+			}
+
+			Person view = PersonFactory.createPerson(context, store, 0);
+			assertEquals(store.getId(0), view.getID());
+			assertEquals(store.getOrigin(0), view.getCurrentFloor());
+			assertEquals(store.getDestination(0), view.getDestinationFloor());
+			assertEquals(store.getArrivalTime(0), view.getArrivalTime());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pImpls.SimulationClock;
+import pImpls.SimulationEvent;
+
+/**
+ * Tests the event ordering of the discrete-event SimulationClock.
+ */
+public class SimulationClockTest
+{
+	private SimulationClock clock;
+	private ArrayList<String> firedEvents;
+
+	@Before
+	public void setUp()
+	{
+		clock = new SimulationClock();
+		firedEvents = new ArrayList<String>();
+	}
+
+	/**
+	 * Events should fire in order of their timestamps, with ties broken by the order in which they were scheduled.
+	 */
+	@Test
+	public void testEventOrdering()
+	{
+		System.out.println("eventOrdering");
+		clock.schedule(500, record("c"));
+		clock.schedule(100, record("a"));
+		clock.schedule(500, record("d"));
+		clock.schedule(100, record("b"));
+		clock.runUntil(1000);
+
+		ArrayList<String> expResult = new ArrayList<String>();
+		expResult.add("a@100");
+		expResult.add("b@100");
+		expResult.add("c@500");
+		expResult.add("d@500");
+		assertEquals(expResult, firedEvents);
+		assertEquals(1000, clock.getCurrentTime());
+	}
+
+	/**
+	 * Events scheduled from inside another event are relative to the time of the event that scheduled them, and events past the end time stay queued.
+	 */
+	@Test
+	public void testRunUntil()
+	{
+		System.out.println("runUntil");
+		clock.schedule(100, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				firedEvents.add("first@" + clock.getCurrentTime());
+				clock.schedule(250, record("second"));
+				clock.schedule(5000, record("late"));
+			}
+		});
+		clock.runUntil(1000);
+
+		assertEquals(2, firedEvents.size());
+		assertEquals("first@100", firedEvents.get(0));
+		assertEquals("second@350", firedEvents.get(1));
+		assertEquals(1, clock.getPendingEventCount());
+		assertEquals(2, clock.getEventsFired());
+	}
+
+	/**
+	 * Cancelled events should never fire.
+	 */
+	@Test
+	public void testCancel()
+	{
+		System.out.println("cancel");
+		SimulationEvent cancelled = clock.schedule(10, record("cancelled"));
+		clock.schedule(20, record("kept"));
+		cancelled.cancel();
+		clock.runUntil(100);
+
+		assertTrue(cancelled.isCancelled());
+		assertEquals(1, firedEvents.size());
+		assertEquals("kept@20", firedEvents.get(0));
+	}
+
+	/**
+	 * Scheduling an event in the past is not allowed.
+	 */
+	@Test
+	public void testNegativeDelay()
+	{
+		System.out.println("negativeDelay");
+		try
+		{
+			clock.schedule(-1, record("never"));
+			fail("The preceeding call was supposed to throw an exception!");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//eat the exception because it is expected behavior when scheduling an event in the past
+		}
+	}
+
+	private Runnable record(final String name)
+	{
+		return new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				firedEvents.add(name + "@" + clock.getCurrentTime());
+			}
+		};
+	}
+}
@@ -0,0 +1,188 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.PrintStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pExceptions.NullPassengerException;
+import pFactories.PersonFactory;
+import pImpls.ElevatorControlModule;
+import pImpls.SimulationConfig;
+import pImpls.SimulationConsole;
+import pImpls.SimulationContext;
+import pImpls.XmlParser;
+import pInterfaces.ControlModuleInterface;
+
+/**
+ * Tests that simulations in separate SimulationContexts do not share any state.
+ */
+public class SimulationContextTest
+{
+	private SimulationContext firstBuilding;
+	private SimulationContext secondBuilding;
+
+	@Before
+	public void setUp()
+	{
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		firstBuilding = new SimulationContext(config);
+		secondBuilding = new SimulationContext(config);
+	}
+
+	@After
+	public void tearDown()
+	{
+		try
+		{
+			firstBuilding.getControlModule().shutDown();
+			secondBuilding.getControlModule().shutDown();
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Each context should own its own clock, statistics and control module, none of which belong to the default context.
+	 */
+	@Test
+	public void testIsolation()
+	{
+		System.out.println("isolation");
+		try
+		{
+			ControlModuleInterface firstModule = firstBuilding.getControlModule();
+			ControlModuleInterface secondModule = secondBuilding.getControlModule();
+
+			assertSame(firstModule, firstBuilding.getControlModule());
+			assertNotSame(firstModule, secondModule);
+			assertNotSame(firstModule, ElevatorControlModule.getInstance());
+			assertNotSame(firstModule.getElevator(1), secondModule.getElevator(1));
+			assertNotSame(firstBuilding.getClock(), secondBuilding.getClock());
+			assertNotSame(firstBuilding.getStatistics(), secondBuilding.getStatistics());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * A passenger delivered in one building should only show up in that building's statistics.
+	 */
+	@Test
+	public void testSeparateSimulations()
+	{
+		System.out.println("separateSimulations");
+		try
+		{
+			firstBuilding.getControlModule().addPersonToFloor(PersonFactory.createPerson(firstBuilding, 0, 1, 3), 1);
+			firstBuilding.getClock().runUntil(60000);
+			secondBuilding.getClock().runUntil(60000);
+
+			assertEquals(1, firstBuilding.getStatistics().getPeopleDelivered());
+			assertEquals(0, secondBuilding.getStatistics().getPeopleDelivered());
+			assertTrue(secondBuilding.getControlModule().getElevator(1).getPassengers().isEmpty());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException | NullPassengerException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Two runs with the same seed should make exactly the same decisions, and a run with a different seed should not.
+	 */
+	@Test
+	public void testSeededReplay()
+	{
+		System.out.println("seededReplay");
+		try
+		{
+			long firstChecksum = runSeeded(42);
+			long secondChecksum = runSeeded(42);
+			long otherChecksum = runSeeded(43);
+
+			assertEquals(firstChecksum, secondChecksum);
+			assertNotEquals(firstChecksum, otherChecksum);
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Named random streams should depend only on the seed and the name.
+	 */
+	@Test
+	public void testRandomStreams()
+	{
+		System.out.println("randomStreams");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setSeed(7);
+		SimulationContext first = new SimulationContext(config);
+		SimulationContext second = new SimulationContext(config);
+
+		assertEquals(7, first.getSeed());
+		assertEquals(first.createRandomStream("arrivals").nextLong(), second.createRandomStream("arrivals").nextLong());
+		assertNotEquals(first.createRandomStream("arrivals").nextLong(), first.createRandomStream("parking").nextLong());
+	}
+
+	/**
+	 * A quiet console should drop the messages of its own simulation without touching System.out or changing any decision.
+	 */
+	@Test
+	public void testQuietConsole()
+	{
+		System.out.println("quietConsole");
+		PrintStream console = System.out;
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setSeed(42);
+		config.setConsole(SimulationConsole.CONSOLE_OFF);
+		SimulationContext context = new SimulationContext(config);
+		assertFalse(context.getConsole().isEnabled());
+		assertTrue(firstBuilding.getConsole().isEnabled());
+		try
+		{
+			context.getEnvironment().startSimulation();
+			assertSame(console, System.out);
+			assertEquals(runSeeded(42), context.getEventLog().getChecksum());
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Runs a whole event-driven simulation in a new context with the given seed
+	 * @param seed the seed of the run
+	 * @return the checksum of the run's event log
+	 */
+	private long runSeeded(long seed) throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	{
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setSeed(seed);
+		SimulationContext context = new SimulationContext(config);
+		context.getEnvironment().startSimulation();
+		return context.getEventLog().getChecksum();
+	}
+}
@@ -0,0 +1,139 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pImpls.SimulationConfig;
+import pImpls.SimulationContext;
+import pImpls.TraceArrival;
+import pImpls.TraceReader;
+import pImpls.XmlParser;
+
+/**
+ * Tests of streaming recorded arrivals from a trace file.
+ */
+public class TraceReaderTest
+{
+	/**
+	 * Writes a small trace with a header, a comment, a blank line and Windows line endings
+	 * @return the trace file
+	 */
+	private File writeTrace() throws IOException
+	{
+		File traceFile = File.createTempFile("trace", ".csv");
+		traceFile.deleteOnExit();
+		FileWriter writer = new FileWriter(traceFile);
+		writer.write("timestamp,start,destination\n# recorded on the first floor badge readers\n1000,1,5\r\n\n61000, 3 ,1\n121000,2,4");
+		writer.close();
+		return traceFile;
+	}
+
+	/**
+	 * Every arrival should be read in order, even when lines straddle the boundary of the read buffer.
+	 */
+	@Test
+	public void testNext()
+	{
+		System.out.println("next");
+		try
+		{
+			File traceFile = writeTrace();
+			TraceReader traceReader = new TraceReader(traceFile.toPath(), 4);
+			TraceArrival arrival = traceReader.next();
+			assertEquals(1000, arrival.getTimestamp());
+			assertEquals(1, arrival.getStartFloor());
+			assertEquals(5, arrival.getDestinationFloor());
+			arrival = traceReader.next();
+			assertEquals(61000, arrival.getTimestamp());
+			assertEquals(3, arrival.getStartFloor());
+			assertEquals(1, arrival.getDestinationFloor());
+			arrival = traceReader.next();
+			assertEquals(121000, arrival.getTimestamp());
+			assertEquals(4, arrival.getDestinationFloor());
+			assertNull(traceReader.next());
+			traceReader.close();
+		}
+		catch (IOException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * A header may follow comments, but a line that is not an arrival after the first arrival should be reported.
+	 */
+	@Test
+	public void testHeaderAfterComment()
+	{
+		System.out.println("headerAfterComment");
+		try
+		{
+			File traceFile = File.createTempFile("trace", ".csv");
+			traceFile.deleteOnExit();
+			FileWriter writer = new FileWriter(traceFile);
+			writer.write("# exported from the badge readers\n\ntimestamp,start,destination\n1000,1,5\ntimestamp,start,destination\n");
+			writer.close();
+			TraceReader traceReader = new TraceReader(traceFile.toPath());
+			assertEquals(1000, traceReader.next().getTimestamp());
+			try
+			{
+				traceReader.next();
+				fail("A second header should be reported");
+			}
+			catch (IOException e)
+			{
+			}
+			traceReader.close();
+		}
+		catch (IOException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * A trace cannot be replayed with a compression of 0 or less.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveCompression()
+	{
+		System.out.println("nonPositiveCompression");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setTraceCompression(0);
+	}
+
+	/**
+	 * Every arrival of the trace within the simulated duration should become a passenger.
+	 */
+	@Test
+	public void testReplay()
+	{
+		System.out.println("replay");
+		try
+		{
+			SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+			config.setEngine(XmlParser.EVENT_ENGINE);
+			config.setTracePath(writeTrace().getPath());
+			config.setTraceCompression(60);
+			SimulationContext context = new SimulationContext(config);
+			context.getEnvironment().startSimulation();
+
+			assertEquals(3, context.getStatistics().getPeopleCreated());
+			assertEquals(3, context.getStatistics().getPeopleDelivered());
+		}
+		catch (IOException | NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package UnitTests.implTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import pFactories.ArrivalProcessFactory;
+import pImpls.SimulationConfig;
+import pImpls.TrafficProfile;
+import pImpls.TrafficWindow;
+import pImpls.XmlParser;
+
+/**
+ * Tests of the traffic windows and profiles which decide when passengers arrive and where they travel.
+ */
+public class TrafficProfileTest
+{
+	/**
+	 * Most up-peak trips should start at the lobby, most down-peak trips should end there, and no trip should start and end on the same floor.
+	 */
+	@Test
+	public void testPatterns()
+	{
+		System.out.println("patterns");
+		TrafficWindow upPeak = new TrafficWindow(0, 60000, 10, TrafficWindow.createPattern(TrafficWindow.UP_PEAK, 10));
+		TrafficWindow downPeak = new TrafficWindow(0, 60000, 10, TrafficWindow.createPattern(TrafficWindow.DOWN_PEAK, 10));
+		Random randomGenerator = new Random(1);
+		int fromLobby = 0;
+		int toLobby = 0;
+		int trips = 10000;
+		for(int i = 0; i < trips; ++i)
+		{
+			int[] upTrip = upPeak.pickTrip(randomGenerator);
+			int[] downTrip = downPeak.pickTrip(randomGenerator);
+			assertTrue(upTrip[0] != upTrip[1]);
+			assertTrue(downTrip[0] != downTrip[1]);
+			assertTrue(upTrip[0] >= 1 && upTrip[0] <= 10 && upTrip[1] >= 1 && upTrip[1] <= 10);
+			fromLobby += upTrip[0] == 1 ? 1 : 0;
+			toLobby += downTrip[1] == 1 ? 1 : 0;
+		}
+		assertEquals(0.91, (double) fromLobby / trips, 0.02);
+		assertEquals(0.91, (double) toLobby / trips, 0.02);
+	}
+
+	/**
+	 * A matrix with a single non-zero trip should only ever produce that trip.
+	 */
+	@Test
+	public void testExplicitMatrix()
+	{
+		System.out.println("explicitMatrix");
+		double[][] odMatrix = new double[3][3];
+		odMatrix[2][1] = 5;
+		TrafficWindow window = new TrafficWindow(0, 60000, 10, odMatrix);
+		Random randomGenerator = new Random(1);
+		for(int i = 0; i < 100; ++i)
+		{
+			int[] trip = window.pickTrip(randomGenerator);
+			assertEquals(3, trip[0]);
+			assertEquals(2, trip[1]);
+		}
+	}
+
+	/**
+	 * Arrivals should follow the rate of the window they fall in, and nobody should arrive during a window with no traffic.
+	 */
+	@Test
+	public void testWindows()
+	{
+		System.out.println("windows");
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		int floors = config.getTotalFloorNumber();
+		config.setArrivalProcess(ArrivalProcessFactory.DETERMINISTIC);
+		ArrayList<TrafficWindow> windows = new ArrayList<TrafficWindow>();
+		windows.add(new TrafficWindow(0, 60000, 0, TrafficWindow.createPattern(TrafficWindow.UNIFORM, floors)));
+		windows.add(new TrafficWindow(60000, 120000, 6, TrafficWindow.createPattern(TrafficWindow.UP_PEAK, floors)));
+		windows.add(new TrafficWindow(120000, 180000, 2, TrafficWindow.createPattern(TrafficWindow.DOWN_PEAK, floors)));
+		config.setTrafficWindows(windows);
+		TrafficProfile profile = new TrafficProfile(config);
+		Random randomGenerator = new Random(1);
+
+		long time = profile.nextArrivalTime(0, randomGenerator);
+		assertEquals(70000, time);
+		int arrivals = 0;
+		while(time < 180000)
+		{
+			assertTrue(profile.pickTrip(time, randomGenerator) != null);
+			arrivals++;
+			time = profile.nextArrivalTime(time, randomGenerator);
+		}
+		//5 arrivals at 70-110 seconds and 1 at 150 seconds. The next one would be at 180 seconds, which is after the profile ends
+		assertEquals(6, arrivals);
+		assertEquals(Long.MAX_VALUE, time);
+	}
+
+	/**
+	 * The trafficProfile element of an xmlInputs file should be read into windows.
+	 */
+	@Test
+	public void testParse()
+	{
+		System.out.println("parse");
+		try
+		{
+			File xmlFile = File.createTempFile("trafficProfile", ".xml");
+			xmlFile.deleteOnExit();
+			FileWriter writer = new FileWriter(xmlFile);
+			writer.write("<Input><floors>3</floors><elevators>1</elevators><elevTravelTime>500</elevTravelTime><elevDoorTime>500</elevDoorTime>"
+					+ "<peoplePerMin>4</peoplePerMin><duration>10</duration><elevCapacity>10</elevCapacity><doorSpeed>5</doorSpeed>"
+					+ "<trafficProfile><window start=\"0\" end=\"5\" pattern=\"upPeak\" peoplePerMin=\"30\"/>"
+					+ "<window start=\"5\" end=\"10\"><row>0 0 0</row><row>0 0 0</row><row>1, 0, 0</row></window></trafficProfile></Input>");
+			writer.close();
+
+			SimulationConfig config = XmlParser.parse(xmlFile);
+			ArrayList<TrafficWindow> windows = config.getTrafficWindows();
+			assertEquals(2, windows.size());
+			assertEquals(30, windows.get(0).getPeoplePerMin(), 1e-9);
+			assertEquals(300000, windows.get(1).getStartTime());
+			assertEquals(4, windows.get(1).getPeoplePerMin(), 1e-9);
+			assertEquals(3, windows.get(1).pickTrip(new Random(1))[0]);
+		}
+		catch (IOException e)
+		{
+			fail(e.getMessage());
+		}
+	}
+}
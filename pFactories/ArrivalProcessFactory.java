@@ -0,0 +1,82 @@
+package pFactories;
+import pImpls.BurstArrivalProcess;
+import pImpls.DeterministicArrivalProcess;
+import pImpls.EmpiricalArrivalProcess;
+import pImpls.PoissonArrivalProcess;
+import pImpls.SimulationConfig;
+import pInterfaces.ArrivalProcessInterface;
+
+/**
+ * Factory class for arrival processes. An instance of this class is not necessary to create such objects.
+ */
+public class ArrivalProcessFactory
+{
+	/**
+	 * Value of the optional arrivalProcess element which selects exponentially distributed inter-arrival times. This is the default.
+	 */
+	public static final String POISSON = "poisson";
+
+	/**
+	 * Value of the optional arrivalProcess element which selects evenly spaced arrivals
+	 */
+	public static final String DETERMINISTIC = "deterministic";
+
+	/**
+	 * Value of the optional arrivalProcess element which selects inter-arrival times drawn from the arrivalSamples element
+	 */
+	public static final String EMPIRICAL = "empirical";
+
+	/**
+	 * Value of the optional arrivalProcess element which selects the original behaviour of creating every passenger of a minute at once
+	 */
+	public static final String BURST = "burst";
+
+	/**
+	 * Static factory method used to create the arrival process described by a configuration.
+	 * @param config the configuration whose arrivalProcess, peoplePerMin and arrivalSamples elements describe the arrival process. The
+	 * empirical arrival process keeps the rate of its samples and ignores peoplePerMin.
+	 * @return a new arrival process. Every simulation should create its own, since some arrival processes keep state between arrivals.
+	 * @throws IllegalArgumentException if the arrivalProcess element names an unknown arrival process, or if the arrival process cannot be
+	 * created from the rest of the configuration
+	 */
+	public static ArrivalProcessInterface createArrivalProcess(SimulationConfig config)
+	{
+		if(EMPIRICAL.equalsIgnoreCase(config.getArrivalProcess()))
+		{
+			return EmpiricalArrivalProcess.parse(config.getArrivalSamples());
+		}
+		return createArrivalProcess(config, config.getPeoplePerMin());
+	}
+
+	/**
+	 * Static factory method used to create the arrival process described by a configuration, with a different arrival rate. Used by the
+	 * windows of a TrafficProfile, which each have their own rate.
+	 * @param config the configuration whose arrivalProcess and arrivalSamples elements describe the arrival process
+	 * @param peoplePerMin the average number of passengers that should arrive every minute. The empirical arrival process scales its samples
+	 * to this rate, keeping the shape of their distribution.
+	 * @return a new arrival process
+	 * @throws IllegalArgumentException if the arrivalProcess element names an unknown arrival process, or if the arrival process cannot be
+	 * created from the rest of the configuration
+	 */
+	public static ArrivalProcessInterface createArrivalProcess(SimulationConfig config, double peoplePerMin)
+	{
+		String processName = config.getArrivalProcess();
+		if(POISSON.equalsIgnoreCase(processName))
+		{
+			return new PoissonArrivalProcess(peoplePerMin);
+		}
+		else if(DETERMINISTIC.equalsIgnoreCase(processName))
+		{
+			return new DeterministicArrivalProcess(peoplePerMin);
+		}
+		else if(EMPIRICAL.equalsIgnoreCase(processName))
+		{
+			return EmpiricalArrivalProcess.parse(config.getArrivalSamples()).scaledTo(peoplePerMin);
+		}
+		else if(BURST.equalsIgnoreCase(processName))
+		{
+			return new BurstArrivalProcess((int) Math.max(1, Math.round(peoplePerMin)));
+		}
+		throw new IllegalArgumentException("Unknown arrival process: " + processName);
+	}
+}
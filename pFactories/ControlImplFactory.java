@@ -1,16 +1,186 @@
 package pFactories;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
 import pExceptions.NegativeCapacityException;
 import pExceptions.NegativeElevatorException;
 import pExceptions.NegativeFloorException;
+import pImpls.AbstractControlModule;
+import pImpls.BatchControlModule;
+import pImpls.DestinationDispatchControlModule;
 import pImpls.ElevatorControlModuleImpl;
+import pImpls.EtaControlModule;
+import pImpls.NearestElevatorControlModule;
+import pImpls.SimulationContext;
 import pInterfaces.ControlModuleInterface;
+import pInterfaces.ControlStrategyInterface;
 
 /**
- * Factory class for creating various implementations of the ControlModule interface. As new implementations of the ControlModule interface
- * are created, a corresponding factory method should be added to this class.
+ * Factory class for creating various implementations of the ControlModule interface. Every implementation is registered under the name used
+ * by the optional controller element of the configuration. New implementations can be added by registering another strategy, and a running
+ * simulation can be handed over to any registered strategy through ElevatorControlModule.switchStrategy.
  */
 public class ControlImplFactory
 {
+	/**
+	 * Value of the optional controller element which selects ElevatorControlModuleImpl, where the first idle elevator or elevator already
+	 * travelling in the requested direction, in array order, takes a call. This is the default.
+	 */
+	public static final String FIRST_FIT = "firstFit";
+
+	/**
+	 * Value of the optional controller element which selects NearestElevatorControlModule, where the nearest idle elevator or elevator already
+	 * travelling toward the floor in the requested direction takes a call, as found by the simulation's ElevatorPositionIndex.
+	 */
+	public static final String NEAREST = "nearest";
+
+	/**
+	 * Value of the optional controller element which selects EtaControlModule, where the elevator with the lowest estimated time of arrival
+	 * takes a call.
+	 */
+	public static final String ETA = "eta";
+
+	/**
+	 * Value of the optional controller element which selects DestinationDispatchControlModule, where passengers enter their destination at the
+	 * hall and are assigned to a specific elevator.
+	 */
+	public static final String DESTINATION = "destination";
+
+	/**
+	 * Value of the optional controller element which selects BatchControlModule, where hall calls are collected for batchWindow milliseconds
+	 * and then matched with elevators all at once.
+	 */
+	public static final String BATCH = "batch";
+
+	/**
+	 * The registered strategies, looked up by name regardless of case
+	 */
+	private static final TreeMap<String, ControlStrategyInterface> strategies = new TreeMap<String, ControlStrategyInterface>(String.CASE_INSENSITIVE_ORDER);
+
+	static
+	{
+		registerStrategy(FIRST_FIT, new ControlStrategyInterface()
+		{
+			@Override
+			public AbstractControlModule createControlModule(SimulationContext inContext)
+			{
+				return new ElevatorControlModuleImpl(inContext);
+			}
+
+			@Override
+			public AbstractControlModule takeOver(AbstractControlModule inPrevious)
+			{
+				return new ElevatorControlModuleImpl(inPrevious);
+			}
+		});
+		registerStrategy(NEAREST, new ControlStrategyInterface()
+		{
+			@Override
+			public AbstractControlModule createControlModule(SimulationContext inContext)
+			{
+				return new NearestElevatorControlModule(inContext);
+			}
+
+			@Override
+			public AbstractControlModule takeOver(AbstractControlModule inPrevious)
+			{
+				return new NearestElevatorControlModule(inPrevious);
+			}
+		});
+		registerStrategy(ETA, new ControlStrategyInterface()
+		{
+			@Override
+			public AbstractControlModule createControlModule(SimulationContext inContext)
+			{
+				return new EtaControlModule(inContext);
+			}
+
+			@Override
+			public AbstractControlModule takeOver(AbstractControlModule inPrevious)
+			{
+				return new EtaControlModule(inPrevious);
+			}
+		});
+		registerStrategy(DESTINATION, new ControlStrategyInterface()
+		{
+			@Override
+			public AbstractControlModule createControlModule(SimulationContext inContext)
+			{
+				return new DestinationDispatchControlModule(inContext);
+			}
+
+			@Override
+			public AbstractControlModule takeOver(AbstractControlModule inPrevious)
+			{
+				return new DestinationDispatchControlModule(inPrevious);
+			}
+		});
+		registerStrategy(BATCH, new ControlStrategyInterface()
+		{
+			@Override
+			public AbstractControlModule createControlModule(SimulationContext inContext)
+			{
+				return new BatchControlModule(inContext);
+			}
+
+			@Override
+			public AbstractControlModule takeOver(AbstractControlModule inPrevious)
+			{
+				return new BatchControlModule(inPrevious);
+			}
+		});
+	}
+
+	/**
+	 * Registers an elevator selection algorithm under a name, replacing any strategy already registered under that name
+	 * @param name the value of the controller element which selects the strategy. Names are not case sensitive.
+	 * @param strategy creates the control modules of the algorithm
+	 * @throws IllegalArgumentException if name or strategy is null
+	 */
+	public static synchronized void registerStrategy(String name, ControlStrategyInterface strategy)
+	{
+		if(name == null || strategy == null)
+		{
+			throw new IllegalArgumentException("Attempting to register a controller without a name or strategy! (name: " + name + ")");
+		}
+		strategies.put(name, strategy);
+	}
+
+	/**
+	 * Accessor for the names of every registered strategy
+	 * @return the registered names, in alphabetical order
+	 */
+	public static synchronized ArrayList<String> getStrategyNames()
+	{
+		return new ArrayList<String>(strategies.keySet());
+	}
+
+	/**
+	 * Whether a strategy is registered under a name
+	 * @param name the name to look up. Names are not case sensitive.
+	 * @return true if a strategy is registered under name, otherwise false
+	 */
+	public static synchronized boolean hasStrategy(String name)
+	{
+		return name != null && strategies.containsKey(name);
+	}
+
+	/**
+	 * Looks up a registered strategy
+	 * @param name the name the strategy was registered under
+	 * @return the strategy
+	 * @throws IllegalArgumentException if no strategy is registered under name
+	 */
+	private static synchronized ControlStrategyInterface getStrategy(String name)
+	{
+		ControlStrategyInterface strategy = name == null ? null : strategies.get(name);
+		if(strategy == null)
+		{
+			throw new IllegalArgumentException("Unknown controller: " + name);
+		}
+		return strategy;
+	}
+
 	/**
 	 * Public factory method for created a ControlModule implementation. This method can be modified or overloaded to accommodate different
 	 * ControlModule implementations.
@@ -22,6 +192,36 @@ public class ControlImplFactory
 	 */
 	public static ControlModuleInterface createElevatorController() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
 	{
-		return new ElevatorControlModuleImpl();
+		return createElevatorController(SimulationContext.getDefault());
+	}
+
+	/**
+	 * Public factory method for creating a ControlModule implementation that belongs to a specific simulation.
+	 * 
+	 * @param context the simulation whose configuration determines the number of elevators and floors that the new ControlModule owns, and
+	 * whose optional controller element selects the implementation.
+	 * @return A new ControlModule implementation that owns the elevators and floors described by the context's configuration.
+	 * @throws IllegalArgumentException if the controller element names an unknown implementation.
+	 * @throws NegativeFloorException if the number of floors is less than 1.
+	 * @throws NegativeCapacityException if the elevators that are created as part of initialization are passed a negative value for passenger capacity.
+	 * @throws NegativeElevatorException if the elevators being created are passed a negative value for the elevator.
+	 */
+	public static ControlModuleInterface createElevatorController(SimulationContext context) throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	{
+		return getStrategy(context.getConfig().getController()).createControlModule(context);
+	}
+
+	/**
+	 * Public factory method for creating a ControlModule implementation that takes over a running simulation. The new implementation shares
+	 * the floors, elevators and pending hall calls of the previous one.
+	 * 
+	 * @param name the name of the registered strategy to switch to
+	 * @param previous the control module currently running the simulation
+	 * @return A new ControlModule implementation which continues the simulation of previous.
+	 * @throws IllegalArgumentException if no strategy is registered under name.
+	 */
+	public static AbstractControlModule createElevatorController(String name, AbstractControlModule previous)
+	{
+		return getStrategy(name).takeOver(previous);
 	}
 }
@@ -2,6 +2,8 @@ package pFactories;
 import pExceptions.NegativeCapacityException;
 import pExceptions.NegativeFloorException;
 import pImpls.Elevator;
+import pImpls.ElevatorZone;
+import pImpls.SimulationContext;
 import pInterfaces.ElevatorInterface;
 
 /**
@@ -20,6 +22,39 @@ public class ElevatorFactory
 	 */
 	public static ElevatorInterface createElevator(int elevatorId, int capacity, int maxFloors, int minFloors) throws NegativeCapacityException, NegativeFloorException
 	{
-		return new Elevator(elevatorId, capacity, maxFloors, minFloors);
+		return createElevator(SimulationContext.getDefault(), elevatorId, capacity, maxFloors, minFloors);
+	}
+
+	/**
+	 * This method creates and returns a new elevator object that belongs to a specific simulation. The elevator is registered with the
+	 * simulation's position index once it has been constructed.
+	 * @param context the simulation that the new elevator belongs to.
+	 * @param capacity A positive integer representing the number total number of people the elevator can hold.
+	 * @param elevatorId A positive integer representing the identifier number of the elevator
+	 * @param maxFloors the maximum number of the floors the elevator will be able to visit.
+	 * @param minFloors the minimum number of the floors the elevator will be able to visit.
+	 * @return A new elevator object with the given attributes
+	 */
+	public static ElevatorInterface createElevator(SimulationContext context, int elevatorId, int capacity, int maxFloors, int minFloors) throws NegativeCapacityException, NegativeFloorException
+	{
+		Elevator elevator = new Elevator(context, elevatorId, capacity, maxFloors, minFloors);
+		elevator.register();
+		return elevator;
+	}
+
+	/**
+	 * This method creates and returns a new elevator object of a zoned elevator bank. The elevator is registered with the simulation's position
+	 * index once it has been constructed.
+	 * @param context the simulation that the new elevator belongs to.
+	 * @param elevatorId A positive integer representing the identifier number of the elevator
+	 * @param capacity A positive integer representing the number total number of people the elevator can hold.
+	 * @param zone the bank the elevator belongs to, which decides the floors it serves
+	 * @return A new elevator object which only serves the floors of zone
+	 */
+	public static ElevatorInterface createElevator(SimulationContext context, int elevatorId, int capacity, ElevatorZone zone) throws NegativeCapacityException, NegativeFloorException
+	{
+		Elevator elevator = new Elevator(context, elevatorId, capacity, zone.getMaxFloor(), zone.getLowestFloor(), zone.getMinFloor());
+		elevator.register();
+		return elevator;
 	}
 }
@@ -1,6 +1,7 @@
 package pFactories;
 import pExceptions.NegativeFloorException;
 import pImpls.Floor;
+import pImpls.SimulationContext;
 import pInterfaces.FloorInterface;
 
 /**
@@ -17,6 +18,18 @@ public class FloorFactory
 	 */
 	public static FloorInterface createFloor(int floorId) throws NegativeFloorException
 	{
-		return new Floor(floorId);
+		return createFloor(SimulationContext.getDefault(), floorId);
+	}
+
+	/**
+	 * This method creates and returns a floor that belongs to a specific simulation.
+	 * @param context the simulation that the new floor belongs to.
+	 * @param floorId A positive integer representing the identifier number of the floor
+	 * @return A new floor object with the unique id
+	 * @throws NegativeFloorException if the id is less than 0 or greater than or equal to the maximum number of floors in the simulation
+	 */
+	public static FloorInterface createFloor(SimulationContext context, int floorId) throws NegativeFloorException
+	{
+		return new Floor(context, floorId);
 	}
 }
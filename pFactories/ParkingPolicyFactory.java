@@ -0,0 +1,41 @@
+package pFactories;
+import pImpls.DemandParkingPolicy;
+import pImpls.LobbyParkingPolicy;
+import pImpls.SimulationContext;
+import pInterfaces.ParkingPolicyInterface;
+
+/**
+ * Factory class for parking policies. An instance of this class is not necessary to create such objects.
+ */
+public class ParkingPolicyFactory
+{
+	/**
+	 * Value of the optional parkingPolicy element which sends idle elevators back to the lobby. This is the default.
+	 */
+	public static final String LOBBY = "lobby";
+
+	/**
+	 * Value of the optional parkingPolicy element which parks idle elevators where calls have been most frequent lately
+	 */
+	public static final String DEMAND = "demand";
+
+	/**
+	 * Static factory method used to create the parking policy described by the configuration of a simulation.
+	 * @param context the simulation whose parkingPolicy and parkingWindow elements describe the parking policy
+	 * @return a new parking policy. Every simulation should create its own, since parking policies keep track of the calls they are told about.
+	 * @throws IllegalArgumentException if the parkingPolicy element names an unknown parking policy
+	 */
+	public static ParkingPolicyInterface createParkingPolicy(SimulationContext context)
+	{
+		String policyName = context.getConfig().getParkingPolicy();
+		if(LOBBY.equalsIgnoreCase(policyName))
+		{
+			return new LobbyParkingPolicy();
+		}
+		else if(DEMAND.equalsIgnoreCase(policyName))
+		{
+			return new DemandParkingPolicy(context.getConfig().getTotalFloorNumber(), context.getConfig().getParkingWindow(), context.getElevatorIndex());
+		}
+		throw new IllegalArgumentException("Unknown parking policy: " + policyName);
+	}
+}
@@ -1,6 +1,8 @@
 package pFactories;
 import pExceptions.NegativeFloorException;
+import pImpls.PassengerStore;
 import pImpls.Person;
+import pImpls.SimulationContext;
 
 /**
  * Factory class for Person objects. An instance of this class is not necessary to create such objects.
@@ -17,6 +19,37 @@ public class PersonFactory
 	 */
 	public static Person createPerson(int inID, int startFloor, int destinationFloor) throws NegativeFloorException
 	{
-		return new Person(inID, startFloor, destinationFloor);
+		return createPerson(SimulationContext.getDefault(), inID, startFloor, destinationFloor);
+	}
+
+	/**
+	 * Static factory method used to create Person objects that belong to a specific simulation.
+	 * @param context the simulation whose floors the new Person will travel between.
+	 * @param startFloor The floor that this person should start on.
+	 * @param destinationFloor The floor that this person should end on.
+	 * @return A new Person object whose start and destination floors are initialized to the values of startFloor and destinationFloor
+	 * @throws NegativeFloorException if either startFloor or destinationFloor are negative or otherwise outside the bounds of the simulation.
+	 */
+	public static Person createPerson(SimulationContext context, int inID, int startFloor, int destinationFloor) throws NegativeFloorException
+	{
+		return new Person(context, inID, startFloor, destinationFloor);
+	}
+
+	/**
+	 * Static factory method which rebuilds a Person object from its compact record, for when a full object is needed after the simulation
+	 * no longer holds one.
+	 * @param context the simulation the record belongs to.
+	 * @param store the store holding the record.
+	 * @param record the index of the record.
+	 * @return A new Person object with the ID, start and destination floors, arrival time and boarding time of the record
+	 * @throws NegativeFloorException if the recorded floors are outside the bounds of the simulation.
+	 */
+	public static Person createPerson(SimulationContext context, PassengerStore store, int record) throws NegativeFloorException
+	{
+		Person view = new Person(context, store.getId(record), store.getOrigin(record), store.getDestination(record));
+		view.setArrivalTime(store.getArrivalTime(record));
+		view.setBoardingTime(store.getBoardingTime(record));
+		view.setPassengerRecord(record);
+		return view;
 	}
 }
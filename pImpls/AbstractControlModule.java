@@ -0,0 +1,513 @@
+package pImpls;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pExceptions.NullPassengerException;
+import pFactories.ElevatorFactory;
+import pFactories.FloorFactory;
+import pInterfaces.ControlModuleInterface;
+import pInterfaces.ElevatorInterface;
+import pInterfaces.FloorInterface;
+
+
+/**
+ * Base class for implementations of the ControlModule interface. Owns the floors and elevators of a simulation, moves Person objects between
+ * them and retries hall calls that could not be assigned. Subclasses only supply the elevator selection algorithm.
+ */
+public abstract class AbstractControlModule implements ControlModuleInterface
+{
+	/**
+	 * The collection of ElevatorInterface objects that this control module is responsible for
+	 */
+	protected ElevatorInterface[] elevators; 
+
+	/**
+	 * The collection of FloorInterface objects that this control module is responsible for
+	 */
+	protected FloorInterface[] floors;     
+
+	/**
+	 * The simulation that this control module and all of its floors and elevators belong to
+	 */
+	protected SimulationContext context;
+
+	/**
+	 * The hall calls that no elevator could accept when they were made. They are retried whenever an elevator becomes idle or changes direction
+	 */
+	protected PendingHallCalls pendingCalls = new PendingHallCalls();
+
+	/**
+	 * The ONE-BASED floor where passengers change between elevator banks that do not share any other floor
+	 */
+	protected static final int LOBBY = 1;
+
+	/**
+	 * Constructor which creates the floors and elevators described by the configuration of a specific simulation.
+	 * @param inContext the simulation that this control module belongs to
+	 */
+	protected AbstractControlModule(SimulationContext inContext)
+	{
+		this.context = inContext;
+		int elevatorNum =  context.getConfig().getTotalElevatorNumber();
+		int floorNum = context.getConfig().getTotalFloorNumber();
+
+		context.getConsole().println("Number of elevators from file : " + elevatorNum);
+		context.getConsole().println("Numberof floor numbers from file : "+ floorNum);
+		try
+		{
+			createElevators(elevatorNum, floorNum);
+			createFloors(floorNum);
+		}
+		catch (NegativeCapacityException | NegativeElevatorException
+				| NegativeFloorException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Constructor which takes over a running simulation from another control module. The floors, elevators and pending hall calls are shared
+	 * rather than copied, so the simulation carries on without stopping.
+	 * @param inPrevious the control module being replaced
+	 */
+	protected AbstractControlModule(AbstractControlModule inPrevious)
+	{
+		this.context = inPrevious.context;
+		this.elevators = inPrevious.elevators;
+		this.floors = inPrevious.floors;
+		this.pendingCalls = inPrevious.pendingCalls;
+	}
+
+	/**
+	 * Whether an elevator is one of the elevators of this control module. Elevators found through the simulation's position index may belong
+	 * to another control module of the same simulation. The id of an elevator never changes, so this takes no lock.
+	 * @param elevator the elevator to check
+	 * @return true if elevator belongs to this control module
+	 */
+	protected boolean isManaged(ElevatorInterface elevator)
+	{
+		int index = elevator.getElevatorId();
+		return index >= 0 && index < this.elevators.length && this.elevators[index] == elevator;
+	}
+
+	/**
+	 * Called once another control module has taken over from this one. Subclasses that keep their own dispatching state release it here, so
+	 * that nobody waits on a decision the new control module does not know about.
+	 */
+	protected void retire()
+	{
+	}
+
+	/**
+	 * This function is called whenever a Person object summons an elevator from a given floor. The selection algorithm of the subclass picks
+	 * the elevator to send to that floor. If no elevator can take the call yet, it is deferred and retried whenever an elevator becomes idle
+	 * or changes direction. A call made while the hall button for the same floor and direction is lit, and the elevators already on their way
+	 * have room for everybody waiting, is dropped without running the selection algorithm, since it would not change anything.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the the direction that will lead to the requested floor.
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection. NOTE: this method uses ZERO-BASED indexing as it is an internal method
+	 */
+	@Override
+	public void elevatorCallReceiver(int floorNumber, Direction directionRequest) throws NegativeFloorException
+	{
+		if(floorNumber < 0 || floorNumber >= floors.length)
+		{
+			throw new NegativeFloorException("The floor object that called this method has an invalid ID number! (floorNumber: " + floorNumber + ")");
+		}
+		if(this.floors[floorNumber].isHallCallCovered(directionRequest))
+		{
+			context.getStatistics().callCoalesced();
+			return;
+		}
+		dispatchCall(floorNumber, directionRequest);
+	}
+
+	/**
+	 * Runs the selection algorithm for a hall call, deferring the call if no elevator can take it yet. A call that the subclass queues to be
+	 * assigned later is left to the subclass.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the the direction that will lead to the requested floor.
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection
+	 */
+	private void dispatchCall(int floorNumber, Direction directionRequest) throws NegativeFloorException
+	{
+		context.getStatistics().callDispatched();
+		if(queueCall(floorNumber, directionRequest))
+		{
+			context.getEventLog().record("queue floor " + floorNumber + " " + directionRequest);
+			return;
+		}
+
+		//If the selection algorithm couldn't hand the request to any elevator...
+		// then it needs to be sent again once an elevator is able to take it
+		if(!assignCall(floorNumber, directionRequest) && pendingCalls.add(new HallCall(floorNumber, directionRequest)))
+		{
+			context.getEventLog().record("defer floor " + floorNumber + " " + directionRequest);
+			context.getConsole().println("No elevator can take the request from floor " + ( floorNumber + 1 ) + " going " + directionRequest + " yet. It will be retried.");
+		}
+	}
+
+	/**
+	 * Makes an UP or DOWN hall call on behalf of a Person who has just arrived. Destination-dispatch controllers override this to assign the
+	 * Person to a specific elevator.
+	 * @param floorNumber the ZERO-BASED floor number that the Person is waiting on.
+	 * @param inPerson the Person who has just arrived on the floor.
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection.
+	 */
+	@Override
+	public void destinationCallReceiver(int floorNumber, Person inPerson) throws NegativeFloorException
+	{
+		elevatorCallReceiver(floorNumber, getDirection(floorNumber, inPerson));
+	}
+
+	/**
+	 * Whether this control module assigns Persons by their destination rather than by the direction of their hall call. Calls made to such a
+	 * control module cannot be reduced to a floor and a direction, so they are handed to the dispatcher thread as tasks instead of through the
+	 * hall call buffer.
+	 * @return true if destinationCallReceiver is overridden to assign Persons to specific elevators
+	 */
+	protected boolean usesDestinationCalls()
+	{
+		return false;
+	}
+
+	/**
+	 * Computes the direction a Person needs to travel in
+	 * @param floorNumber the ZERO-BASED floor number that the Person is waiting on.
+	 * @param inPerson the waiting Person
+	 * @return UP if the Person's destination is above floorNumber, otherwise DOWN
+	 */
+	protected static Direction getDirection(int floorNumber, Person inPerson)
+	{
+		return inPerson.getDestinationFloor() > floorNumber + 1 ? Direction.UP : Direction.DOWN;
+	}
+
+	/**
+	 * Lets the selection algorithm hold a hall call back, so that it can be assigned later together with other calls. The subclass is then
+	 * responsible for assigning or deferring the call. Calls are not held back unless a subclass overrides this method.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @return true if the call has been queued and assignCall should not be called for it now, or false to assign it right away
+	 */
+	protected boolean queueCall(int floorNumber, Direction directionRequest)
+	{
+		return false;
+	}
+
+	/**
+	 * The elevator selection algorithm. Picks the elevator that should answer a hall call and hands the call to it, usually through offerCall.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @return true if an elevator accepted the call, or false if the call should be deferred
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection
+	 */
+	protected abstract boolean assignCall(int floorNumber, Direction directionRequest) throws NegativeFloorException;
+
+	/**
+	 * Hands a hall call to a specific elevator. An elevator that is already on the floor opens its doors, while any other elevator adds the floor to
+	 * its request queue.
+	 * @param elevator the elevator that should answer the call
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @param reason a short note on why the elevator was picked, recorded in the event log. May be empty.
+	 * @return true if the elevator accepted the call, or false if it has already passed the floor
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection
+	 */
+	protected boolean offerCall(ElevatorInterface elevator, int floorNumber, Direction directionRequest, String reason) throws NegativeFloorException
+	{
+		int externalFloorNum = floorNumber + 1;
+		FloorInterface floor = this.floors[floorNumber];
+		//an elevator of another zone would leave without anybody on board
+		if(!elevator.servesFloor(externalFloorNum) || ( floor.hasWaitingPeople(directionRequest) && !floor.hasWaitingPeopleFor(elevator, directionRequest) ))
+		{
+			return false;
+		}
+		//a full elevator would only leave the waiting people behind
+		if(!hasRoomAt(elevator, floorNumber))
+		{
+			return false;
+		}
+		if (elevator.getCurrentFloor() == externalFloorNum)
+		{
+			//have that elevator cycle its doors so people can get in. no need to actually add a request since it's already there, and the
+			//elevator runs the door cycle on its own thread so the caller does not wait for the doors
+			context.getEventLog().record("dispatch floor " + floorNumber + " " + directionRequest + " to elevator " + elevator.getElevatorId() + " (at floor)" + reason);
+			elevator.requestDoorCycle();
+			return true;
+		}
+		context.getEventLog().record("dispatch floor " + floorNumber + " " + directionRequest + " to elevator " + elevator.getElevatorId() + reason);
+		//the elevator may still reject the floor if it has already passed it
+		if(!elevator.addFloorToQueue(externalFloorNum))
+		{
+			return false;
+		}
+		floor.registerHallCall(directionRequest, elevator.getFreeCapacityAt(externalFloorNum));
+		return true;
+	}
+
+	/**
+	 * Whether an elevator will have room for at least one more Person when it reaches a floor, counting the passengers who get off on the way
+	 * @param elevator the elevator to check
+	 * @param floorNumber the ZERO-BASED floor number of the call
+	 * @return true if the elevator will have a free spot at the floor
+	 */
+	protected boolean hasRoomAt(ElevatorInterface elevator, int floorNumber)
+	{
+		return elevator.getFreeCapacityAt(floorNumber + 1) > 0;
+	}
+
+	/**
+	 * Retries every hall call that could not be assigned earlier, now that an elevator has become idle or changed direction. Calls whose
+	 * passengers have all been picked up in the meantime are dropped, and calls that still cannot be assigned are deferred again.
+	 * @param elevator the elevator whose direction has changed
+	 */
+	@Override
+	public void elevatorDirectionChanged(ElevatorInterface elevator)
+	{
+		for(HallCall call : pendingCalls.drain())
+		{
+			if(!this.floors[call.getFloorNumber()].hasWaitingPeople(call.getDirection()))
+			{
+				continue;
+			}
+			try
+			{
+				dispatchCall(call.getFloorNumber(), call.getDirection());
+			}
+			catch (NegativeFloorException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Accessor for the hall calls that are waiting for an elevator to become able to take them
+	 * @return the pending hall calls of this control module
+	 */
+	public PendingHallCalls getPendingCalls()
+	{
+		return this.pendingCalls;
+	}
+
+	/**
+	 * Returns the elevator at the index specified.
+	 * NOTE: this function uses ONE-BASED indexing, which means that 0 is not a valid value
+	 * @return The ElevatorInterface object located at the specified ONE-BASED index
+	 */
+	@Override
+	public ElevatorInterface getElevator(int index)
+	{
+		return elevators[index-1];
+	}
+
+	/**
+	 * Master shutdown command that stops further elevator commands.
+	 */
+	public void shutDown()
+	{
+		for(ElevatorInterface elevator : elevators)
+		{
+			elevator.shutDown();
+		}
+	}
+
+	/**
+	 * elevatorDoorsOpened takes in two parameters of the floor and elevator and removes initiates removeFromFloor
+	 * @see removeFroomFloor removes passengers from the floor that will be placed into the elevator.
+	 * @param elevator the elevator the will receive the requests.
+	 * @param floorNumber the floor number the elevator is receiving the request at. Because this method is called by an Elevator object, it uses ZERO-BASED indexing
+	 * @throws NegativeFloorException if floorNumber is less than 0 or greater than or equal to the number of total floors in the simulation (remember: this is ZERO-BASED indexing)
+	 */
+	@Override
+	public void elevatorDoorsOpened(ElevatorInterface elevator, int floorNumber) throws NegativeFloorException
+	{
+		if(floorNumber < 0 || floorNumber >= this.floors.length)
+		{
+			throw new NegativeFloorException();
+		}
+		FloorInterface floor = this.floors[floorNumber];
+		floor.removeFromFloor(elevator, elevator.getDirection());
+
+		//anybody still waiting either wants to go the other way or did not fit, so their call has not been answered yet
+		for(Direction waitingDirection : new Direction[] { Direction.UP, Direction.DOWN })
+		{
+			if(!floor.hasWaitingPeople(waitingDirection))
+			{
+				continue;
+			}
+			if(waitingDirection == elevator.getDirection() && !hasRoomAt(elevator, floorNumber))
+			{
+				resummon(floorNumber, waitingDirection);
+			}
+			else if(pendingCalls.add(new HallCall(floorNumber, waitingDirection)))
+			{
+				context.getEventLog().record("defer floor " + floorNumber + " " + waitingDirection);
+			}
+		}
+	}
+
+	/**
+	 * Makes a new hall call for the people a full elevator had to leave behind, so another elevator is sent for them right away instead of
+	 * once some elevator changes direction. The call goes to whichever control module is in charge by the time it is handled. In an
+	 * event-driven simulation it is made after the full elevator has finished opening its doors. In a threaded simulation it is queued for the
+	 * dispatcher thread like any other hall call, and deferred if the buffer is full, since the full elevator still holds its lock and must
+	 * not wait for room.
+	 * @param floorNumber the ZERO-BASED floor number the people were left behind on.
+	 * @param directionRequest the direction the people left behind want to travel in.
+	 */
+	protected void resummon(final int floorNumber, final Direction directionRequest)
+	{
+		context.getEventLog().record("resummon floor " + floorNumber + " " + directionRequest);
+		context.getStatistics().callResummoned();
+		if(!context.isEventDriven())
+		{
+			HallCallDispatcher dispatcher = context.getDispatcher();
+			if(( dispatcher == null || !dispatcher.offer(floorNumber, directionRequest) ) && pendingCalls.add(new HallCall(floorNumber, directionRequest)))
+			{
+				context.getEventLog().record("defer floor " + floorNumber + " " + directionRequest);
+			}
+			return;
+		}
+		context.getClock().schedule(0, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					if(floors[floorNumber].hasWaitingPeople(directionRequest))
+					{
+						context.getControlModule().elevatorCallReceiver(floorNumber, directionRequest);
+					}
+				}
+				catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		});
+	}
+
+	/**
+	 * addPersonToFloor moves them from the specified floor to the indicated elevator.
+	 * @param inPerson calls the method to add a person to the elevator.
+	 * @param floorNum the floor the person is located in. NOTE: this method uses ONE-BASED indexing, which means that 0 does not correspond
+	 * to the metaphorical first floor
+	 * @throws NullPassengerException if inPerson is null
+	 * @throws NegativeFloorException if floorNum is less than or equal to 0
+	 */
+	@Override
+	public void addPersonToFloor(Person inPerson, int floorNum) throws NullPassengerException, NegativeFloorException
+	{
+		if(floorNum <= 0 || floorNum > this.floors.length)
+		{
+			throw new NegativeFloorException("Attempting to add a person to an invalid floor. Remember that this method uses ONE-BASED indexing instead of ZERO-BASED indexing (Floor number: " + (floorNum + 1) + ").");
+		}
+		if(!canTravelDirectly(floorNum, inPerson.getDestinationFloor()) && floorNum != LOBBY && inPerson.getDestinationFloor() != LOBBY)
+		{
+			//no bank serves both floors, so change elevators at the lobby
+			inPerson.planTransfer(LOBBY);
+			context.getEventLog().record("plan transfer person " + inPerson.getID() + " floor " + ( LOBBY - 1 ));
+		}
+		context.getParkingPolicy().recordCall(floorNum, context.getStatistics().getTime());
+		this.floors[floorNum-1].addPersonToFloor(inPerson);
+	}
+
+	/**
+	 * Whether any elevator serves both floors of a trip
+	 * @param startFloor the ONE-BASED floor the trip starts on
+	 * @param destinationFloor the ONE-BASED floor the trip ends on
+	 * @return true if at least one elevator serves both floors
+	 */
+	protected boolean canTravelDirectly(int startFloor, int destinationFloor)
+	{
+		for(ElevatorInterface curElev : this.elevators)
+		{
+			if(curElev.servesFloor(startFloor) && curElev.servesFloor(destinationFloor))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates the collection of elevators that this control module is responsible for
+	 * @param elevatorNum the number that will identify the elevator.
+	 * @param maxFloors the maximum number of floors the elevator may visit.
+	 * @throws NegativeCapacityException if the capacity value of the elevator objects is less than 1
+	 * @throws NegativeElevatorException if elevatorNum is less than 1
+	 * @throws NegativeFloorException if any elevators are created with invalid maximum or minimum floor values
+	 */
+	private void createElevators(int elevatorNum, int maxFloors) throws NegativeCapacityException, NegativeElevatorException, NegativeFloorException
+	{
+		if(elevatorNum < 1)
+		{
+			throw new NegativeElevatorException("Attempting to create zero or a negative number of Elevators! (elevatorNum: " + elevatorNum + ")");
+		}
+
+		elevators = new ElevatorInterface[elevatorNum];
+		int capacity = context.getConfig().getElevCapacity();
+		int elevatorIndex = 0;
+		for(ElevatorZone zone : context.getConfig().getZones())
+		{
+			if(elevatorIndex + zone.getElevatorNum() > elevatorNum)
+			{
+				throw new NegativeElevatorException("The elevator zones need more elevators than the building has! (elevatorNum: " + elevatorNum + ")");
+			}
+			context.getConsole().println("Creating " + zone.getElevatorNum() + " elevators for zone " + zone.getName() + " (floors " + zone.getMinFloor() + " to " + zone.getMaxFloor() + ")");
+			for(int i = 0; i < zone.getElevatorNum(); ++i, ++elevatorIndex)
+			{
+				elevators[elevatorIndex] = ElevatorFactory.createElevator(context, elevatorIndex, capacity, zone);
+			}
+		}
+		//any elevators that are not part of a zone serve the whole building
+		for(; elevatorIndex < elevatorNum; ++elevatorIndex)
+		{
+			elevators[elevatorIndex] = ElevatorFactory.createElevator(context, elevatorIndex, capacity, maxFloors, 1);
+		}
+	}
+
+	/**
+	 * Creates the collection of floors that this control module is responsible for
+	 * @param floorNum the number of floors being added.
+	 * @throws NegativeFloorException if floorNum is less than 1
+	 */
+	private void createFloors(int floorNum) throws NegativeFloorException
+	{
+		context.getConsole().println("Creating " + floorNum + " floors..");
+
+		if(floorNum < 1)
+		{
+			throw new NegativeFloorException("Attempting to create a control module without any floors! (floorNum: " + floorNum + ")");
+		}
+
+		floors = new FloorInterface[floorNum];
+		for(int i = 0; i < floorNum; ++i)
+		{
+			floors[i] = FloorFactory.createFloor(context, i);
+		}
+	}
+
+	/**
+	 * Accessor for the total number of floors being managed by this control module
+	 * @return the number of floors being managed by this control module
+	 */
+	@Override
+	public int getMaxFloors()
+	{
+		return this.floors.length;
+	}
+
+	/**
+	 * Accessor for the number of elevators currently being managed by this control module
+	 * @return the number of elevators currently being managed by this Control Module
+	 */
+	@Override
+	public int getElevatorNum()
+	{
+		return this.elevators.length;
+	}
+}
@@ -0,0 +1,153 @@
+package pImpls;
+
+import java.util.Arrays;
+
+/**
+ * Solves the assignment problem with the Hungarian algorithm: given a matrix of costs, picks at most one column for every row and at most one
+ * row for every column so that as many rows as possible are matched and the total cost is as small as possible. Runs in O(n^2 * m) time for n
+ * rows and m columns (n &lt;= m), or the other way around.
+ */
+public class AssignmentSolver
+{
+	/**
+	 * Cost of a pairing that must not be made. Small enough that adding it up over a whole matrix cannot overflow a long.
+	 */
+	public static final long FORBIDDEN = 1000000000000L;
+
+	/**
+	 * Computes the cheapest assignment of rows to columns
+	 * @param costs the cost of matching every row with every column. Every row must have the same length. Pairings that must not be made
+	 * should cost FORBIDDEN.
+	 * @return the column matched with every row, or -1 for rows that are left unmatched, either because there are more rows than columns or
+	 * because every column left for the row is FORBIDDEN
+	 */
+	public static int[] solve(long[][] costs)
+	{
+		int rows = costs.length;
+		int columns = rows == 0 ? 0 : costs[0].length;
+		int[] rowMatch = new int[rows];
+		Arrays.fill(rowMatch, -1);
+		if(rows == 0 || columns == 0)
+		{
+			return rowMatch;
+		}
+
+		if(rows > columns)
+		{
+			//the algorithm needs at least as many columns as rows, so solve the transposed problem instead
+			long[][] transposed = new long[columns][rows];
+			for(int i = 0; i < rows; ++i)
+			{
+				for(int j = 0; j < columns; ++j)
+				{
+					transposed[j][i] = costs[i][j];
+				}
+			}
+			int[] columnMatch = solveRectangular(transposed);
+			for(int j = 0; j < columns; ++j)
+			{
+				if(columnMatch[j] >= 0)
+				{
+					rowMatch[columnMatch[j]] = j;
+				}
+			}
+		}
+		else
+		{
+			rowMatch = solveRectangular(costs);
+		}
+
+		for(int i = 0; i < rows; ++i)
+		{
+			if(rowMatch[i] >= 0 && costs[i][rowMatch[i]] >= FORBIDDEN)
+			{
+				rowMatch[i] = -1;
+			}
+		}
+		return rowMatch;
+	}
+
+	/**
+	 * The Hungarian algorithm with row and column potentials, for matrices with no more rows than columns
+	 * @param costs the cost matrix, with costs.length &lt;= costs[0].length
+	 * @return the column matched with every row
+	 */
+	private static int[] solveRectangular(long[][] costs)
+	{
+		int rows = costs.length;
+		int columns = costs[0].length;
+
+		//the arrays are ONE-BASED, with index 0 of the column arrays standing for the row that is currently being added
+		long[] rowPotential = new long[rows + 1];
+		long[] columnPotential = new long[columns + 1];
+		int[] columnOwner = new int[columns + 1];
+		int[] previousColumn = new int[columns + 1];
+		long[] minSlack = new long[columns + 1];
+		boolean[] visited = new boolean[columns + 1];
+
+		for(int row = 1; row <= rows; ++row)
+		{
+			columnOwner[0] = row;
+			int column = 0;
+			Arrays.fill(minSlack, Long.MAX_VALUE);
+			Arrays.fill(visited, false);
+			do
+			{
+				visited[column] = true;
+				int owner = columnOwner[column];
+				long delta = Long.MAX_VALUE;
+				int nextColumn = 0;
+				for(int j = 1; j <= columns; ++j)
+				{
+					if(!visited[j])
+					{
+						long slack = costs[owner - 1][j - 1] - rowPotential[owner] - columnPotential[j];
+						if(slack < minSlack[j])
+						{
+							minSlack[j] = slack;
+							previousColumn[j] = column;
+						}
+						if(minSlack[j] < delta)
+						{
+							delta = minSlack[j];
+							nextColumn = j;
+						}
+					}
+				}
+				for(int j = 0; j <= columns; ++j)
+				{
+					if(visited[j])
+					{
+						rowPotential[columnOwner[j]] += delta;
+						columnPotential[j] -= delta;
+					}
+					else
+					{
+						minSlack[j] -= delta;
+					}
+				}
+				column = nextColumn;
+			}
+			while(columnOwner[column] != 0);
+
+			//flip the augmenting path
+			do
+			{
+				int previous = previousColumn[column];
+				columnOwner[column] = columnOwner[previous];
+				column = previous;
+			}
+			while(column != 0);
+		}
+
+		int[] rowMatch = new int[rows];
+		for(int j = 1; j <= columns; ++j)
+		{
+			if(columnOwner[j] != 0)
+			{
+				rowMatch[columnOwner[j] - 1] = j - 1;
+			}
+		}
+		return rowMatch;
+	}
+}
@@ -0,0 +1,254 @@
+package pImpls;
+
+import java.util.ArrayList;
+
+import pExceptions.NegativeFloorException;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * An implementation of the ControlModule interface which collects hall calls for a short window and then assigns the whole batch at once.
+ * The elevators and calls of a batch are matched with AssignmentSolver so that the total estimated time of arrival is as small as possible,
+ * instead of every call greedily taking the elevator that suits it best at the moment it is made. Calls that could not be matched are handed
+ * to the greedy ETA selection, and deferred if no elevator can take them either. The time spent building and solving every batch is reported,
+ * so the window and the number of elevators can be kept small enough for the solver to finish within one simulated tick.
+ */
+public class BatchControlModule extends EtaControlModule
+{
+	/**
+	 * How long calls are collected before they are assigned, in milliseconds
+	 */
+	private int batchWindow;
+
+	/**
+	 * The calls collected since the last batch was assigned
+	 */
+	private ArrayList<HallCall> batch = new ArrayList<HallCall>();
+
+	/**
+	 * Whether the current batch is already scheduled to be assigned
+	 */
+	private boolean bFlushScheduled;
+
+	/**
+	 * The number of batches assigned so far
+	 */
+	private long batchCount;
+
+	/**
+	 * The wall-clock time spent solving the most recent batch, in nanoseconds
+	 */
+	private long lastSolverLatency;
+
+	/**
+	 * The longest wall-clock time spent solving any batch, in nanoseconds
+	 */
+	private long maxSolverLatency;
+
+	/**
+	 * The wall-clock time spent solving every batch so far, in nanoseconds
+	 */
+	private long totalSolverLatency;
+
+	/**
+	 * Constructor which creates the floors and elevators described by the configuration of a specific simulation.
+	 * @param inContext the simulation that this control module belongs to. Its batchWindow element sets the length of a batch.
+	 */
+	public BatchControlModule(SimulationContext inContext)
+	{
+		super(inContext);
+		this.batchWindow = context.getConfig().getBatchWindow();
+	}
+
+	/**
+	 * Constructor which takes over the floors, elevators and pending hall calls of a running simulation.
+	 * @param inPrevious the control module being replaced
+	 */
+	public BatchControlModule(AbstractControlModule inPrevious)
+	{
+		super(inPrevious);
+		this.batchWindow = context.getConfig().getBatchWindow();
+	}
+
+	/**
+	 * Adds the call to the current batch, starting a new batch window if there is none. In a threaded simulation the window is timed by the
+	 * dispatcher thread, which also assigns the batch once the window has passed.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @return always true, since the call is now the responsibility of the batch, which assigns it once the window has passed or defers it if
+	 * no elevator can take it then
+	 */
+	@Override
+	protected boolean queueCall(int floorNumber, Direction directionRequest)
+	{
+		HallCall call = new HallCall(floorNumber, directionRequest);
+		synchronized(batch)
+		{
+			if(!batch.contains(call))
+			{
+				batch.add(call);
+			}
+			if(bFlushScheduled)
+			{
+				return true;
+			}
+			bFlushScheduled = true;
+		}
+
+		HallCallDispatcher dispatcher = context.getDispatcher();
+		if(context.isEventDriven())
+		{
+			context.getClock().schedule(batchWindow, this::flush);
+		}
+		else if(dispatcher != null)
+		{
+			dispatcher.schedule(batchWindow, this::flush);
+		}
+		else
+		{
+			flush();
+		}
+		return true;
+	}
+
+	/**
+	 * Assigns whatever is left of the current batch, so that the control module taking over does not lose any calls. In a threaded simulation
+	 * the switch runs on the dispatcher thread, so the batch is assigned there like every other call.
+	 */
+	@Override
+	protected void retire()
+	{
+		flush();
+	}
+
+	/**
+	 * Matches the collected calls with the running elevators so that the total estimated time of arrival is as small as possible, and hands
+	 * every call to its elevator. An elevator that could only reach a floor after turning around, that does not serve the floor, or that will be
+	 * full when it gets there, is never matched with it.
+	 */
+	private void flush()
+	{
+		ArrayList<HallCall> calls;
+		synchronized(batch)
+		{
+			calls = new ArrayList<HallCall>(batch);
+			batch.clear();
+			bFlushScheduled = false;
+		}
+		if(calls.isEmpty())
+		{
+			return;
+		}
+
+		long solverStart = System.nanoTime();
+		ArrayList<ElevatorInterface> candidates = new ArrayList<ElevatorInterface>();
+		for(ElevatorInterface curElev : this.elevators)
+		{
+			if(curElev.isRunning())
+			{
+				candidates.add(curElev);
+			}
+		}
+		long[][] costs = new long[calls.size()][candidates.size()];
+		for(int i = 0; i < calls.size(); ++i)
+		{
+			HallCall call = calls.get(i);
+			for(int j = 0; j < candidates.size(); ++j)
+			{
+				ElevatorInterface curElev = candidates.get(j);
+				if(curElev.servesFloor(call.getFloorNumber() + 1) && canStopOnCurrentTrip(curElev, call.getFloorNumber(), call.getDirection())
+						&& hasRoomAt(curElev, call.getFloorNumber()))
+				{
+					costs[i][j] = estimateArrivalTime(curElev, call.getFloorNumber(), call.getDirection());
+				}
+				else
+				{
+					costs[i][j] = AssignmentSolver.FORBIDDEN;
+				}
+			}
+		}
+		int[] match = AssignmentSolver.solve(costs);
+		recordSolverLatency(calls.size(), candidates.size(), System.nanoTime() - solverStart);
+
+		for(int i = 0; i < calls.size(); ++i)
+		{
+			HallCall call = calls.get(i);
+			try
+			{
+				boolean bHandled = false;
+				if(match[i] >= 0)
+				{
+					bHandled = offerCall(candidates.get(match[i]), call.getFloorNumber(), call.getDirection(), " batch " + costs[i][match[i]]);
+				}
+				if(!bHandled)
+				{
+					bHandled = assignCall(call.getFloorNumber(), call.getDirection());
+				}
+				if(!bHandled && pendingCalls.add(call))
+				{
+					context.getEventLog().record("defer floor " + call.getFloorNumber() + " " + call.getDirection());
+				}
+			}
+			catch (NegativeFloorException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Keeps track of how long batches take to solve, and warns when a batch takes longer than an elevator needs to travel one floor.
+	 * @param callNum the number of calls in the batch
+	 * @param elevatorNum the number of elevators the calls were matched with
+	 * @param latency the wall-clock time spent building and solving the batch, in nanoseconds
+	 */
+	private synchronized void recordSolverLatency(int callNum, int elevatorNum, long latency)
+	{
+		batchCount++;
+		lastSolverLatency = latency;
+		maxSolverLatency = Math.max(maxSolverLatency, latency);
+		totalSolverLatency += latency;
+
+		context.getConsole().println("Batch of " + callNum + " calls for " + elevatorNum + " elevators solved in " + ( latency / 1000 ) + " microseconds");
+		long tick = context.getConfig().getElevDoorTime() * 1000000L;
+		if(latency > tick)
+		{
+			context.getConsole().println("WARNING: solving the batch took longer than one simulated tick (" + context.getConfig().getElevDoorTime() + " ms)");
+		}
+	}
+
+	/**
+	 * Accessor for the number of batches assigned so far
+	 * @return the number of batches, not counting windows in which no calls were made
+	 */
+	public synchronized long getBatchCount()
+	{
+		return batchCount;
+	}
+
+	/**
+	 * Accessor for the time spent solving the most recent batch
+	 * @return the wall-clock time in nanoseconds, or 0 if no batch has been solved yet
+	 */
+	public synchronized long getLastSolverLatency()
+	{
+		return lastSolverLatency;
+	}
+
+	/**
+	 * Accessor for the longest time spent solving a batch
+	 * @return the wall-clock time in nanoseconds, or 0 if no batch has been solved yet
+	 */
+	public synchronized long getMaxSolverLatency()
+	{
+		return maxSolverLatency;
+	}
+
+	/**
+	 * Accessor for the average time spent solving a batch
+	 * @return the wall-clock time in nanoseconds, or 0 if no batch has been solved yet
+	 */
+	public synchronized double getAverageSolverLatency()
+	{
+		return batchCount == 0 ? 0 : (double) totalSolverLatency / batchCount;
+	}
+}
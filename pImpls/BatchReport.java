@@ -0,0 +1,146 @@
+package pImpls;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+/**
+ * Aggregates the results of several independent replicas of the same simulation, reporting the mean, standard deviation and 95% confidence
+ * interval of each metric across the replicas.
+ */
+public class BatchReport
+{
+	/**
+	 * The names of the metrics collected from each replica, in the order they are stored
+	 */
+	public static final String[] METRIC_NAMES = { "People created", "People delivered", "Average wait (ms)", "Average trip (ms)", "Max wait (ms)" };
+
+	/**
+	 * Two-sided 95% critical values of Student's t distribution for 1 through 30 degrees of freedom
+	 */
+	private static final double[] T_CRITICAL_VALUES = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228, 2.201, 2.179,
+		2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+
+	/**
+	 * Two-sided 95% critical value of the normal distribution, used once there are more than 30 degrees of freedom
+	 */
+	private static final double Z_CRITICAL_VALUE = 1.96;
+
+	/**
+	 * The metric values of each replica, indexed the same way as METRIC_NAMES
+	 */
+	private ArrayList<double[]> replicaMetrics;
+
+	/**
+	 * The wall-clock time (in milliseconds) that the whole batch took to run
+	 */
+	private long wallTime;
+
+	/**
+	 * Constructor for BatchReport. The report starts out without any replicas.
+	 */
+	public BatchReport()
+	{
+		this.replicaMetrics = new ArrayList<double[]>();
+	}
+
+	/**
+	 * Adds the results of one replica to this report
+	 * @param inStatistics the statistics collected by the replica once it has finished running
+	 */
+	public synchronized void addReplica(SimulationStatistics inStatistics)
+	{
+		this.replicaMetrics.add(new double[] { inStatistics.getPeopleCreated(), inStatistics.getPeopleDelivered(), inStatistics.getAverageWaitTime(),
+				inStatistics.getAverageTripTime(), inStatistics.getMaxWaitTime() });
+	}
+
+	/**
+	 * Accessor for the number of replicas in this report
+	 * @return the number of replicas whose results have been added
+	 */
+	public synchronized int getReplicaCount()
+	{
+		return this.replicaMetrics.size();
+	}
+
+	/**
+	 * Computes the mean of a metric across every replica
+	 * @param metric the index of the metric inside METRIC_NAMES
+	 * @return the mean value of the metric, or 0 if there are no replicas
+	 */
+	public synchronized double getMean(int metric)
+	{
+		if(this.replicaMetrics.isEmpty())
+		{
+			return 0;
+		}
+		double sum = 0;
+		for(double[] metrics : this.replicaMetrics)
+		{
+			sum += metrics[metric];
+		}
+		return sum / this.replicaMetrics.size();
+	}
+
+	/**
+	 * Computes the sample standard deviation of a metric across every replica
+	 * @param metric the index of the metric inside METRIC_NAMES
+	 * @return the sample standard deviation of the metric, or 0 if there are fewer than two replicas
+	 */
+	public synchronized double getStandardDeviation(int metric)
+	{
+		int replicaCount = this.replicaMetrics.size();
+		if(replicaCount < 2)
+		{
+			return 0;
+		}
+		double mean = getMean(metric);
+		double sumOfSquares = 0;
+		for(double[] metrics : this.replicaMetrics)
+		{
+			sumOfSquares += ( metrics[metric] - mean ) * ( metrics[metric] - mean );
+		}
+		return Math.sqrt(sumOfSquares / ( replicaCount - 1 ));
+	}
+
+	/**
+	 * Computes the half-width of the 95% confidence interval around the mean of a metric
+	 * @param metric the index of the metric inside METRIC_NAMES
+	 * @return the half-width of the confidence interval, or 0 if there are fewer than two replicas
+	 */
+	public synchronized double getConfidenceHalfWidth(int metric)
+	{
+		int replicaCount = this.replicaMetrics.size();
+		if(replicaCount < 2)
+		{
+			return 0;
+		}
+		int degreesOfFreedom = replicaCount - 1;
+		double criticalValue = degreesOfFreedom <= T_CRITICAL_VALUES.length ? T_CRITICAL_VALUES[degreesOfFreedom - 1] : Z_CRITICAL_VALUE;
+		return criticalValue * getStandardDeviation(metric) / Math.sqrt(replicaCount);
+	}
+
+	/**
+	 * Mutator for the wall-clock time that the batch took to run
+	 * @param inWallTime the number of milliseconds the batch took to run
+	 */
+	public void setWallTime(long inWallTime)
+	{
+		this.wallTime = inWallTime;
+	}
+
+	/**
+	 * Prints a table containing the mean, standard deviation and 95% confidence interval of every metric
+	 * @param out the stream to print the table to
+	 */
+	public synchronized void printReport(PrintStream out)
+	{
+		out.println("Batch of " + getReplicaCount() + " replicas finished in " + this.wallTime + " milliseconds.");
+		out.println(String.format("%-20s %12s %12s %27s", "Metric", "Mean", "Std dev", "95% confidence interval"));
+		for(int i = 0; i < METRIC_NAMES.length; ++i)
+		{
+			double mean = getMean(i);
+			double halfWidth = getConfidenceHalfWidth(i);
+			out.println(String.format("%-20s %12.2f %12.2f [%12.2f, %12.2f]", METRIC_NAMES[i], mean, getStandardDeviation(i), mean - halfWidth, mean + halfWidth));
+		}
+	}
+}
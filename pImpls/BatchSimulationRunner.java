@@ -0,0 +1,136 @@
+package pImpls;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many seeded replicas of the same scenario at the same time. Every replica runs event-driven on its own thread inside its own
+ * SimulationContext, so replicas never share a control module, floors or elevators. Once every replica has finished, their statistics are
+ * combined into a BatchReport.
+ */
+public class BatchSimulationRunner
+{
+	/**
+	 * The number of replicas to run
+	 */
+	private int replicaCount;
+
+	/**
+	 * The scenario that every replica runs. The engine is always set to the event engine, and the console of every replica is quiet
+	 */
+	private SimulationConfig config;
+
+	/**
+	 * The maximum number of replicas that may run at the same time
+	 */
+	private int parallelism;
+
+	/**
+	 * The seed of the first replica. Every other replica uses baseSeed plus its index as its seed, so a batch with the same base seed always
+	 * produces the same report
+	 */
+	private long baseSeed;
+
+	/**
+	 * Constructor for BatchSimulationRunner.
+	 * @param inConfig the scenario that every replica runs. It is copied, so later changes to inConfig do not affect the batch.
+	 * @param inReplicaCount the number of replicas to run. Must be at least 1.
+	 * @param inParallelism the maximum number of replicas that may run at the same time. Must be at least 1.
+	 * @param inBaseSeed the seed of the first replica.
+	 */
+	public BatchSimulationRunner(SimulationConfig inConfig, int inReplicaCount, int inParallelism, long inBaseSeed)
+	{
+		if(inReplicaCount < 1 || inParallelism < 1)
+		{
+			throw new IllegalArgumentException("A batch needs at least one replica and one thread! (replicas: " + inReplicaCount + ", parallelism: " + inParallelism + ")");
+		}
+		this.config = new SimulationConfig(inConfig);
+		this.config.setEngine(XmlParser.EVENT_ENGINE);
+		this.config.setConsole(SimulationConsole.CONSOLE_OFF);
+		this.replicaCount = inReplicaCount;
+		this.parallelism = inParallelism;
+		this.baseSeed = inBaseSeed;
+	}
+
+	/**
+	 * Runs every replica and waits for all of them to finish. The replicas print nothing, so they neither flood the console nor wait for each
+	 * other on System.out.
+	 * @return the report which aggregates the statistics of every replica
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the replicas
+	 * @throws ExecutionException if any of the replicas failed
+	 */
+	public BatchReport run() throws InterruptedException, ExecutionException
+	{
+		BatchReport report = new BatchReport();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.parallelism, this.replicaCount));
+		long tStart = System.currentTimeMillis();
+		try
+		{
+			ArrayList<Future<SimulationStatistics>> results = new ArrayList<Future<SimulationStatistics>>();
+			for(int i = 0; i < this.replicaCount; ++i)
+			{
+				final long replicaSeed = this.baseSeed + i;
+				results.add(executor.submit(new Callable<SimulationStatistics>()
+				{
+					@Override
+					public SimulationStatistics call() throws Exception
+					{
+						return runReplica(replicaSeed);
+					}
+				}));
+			}
+			for(Future<SimulationStatistics> result : results)
+			{
+				report.addReplica(result.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		report.setWallTime(System.currentTimeMillis() - tStart);
+		return report;
+	}
+
+	/**
+	 * Works out the event log file of one replica, so that replicas running at the same time never write to the same file. The seed of the
+	 * replica is added to the file name in front of its extension, so "events.log" becomes "events-42.log" for the replica with seed 42.
+	 * @param logPath the event log file named by the configuration of the batch
+	 * @param seed the seed of the replica
+	 * @return the event log file of the replica
+	 */
+	public static String getReplicaLogPath(String logPath, long seed)
+	{
+		int extension = logPath.lastIndexOf('.');
+		int fileName = Math.max(logPath.lastIndexOf('/'), logPath.lastIndexOf(File.separatorChar));
+		if(extension <= fileName + 1)
+		{
+			return logPath + "-" + seed;
+		}
+		return logPath.substring(0, extension) + "-" + seed + logPath.substring(extension);
+	}
+
+	/**
+	 * Runs a single replica to completion on the calling thread
+	 * @param seed the seed for the replica's random number generator
+	 * @return the statistics collected by the replica
+	 * @throws Exception if the replica's control module could not be created
+	 */
+	private SimulationStatistics runReplica(long seed) throws Exception
+	{
+		SimulationConfig replicaConfig = new SimulationConfig(this.config);
+		replicaConfig.setSeed(seed);
+		if(this.config.getEventLogPath() != null)
+		{
+			replicaConfig.setEventLogPath(getReplicaLogPath(this.config.getEventLogPath(), seed));
+		}
+		SimulationContext context = new SimulationContext(replicaConfig);
+		context.getEnvironment().runEventDriven();
+		return context.getStatistics();
+	}
+}
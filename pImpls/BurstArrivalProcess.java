@@ -0,0 +1,63 @@
+package pImpls;
+
+import java.util.Random;
+
+import pInterfaces.ArrivalProcessInterface;
+
+/**
+ * Arrival process which creates every passenger of a minute at the same instant and then waits a full minute. This is how the simulation
+ * originally generated passengers; it is kept so that results can be compared against older runs, but it produces artificial load spikes.
+ */
+public class BurstArrivalProcess implements ArrivalProcessInterface
+{
+	/**
+	 * How often a group of passengers arrives, in milliseconds
+	 */
+	private static final long BURST_INTERVAL = 60000;
+
+	/**
+	 * The number of passengers in every group
+	 */
+	private int peoplePerBurst;
+
+	/**
+	 * The number of passengers of the current group that have already arrived
+	 */
+	private int arrivedInBurst;
+
+	/**
+	 * Constructor for BurstArrivalProcess
+	 * @param peoplePerMin the number of passengers in every group
+	 * @throws IllegalArgumentException if peoplePerMin is less than 1
+	 */
+	public BurstArrivalProcess(int peoplePerMin)
+	{
+		if(peoplePerMin < 1)
+		{
+			throw new IllegalArgumentException("The arrival rate must be positive, but was " + peoplePerMin);
+		}
+		this.peoplePerBurst = peoplePerMin;
+	}
+
+	/**
+	 * @param randomGenerator unused, since the arrival times never change
+	 * @return 0 until every passenger of the current group has arrived, and then the time until the next group
+	 */
+	@Override
+	public synchronized long nextInterArrivalTime(Random randomGenerator)
+	{
+		this.arrivedInBurst++;
+		if(this.arrivedInBurst < this.peoplePerBurst)
+		{
+			return 0;
+		}
+		this.arrivedInBurst = 0;
+		return BURST_INTERVAL;
+	}
+
+	@Override
+	public double getMeanRate()
+	{
+		return this.peoplePerBurst;
+	}
+}
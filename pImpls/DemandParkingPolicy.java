@@ -0,0 +1,198 @@
+package pImpls;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import pInterfaces.ElevatorInterface;
+import pInterfaces.ParkingPolicyInterface;
+
+/**
+ * Parking policy which learns how often calls are made on every floor over a sliding window, and spreads the idle elevators over the floors
+ * where the next calls are most likely. Each idle elevator is parked on the floor that brings the expected distance from a new call to the
+ * nearest parked elevator down the most, taking into account where the other idle elevators already wait. Until the first call has been
+ * recorded, elevators are parked at the lobby like LobbyParkingPolicy does.
+ */
+public class DemandParkingPolicy implements ParkingPolicyInterface
+{
+	/**
+	 * How long a call is remembered, in milliseconds
+	 */
+	private long window;
+
+	/**
+	 * The number of calls made on every floor within the window, indexed by ZERO-BASED floor number
+	 */
+	private int[] callCounts;
+
+	/**
+	 * The calls made within the window, oldest first
+	 */
+	private ArrayDeque<RecordedCall> recentCalls = new ArrayDeque<RecordedCall>();
+
+	/**
+	 * The ZERO-BASED floor that every elevator travelling to its parking floor was sent to, keyed by elevator id
+	 */
+	private HashMap<Integer, Integer> parkingFloors = new HashMap<Integer, Integer>();
+
+	/**
+	 * Where the idle elevators of the simulation wait
+	 */
+	private ElevatorPositionIndex elevatorIndex;
+
+	/**
+	 * Constructor for DemandParkingPolicy
+	 * @param inFloorNum the number of floors in the building
+	 * @param inWindow how long a call is remembered, in milliseconds. Must be positive.
+	 * @param inElevatorIndex the index in which the idle elevators of the simulation are listed
+	 * @throws IllegalArgumentException if inFloorNum or inWindow is not positive
+	 */
+	public DemandParkingPolicy(int inFloorNum, long inWindow, ElevatorPositionIndex inElevatorIndex)
+	{
+		if(inFloorNum < 1 || inWindow <= 0)
+		{
+			throw new IllegalArgumentException("Invalid demand parking policy! (floors: " + inFloorNum + ", window: " + inWindow + ")");
+		}
+		this.callCounts = new int[inFloorNum];
+		this.window = inWindow;
+		this.elevatorIndex = inElevatorIndex;
+	}
+
+	/**
+	 * Counts the call towards its floor for the length of the window
+	 * @param floorNum the ONE-BASED floor the passenger arrived on
+	 * @param time the simulation time of the call, in milliseconds
+	 */
+	@Override
+	public synchronized void recordCall(int floorNum, long time)
+	{
+		if(floorNum < 1 || floorNum > callCounts.length)
+		{
+			return;
+		}
+		expireCalls(time);
+		recentCalls.addLast(new RecordedCall(floorNum - 1, time));
+		callCounts[floorNum - 1]++;
+	}
+
+	/**
+	 * Picks the floor served by the elevator which minimizes the distance from the calls of the window to the nearest idle elevator. Ties go
+	 * to the floor nearest to the elevator, so an elevator that is already well placed stays where it is.
+	 * @param elevator the elevator that has been idle long enough to be parked
+	 * @param time the current simulation time, in milliseconds
+	 * @return the ONE-BASED floor the elevator should travel to
+	 */
+	@Override
+	public synchronized int chooseParkingFloor(ElevatorInterface elevator, long time)
+	{
+		expireCalls(time);
+		int currentFloor = elevator.getCurrentFloor() - 1;
+		parkingFloors.remove(elevator.getElevatorId());
+		if(recentCalls.isEmpty())
+		{
+			return LobbyParkingPolicy.getLowestServedFloor(elevator);
+		}
+
+		//how far every floor is from the nearest other idle elevator, counting elevators on their way to park as already parked
+		int[] coveredDistance = new int[callCounts.length];
+		Arrays.fill(coveredDistance, callCounts.length);
+		ArrayList<Integer> parkedFloors = elevatorIndex.getIdleFloors();
+		//this elevator is idle too, and should not count as covering its own floor
+		parkedFloors.remove(Integer.valueOf(currentFloor));
+		parkedFloors.addAll(parkingFloors.values());
+		for(int parkedFloor : parkedFloors)
+		{
+			for(int floor = 0; floor < coveredDistance.length; ++floor)
+			{
+				coveredDistance[floor] = Math.min(coveredDistance[floor], Math.abs(floor - parkedFloor));
+			}
+		}
+
+		int bestFloor = currentFloor;
+		long bestCost = Long.MAX_VALUE;
+		for(int candidate = 0; candidate < callCounts.length; ++candidate)
+		{
+			if(!elevator.servesFloor(candidate + 1))
+			{
+				continue;
+			}
+			long cost = 0;
+			for(int floor = 0; floor < callCounts.length; ++floor)
+			{
+				cost += (long) callCounts[floor] * Math.min(coveredDistance[floor], Math.abs(floor - candidate));
+			}
+			if(cost < bestCost || ( cost == bestCost && Math.abs(candidate - currentFloor) < Math.abs(bestFloor - currentFloor) ))
+			{
+				bestCost = cost;
+				bestFloor = candidate;
+			}
+		}
+		if(bestFloor != currentFloor)
+		{
+			parkingFloors.put(elevator.getElevatorId(), bestFloor);
+		}
+		return bestFloor + 1;
+	}
+
+	/**
+	 * Stops counting the elevator as parked on the floor it was sent to
+	 * @param elevator the elevator which is no longer travelling to its parking floor
+	 */
+	@Override
+	public synchronized void releaseParkingFloor(ElevatorInterface elevator)
+	{
+		parkingFloors.remove(elevator.getElevatorId());
+	}
+
+	/**
+	 * Accessor for the number of calls made on a floor within the window
+	 * @param floorNum the ONE-BASED floor to check
+	 * @param time the current simulation time, in milliseconds
+	 * @return the number of calls made on the floor no more than the window ago
+	 */
+	public synchronized int getCallCount(int floorNum, long time)
+	{
+		expireCalls(time);
+		return callCounts[floorNum - 1];
+	}
+
+	/**
+	 * Forgets the calls that are older than the window
+	 * @param time the current simulation time, in milliseconds
+	 */
+	private void expireCalls(long time)
+	{
+		while(!recentCalls.isEmpty() && recentCalls.peekFirst().time <= time - window)
+		{
+			callCounts[recentCalls.removeFirst().floorNumber]--;
+		}
+	}
+
+	/**
+	 * A call remembered for the length of the window
+	 */
+	private static class RecordedCall
+	{
+		/**
+		 * The ZERO-BASED floor the call was made on
+		 */
+		private final int floorNumber;
+
+		/**
+		 * The simulation time of the call, in milliseconds
+		 */
+		private final long time;
+
+		/**
+		 * Constructor for RecordedCall
+		 * @param inFloorNumber the ZERO-BASED floor the call was made on
+		 * @param inTime the simulation time of the call, in milliseconds
+		 */
+		RecordedCall(int inFloorNumber, long inTime)
+		{
+			this.floorNumber = inFloorNumber;
+			this.time = inTime;
+		}
+	}
+}
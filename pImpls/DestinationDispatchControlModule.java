@@ -0,0 +1,259 @@
+package pImpls;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import pExceptions.NegativeFloorException;
+import pInterfaces.ElevatorInterface;
+import pInterfaces.FloorInterface;
+
+/**
+ * An implementation of the ControlModule interface for destination dispatch, where passengers enter their destination floor at the hall
+ * instead of pressing UP or DOWN. Every arriving Person is assigned to one elevator, preferring elevators that can reach the Person soonest and
+ * that already plan to stop at (or next to) the Person's destination, so passengers travelling to the same floor share a car and each car makes
+ * fewer stops. A Person only boards the elevator they were assigned to.
+ */
+public class DestinationDispatchControlModule extends EtaControlModule
+{
+	/**
+	 * Fraction of a door cycle charged when the destination is one floor away from a stop the elevator already plans to make
+	 */
+	private static final double ADJACENT_STOP_FACTOR = 0.5;
+
+	/**
+	 * Every Person who has entered a destination and has not boarded an elevator yet
+	 */
+	private ArrayList<Person> waitingPeople = new ArrayList<Person>();
+
+	/**
+	 * Constructor which creates the floors and elevators described by the configuration of a specific simulation.
+	 * @param inContext the simulation that this control module belongs to
+	 */
+	public DestinationDispatchControlModule(SimulationContext inContext)
+	{
+		super(inContext);
+	}
+
+	/**
+	 * Constructor which takes over the floors, elevators and pending hall calls of a running simulation. People who are already waiting keep
+	 * boarding whichever elevator answers their hall call.
+	 * @param inPrevious the control module being replaced
+	 */
+	public DestinationDispatchControlModule(AbstractControlModule inPrevious)
+	{
+		super(inPrevious);
+	}
+
+	/**
+	 * Releases everybody who has not boarded yet, so they may board any elevator. The elevators they were assigned to still stop for them.
+	 */
+	@Override
+	protected void retire()
+	{
+		synchronized(waitingPeople)
+		{
+			for(Person curPerson : waitingPeople)
+			{
+				curPerson.setAssignedElevator(Person.ANY_ELEVATOR);
+			}
+			waitingPeople.clear();
+		}
+	}
+
+	/**
+	 * Persons are assigned to elevators by their destination
+	 * @return always true
+	 */
+	@Override
+	protected boolean usesDestinationCalls()
+	{
+		return true;
+	}
+
+	/**
+	 * Assigns the Person to the cheapest elevator that could stop at their floor on its current trip and still has room for them. If no
+	 * elevator accepts the Person, they are left unassigned and an ordinary hall call is made, which is retried until an elevator takes it.
+	 * @param floorNumber the ZERO-BASED floor number that the Person is waiting on.
+	 * @param inPerson the Person who has just arrived on the floor.
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection.
+	 */
+	@Override
+	public void destinationCallReceiver(int floorNumber, Person inPerson) throws NegativeFloorException
+	{
+		if(floorNumber < 0 || floorNumber >= this.floors.length)
+		{
+			throw new NegativeFloorException("The floor object that called this method has an invalid ID number! (floorNumber: " + floorNumber + ")");
+		}
+		Direction directionRequest = getDirection(floorNumber, inPerson);
+
+		ArrayList<ElevatorInterface> candidates = new ArrayList<ElevatorInterface>();
+		ArrayList<Long> costs = new ArrayList<Long>();
+		for(ElevatorInterface curElev : this.elevators)
+		{
+			if(!curElev.isRunning() || !canStopOnCurrentTrip(curElev, floorNumber, directionRequest) || !hasRoomFor(curElev, floorNumber))
+			{
+				continue;
+			}
+			long cost = estimateArrivalTime(curElev, floorNumber, directionRequest) + estimateExtraStopTime(curElev, inPerson.getDestinationFloor());
+
+			//insertion sort, so elevators with the same cost are still tried in array order
+			int insertAt = costs.size();
+			while(insertAt > 0 && costs.get(insertAt - 1) > cost)
+			{
+				insertAt--;
+			}
+			candidates.add(insertAt, curElev);
+			costs.add(insertAt, cost);
+		}
+
+		synchronized(waitingPeople)
+		{
+			waitingPeople.add(inPerson);
+		}
+		for(int i = 0; i < candidates.size(); ++i)
+		{
+			ElevatorInterface curElev = candidates.get(i);
+			//the assignment has to be in place before the call is offered, since an elevator already at the floor boards people immediately
+			inPerson.setAssignedElevator(curElev.getElevatorId());
+			if(offerCall(curElev, floorNumber, directionRequest, " destination " + inPerson.getDestinationFloor() + " cost " + costs.get(i)))
+			{
+				context.getEventLog().record("assign person " + inPerson.getID() + " to elevator " + curElev.getElevatorId());
+				return;
+			}
+		}
+		inPerson.setAssignedElevator(Person.ANY_ELEVATOR);
+		elevatorCallReceiver(floorNumber, directionRequest);
+	}
+
+	/**
+	 * Boards the waiting people assigned to this elevator. Anybody assigned to this elevator who could not board (because it was full or going
+	 * the other way) is released so any elevator may pick them up, and a hall call is kept open for them.
+	 * @param elevator the elevator whose doors have opened.
+	 * @param floorNumber the ZERO-BASED floor number the doors opened at.
+	 * @throws NegativeFloorException if floorNumber is less than 0 or greater than or equal to the number of total floors in the simulation
+	 */
+	@Override
+	public void elevatorDoorsOpened(ElevatorInterface elevator, int floorNumber) throws NegativeFloorException
+	{
+		if(floorNumber < 0 || floorNumber >= this.floors.length)
+		{
+			throw new NegativeFloorException();
+		}
+		FloorInterface floor = this.floors[floorNumber];
+		floor.removeFromFloor(elevator, elevator.getDirection());
+
+		ArrayList<Person> passengers = elevator.getPassengers();
+		boolean bAnsweredUp = false;
+		boolean bAnsweredDown = false;
+		synchronized(waitingPeople)
+		{
+			Iterator<Person> waiting = waitingPeople.iterator();
+			while(waiting.hasNext())
+			{
+				Person curPerson = waiting.next();
+				if(curPerson.getCurrentFloor() != floorNumber + 1)
+				{
+					continue;
+				}
+				if(passengers.contains(curPerson))
+				{
+					waiting.remove();
+					continue;
+				}
+				if(curPerson.getAssignedElevator() == elevator.getElevatorId())
+				{
+					curPerson.setAssignedElevator(Person.ANY_ELEVATOR);
+				}
+				else if(curPerson.getAssignedElevator() != Person.ANY_ELEVATOR)
+				{
+					//this Person's elevator is still on its way, and it picks up anybody else going the same way too
+					if(getDirection(floorNumber, curPerson) == Direction.UP)
+					{
+						bAnsweredUp = true;
+					}
+					else
+					{
+						bAnsweredDown = true;
+					}
+				}
+			}
+		}
+
+		for(Direction waitingDirection : new Direction[] { Direction.UP, Direction.DOWN })
+		{
+			boolean bAnswered = waitingDirection == Direction.UP ? bAnsweredUp : bAnsweredDown;
+			if(bAnswered || !floor.hasWaitingPeople(waitingDirection))
+			{
+				continue;
+			}
+			if(waitingDirection == elevator.getDirection() && !hasRoomAt(elevator, floorNumber))
+			{
+				resummon(floorNumber, waitingDirection);
+			}
+			else if(pendingCalls.add(new HallCall(floorNumber, waitingDirection)))
+			{
+				context.getEventLog().record("defer floor " + floorNumber + " " + waitingDirection);
+			}
+		}
+	}
+
+	/**
+	 * Whether an elevator has room for one more Person at a floor once everybody already assigned to it has boarded
+	 * @param elevator the elevator to check
+	 * @param floorNumber the ZERO-BASED floor number the Person is waiting on
+	 * @return true if the passengers still on board at the floor and the assigned people leave at least one free spot
+	 */
+	private boolean hasRoomFor(ElevatorInterface elevator, int floorNumber)
+	{
+		int assigned = 0;
+		synchronized(waitingPeople)
+		{
+			for(Person curPerson : waitingPeople)
+			{
+				if(curPerson.getAssignedElevator() == elevator.getElevatorId())
+				{
+					assigned++;
+				}
+			}
+		}
+		return assigned < elevator.getFreeCapacityAt(floorNumber + 1);
+	}
+
+	/**
+	 * Estimates how much longer an elevator's trip becomes if it has to let a Person off at their destination. Nothing is charged if the
+	 * elevator already plans to stop there, either for a request in its queue or for somebody else assigned to it, and half a door cycle is
+	 * charged if it plans to stop on an adjacent floor.
+	 * @param elevator the elevator to check
+	 * @param destinationFloor the ONE-BASED destination floor of the Person
+	 * @return the additional time spent stopping, in milliseconds
+	 */
+	private long estimateExtraStopTime(ElevatorInterface elevator, int destinationFloor)
+	{
+		ArrayList<Integer> plannedStops = elevator.getRequestQueue();
+		synchronized(waitingPeople)
+		{
+			for(Person curPerson : waitingPeople)
+			{
+				if(curPerson.getAssignedElevator() == elevator.getElevatorId())
+				{
+					plannedStops.add(curPerson.getDestinationFloor());
+				}
+			}
+		}
+
+		long stopTime = 2L * elevator.getDoorSpeed();
+		long extraTime = stopTime;
+		for(int stop : plannedStops)
+		{
+			if(stop == destinationFloor)
+			{
+				return 0;
+			}
+			if(Math.abs(stop - destinationFloor) == 1)
+			{
+				extraTime = (long) ( stopTime * ADJACENT_STOP_FACTOR );
+			}
+		}
+		return extraTime;
+	}
+}
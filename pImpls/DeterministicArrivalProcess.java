@@ -0,0 +1,46 @@
+package pImpls;
+
+import java.util.Random;
+
+import pInterfaces.ArrivalProcessInterface;
+
+/**
+ * Arrival process in which passengers arrive at perfectly regular intervals. Useful as a baseline with no arrival variance at all.
+ */
+public class DeterministicArrivalProcess implements ArrivalProcessInterface
+{
+	/**
+	 * The time between two arrivals, in milliseconds
+	 */
+	private long interArrivalTime;
+
+	/**
+	 * Constructor for DeterministicArrivalProcess
+	 * @param peoplePerMin the number of passengers that arrive every minute
+	 * @throws IllegalArgumentException if peoplePerMin is not positive
+	 */
+	public DeterministicArrivalProcess(double peoplePerMin)
+	{
+		if(peoplePerMin <= 0)
+		{
+			throw new IllegalArgumentException("The arrival rate must be positive, but was " + peoplePerMin);
+		}
+		this.interArrivalTime = Math.round(60000 / peoplePerMin);
+	}
+
+	/**
+	 * @param randomGenerator unused, since the time between arrivals never changes
+	 * @return the fixed time between arrivals, in milliseconds
+	 */
+	@Override
+	public long nextInterArrivalTime(Random randomGenerator)
+	{
+		return this.interArrivalTime;
+	}
+
+	@Override
+	public double getMeanRate()
+	{
+		return 60000.0 / this.interArrivalTime;
+	}
+}
@@ -1,7 +1,11 @@
 package pImpls;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import pExceptions.NegativeCapacityException;
 import pExceptions.NegativeElevatorException;
@@ -9,12 +13,17 @@ import pExceptions.NegativeFloorException;
 import pExceptions.NullPassengerException;
 import pExceptions.PassengerNotFoundException;
 import pInterfaces.ElevatorInterface;
+import pInterfaces.ParkingPolicyInterface;
 
 
 /**
  *  Elevator class that handles properties such as the speed, capacity, and floor range of the elevator to be customized.
+ *  All of the Elevator's state is guarded by elevatorLock rather than the object's monitor, so an Elevator running on a virtual thread
+ *  releases its carrier thread while it waits for a request, a floor to pass or its doors to cycle.
+ *  The class is final because the constructor starts the Elevator as its last step, which would hand a subclass to the elevator's thread before
+ *  the subclass had been initialised.
  */
-public class Elevator implements ElevatorInterface, Runnable
+public final class Elevator implements ElevatorInterface, Runnable
 {
 	/**
 	 * The current floor that this Elevator object is on. This value is an internal representation, so it uses ZERO-BASED indexing
@@ -37,15 +46,35 @@ public class Elevator implements ElevatorInterface, Runnable
 	private int doorSpeed;
 
 	/**
-	 * The list of requests that this elevator object should handle as it travels
+	 * The floors that this elevator object should stop at as it travels, one bit per ZERO-BASED floor number. Adding, checking and clearing a
+	 * stop takes constant time, and the stops are always in floor order, so the elevator loop never boxes, searches or sorts them.
 	 */
-	private ArrayList <Integer> requestQueue;
+	private BitSet requestQueue;
 
 	/**
-	 * The list of Person objects currently inside of the elevator.
+	 * Scratch set of the ZERO-BASED destination floors of a group that is boarding, kept between calls so that boarding does not allocate
+	 */
+	private BitSet boardingStops = new BitSet();
+
+	/**
+	 * Passengers of a threaded Elevator who have got off at their transfer floor and are waiting for the thread that let them out to release
+	 * elevatorLock. Putting them back on the floor makes a hall call, which may have to wait for the dispatcher thread, and the dispatcher thread
+	 * takes elevator locks.
+	 */
+	private ConcurrentLinkedQueue<Person> departingTransfers = new ConcurrentLinkedQueue<Person>();
+
+	/**
+	 * The list of Person objects currently inside of the elevator. Every Person knows their own position in this list, so a Person can be
+	 * taken out by moving the last Person into their place instead of shifting everybody behind them.
 	 */
 	private ArrayList<Person> passengerList;
 
+	/**
+	 * The passengers inside the elevator grouped by their ZERO-BASED destination floor, so that unloading at a floor only looks at the people
+	 * who get off there. A floor's list is created the first time somebody rides to it and reused from then on.
+	 */
+	private ArrayList<ArrayList<Person>> passengersByDestination;
+
 	/**
 	 * Whether the Elevator's doors are currently open or not. If they are open, then passengers can enter/leave the Elevator
 	 */
@@ -58,18 +87,29 @@ public class Elevator implements ElevatorInterface, Runnable
 
 	/**
 	 * The index representing this Elevator's position in relation to the rest of the Elevators within the simulation. This value is an internal representation, so it uses ZERO-BASED indexing.
+	 * It never changes, so it can be read without holding elevatorLock.
 	 */
-	private int elevatorId;
+	private final int elevatorId;
 
 	/**
 	 * The thread object that allows each Elevator object to run independently of other Elevator objects
 	 */
-	private Thread elevatorThread = new Thread(this);
+	private Thread elevatorThread;
+
+	/**
+	 * Guards every field of this Elevator. Used instead of synchronized so that waiting never pins a virtual thread to its carrier
+	 */
+	private final ReentrantLock elevatorLock = new ReentrantLock();
+
+	/**
+	 * Signalled whenever a new request is added to this Elevator, waking it up if it is idle
+	 */
+	private final Condition requestArrived = elevatorLock.newCondition();
 
 	/**
 	 * Whether or not the elevator is currently running. Once set to false, it cannot be set back to true
 	 */
-	private boolean running = true;
+	private volatile boolean running = true;
 
 	/**
 	 * The index of the top-most floor that this Elevator can visit. This value is an internal representation, so it uses ZERO-BASED indexing
@@ -81,6 +121,96 @@ public class Elevator implements ElevatorInterface, Runnable
 	 */
 	private int minFloors;
 
+	/**
+	 * The index of the lowest floor above minFloors that this Elevator stops at. Every floor from here up to maxFloors is served, as well as
+	 * minFloors itself, so an Elevator of a high-rise bank can run express from the lobby. This value is an internal representation, so it uses
+	 * ZERO-BASED indexing
+	 */
+	private int lowestServedFloor;
+
+	/**
+	 * The simulation that this Elevator belongs to
+	 */
+	private SimulationContext context;
+
+	/**
+	 * The clock that drives this Elevator when the simulation runs in event-driven mode. Set to null when this Elevator runs in its own thread
+	 */
+	private SimulationClock eventClock;
+
+	/**
+	 * The next event that will advance this Elevator when running in event-driven mode
+	 */
+	private SimulationEvent pendingStep;
+
+	/**
+	 * Whether the pending step is the idle timeout, which should be cut short as soon as a new request arrives (event-driven mode only)
+	 */
+	private boolean idleWaiting;
+
+	/**
+	 * The simulated time at which this Elevator's doors finish their current cycle (event-driven mode only)
+	 */
+	private long busyUntil;
+
+	/**
+	 * How long an elevator must stay idle before it returns to its default floor, measured in milliseconds
+	 */
+	private static final int IDLE_TIMEOUT = 10000;
+
+	/**
+	 * The direction this Elevator last reported to the control module. Used to notice when this Elevator becomes idle or changes direction
+	 */
+	private Direction lastReportedDirection = Direction.IDLE;
+
+	/**
+	 * The index that the control module searches for the elevators nearest to a hall call. Kept up to date whenever this Elevator moves or
+	 * changes direction
+	 */
+	private ElevatorPositionIndex positionIndex;
+
+	/**
+	 * The slot this Elevator registered with in positionIndex
+	 */
+	private int indexSlot;
+
+	/**
+	 * Whether this Elevator is currently listed in positionIndex. Elevators are removed once they are shut down
+	 */
+	private boolean bIndexed;
+
+	/**
+	 * The block outside the heap that this Elevator publishes its floor, direction, load and stops to, or null if its state is only kept
+	 * in its own fields
+	 */
+	private OffHeapStateTable stateTable;
+
+	/**
+	 * The record of this Elevator in stateTable, or -1 if it has none. Set once when the Elevator is registered, so that the accessors can read
+	 * the table without taking elevatorLock
+	 */
+	private volatile int stateSlot = -1;
+
+	/**
+	 * Decides where this Elevator waits once it has been idle for IDLE_TIMEOUT milliseconds
+	 */
+	private ParkingPolicyInterface parkingPolicy;
+
+	/**
+	 * Whether this Elevator has been sent to a parking floor and has not been given any other work since
+	 */
+	private boolean bParked;
+
+	/**
+	 * Whether the request being added to the queue is this Elevator's own trip to its parking floor
+	 */
+	private boolean bAddingParkingFloor;
+
+	/**
+	 * Whether the thread of this Elevator should open and close the doors at the current floor before doing anything else
+	 */
+	private boolean bDoorCycleRequested;
+
 
 	/**
 	 * Constructor for Elevator. Takes in the elevator Id, capacity, and max/min floors.
@@ -93,17 +223,63 @@ public class Elevator implements ElevatorInterface, Runnable
 	 */
 	public Elevator(int inId, int inCapacity, int inMaxFloors, int inMinFloors) throws NegativeCapacityException, NegativeFloorException
 	{
-		setId(inId);
+		this(SimulationContext.getDefault(), inId, inCapacity, inMaxFloors, inMinFloors);
+	}
+
+	/**
+	 * Constructor for an Elevator that belongs to a specific simulation.
+	 * @param inContext the simulation that this Elevator belongs to. Its configuration supplies the speed of this Elevator and its doors.
+	 * @param inId The elevators id. This number cannot be negative and must be independent of another elevators Id.
+	 * @param inCapacity The total number of passengers the elevator can hold. This number cannot be negative.
+	 * @param inMaxFloors The maximum amount of floors the elevator can access.
+	 * @param inMinFloors The minimum amount of floors the elevator can access.
+	 * @throws NegativeCapacityException if inCapacity is less than 1
+	 * @throws NegativeFloorException if inMinFloors specifies a floor that is outside the bounds of the simulation
+	 */
+	public Elevator(SimulationContext inContext, int inId, int inCapacity, int inMaxFloors, int inMinFloors) throws NegativeCapacityException, NegativeFloorException
+	{
+		this(inContext, inId, inCapacity, inMaxFloors, inMinFloors, inMinFloors);
+	}
+
+	/**
+	 * Constructor for an Elevator of a bank that skips the floors between its lowest floor and the floors it serves.
+	 * @param inContext the simulation that this Elevator belongs to. Its configuration supplies the speed of this Elevator and its doors.
+	 * @param inId The elevators id. This number cannot be negative and must be independent of another elevators Id.
+	 * @param inCapacity The total number of passengers the elevator can hold. This number cannot be negative.
+	 * @param inMaxFloors The maximum amount of floors the elevator can access.
+	 * @param inMinFloors The minimum amount of floors the elevator can access. This floor is always served.
+	 * @param inLowestServedFloor The lowest floor above inMinFloors that the elevator stops at, using ONE-BASED indexing. Floors between
+	 * inMinFloors and this floor are passed without stopping.
+	 * @throws NegativeCapacityException if inCapacity is less than 1
+	 * @throws NegativeFloorException if inMinFloors specifies a floor that is outside the bounds of the simulation, or if inLowestServedFloor
+	 * is below inMinFloors or above inMaxFloors
+	 */
+	public Elevator(SimulationContext inContext, int inId, int inCapacity, int inMaxFloors, int inMinFloors, int inLowestServedFloor) throws NegativeCapacityException, NegativeFloorException
+	{
+		this.context = inContext;
+		this.elevatorId = inId;
 		setCapacity(inCapacity);
 		setMaxFloors(inMaxFloors);
 		setMinFloors(inMinFloors);   
-		setSpeed(XmlParser.getElevDoorTime());    
-		setDoorSpeed(XmlParser.getDoorSpeed());
+		setLowestServedFloor(inLowestServedFloor);
+		setSpeed(context.getConfig().getElevDoorTime());    
+		setDoorSpeed(context.getConfig().getDoorSpeed());
 		initializeRequestQueue();
 		setInitialDirection();
-		setDefaultFloor(0);
+		setDefaultFloor(this.minFloors);
 		createPassengerList();
-		elevatorThread.start();
+		this.parkingPolicy = context.getParkingPolicy();
+		if(context.isEventDriven())
+		{
+			this.eventClock = context.getClock();
+			context.getConsole().println("Elevator " + ( getElevatorId() + 1 ) + " has started");
+			scheduleStep(0);
+		}
+		else
+		{
+			elevatorThread = context.getElevatorThreadFactory().newThread(this);
+			elevatorThread.start();
+		}
 	}
 
 	/**
@@ -111,102 +287,120 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @param floorNum The floor number that will be added to the queue. It need not be in consecutive order compared to other elevators in the building.
 	 * If the request is already present inside the requests queue, nothing happens
 	 * NOTE: this method uses ONE-BASED indexing, which means that zero corresponds to an invalid request.
+	 * @return true if this Elevator will stop at the floor (or is stopping there now), or false if the floor is behind this Elevator
 	 * @throws NegativeFloorException if floorNum is less than 1 or greater than the total number of floors in the simulation
 	 */
 	@Override
-	public synchronized void addFloorToQueue(int floorNum) throws NegativeFloorException 
-	{            
-		int internalFloorNum = floorNum - 1;
-		if(internalFloorNum < 0 || internalFloorNum > XmlParser.getTotalFloorNumber())
-		{
-			throw new NegativeFloorException("Attempting to add an invalid floor number to Elevator " + this.getElevatorId() + "'s request queue! (floorNum: " + floorNum + ")");
-		}
-		if(requestQueue.contains(internalFloorNum))
-		{
-			//the floor already exists in the queue, so there is nothing that needs to be done
-			return;
-		}
-
-		//we're at the last floor that this elevator can service. only way to go is DOWN
-		if(this.currentFloor == this.maxFloors)
-		{
-			this.direction = Direction.DOWN;
-		}
-		//we're at the bottommost floor that this elevator can service. only way to go is UP
-		else if(this.currentFloor == this.minFloors)
-		{
-			this.direction = Direction.UP;
-		}
-		//if the floor doesn't have any requests, it might as well be considered IDLE so it can take requests otherwise going in the opposite direction
-		else if(this.requestQueue.isEmpty())
-		{
-			this.direction = Direction.IDLE;
-		}
-
-		switch (this.direction) 
+	public boolean addFloorToQueue(int floorNum) throws NegativeFloorException 
+	{
+		elevatorLock.lock();
+		try
 		{
-		case UP:
-			if (internalFloorNum > this.currentFloor)
+			int internalFloorNum = floorNum - 1;
+			if(internalFloorNum < 0 || internalFloorNum > context.getConfig().getTotalFloorNumber())
 			{
-				synchronized(this)
-				{
-					requestQueue.add(internalFloorNum);
-					Collections.sort(requestQueue);
-					notifyAll();
-				}
-				System.out.println("Request for floor " + floorNum + " was added to elevator: " + ( this.getElevatorId() + 1 ));
-				printRequestQueue();
-			}
-			else if(internalFloorNum == this.currentFloor)
-			{
-				this.openDoors();
-				this.closeDoors();
+				throw new NegativeFloorException("Attempting to add an invalid floor number to Elevator " + this.getElevatorId() + "'s request queue! (floorNum: " + floorNum + ")");
 			}
-			else
+			if(requestQueue.get(internalFloorNum))
 			{
-				System.out.println("Request for floor " + floorNum + " was rejected by the elevator: " + ( this.getElevatorId() + 1 ));
+				//the floor already exists in the queue, so there is nothing that needs to be done
+				return true;
 			}
-			break;
-		case DOWN:
-			if (internalFloorNum < this.currentFloor)
+			if(!servesFloor(floorNum))
 			{
-				synchronized(this)
-				{
-					requestQueue.add(internalFloorNum);
-					Collections.reverse(requestQueue);
-					notifyAll();
-				}
-				System.out.println("Request for floor " + floorNum + " was added to elevator: " + ( this.getElevatorId() + 1 ));
-				this.printRequestQueue();
+				context.getConsole().println("Request for floor " + floorNum + " was rejected by the elevator: " + ( this.getElevatorId() + 1 ) + " because it is outside its zone");
+				return false;
 			}
-			else if(internalFloorNum == this.currentFloor)
+			if(this.bParked && !this.bAddingParkingFloor)
 			{
-				this.openDoors();
+				//this elevator has real work now, so it no longer waits where the parking policy sent it
+				this.bParked = false;
+				parkingPolicy.releaseParkingFloor(this);
 			}
-			else
+
+			//we're at the last floor that this elevator can service. only way to go is DOWN
+			if(this.currentFloor == this.maxFloors)
 			{
-				System.out.println("Request for floor " + floorNum + " was rejected by the elevator: " + ( this.getElevatorId() + 1 ));
+				setDirection(Direction.DOWN);
 			}
-			break;
-		case IDLE:
-			synchronized(this)
+			//we're at the bottommost floor that this elevator can service. only way to go is UP
+			else if(this.currentFloor == this.minFloors)
 			{
-				requestQueue.add(internalFloorNum);
-				notifyAll();
+				setDirection(Direction.UP);
 			}
-			System.out.println("Request for floor " + floorNum + " was added to elevator: " + ( this.getElevatorId() + 1 ));
-			if (currentFloor < internalFloorNum)
+			//if the floor doesn't have any requests, it might as well be considered IDLE so it can take requests otherwise going in the opposite direction
+			else if(this.requestQueue.isEmpty())
 			{
-				direction = Direction.UP;
-				Collections.sort(requestQueue);
+				setDirection(Direction.IDLE);
 			}
-			else
+
+			switch (this.direction) 
 			{
-				direction = Direction.DOWN;
-				Collections.reverse(requestQueue);
+			case UP:
+				if (internalFloorNum > this.currentFloor)
+				{
+					addStop(internalFloorNum);
+					signalRequest();
+					if(context.getConsole().isEnabled())
+					{
+						context.getConsole().println("Request for floor " + floorNum + " was added to elevator: " + ( this.getElevatorId() + 1 ));
+					}
+					printRequestQueue();
+				}
+				else if(internalFloorNum == this.currentFloor)
+				{
+					this.requestDoorCycle();
+				}
+				else
+				{
+					context.getConsole().println("Request for floor " + floorNum + " was rejected by the elevator: " + ( this.getElevatorId() + 1 ));
+					return false;
+				}
+				break;
+			case DOWN:
+				if (internalFloorNum < this.currentFloor)
+				{
+					addStop(internalFloorNum);
+					signalRequest();
+					if(context.getConsole().isEnabled())
+					{
+						context.getConsole().println("Request for floor " + floorNum + " was added to elevator: " + ( this.getElevatorId() + 1 ));
+					}
+					this.printRequestQueue();
+				}
+				else if(internalFloorNum == this.currentFloor)
+				{
+					this.requestDoorCycle();
+				}
+				else
+				{
+					context.getConsole().println("Request for floor " + floorNum + " was rejected by the elevator: " + ( this.getElevatorId() + 1 ));
+					return false;
+				}
+				break;
+			case IDLE:
+				addStop(internalFloorNum);
+				signalRequest();
+				if(context.getConsole().isEnabled())
+				{
+					context.getConsole().println("Request for floor " + floorNum + " was added to elevator: " + ( this.getElevatorId() + 1 ));
+				}
+				if (currentFloor < internalFloorNum)
+				{
+					setDirection(Direction.UP);
+				}
+				else
+				{
+					setDirection(Direction.DOWN);
+				}
+				this.printRequestQueue();
+				break;
 			}
-			this.printRequestQueue();
-			break;
+			return true;
+		}
+		finally
+		{
+			elevatorLock.unlock();
 		}
 	}
 
@@ -218,21 +412,33 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @throws NegativeFloorException if inPassenger's destination floor is less than 1 or greater than the number of floors in the simulation.
 	 */
 	@Override
-	public synchronized boolean addPassenger(Person inPassenger) throws NullPassengerException, NegativeFloorException
+	public boolean addPassenger(Person inPassenger) throws NullPassengerException, NegativeFloorException
 	{
-		if(inPassenger == null)
+		elevatorLock.lock();
+		try
 		{
-			throw new NullPassengerException("The passenger object that is being added to the elevator is null!");
+			if(inPassenger == null)
+			{
+				throw new NullPassengerException("The passenger object that is being added to the elevator is null!");
+			}
+			if(this.passengerList.size() >= this.capacity)
+			{
+				context.getConsole().println("Adding person " + inPassenger.getID() + " to Elevator " + ( this.getElevatorId() + 1 ) + " failed because the elevator is already full!");
+				return false;
+			}
+			if(context.getConsole().isEnabled())
+			{
+				context.getConsole().println("Person " + inPassenger.getID() + " has entered Elevator " + ( this.getElevatorId() + 1 ) );
+			}
+			this.addToPassengerList(inPassenger);
+			context.getEventLog().record("board person " + inPassenger.getID() + " elevator " + this.getElevatorId() + " floor " + this.currentFloor);
+			this.addFloorToQueue(inPassenger.getDestinationFloor());
+			return true;
 		}
-		if(this.passengerList.size() >= this.capacity)
+		finally
 		{
-			System.out.println("Adding person " + inPassenger.getID() + " to Elevator " + ( this.getElevatorId() + 1 ) + " failed because the elevator is already full!");
-			return false;
+			elevatorLock.unlock();
 		}
-		System.out.println("Person " + inPassenger.getID() + " has entered Elevator " + ( this.getElevatorId() + 1 ) );
-		this.passengerList.add(inPassenger);
-		this.addFloorToQueue(inPassenger.getDestinationFloor());
-		return true;
 	}
 
 
@@ -244,22 +450,59 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @throws NegativeFloorException if any of the Person objects have a destination floor that's less than 1 or greater than the number of floors in the simulation
 	 */
 	@Override
-	public synchronized boolean addPassengers(ArrayList<Person> inPassengers) throws NullPassengerException, NegativeFloorException
+	public boolean addPassengers(ArrayList<Person> inPassengers) throws NullPassengerException, NegativeFloorException
 	{
-		if(inPassengers.contains(null))
-		{
-			throw new NullPassengerException("The passenger object that is being added to the elevator is null!");
-		}
-		for(Person personToAdd : inPassengers)
+		return boardPassengers(inPassengers) == inPassengers.size();
+	}
+
+	/**
+	 * Moves the first Person objects of a group into this elevator until it is full, under a single hold of elevatorLock. Their destinations
+	 * are collected first and then added to the request queue once per floor, so a crowded lobby costs one queue update per destination
+	 * instead of one per Person.
+	 * @param inPassengers the Person objects waiting to board, in the order they should board. None of them should be null.
+	 * @return the number of Person objects that boarded, counted from the start of inPassengers.
+	 * @throws NullPassengerException if any of the passengers contained within inPassengers is null
+	 * @throws NegativeFloorException if any of the Person objects have a destination floor that's less than 1 or greater than the number of floors in the simulation
+	 */
+	@Override
+	public int boardPassengers(ArrayList<Person> inPassengers) throws NullPassengerException, NegativeFloorException
+	{
+		elevatorLock.lock();
+		try
 		{
-			if(this.passengerList.size() >= this.capacity)
+			if(inPassengers.contains(null))
 			{
-				//the elevator is full. don't attempt to move any more passengers into this elevator
-				return false;
+				throw new NullPassengerException("The passenger object that is being added to the elevator is null!");
+			}
+			int boarded = 0;
+			for(Person personToAdd : inPassengers)
+			{
+				if(this.passengerList.size() >= this.capacity)
+				{
+					//the elevator is full. don't attempt to move any more passengers into this elevator
+					context.getConsole().println("Elevator " + ( this.getElevatorId() + 1 ) + " is full. " + ( inPassengers.size() - boarded ) + " people keep waiting.");
+					break;
+				}
+				if(context.getConsole().isEnabled())
+				{
+					context.getConsole().println("Person " + personToAdd.getID() + " has entered Elevator " + ( this.getElevatorId() + 1 ) );
+				}
+				this.addToPassengerList(personToAdd);
+				context.getEventLog().record("board person " + personToAdd.getID() + " elevator " + this.getElevatorId() + " floor " + this.currentFloor);
+				this.boardingStops.set(personToAdd.getDestinationFloor() - 1);
+				boarded++;
+			}
+			for(int stop = this.boardingStops.nextSetBit(0); stop >= 0; stop = this.boardingStops.nextSetBit(stop + 1))
+			{
+				this.addFloorToQueue(stop + 1);
 			}
-			this.addPassenger(personToAdd);
+			return boarded;
+		}
+		finally
+		{
+			this.boardingStops.clear();
+			elevatorLock.unlock();
 		}
-		return true;
 	}
 
 	/**
@@ -267,51 +510,57 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * is determined by the time specified (in milliseconds) in the xmlInputs file
 	 */
 	@Override
-	public synchronized void openDoors() 
+	public void openDoors() 
 	{
-		this.bDoorsOpen = true;
+		elevatorLock.lock();
 		try
 		{
-			if(this.requestQueue.isEmpty())
+			this.bDoorsOpen = true;
+			context.getEventLog().record("open elevator " + this.getElevatorId() + " floor " + this.currentFloor);
+			try
 			{
-				//either the elevator is at the top or it's not at the bottom right now
-				if(XmlParser.getTotalFloorNumber() == this.currentFloor + 1 || ( this.direction == Direction.UP && this.currentFloor != 0 ))
-				{
-					this.direction = Direction.DOWN;
-				}
-				else if(this.currentFloor == 0 || this.direction == Direction.DOWN)
+				//let passengers who are supposed to get off on this floor out first, so their spots are free for the people waiting to board
+				unloadCurrentFloor();
+
+				boolean bGuessedDirection = this.requestQueue.isEmpty();
+				if(bGuessedDirection)
 				{
-					this.direction = Direction.UP;
+					//either the elevator is at the top or it's not at the bottom right now. an idle elevator parked between the two tries UP first
+					if(this.currentFloor == this.maxFloors || ( this.direction == Direction.UP && this.currentFloor != this.minFloors ))
+					{
+						setDirection(Direction.DOWN);
+					}
+					else
+					{
+						setDirection(Direction.UP);
+					}
 				}
-			}
-			ElevatorControlModule.getInstance().elevatorDoorsOpened(this, this.currentFloor);
-			ArrayList<Person> peopleToRemove = new ArrayList<Person>();
+				context.getControlModule().elevatorDoorsOpened(this, this.currentFloor);
 
-			//find any passengers who are supposed to get off on this floor and remove them
-			for( int i = 0; i < this.passengerList.size(); ++i)
-			{
-				Person currentPerson = this.passengerList.get(i);
-				if(currentPerson.getDestinationFloor() == this.currentFloor + 1)
+				//nobody boarded in the guessed direction, so let the people waiting to go the other way board instead
+				if(bGuessedDirection && this.requestQueue.isEmpty())
 				{
-					peopleToRemove.add(currentPerson);
+					if(this.direction == Direction.DOWN && this.currentFloor < this.maxFloors)
+					{
+						setDirection(Direction.UP);
+						context.getControlModule().elevatorDoorsOpened(this, this.currentFloor);
+					}
+					else if(this.direction == Direction.UP && this.currentFloor > this.minFloors)
+					{
+						setDirection(Direction.DOWN);
+						context.getControlModule().elevatorDoorsOpened(this, this.currentFloor);
+					}
 				}
+				hold(doorSpeed);
 			}
-			if(!peopleToRemove.isEmpty())
+			catch (InterruptedException | NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
 			{
-				try
-				{
-					this.removePassengers(peopleToRemove);
-				}
-				catch (PassengerNotFoundException e)
-				{
-					e.printStackTrace();
-				}
+				e.printStackTrace();
 			}
-			wait(doorSpeed);
 		}
-		catch (InterruptedException | NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		finally
 		{
-			e.printStackTrace();
+			unlockAndTransfer();
 		}
 	}
 
@@ -320,18 +569,52 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * is determined by the time specified (in milliseconds) in the xmlInputs file
 	 */
 	@Override
-	public synchronized void closeDoors() 
+	public void closeDoors() 
 	{
-		this.bDoorsOpen = false;
+		elevatorLock.lock();
+		try
+		{
+			this.bDoorsOpen = false;
+
+			//time to close doors, add a wait
+			try
+			{
+				hold(doorSpeed);
+			}
+			catch (InterruptedException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
 
-		//time to close doors, add a wait
+	/**
+	 * Opens and closes the doors at the current floor. A threaded Elevator only records the request and wakes its own thread, which runs the
+	 * door cycle before it moves on, so the caller returns without waiting for the doors. An event-driven Elevator, or one that has been shut
+	 * down, runs the door cycle right away, since holding the doors there only pushes back its next pass.
+	 */
+	@Override
+	public void requestDoorCycle()
+	{
+		elevatorLock.lock();
 		try
 		{
-			wait(doorSpeed);
+			if(this.eventClock != null || !this.running)
+			{
+				this.openDoors();
+				this.closeDoors();
+				return;
+			}
+			this.bDoorCycleRequested = true;
+			requestArrived.signalAll();
 		}
-		catch (InterruptedException e)
+		finally
 		{
-			e.printStackTrace();
+			unlockAndTransfer();
 		}
 	}
 
@@ -340,9 +623,22 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @return The current direction of this elevator object.
 	 */
 	@Override
-	public synchronized Direction getDirection()
+	public Direction getDirection()
 	{
-		return this.direction;
+		int slot = this.stateSlot;
+		if(slot >= 0)
+		{
+			return this.stateTable.getElevatorDirection(slot);
+		}
+		elevatorLock.lock();
+		try
+		{
+			return this.direction;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
 	}
 
 	/**
@@ -351,61 +647,314 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @throws PassengerNotFoundException if the passenger passed isn't in the passenger list.
 	 */
 	@Override
-	public synchronized void removePassenger(Person inPassenger) throws PassengerNotFoundException
-	{            
-		if(!passengerList.contains(inPassenger))
+	public void removePassenger(Person inPassenger) throws PassengerNotFoundException
+	{
+		elevatorLock.lock();
+		try
+		{
+			if(!isPassenger(inPassenger))
+			{
+				throw new PassengerNotFoundException("The passenger object that was meant to be removed is not present in the elevator!");
+			}
+			this.passengersByDestination.get(inPassenger.getDestinationFloor() - 1).remove(inPassenger);
+			removeFromPassengerList(inPassenger);
+			letOut(inPassenger);
+		}
+		finally
 		{
-			throw new PassengerNotFoundException("The passenger object that was meant to be removed is not present in the elevator!");
+			unlockAndTransfer();
 		}
-		System.out.println("Person " + inPassenger.getID() + " is being removed from Elevator " + ( this.getElevatorId() + 1 ) + " at floor " + ( this.currentFloor + 1 ) );
-		passengerList.remove(inPassenger);
 	}
 
 	/**
-	 * Remove multiple passengers from the elevator.
-	 * @param inPeople The passengers that will be removed from the elevator. Each value in inPeople must be inside of the passengerList and should not be negative.
-	 * @throws NegativePassengerException throws an exception if the passenger value passed is negative.
-	 * @throws InvalidIndexException throws an exception if the passenger passed isn't in the passenger list.
+	 * Lets every passenger whose destination is the current floor out of this elevator. Only the passengers getting off are looked at. The
+	 * list of the floor is detached while they leave, so a transferring passenger who makes this elevator open its doors again finds nobody
+	 * left to let out, and it is reused afterwards so unloading does not allocate.
 	 */
-	@Override
-	public synchronized void removePassengers(ArrayList <Person> inPeople) throws PassengerNotFoundException
+	private void unloadCurrentFloor()
 	{
-		if(!this.passengerList.containsAll(inPeople))
+		if(this.currentFloor >= this.passengersByDestination.size())
 		{
-			throw new PassengerNotFoundException("At least one of the passenger objects that were meant to be removed are not present in the elevator!");
+			return;
 		}
-		for(Person personToRemove : inPeople)
+		ArrayList<Person> leaving = this.passengersByDestination.get(this.currentFloor);
+		if(leaving == null || leaving.isEmpty())
 		{
-			this.removePassenger(personToRemove);
+			return;
+		}
+		this.passengersByDestination.set(this.currentFloor, null);
+		for(int i = 0; i < leaving.size(); ++i)
+		{
+			removeFromPassengerList(leaving.get(i));
+		}
+		for(int i = 0; i < leaving.size(); ++i)
+		{
+			letOut(leaving.get(i));
+		}
+		leaving.clear();
+		if(this.passengersByDestination.get(this.currentFloor) == null)
+		{
+			this.passengersByDestination.set(this.currentFloor, leaving);
 		}
 	}
 
 	/**
-	 * Accessor for the capacity of this elevator object.
-	 * @return the number of people that the elevator object can hold.
-	 */
-	@Override
-	public synchronized int getCapacity() 
-	{	
-		return this.capacity;
-	}
-
-	/**
-	 * Retrieves all passengers in the passengerList.
-	 * @return the collection of passengers in the list as an ArrayList.
+	 * Hands a passenger who has just left this elevator over to the rest of the simulation: either to the floor, if they still have to change
+	 * elevators, or to the statistics as delivered.
+	 * @param inPassenger the passenger who has left the elevator
 	 */
-	@Override
-	public synchronized ArrayList<Person> getPassengers() 
+	private void letOut(Person inPassenger)
 	{
-		return this.passengerList;
-	}
-
-	/**
-	 * Retrieves the elevator's id.
+		if(context.getConsole().isEnabled())
+		{
+			context.getConsole().println("Person " + inPassenger.getID() + " is being removed from Elevator " + ( this.getElevatorId() + 1 ) + " at floor " + ( this.currentFloor + 1 ) );
+		}
+		context.getEventLog().record("alight person " + inPassenger.getID() + " elevator " + this.getElevatorId() + " floor " + this.currentFloor);
+		if(inPassenger.hasTransfer())
+		{
+			if(this.eventClock == null)
+			{
+				this.departingTransfers.add(inPassenger);
+			}
+			else
+			{
+				transferPassenger(inPassenger);
+			}
+		}
+		else
+		{
+			context.getStatistics().personDelivered(inPassenger);
+			PassengerStore passengerStore = context.getPassengerStore();
+			if(passengerStore != null && inPassenger.getPassengerRecord() >= 0)
+			{
+				passengerStore.recordDelivery(inPassenger.getPassengerRecord(), inPassenger.getBoardingTime(), context.getStatistics().getTime());
+			}
+		}
+	}
+
+	/**
+	 * Whether a Person is inside this elevator, found through the position the Person keeps rather than by searching
+	 * @param inPassenger the Person to look for
+	 * @return true if inPassenger is one of this elevator's passengers
+	 */
+	private boolean isPassenger(Person inPassenger)
+	{
+		int slot = inPassenger == null ? -1 : inPassenger.getElevatorSlot();
+		return slot >= 0 && slot < this.passengerList.size() && this.passengerList.get(slot) == inPassenger;
+	}
+
+	/**
+	 * Adds a Person to the end of the passenger list and to the list of their destination floor
+	 * @param inPassenger the Person entering this elevator
+	 */
+	private void addToPassengerList(Person inPassenger)
+	{
+		inPassenger.setElevatorSlot(this.passengerList.size());
+		this.passengerList.add(inPassenger);
+		int destination = inPassenger.getDestinationFloor() - 1;
+		while(this.passengersByDestination.size() <= destination)
+		{
+			this.passengersByDestination.add(null);
+		}
+		ArrayList<Person> bucket = this.passengersByDestination.get(destination);
+		if(bucket == null)
+		{
+			bucket = new ArrayList<Person>();
+			this.passengersByDestination.set(destination, bucket);
+		}
+		bucket.add(inPassenger);
+		publishLoad();
+	}
+
+	/**
+	 * Takes a Person out of the passenger list in constant time by moving the last passenger into their position. The list of their
+	 * destination floor is left to the caller.
+	 * @param inPassenger a Person inside this elevator
+	 */
+	private void removeFromPassengerList(Person inPassenger)
+	{
+		int slot = inPassenger.getElevatorSlot();
+		int last = this.passengerList.size() - 1;
+		Person lastPassenger = this.passengerList.remove(last);
+		if(slot != last)
+		{
+			this.passengerList.set(slot, lastPassenger);
+			lastPassenger.setElevatorSlot(slot);
+		}
+		inPassenger.setElevatorSlot(-1);
+		publishLoad();
+	}
+
+	/**
+	 * Puts a passenger who has reached their transfer floor back on the floor, so they can take an elevator of another bank to their final
+	 * destination.
+	 * @param inPassenger the passenger changing elevators
+	 */
+	private void transferPassenger(Person inPassenger)
+	{
+		try
+		{
+			int transferFloor = inPassenger.getDestinationFloor();
+			inPassenger.completeTransfer();
+			context.getEventLog().record("transfer person " + inPassenger.getID() + " floor " + ( transferFloor - 1 ));
+			context.getControlModule().addPersonToFloor(inPassenger, transferFloor);
+		}
+		catch (NegativeFloorException | NullPassengerException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Releases elevatorLock, and once this thread no longer holds it, puts the passengers who got off to change elevators back on their floor
+	 */
+	private void unlockAndTransfer()
+	{
+		elevatorLock.unlock();
+		if(elevatorLock.isHeldByCurrentThread())
+		{
+			return;
+		}
+		Person transfer;
+		while((transfer = this.departingTransfers.poll()) != null)
+		{
+			transferPassenger(transfer);
+		}
+	}
+
+	/**
+	 * Remove multiple passengers from the elevator.
+	 * @param inPeople The passengers that will be removed from the elevator. Each value in inPeople must be inside of the passengerList and should not be negative.
+	 * @throws NegativePassengerException throws an exception if the passenger value passed is negative.
+	 * @throws InvalidIndexException throws an exception if the passenger passed isn't in the passenger list.
+	 */
+	@Override
+	public void removePassengers(ArrayList <Person> inPeople) throws PassengerNotFoundException
+	{
+		elevatorLock.lock();
+		try
+		{
+			for(Person personToRemove : inPeople)
+			{
+				if(!isPassenger(personToRemove))
+				{
+					throw new PassengerNotFoundException("At least one of the passenger objects that were meant to be removed are not present in the elevator!");
+				}
+			}
+			for(Person personToRemove : inPeople)
+			{
+				this.removePassenger(personToRemove);
+			}
+		}
+		finally
+		{
+			unlockAndTransfer();
+		}
+	}
+
+	/**
+	 * Accessor for the capacity of this elevator object.
+	 * @return the number of people that the elevator object can hold.
+	 */
+	@Override
+	public int getCapacity() 
+	{
+		elevatorLock.lock();
+		try
+		{
+			return this.capacity;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Accessor for the number of passengers currently inside this elevator.
+	 * @return the size of the passengerList.
+	 */
+	@Override
+	public int getLoad()
+	{
+		int slot = this.stateSlot;
+		if(slot >= 0)
+		{
+			return this.stateTable.getElevatorLoad(slot);
+		}
+		elevatorLock.lock();
+		try
+		{
+			return this.passengerList.size();
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Computes how many more people this elevator could take on at a floor. Passengers always travel in this elevator's current direction, so
+	 * those whose destination lies between the current floor and floorNum have left by the time the elevator gets there.
+	 * @param floorNum the ONE-BASED floor to check.
+	 * @return the number of free spots the elevator will have at floorNum, or the full capacity if floorNum is behind this elevator.
+	 */
+	@Override
+	public int getFreeCapacityAt(int floorNum)
+	{
+		elevatorLock.lock();
+		try
+		{
+			int internalFloorNum = floorNum - 1;
+			boolean bAhead = ( this.direction == Direction.UP && internalFloorNum >= this.currentFloor )
+					|| ( this.direction == Direction.DOWN && internalFloorNum <= this.currentFloor )
+					|| this.direction == Direction.IDLE;
+			if(!bAhead)
+			{
+				//the elevator finishes its current trip, and lets everybody off, before it turns around
+				return this.capacity;
+			}
+			int staying = 0;
+			for(Person curPassenger : this.passengerList)
+			{
+				int destination = curPassenger.getDestinationFloor() - 1;
+				if(Math.abs(destination - this.currentFloor) > Math.abs(internalFloorNum - this.currentFloor))
+				{
+					staying++;
+				}
+			}
+			return this.capacity - staying;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves all passengers in the passengerList.
+	 * @return the collection of passengers in the list as an ArrayList.
+	 */
+	@Override
+	public ArrayList<Person> getPassengers() 
+	{
+		elevatorLock.lock();
+		try
+		{
+			return this.passengerList;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves the elevator's id. The id never changes, so no lock is taken.
 	 * @return returns the id that corresponds to the elevator that requested this method.
 	 */
 	@Override
-	public synchronized int getElevatorId() 
+	public int getElevatorId() 
 	{
 		return this.elevatorId;
 	}
@@ -415,9 +964,22 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @return the index of the current floor that the elevator is on.
 	 */
 	@Override
-	public synchronized int getCurrentFloor()
+	public int getCurrentFloor()
 	{
-		return this.currentFloor + 1;
+		int slot = this.stateSlot;
+		if(slot >= 0)
+		{
+			return this.stateTable.getElevatorFloor(slot) + 1;
+		}
+		elevatorLock.lock();
+		try
+		{
+			return this.currentFloor + 1;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
 	}
 
 	/**
@@ -425,9 +987,68 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @return returns the door speed time for the simulation
 	 */
 	@Override
-	public synchronized int getDoorSpeed()
+	public int getDoorSpeed()
 	{
-		return this.doorSpeed;
+		elevatorLock.lock();
+		try
+		{
+			return this.doorSpeed;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves the travel speed time.
+	 * @return returns the time it takes this elevator to travel one floor, measured in milliseconds
+	 */
+	@Override
+	public int getSpeed()
+	{
+		elevatorLock.lock();
+		try
+		{
+			return this.speed;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Lists the floors this elevator will stop at, in the order it will reach them
+	 * @return a copy of the stops as ONE-BASED floor numbers, nearest first when travelling DOWN and lowest first otherwise
+	 */
+	@Override
+	public ArrayList<Integer> getRequestQueue()
+	{
+		elevatorLock.lock();
+		try
+		{
+			ArrayList<Integer> queueToReturn = new ArrayList<Integer>(this.requestQueue.cardinality());
+			if(this.direction == Direction.DOWN)
+			{
+				for(int requestedFloor = this.requestQueue.previousSetBit(this.requestQueue.length() - 1); requestedFloor >= 0; requestedFloor = this.requestQueue.previousSetBit(requestedFloor - 1))
+				{
+					queueToReturn.add(requestedFloor + 1);
+				}
+			}
+			else
+			{
+				for(int requestedFloor = this.requestQueue.nextSetBit(0); requestedFloor >= 0; requestedFloor = this.requestQueue.nextSetBit(requestedFloor + 1))
+				{
+					queueToReturn.add(requestedFloor + 1);
+				}
+			}
+			return queueToReturn;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
 	}
 
 	/**
@@ -435,9 +1056,17 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @return returns true if the doors are open or false if the doors are closed.
 	 */
 	@Override
-	public synchronized boolean isOpen() 
+	public boolean isOpen() 
 	{
-		return bDoorsOpen;
+		elevatorLock.lock();
+		try
+		{
+			return bDoorsOpen;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
 	}
 
 	/**
@@ -445,18 +1074,64 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @return returns true if the elevator is currently running and accepting floor requests or false if the system is inactive.
 	 */
 	@Override
-	public synchronized boolean isRunning() 
+	public boolean isRunning() 
 	{
-		return running;
+		elevatorLock.lock();
+		try
+		{
+			return running;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Whether this Elevator stops at a floor. An Elevator serves its lowest floor and every floor from its lowest served floor up to its
+	 * highest floor.
+	 * @param floorNum the floor to check. NOTE: this method uses ONE-BASED indexing
+	 * @return true if this Elevator can pick up and drop off passengers at floorNum
+	 */
+	@Override
+	public boolean servesFloor(int floorNum)
+	{
+		int internalFloorNum = floorNum - 1;
+		return internalFloorNum == this.minFloors || ( internalFloorNum >= this.lowestServedFloor && internalFloorNum <= this.maxFloors );
 	}
 
 	/**
 	 * Stops the elevator from running immediately without returning to its default floor. Once shut down, it cannot be started up again.
 	 */
 	@Override
-	public synchronized void shutDown()
+	public void shutDown()
 	{
-		this.running = false;
+		elevatorLock.lock();
+		try
+		{
+			this.running = false;
+			if(this.bIndexed)
+			{
+				this.positionIndex.remove(this.indexSlot, this.currentFloor, this.direction);
+				this.bIndexed = false;
+			}
+			if(this.stateSlot >= 0)
+			{
+				this.stateTable.releaseElevator(this.stateSlot);
+				this.stateSlot = -1;
+			}
+			//wake the elevator's thread so it notices that it has been shut down instead of finishing its current wait
+			requestArrived.signalAll();
+			if(this.pendingStep != null)
+			{
+				this.pendingStep.cancel();
+				this.pendingStep = null;
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
 	}
 
 	/**
@@ -469,123 +1144,392 @@ public class Elevator implements ElevatorInterface, Runnable
 		{
 			long tStart = System.currentTimeMillis();
 
-			System.out.println("Elevator " + ( getElevatorId() + 1 ) + " has started");
-			running = true;
+			context.getConsole().println("Elevator " + ( getElevatorId() + 1 ) + " has started");
+			//running starts out true, and an elevator shut down before its thread got here must stay shut down
 			while (running)
 			{
 				// if current floor is in request queue.      
-				if (requestQueue.contains(this.currentFloor))
-				{
-					requestQueue.remove((Integer)this.currentFloor);
-					this.openDoors();
-					this.closeDoors();
-				}
+				serviceCurrentFloor();
 
 				// if queue is empty  switch to idle.
 				if (requestQueue.isEmpty())
 				{
-					System.out.println("Request queue for Elevator " + ( getElevatorId() + 1 ) + " is empty");
-
-					this.direction = Direction.IDLE;
+					becomeIdle();
 					tStart = System.currentTimeMillis();
 				}
+				reportDirectionChange();
 
-				synchronized(this)
+				elevatorLock.lock();
+				try
 				{
-					switch (direction)
-					{
-					case IDLE:
-						wait(10000);
-						tStart = System.currentTimeMillis() - tStart;
-
-						//only add a new request (and add an entry to the log) if the elevator is idle and isn't already at its default floor
-						if (tStart >= 10001 && this.currentFloor != 0)
+						switch (direction)
 						{
-							System.out.println("Elevator " + ( getElevatorId() + 1 ) + " has been idle for 10 seconds. Returning to floor 1");
+						case IDLE:
+							requestArrived.await(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+							tStart = System.currentTimeMillis() - tStart;
 
-							//since this is a hard coded value, there's no point in adding this exception to the outer catch block. just take care of it here
-							try
+							//only ask the parking policy once the elevator has been idle for the whole timeout
+							if (tStart >= IDLE_TIMEOUT + 1)
 							{
-								addFloorToQueue(1);
+								park();
 							}
-							catch(NegativeFloorException e)
+
+							break;
+						case UP:
+						case DOWN:
+							tStart = System.currentTimeMillis();
+							requestArrived.await(speed, TimeUnit.MILLISECONDS);
+							//a door cycle requested for this floor has to run before the elevator leaves it
+							if(!bDoorCycleRequested)
 							{
-								e.printStackTrace();
+								moveOneFloor();
 							}
 						}
+				}
+				finally
+				{
+					elevatorLock.unlock();
+				}
+			}
+		}
+		catch(InterruptedException e)
+		{
+			e.printStackTrace();
+		}
+	}
 
-						break;
-					case UP:
-						tStart = System.currentTimeMillis();
-						wait(speed);
-						if(this.currentFloor < this.maxFloors)
-						{
-							this.currentFloor++;
-							System.out.println("Elevator " + ( getElevatorId() + 1 ) + " passing floor " + ( currentFloor + 1 ) );
-							this.printRequestQueue();
-						}
-						else if(this.currentFloor == this.maxFloors)
-						{
-							this.direction = Direction.IDLE;
-						}
+	/**
+	 * Performs one pass of this Elevator's loop when the simulation is event-driven. This mirrors a single iteration of run(), except that
+	 * instead of waiting on requestArrived the time spent travelling or sitting idle is scheduled on the SimulationClock.
+	 */
+	private void step()
+	{
+		elevatorLock.lock();
+		try
+		{
+			this.pendingStep = null;
+			if(!running)
+			{
+				return;
+			}
+			this.busyUntil = Math.max(this.busyUntil, eventClock.getCurrentTime());
+			serviceCurrentFloor();
+			if (requestQueue.isEmpty())
+			{
+				becomeIdle();
+			}
+			reportDirectionChange();
 
-						break;
-					case DOWN:
-						tStart = System.currentTimeMillis();
-						wait(speed);
-						if(this.currentFloor > this.minFloors)
-						{
-							this.currentFloor--;
-							System.out.println("Elevator " + ( getElevatorId() + 1 ) + " passing floor " + ( currentFloor + 1 ) );
-							this.printRequestQueue();
-						}
-						else if(this.currentFloor == this.minFloors)
-						{
-							this.direction = Direction.IDLE;
-						}
+			long doorDelay = this.busyUntil - eventClock.getCurrentTime();
+			switch (direction)
+			{
+			case IDLE:
+				this.idleWaiting = true;
+				this.pendingStep = eventClock.schedule(doorDelay + IDLE_TIMEOUT, this::idleTimeout);
+				break;
+			case UP:
+			case DOWN:
+				this.pendingStep = eventClock.schedule(doorDelay + speed, this::travel);
+				break;
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Fires once this Elevator has spent speed milliseconds travelling in event-driven mode. Moves the Elevator and continues its loop.
+	 */
+	private void travel()
+	{
+		elevatorLock.lock();
+		try
+		{
+			this.pendingStep = null;
+			if(running)
+			{
+				moveOneFloor();
+				step();
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Fires once this Elevator has sat idle for IDLE_TIMEOUT milliseconds in event-driven mode without receiving a new request.
+	 */
+	private void idleTimeout()
+	{
+		elevatorLock.lock();
+		try
+		{
+			this.pendingStep = null;
+			this.idleWaiting = false;
+			if(running)
+			{
+				park();
+				step();
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Schedules the next pass of this Elevator's loop on the SimulationClock
+	 * @param delay the number of simulated milliseconds from now at which the next pass should occur
+	 */
+	private void scheduleStep(long delay)
+	{
+		elevatorLock.lock();
+		try
+		{
+			this.pendingStep = eventClock.schedule(delay, this::step);
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Lets this Elevator know that a new request has been added to its queue. A threaded Elevator is woken up through requestArrived, while an
+	 * event-driven Elevator that is sitting idle has its idle timeout replaced with an immediate pass of its loop.
+	 */
+	private void signalRequest()
+	{
+		elevatorLock.lock();
+		try
+		{
+			requestArrived.signalAll();
+			if(this.eventClock != null && this.idleWaiting && this.running)
+			{
+				this.idleWaiting = false;
+				this.pendingStep.cancel();
+				scheduleStep(Math.max(0, this.busyUntil - eventClock.getCurrentTime()));
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Lets the control module know if this Elevator has become idle or changed direction since the last time it was told, so that it can retry
+	 * any hall calls which this Elevator was unable to take before. A threaded Elevator calls this without holding elevatorLock, so the control
+	 * module is free to lock other elevators while it retries its calls.
+	 */
+	private void reportDirectionChange()
+	{
+		elevatorLock.lock();
+		try
+		{
+			if(this.direction == this.lastReportedDirection)
+			{
+				return;
+			}
+			this.lastReportedDirection = this.direction;
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+		try
+		{
+			context.getControlModule().elevatorDirectionChanged(this);
+		}
+		catch (NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Keeps this Elevator busy for the specified amount of time. A threaded Elevator simply waits, while an event-driven Elevator pushes back the
+	 * time at which its next pass will occur.
+	 * @param time the number of milliseconds that this Elevator should be busy for
+	 * @throws InterruptedException if the Elevator's thread is interrupted while waiting
+	 */
+	private void hold(int time) throws InterruptedException
+	{
+		elevatorLock.lock();
+		try
+		{
+			if(this.eventClock == null)
+			{
+				requestArrived.await(time, TimeUnit.MILLISECONDS);
+			}
+			else
+			{
+				this.busyUntil = Math.max(this.busyUntil, eventClock.getCurrentTime()) + time;
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Opens and closes the doors if the current floor is inside the request queue or a door cycle has been requested, removing the floor from the queue.
+	 */
+	private void serviceCurrentFloor()
+	{
+		elevatorLock.lock();
+		try
+		{
+			if (requestQueue.get(this.currentFloor) || this.bDoorCycleRequested)
+			{
+				this.bDoorCycleRequested = false;
+				removeStop(this.currentFloor);
+				this.openDoors();
+				this.closeDoors();
+			}
+		}
+		finally
+		{
+			unlockAndTransfer();
+		}
+	}
+
+	/**
+	 * Sets the direction of this Elevator to IDLE once its request queue has been emptied.
+	 */
+	private void becomeIdle()
+	{
+		elevatorLock.lock();
+		try
+		{
+			context.getConsole().println("Request queue for Elevator " + ( getElevatorId() + 1 ) + " is empty");
+
+			setDirection(Direction.IDLE);
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Moves this Elevator one floor in its current direction, setting it to IDLE if it has reached the end of its range.
+	 */
+	private void moveOneFloor()
+	{
+		elevatorLock.lock();
+		try
+		{
+			if(this.direction == Direction.UP)
+			{
+				if(this.currentFloor < this.maxFloors)
+				{
+					setCurrentFloor(this.currentFloor + 1);
+					if(context.getConsole().isEnabled())
+					{
+						context.getConsole().println("Elevator " + ( getElevatorId() + 1 ) + " passing floor " + ( currentFloor + 1 ) );
+					}
+					context.getEventLog().record("move elevator " + this.getElevatorId() + " floor " + this.currentFloor);
+					this.printRequestQueue();
+				}
+				else if(this.currentFloor == this.maxFloors)
+				{
+					setDirection(Direction.IDLE);
+				}
+			}
+			else if(this.direction == Direction.DOWN)
+			{
+				if(this.currentFloor > this.minFloors)
+				{
+					setCurrentFloor(this.currentFloor - 1);
+					if(context.getConsole().isEnabled())
+					{
+						context.getConsole().println("Elevator " + ( getElevatorId() + 1 ) + " passing floor " + ( currentFloor + 1 ) );
 					}
+					context.getEventLog().record("move elevator " + this.getElevatorId() + " floor " + this.currentFloor);
+					this.printRequestQueue();
+				}
+				else if(this.currentFloor == this.minFloors)
+				{
+					setDirection(Direction.IDLE);
 				}
 			}
 		}
-		catch(InterruptedException e)
+		finally
 		{
-			e.printStackTrace();
+			elevatorLock.unlock();
 		}
 	}
 
 	/**
-	 * Initializes the collection which holds the floor requests that this elevator object should respond to.
-	 * Will not create a new collection object if one exists already
+	 * Sends this Elevator to the floor chosen by the parking policy after it has been idle for IDLE_TIMEOUT milliseconds. Nothing happens if the
+	 * policy wants this Elevator to stay where it is.
 	 */
-	private synchronized void initializeRequestQueue()
+	private void park()
 	{
-		if(this.requestQueue == null)
+		elevatorLock.lock();
+		try
 		{
-			this.requestQueue = new ArrayList<Integer>();
+			int parkingFloor = parkingPolicy.chooseParkingFloor(this, context.getStatistics().getTime());
+			if(parkingFloor == this.currentFloor + 1)
+			{
+				return;
+			}
+			context.getConsole().println("Elevator " + ( getElevatorId() + 1 ) + " has been idle for 10 seconds. Parking at floor " + parkingFloor);
+
+			//the parking policy only picks floors this elevator serves, so there's no point in adding this exception to the outer catch block
+			this.bAddingParkingFloor = true;
+			try
+			{
+				this.bParked = addFloorToQueue(parkingFloor);
+			}
+			catch(NegativeFloorException e)
+			{
+				e.printStackTrace();
+			}
+			finally
+			{
+				this.bAddingParkingFloor = false;
+			}
+			if(!this.bParked)
+			{
+				parkingPolicy.releaseParkingFloor(this);
+			}
+		}
+		finally
+		{
+			elevatorLock.unlock();
 		}
 	}
 
 	/**
-	 * Private helper method used to print the external representation (one-based indices) of this Elevator's request queue (stored as zero-based indices)
+	 * Initializes the set which holds the floor requests that this elevator object should respond to.
+	 * Will not create a new set if one exists already
 	 */
-	private void printRequestQueue()
+	private void initializeRequestQueue()
 	{
-		ArrayList<Integer> queueToPrint = new ArrayList<Integer>(requestQueue);
-		for(int i = 0; i < queueToPrint.size(); ++i)
+		if(this.requestQueue == null)
 		{
-			queueToPrint.set(i, queueToPrint.get(i) + 1);
+			this.requestQueue = new BitSet(this.maxFloors + 1);
 		}
-		System.out.println("Elevator " + ( this.getElevatorId() + 1 ) + "'s request queue: " + queueToPrint.toString());
 	}
 
 	/**
-	 * Sets the identifier number assigned to this elevator.
-	 * @param inId The unique identifier number. This number need not be in consecutive order compared to other elevators in the building, but it must be no larger than the 
-	 * maximum number of elevators in the simulation environment.
+	 * Private helper method used to print the external representation (one-based indices) of this Elevator's request queue (stored as zero-based indices).
+	 * Nothing is built if the console is quiet.
 	 */
-	private synchronized void setId(int inId)
+	private void printRequestQueue()
 	{
-		this.elevatorId = inId;
+		if(context.getConsole().isEnabled())
+		{
+			context.getConsole().println("Elevator " + ( this.getElevatorId() + 1 ) + "'s request queue: " + getRequestQueue().toString());
+		}
 	}
 
 	/**
@@ -594,7 +1538,7 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * private variable - only to be used to handle the maximum elevator floors.
 	 * @param inMaxFloors The total number of floors the elevator can visit.
 	 */
-	private synchronized void setMaxFloors(int inMaxFloors)
+	private void setMaxFloors(int inMaxFloors)
 	{
 		this.maxFloors = inMaxFloors - 1;
 	}
@@ -605,7 +1549,7 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @param inMinFloors The lowest numbered floor the elevator can visit.
 	 * @throws NegativeFloorException if inMinFloors is less than 0 (using ZERO-BASED indexing)
 	 */
-	private synchronized void setMinFloors(int inMinFloors) throws NegativeFloorException
+	private void setMinFloors(int inMinFloors) throws NegativeFloorException
 	{
 		if(inMinFloors < 1)
 		{
@@ -614,10 +1558,157 @@ public class Elevator implements ElevatorInterface, Runnable
 		this.minFloors = inMinFloors - 1;
 	}
 
+	/**
+	 * Lists this Elevator in the position index of its simulation and takes a record in its state table, if it keeps one. ElevatorFactory calls
+	 * this once the Elevator has been constructed, so that no other thread can find an Elevator that is only partly built. The elevator may
+	 * already be running by then, so its current state is published rather than the state it started out with. An Elevator that has been shut
+	 * down or is already registered is left alone.
+	 */
+	public void register()
+	{
+		elevatorLock.lock();
+		try
+		{
+			if(!this.running || this.positionIndex != null)
+			{
+				return;
+			}
+			addToIndex();
+			addToStateTable();
+		}
+		finally
+		{
+			elevatorLock.unlock();
+		}
+	}
+
+	/**
+	 * Lists this Elevator in the position index of its simulation. Must be called while holding elevatorLock.
+	 */
+	private void addToIndex()
+	{
+		this.positionIndex = context.getElevatorIndex();
+		this.indexSlot = positionIndex.register();
+		positionIndex.add(this.indexSlot, this, this.currentFloor, this.direction);
+		this.bIndexed = true;
+	}
+
+	/**
+	 * Takes a record in the state table of this Elevator's simulation, if it keeps one, and publishes the state of this Elevator to it. An
+	 * elevator that does not fit in the table keeps its state in its own fields only. Must be called while holding elevatorLock.
+	 */
+	private void addToStateTable()
+	{
+		OffHeapStateTable table = context.getStateTable();
+		if(table == null || this.maxFloors >= table.getFloorCount())
+		{
+			return;
+		}
+		int slot = table.registerElevator();
+		if(slot < 0)
+		{
+			return;
+		}
+		table.setElevatorFloor(slot, this.currentFloor);
+		table.setElevatorDirection(slot, this.direction);
+		table.setElevatorLoad(slot, this.passengerList.size());
+		for(int stop = requestQueue.nextSetBit(0); stop >= 0; stop = requestQueue.nextSetBit(stop + 1))
+		{
+			table.addStop(slot, stop);
+		}
+		this.stateTable = table;
+		this.stateSlot = slot;
+	}
+
+	/**
+	 * Adds a stop to the request queue, keeping the state table up to date. Must be called while holding elevatorLock.
+	 * @param internalFloorNum the ZERO-BASED floor to stop at
+	 */
+	private void addStop(int internalFloorNum)
+	{
+		this.requestQueue.set(internalFloorNum);
+		if(this.stateSlot >= 0)
+		{
+			this.stateTable.addStop(this.stateSlot, internalFloorNum);
+		}
+	}
+
+	/**
+	 * Removes a stop from the request queue, keeping the state table up to date. Must be called while holding elevatorLock.
+	 * @param internalFloorNum the ZERO-BASED floor that no longer needs a stop
+	 */
+	private void removeStop(int internalFloorNum)
+	{
+		this.requestQueue.clear(internalFloorNum);
+		if(this.stateSlot >= 0)
+		{
+			this.stateTable.removeStop(this.stateSlot, internalFloorNum);
+		}
+	}
+
+	/**
+	 * Publishes the number of passengers to the state table. Must be called while holding elevatorLock.
+	 */
+	private void publishLoad()
+	{
+		if(this.stateSlot >= 0)
+		{
+			this.stateTable.setElevatorLoad(this.stateSlot, this.passengerList.size());
+		}
+	}
+
+	/**
+	 * Changes the direction this Elevator is travelling in, keeping the position index up to date. Must be called while holding elevatorLock.
+	 * @param inDirection the new direction
+	 */
+	private void setDirection(Direction inDirection)
+	{
+		if(this.bIndexed)
+		{
+			positionIndex.move(this.indexSlot, this, this.currentFloor, this.direction, this.currentFloor, inDirection);
+		}
+		this.direction = inDirection;
+		if(this.stateSlot >= 0)
+		{
+			this.stateTable.setElevatorDirection(this.stateSlot, inDirection);
+		}
+	}
+
+	/**
+	 * Changes the floor this Elevator is on, keeping the position index up to date. Must be called while holding elevatorLock.
+	 * @param inFloor the ZERO-BASED floor number this Elevator has moved to
+	 */
+	private void setCurrentFloor(int inFloor)
+	{
+		if(this.bIndexed)
+		{
+			positionIndex.move(this.indexSlot, this, this.currentFloor, this.direction, inFloor, this.direction);
+		}
+		this.currentFloor = inFloor;
+		if(this.stateSlot >= 0)
+		{
+			this.stateTable.setElevatorFloor(this.stateSlot, inFloor);
+		}
+	}
+
+	/**
+	 * Sets the lowest floor above the minimum floor that this elevator stops at.
+	 * @param inLowestServedFloor the lowest served floor, using ONE-BASED indexing
+	 * @throws NegativeFloorException if inLowestServedFloor is below the minimum floor or above the maximum floor of this elevator
+	 */
+	private void setLowestServedFloor(int inLowestServedFloor) throws NegativeFloorException
+	{
+		if(inLowestServedFloor - 1 < this.minFloors || ( inLowestServedFloor - 1 > this.minFloors && inLowestServedFloor - 1 > this.maxFloors ))
+		{
+			throw new NegativeFloorException("Attempting to serve floors outside the range of an elevator! (inLowestServedFloor: " + inLowestServedFloor + ")");
+		}
+		this.lowestServedFloor = inLowestServedFloor - 1;
+	}
+
 	/**
 	 * Sets the initial direction for the elevator to IDLE.
 	 */
-	private synchronized void setInitialDirection()
+	private void setInitialDirection()
 	{
 		this.direction = Direction.IDLE;
 	}
@@ -627,7 +1718,7 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * @param inCap the total capacity limit the elevator can hold.
 	 * @throws NegativeCapacityException if inCap is negative
 	 */
-	private synchronized void setCapacity(int inCap) throws NegativeCapacityException
+	private void setCapacity(int inCap) throws NegativeCapacityException
 	{
 		if(inCap < 1)
 		{
@@ -637,10 +1728,10 @@ public class Elevator implements ElevatorInterface, Runnable
 	}
 
 	/**
-	 * Sets the speed of this elevator. Whenever an elevator moves between floors, this value will be used in the corresponding call to wait()
+	 * Sets the speed of this elevator. Whenever an elevator moves between floors, this value will be used in the corresponding call to requestArrived.await()
 	 * @param newSpeed the time (in milliseconds) that it should take this elevator object to move between floors
 	 */
-	private synchronized void setSpeed(int newSpeed)
+	private void setSpeed(int newSpeed)
 	{
 		speed = newSpeed;
 	}
@@ -650,7 +1741,7 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * private variable - only to be used to give a default floor to an elevator.
 	 * @param floor The default floor level that will be assigned to an elevator.
 	 */	
-	private synchronized void setDefaultFloor(int floor)
+	private void setDefaultFloor(int floor)
 	{
 		//TODO: this shouldn't be touching currentFloor. There should be a defaultFloor member that this method will modify instead
 		this.currentFloor = floor;
@@ -660,7 +1751,7 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * Sets the speed of the elevator doors.
 	 * @param newDoorSpeed the speed of the elevator doors.
 	 */
-	private synchronized void setDoorSpeed(int newDoorSpeed)
+	private void setDoorSpeed(int newDoorSpeed)
 	{
 		doorSpeed = newDoorSpeed;
 	}	
@@ -669,8 +1760,9 @@ public class Elevator implements ElevatorInterface, Runnable
 	 * Creates the passengerList to be used with the elevators.
 	 * private variable - only to be used create the passengerList.
 	 */    
-	private synchronized void createPassengerList()
+	private void createPassengerList()
 	{
 		passengerList = new ArrayList<Person>();
+		passengersByDestination = new ArrayList<ArrayList<Person>>();
 	}
 }
@@ -10,7 +10,7 @@ import pInterfaces.ElevatorInterface;
 
 /**
  * Constructor which allows for the creation of an elevator system.
- * This class delegates the actual selection algorithm, allowing the algorithm to change at runtime if desired.
+ * This class delegates the actual selection algorithm, allowing the algorithm to change at runtime through switchStrategy.
  */
 public class ElevatorControlModule implements ControlModuleInterface 
 {
@@ -18,31 +18,123 @@ public class ElevatorControlModule implements ControlModuleInterface
 	 * Delegate object which allows for different elevator selection algorithms to be switched in during runtime.
 	 * This object allows this class to implement the Strategy design pattern
 	 */
-	private static ControlModuleInterface delegate;
+	private volatile ControlModuleInterface delegate;
 
 	/**
-	 * The underlying ElevatorControlModule object required for this class to implement the Singleton design pattern
+	 * The name of the registered strategy that delegate was created from
 	 */
-	private static volatile ElevatorControlModule instance;
+	private volatile String strategyName;
 
+	/**
+	 * The simulation that this module belongs to
+	 */
+	private SimulationContext context;
+
+	/**
+	 * The thread that assigns hall calls when the elevators run in their own threads, or null when the simulation is event-driven
+	 */
+	private HallCallDispatcher dispatcher;
 
 	/** 
-	 * private constructor that is called upon the first call to getInstance().
-	 * @param elevatorNum The number of elevators that the module will control.
-	 * @param floorNum the number of floors that the module will receive signals from and send elevators to.
-	 * @throws NegativeElevatorException if the corresponding value parsed from the xmlInputs file is less than 1 while constructing the delegate
-	 * @throws NegativeCapacityException if the corresponding value parsed from the xmlInputs file is less than 1 while constructing the delegate
-	 * @throws NegativeFloorException if the corresponding value parsed from the xmlInputs file is less than 1 while constructing the delegate
+	 * Constructor that is called upon the first call to SimulationContext.getControlModule().
+	 * @param context the simulation that this module belongs to. The delegate, along with its floors and elevators, is created from this context.
+	 * @throws NegativeElevatorException if the corresponding value in the context's configuration is less than 1 while constructing the delegate
+	 * @throws NegativeCapacityException if the corresponding value in the context's configuration is less than 1 while constructing the delegate
+	 * @throws NegativeFloorException if the corresponding value in the context's configuration is less than 1 while constructing the delegate
+	 */
+	ElevatorControlModule(SimulationContext context) throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	{
+		this.context = context;
+		delegate = ControlImplFactory.createElevatorController(context);
+		strategyName = context.getConfig().getController();
+		//an event-driven simulation already runs on a single thread, and dispatching there right away keeps it deterministic
+		if(!context.isEventDriven())
+		{
+			dispatcher = new HallCallDispatcher(this);
+			dispatcher.start();
+		}
+	}
+
+	/**
+	 * Hands the running simulation over to another registered elevator selection algorithm. The new delegate takes over the live floors,
+	 * elevators and pending hall calls, so the simulation does not stop. In a threaded simulation the hand-over is queued for the dispatcher
+	 * thread, so it never happens in the middle of a batch of calls: the calls already in the buffer finish on the old delegate, and the
+	 * switch has taken effect once the dispatcher gets to it, which may be after this method returns. Otherwise the switch happens right away.
+	 * @param inStrategyName the name the algorithm was registered under with ControlImplFactory
+	 * @throws IllegalArgumentException if no strategy is registered under inStrategyName. The current delegate stays in place.
+	 * @throws IllegalStateException if the current delegate was not created from a registered strategy and cannot hand over its state
+	 */
+	public synchronized void switchStrategy(final String inStrategyName)
+	{
+		if(!(delegate instanceof AbstractControlModule))
+		{
+			throw new IllegalStateException("The current elevator controller cannot hand over a running simulation!");
+		}
+		if(!ControlImplFactory.hasStrategy(inStrategyName))
+		{
+			throw new IllegalArgumentException("Unknown controller: " + inStrategyName);
+		}
+		if(dispatcher == null)
+		{
+			replaceDelegate(inStrategyName);
+			return;
+		}
+		dispatcher.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				replaceDelegate(inStrategyName);
+			}
+		});
+	}
+
+	/**
+	 * Replaces the delegate with a new one that takes over its floors, elevators and pending hall calls, and retires the old one. In a
+	 * threaded simulation this must run on the dispatcher thread, the only thread that uses the delegate's dispatching state.
+	 * @param inStrategyName the name of the registered strategy to switch to
+	 */
+	private void replaceDelegate(String inStrategyName)
+	{
+		AbstractControlModule previous = (AbstractControlModule) delegate;
+		delegate = ControlImplFactory.createElevatorController(inStrategyName, previous);
+		previous.retire();
+
+		context.getEventLog().record("switch controller " + strategyName + " to " + inStrategyName);
+		context.getConsole().println("Elevator controller switched from " + strategyName + " to " + inStrategyName);
+		strategyName = inStrategyName;
+	}
+
+	/**
+	 * Accessor for the delegate currently dispatching elevators, so that statistics specific to one algorithm can be read
+	 * @return the current delegate. It may be replaced at any time by switchStrategy, on the dispatcher thread in a threaded simulation.
+	 */
+	public ControlModuleInterface getDelegate()
+	{
+		return delegate;
+	}
+
+	/**
+	 * Accessor for the elevator selection algorithm currently in use
+	 * @return the name of the registered strategy that is currently dispatching elevators
+	 */
+	public String getStrategyName()
+	{
+		return strategyName;
+	}
+
+	/**
+	 * Accessor for the thread that assigns hall calls
+	 * @return the dispatcher of a threaded simulation, or null if the simulation is event-driven and calls are assigned right away
 	 */
-	private ElevatorControlModule() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	public HallCallDispatcher getDispatcher()
 	{
-		delegate = ControlImplFactory.createElevatorController();
+		return dispatcher;
 	}
 
 	/** 
-	 * Checks to see if the instance has been created already.
-	 * If the instance already exists then return it.
-	 * If the instance is Null then create a new ElevatorControlModule.
+	 * Accessor for the control module of the default SimulationContext, which is created from the xmlInputs file in the working directory.
+	 * Objects that belong to a specific SimulationContext should use SimulationContext.getControlModule() instead.
 	 * @return returns either the newly created instance or the previously existing instance.
 	 * @throws NegativeElevatorException if the instance needs to be created first and the delegate constructor receives a total elevator number that is less than 1
 	 * @throws NegativeCapacityException if the instance needs to be created first and the delegate constructor receives an elevator capacity number that is less than 1
@@ -50,22 +142,12 @@ public class ElevatorControlModule implements ControlModuleInterface
 	 */
 	public static ControlModuleInterface getInstance() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
 	{
-		if(instance == null)
-		{
-			//synchronized is used to ensure only one instance is being created at a time
-			synchronized(ElevatorControlModule.class)
-			{
-				if(instance == null)
-				{                                    
-					instance = new ElevatorControlModule();            
-				}
-			}
-		}
-		return instance;
+		return SimulationContext.getDefault().getControlModule();
 	}
 
 	/**
-	 * Handles the system that works with the calling of elevators to and from floors. Passes the direction and the floor number to an elevator
+	 * Handles the system that works with the calling of elevators to and from floors. Passes the direction and the floor number to an elevator.
+	 * In a threaded simulation the call is queued for the dispatcher thread and this method returns before an elevator has been picked.
 	 * @param floorNumber the floor number that is delegated to an elevator. This number can not be negative and should exist in the building. 
 	 * @param directionRequest The requested direction to be delegated to an elevator.
 	 * @throws NegativeFloorException if floorNumber is less than 1 or greater than the total number of floors in the simulation
@@ -73,7 +155,70 @@ public class ElevatorControlModule implements ControlModuleInterface
 	@Override
 	public void elevatorCallReceiver(int floorNumber, Direction directionRequest) throws NegativeFloorException
 	{
-		delegate.elevatorCallReceiver(floorNumber, directionRequest);
+		if(dispatcher == null)
+		{
+			delegate.elevatorCallReceiver(floorNumber, directionRequest);
+			return;
+		}
+		submit(floorNumber, directionRequest);
+	}
+
+	/**
+	 * Handles a Person object arriving on a floor with a known destination. Passes the floor number and the Person to the delegate.
+	 * In a threaded simulation the call is handled on the dispatcher thread and this method returns before an elevator has been picked.
+	 * @param floorNumber the ZERO-BASED floor number that the Person is waiting on.
+	 * @param inPerson the Person who has just arrived on the floor.
+	 * @throws NegativeFloorException if floorNumber is outside the bounds of the simulation
+	 */
+	@Override
+	public void destinationCallReceiver(final int floorNumber, final Person inPerson) throws NegativeFloorException
+	{
+		ControlModuleInterface current = delegate;
+		if(dispatcher == null)
+		{
+			current.destinationCallReceiver(floorNumber, inPerson);
+			return;
+		}
+		if(current instanceof AbstractControlModule && !((AbstractControlModule) current).usesDestinationCalls())
+		{
+			submit(floorNumber, AbstractControlModule.getDirection(floorNumber, inPerson));
+			return;
+		}
+		if(floorNumber < 0 || floorNumber >= getMaxFloors())
+		{
+			throw new NegativeFloorException("The floor object that called this method has an invalid ID number! (floorNumber: " + floorNumber + ")");
+		}
+		//a destination-dispatch controller needs the Person itself, which does not fit into the hall call buffer
+		dispatcher.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					delegate.destinationCallReceiver(floorNumber, inPerson);
+				}
+				catch (NegativeFloorException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Checks a hall call and queues it for the dispatcher thread
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @throws NegativeFloorException if floorNumber is outside the bounds of the simulation
+	 */
+	private void submit(int floorNumber, Direction directionRequest) throws NegativeFloorException
+	{
+		if(floorNumber < 0 || floorNumber >= getMaxFloors())
+		{
+			throw new NegativeFloorException("The floor object that called this method has an invalid ID number! (floorNumber: " + floorNumber + ")");
+		}
+		dispatcher.submit(floorNumber, directionRequest);
 	}
 
 	/**
@@ -114,6 +259,10 @@ public class ElevatorControlModule implements ControlModuleInterface
 	@Override
 	public void shutDown()
 	{
+		if(dispatcher != null)
+		{
+			dispatcher.shutDown();
+		}
 		delegate.shutDown();
 	}
 
@@ -130,6 +279,22 @@ public class ElevatorControlModule implements ControlModuleInterface
 		delegate.elevatorDoorsOpened(elevator, floorNumber);
 	}
 
+	/**
+	 * Handles the functionality of retrying hall calls that could not be assigned earlier.
+	 * Delegates the notification that an elevator has become idle or changed direction. In a threaded simulation the retry runs on the dispatcher thread.
+	 * @param elevator the elevator whose direction has changed
+	 */
+	@Override
+	public void elevatorDirectionChanged(ElevatorInterface elevator)
+	{
+		if(dispatcher == null)
+		{
+			delegate.elevatorDirectionChanged(elevator);
+			return;
+		}
+		dispatcher.requestRetry(elevator);
+	}
+
 	/** 
 	 * Handles the functionality of adding a person to the floor.
 	 * @param inPerson the object person that will be added to the floor.
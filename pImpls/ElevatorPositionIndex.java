@@ -0,0 +1,259 @@
+package pImpls;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import pInterfaces.ElevatorInterface;
+
+/**
+ * Keeps every running elevator of a simulation sorted by floor, separately for each direction, so that the elevators nearest to a hall call
+ * can be found without looking at every elevator. Elevators update the index themselves whenever they move or change direction. Readers never
+ * take a lock: each direction is a concurrent skip list, so looking up the nearest elevator takes logarithmic time in the number of elevators.
+ * An elevator that is in the middle of an update may briefly be listed twice, but it is never missing.
+ */
+public class ElevatorPositionIndex
+{
+	/**
+	 * Number of bits that a floor number is shifted by in a key. The lower bits hold the slot of the elevator, which keeps keys unique when
+	 * several elevators are on the same floor.
+	 */
+	private static final int FLOOR_SHIFT = 32;
+
+	/**
+	 * The elevators travelling in each direction (including IDLE), keyed by floor and slot
+	 */
+	private EnumMap<Direction, ConcurrentSkipListMap<Long, ElevatorInterface>> positions;
+
+	/**
+	 * The slot handed to the next elevator that registers with this index
+	 */
+	private AtomicInteger nextSlot = new AtomicInteger();
+
+	/**
+	 * Constructor which creates an empty index
+	 */
+	public ElevatorPositionIndex()
+	{
+		positions = new EnumMap<Direction, ConcurrentSkipListMap<Long, ElevatorInterface>>(Direction.class);
+		for(Direction curDirection : Direction.values())
+		{
+			positions.put(curDirection, new ConcurrentSkipListMap<Long, ElevatorInterface>());
+		}
+	}
+
+	/**
+	 * Reserves a slot for an elevator. Every elevator that is added to this index needs its own slot.
+	 * @return the new slot
+	 */
+	public int register()
+	{
+		return nextSlot.getAndIncrement();
+	}
+
+	/**
+	 * Lists an elevator at a floor
+	 * @param slot the slot the elevator registered with
+	 * @param elevator the elevator being added
+	 * @param floorNumber the ZERO-BASED floor number the elevator is on
+	 * @param direction the direction the elevator is travelling in
+	 */
+	public void add(int slot, ElevatorInterface elevator, int floorNumber, Direction direction)
+	{
+		positions.get(direction).put(createKey(floorNumber, slot), elevator);
+	}
+
+	/**
+	 * Stops listing an elevator, for example because it has been shut down
+	 * @param slot the slot the elevator registered with
+	 * @param floorNumber the ZERO-BASED floor number the elevator was last listed on
+	 * @param direction the direction the elevator was last listed with
+	 */
+	public void remove(int slot, int floorNumber, Direction direction)
+	{
+		positions.get(direction).remove(createKey(floorNumber, slot));
+	}
+
+	/**
+	 * Moves an elevator within the index. The new position is added before the old one is removed, so readers always find the elevator.
+	 * @param slot the slot the elevator registered with
+	 * @param elevator the elevator that moved
+	 * @param oldFloor the ZERO-BASED floor number the elevator was listed on
+	 * @param oldDirection the direction the elevator was listed with
+	 * @param newFloor the ZERO-BASED floor number the elevator is on now
+	 * @param newDirection the direction the elevator is travelling in now
+	 */
+	public void move(int slot, ElevatorInterface elevator, int oldFloor, Direction oldDirection, int newFloor, Direction newDirection)
+	{
+		if(oldFloor == newFloor && oldDirection == newDirection)
+		{
+			return;
+		}
+		add(slot, elevator, newFloor, newDirection);
+		remove(slot, oldFloor, oldDirection);
+	}
+
+	/**
+	 * Finds the elevators that could answer a hall call without turning around: idle elevators, and elevators travelling in the requested
+	 * direction that have not passed the calling floor yet. The elevators are produced nearest first, and each one is only looked up once it
+	 * is asked for, so taking the first few elevators costs logarithmic time no matter how many elevators there are.
+	 * @param floorNumber the ZERO-BASED floor number of the call
+	 * @param directionRequest the direction of the call. Must be UP or DOWN
+	 * @return the eligible elevators, nearest first. Elevators at the same distance are produced moving elevators first.
+	 */
+	public Iterator<ElevatorInterface> findNearest(int floorNumber, Direction directionRequest)
+	{
+		ConcurrentSkipListMap<Long, ElevatorInterface> idle = positions.get(Direction.IDLE);
+		long callKey = createKey(floorNumber + 1, 0);
+
+		Iterator<Map.Entry<Long, ElevatorInterface>> moving;
+		if(directionRequest == Direction.UP)
+		{
+			//travelling up from the calling floor or below, nearest first
+			moving = positions.get(Direction.UP).headMap(callKey, false).descendingMap().entrySet().iterator();
+		}
+		else
+		{
+			//travelling down from the calling floor or above, nearest first
+			moving = positions.get(Direction.DOWN).tailMap(createKey(floorNumber, 0), true).entrySet().iterator();
+		}
+		Iterator<Map.Entry<Long, ElevatorInterface>> idleBelow = idle.headMap(callKey, false).descendingMap().entrySet().iterator();
+		Iterator<Map.Entry<Long, ElevatorInterface>> idleAbove = idle.tailMap(callKey, true).entrySet().iterator();
+		ArrayList<Iterator<Map.Entry<Long, ElevatorInterface>>> sources = new ArrayList<Iterator<Map.Entry<Long, ElevatorInterface>>>(3);
+		sources.add(moving);
+		sources.add(idleBelow);
+		sources.add(idleAbove);
+		return new NearestIterator(floorNumber, sources);
+	}
+
+	/**
+	 * Lists the floors that the idle elevators are waiting on
+	 * @return the ZERO-BASED floor of every idle elevator, lowest first. A floor with several idle elevators is listed once for each of them.
+	 */
+	public ArrayList<Integer> getIdleFloors()
+	{
+		ArrayList<Integer> idleFloors = new ArrayList<Integer>();
+		for(long key : positions.get(Direction.IDLE).keySet())
+		{
+			idleFloors.add(getFloor(key));
+		}
+		return idleFloors;
+	}
+
+	/**
+	 * Accessor for the number of elevators listed in this index
+	 * @return the number of listed elevators, counting an elevator in the middle of an update twice
+	 */
+	public int size()
+	{
+		int size = 0;
+		for(ConcurrentSkipListMap<Long, ElevatorInterface> curPositions : positions.values())
+		{
+			size += curPositions.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Builds the key an elevator is listed under
+	 * @param floorNumber the ZERO-BASED floor number of the elevator
+	 * @param slot the slot of the elevator
+	 * @return keys sorted by floor first and slot second
+	 */
+	private static long createKey(int floorNumber, int slot)
+	{
+		return ( (long) floorNumber << FLOOR_SHIFT ) | slot;
+	}
+
+	/**
+	 * Extracts the floor number from a key
+	 * @param key the key an elevator is listed under
+	 * @return the ZERO-BASED floor number of the elevator
+	 */
+	private static int getFloor(long key)
+	{
+		return (int) ( key >>> FLOOR_SHIFT );
+	}
+
+	/**
+	 * Merges several streams of elevators, each already sorted by distance from the calling floor, into one stream sorted by distance
+	 */
+	private static class NearestIterator implements Iterator<ElevatorInterface>
+	{
+		/**
+		 * The ZERO-BASED floor number of the call
+		 */
+		private int floorNumber;
+
+		/**
+		 * The streams being merged, in order of preference when distances are equal
+		 */
+		private ArrayList<Iterator<Map.Entry<Long, ElevatorInterface>>> sources;
+
+		/**
+		 * The next entry of every stream, at the same index as the stream, or null once a stream is used up
+		 */
+		private ArrayList<Map.Entry<Long, ElevatorInterface>> heads;
+
+		/**
+		 * Constructor which takes the first entry of every stream
+		 * @param inFloorNumber the ZERO-BASED floor number of the call
+		 * @param inSources the streams to merge, in order of preference when distances are equal
+		 */
+		NearestIterator(int inFloorNumber, ArrayList<Iterator<Map.Entry<Long, ElevatorInterface>>> inSources)
+		{
+			floorNumber = inFloorNumber;
+			sources = inSources;
+			heads = new ArrayList<Map.Entry<Long, ElevatorInterface>>(inSources.size());
+			for(Iterator<Map.Entry<Long, ElevatorInterface>> source : sources)
+			{
+				heads.add(source.hasNext() ? source.next() : null);
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			for(Map.Entry<Long, ElevatorInterface> head : heads)
+			{
+				if(head != null)
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public ElevatorInterface next()
+		{
+			int nearest = -1;
+			int nearestDistance = Integer.MAX_VALUE;
+			for(int i = 0; i < heads.size(); ++i)
+			{
+				Map.Entry<Long, ElevatorInterface> head = heads.get(i);
+				if(head != null)
+				{
+					int distance = Math.abs(getFloor(head.getKey()) - floorNumber);
+					if(distance < nearestDistance)
+					{
+						nearest = i;
+						nearestDistance = distance;
+					}
+				}
+			}
+			if(nearest < 0)
+			{
+				throw new NoSuchElementException();
+			}
+			ElevatorInterface elevator = heads.get(nearest).getValue();
+			Iterator<Map.Entry<Long, ElevatorInterface>> source = sources.get(nearest);
+			heads.set(nearest, source.hasNext() ? source.next() : null);
+			return elevator;
+		}
+	}
+}
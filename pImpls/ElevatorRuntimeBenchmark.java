@@ -0,0 +1,120 @@
+package pImpls;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pInterfaces.ControlModuleInterface;
+
+/**
+ * Measures what it costs to run a large number of threaded-mode Elevator objects on platform threads versus virtual threads. For each kind of
+ * thread, a building with the requested number of elevators is created from the xmlInputs file, every elevator is given time to settle into its
+ * idle wait, and the change in live platform threads, heap usage and resident memory is reported per 10,000 elevators.
+ * Usage: java pImpls.ElevatorRuntimeBenchmark [elevatorCount] [platform|virtual|both]
+ */
+public class ElevatorRuntimeBenchmark
+{
+	/**
+	 * The number of elevators that the results are scaled to
+	 */
+	private static final int REPORTING_UNIT = 10000;
+
+	/**
+	 * How long (in milliseconds) the elevators are given to start up and settle into their idle wait before measuring
+	 */
+	private static final int SETTLE_TIME = 2000;
+
+	public static void main(String[] args) throws Exception
+	{
+		int elevatorCount = args.length > 0 ? Integer.parseInt(args[0]) : REPORTING_UNIT;
+		String mode = args.length > 1 ? args[1] : "both";
+
+		System.out.println(String.format("%-10s %10s %14s %18s %18s %18s", "Threads", "Elevators", "Startup (ms)", "Threads/10k", "Heap MB/10k", "RSS MB/10k"));
+		if(!mode.equalsIgnoreCase(ElevatorThreadFactory.VIRTUAL_THREADS))
+		{
+			runBenchmark(elevatorCount, ElevatorThreadFactory.PLATFORM_THREADS);
+		}
+		if(!mode.equalsIgnoreCase(ElevatorThreadFactory.PLATFORM_THREADS))
+		{
+			runBenchmark(elevatorCount, ElevatorThreadFactory.VIRTUAL_THREADS);
+		}
+	}
+
+	/**
+	 * Creates a building with elevatorCount elevators running on the specified kind of thread, prints the cost of running it, then shuts it down.
+	 * @param elevatorCount the number of elevators to create
+	 * @param threads either ElevatorThreadFactory.PLATFORM_THREADS or ElevatorThreadFactory.VIRTUAL_THREADS
+	 */
+	private static void runBenchmark(int elevatorCount, String threads) throws InterruptedException, NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	{
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.THREADED_ENGINE);
+		config.setElevatorThreads(threads);
+		config.setTotalElevatorNumber(elevatorCount);
+		//every elevator logs its start-up, which would drown out the results
+		config.setConsole(SimulationConsole.CONSOLE_OFF);
+		SimulationContext context = new SimulationContext(config);
+		if(threads.equals(ElevatorThreadFactory.VIRTUAL_THREADS) && !context.getElevatorThreadFactory().isVirtual())
+		{
+			return;
+		}
+
+		long threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+		long heapBefore = getUsedHeap();
+		long rssBefore = getResidentMemory();
+
+		long tStart = System.nanoTime();
+		ControlModuleInterface controlModule = context.getControlModule();
+		long startupTime = ( System.nanoTime() - tStart ) / 1000000;
+		Thread.sleep(SETTLE_TIME);
+
+		long threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+		long heapAfter = getUsedHeap();
+		long rssAfter = getResidentMemory();
+		controlModule.shutDown();
+
+		double scale = (double)REPORTING_UNIT / elevatorCount;
+		System.out.println(String.format("%-10s %10d %14d %18.1f %18.1f %18s", threads, elevatorCount, startupTime, ( threadsAfter - threadsBefore ) * scale,
+				( heapAfter - heapBefore ) * scale / ( 1024 * 1024 ), rssBefore < 0 ? "n/a" : String.format("%.1f", ( rssAfter - rssBefore ) * scale / 1024)));
+		Thread.sleep(SETTLE_TIME);
+	}
+
+	/**
+	 * Runs the garbage collector and returns the amount of heap in use
+	 * @return the number of bytes of heap in use after collecting garbage
+	 */
+	private static long getUsedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Reads the resident set size of this process, which includes the native stacks of platform threads that never show up in the heap
+	 * @return the resident set size in kilobytes, or -1 if it cannot be read on this platform
+	 */
+	private static long getResidentMemory()
+	{
+		try(BufferedReader reader = new BufferedReader(new FileReader("/proc/self/status")))
+		{
+			String line;
+			while((line = reader.readLine()) != null)
+			{
+				if(line.startsWith("VmRSS:"))
+				{
+					return Long.parseLong(line.replaceAll("[^0-9]", ""));
+				}
+			}
+		}
+		catch (IOException | NumberFormatException e)
+		{
+			//not running on Linux, so resident memory is not available
+		}
+		return -1;
+	}
+}
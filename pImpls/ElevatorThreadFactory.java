@@ -0,0 +1,87 @@
+package pImpls;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads that threaded-mode Elevator objects run on. By default every Elevator gets its own platform thread, which is fine for a
+ * single building but becomes expensive once thousands of elevators are simulated at once. When virtual threads are requested and the running
+ * JVM supports them (Java 21 or newer), each Elevator instead runs on a virtual thread that only occupies a carrier thread while it is working.
+ */
+public class ElevatorThreadFactory implements ThreadFactory
+{
+	/**
+	 * Value of the optional elevatorThreads element which runs every Elevator on its own platform thread. This is the default.
+	 */
+	public static final String PLATFORM_THREADS = "platform";
+
+	/**
+	 * Value of the optional elevatorThreads element which runs every Elevator on a virtual thread
+	 */
+	public static final String VIRTUAL_THREADS = "virtual";
+
+	/**
+	 * The JVM's virtual thread factory, or null if this factory creates platform threads
+	 */
+	private ThreadFactory virtualThreadFactory;
+
+	/**
+	 * Constructor for ElevatorThreadFactory. If virtual threads are requested but the JVM does not support them, platform threads are used instead.
+	 * @param useVirtualThreads whether Elevator objects should run on virtual threads
+	 * @param console where to report that virtual threads are not supported
+	 */
+	public ElevatorThreadFactory(boolean useVirtualThreads, SimulationConsole console)
+	{
+		if(useVirtualThreads)
+		{
+			this.virtualThreadFactory = lookupVirtualThreadFactory();
+			if(this.virtualThreadFactory == null)
+			{
+				console.println("Virtual threads are not supported by this JVM (Java " + System.getProperty("java.version") + "). Elevators will run on platform threads.");
+			}
+		}
+	}
+
+	/**
+	 * Creates a new, unstarted thread for an Elevator
+	 * @param elevatorLoop the Elevator whose run() method the thread should execute
+	 * @return a virtual thread if this factory supports them, otherwise a platform thread
+	 */
+	@Override
+	public Thread newThread(Runnable elevatorLoop)
+	{
+		if(this.virtualThreadFactory != null)
+		{
+			return this.virtualThreadFactory.newThread(elevatorLoop);
+		}
+		return new Thread(elevatorLoop);
+	}
+
+	/**
+	 * Accessor for the kind of thread created by this factory
+	 * @return true if this factory creates virtual threads, otherwise false
+	 */
+	public boolean isVirtual()
+	{
+		return this.virtualThreadFactory != null;
+	}
+
+	/**
+	 * Looks up Thread.ofVirtual().factory() reflectively so that the simulation still compiles and runs on JVMs without virtual threads
+	 * @return the JVM's virtual thread factory, or null if the JVM does not support virtual threads
+	 */
+	private static ThreadFactory lookupVirtualThreadFactory()
+	{
+		try
+		{
+			Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			Object builder = ofVirtual.invoke(null);
+			Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			return null;
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package pImpls;
+
+import java.util.ArrayList;
+
+/**
+ * One bank of elevators that only serves part of the building, such as the low-rise, high-rise or express bank of a tall building. Every
+ * elevator of the bank serves the floors from minFloor to maxFloor, and usually the lobby as well so that passengers can reach the bank from
+ * the ground floor. An elevator of a bank that does not include the lobby runs express between the lobby and its first floor without stopping.
+ * Zones are immutable, so one zone may be shared by every simulation that uses the same configuration.
+ */
+public class ElevatorZone
+{
+	/**
+	 * The name of the bank, used in log messages
+	 */
+	private String name;
+
+	/**
+	 * The number of elevators in the bank
+	 */
+	private int elevatorNum;
+
+	/**
+	 * The lowest floor served by the bank, using ONE-BASED indexing
+	 */
+	private int minFloor;
+
+	/**
+	 * The highest floor served by the bank, using ONE-BASED indexing
+	 */
+	private int maxFloor;
+
+	/**
+	 * Whether the bank also serves the lobby (floor 1) when minFloor is above it
+	 */
+	private boolean bServesLobby;
+
+	/**
+	 * Constructor for ElevatorZone.
+	 * @param inName the name of the bank
+	 * @param inElevatorNum the number of elevators in the bank. Must be at least 1.
+	 * @param inMinFloor the lowest floor served by the bank, using ONE-BASED indexing
+	 * @param inMaxFloor the highest floor served by the bank, using ONE-BASED indexing. Must not be less than inMinFloor.
+	 * @param inServesLobby whether the bank also serves the lobby
+	 * @throws IllegalArgumentException if the bank has no elevators or its floor range is empty
+	 */
+	public ElevatorZone(String inName, int inElevatorNum, int inMinFloor, int inMaxFloor, boolean inServesLobby)
+	{
+		if(inElevatorNum < 1 || inMinFloor < 1 || inMaxFloor < inMinFloor)
+		{
+			throw new IllegalArgumentException("Invalid elevator zone " + inName + "! (elevators: " + inElevatorNum + ", minFloor: " + inMinFloor + ", maxFloor: " + inMaxFloor + ")");
+		}
+		this.name = inName;
+		this.elevatorNum = inElevatorNum;
+		this.minFloor = inMinFloor;
+		this.maxFloor = inMaxFloor;
+		this.bServesLobby = inServesLobby;
+	}
+
+	/**
+	 * Accessor for the name of the bank
+	 * @return the name of the bank
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Accessor for the number of elevators in the bank
+	 * @return the number of elevators
+	 */
+	public int getElevatorNum()
+	{
+		return elevatorNum;
+	}
+
+	/**
+	 * Accessor for the lowest floor served by the bank, not counting the lobby
+	 * @return the lowest floor, using ONE-BASED indexing
+	 */
+	public int getMinFloor()
+	{
+		return minFloor;
+	}
+
+	/**
+	 * Accessor for the highest floor served by the bank
+	 * @return the highest floor, using ONE-BASED indexing
+	 */
+	public int getMaxFloor()
+	{
+		return maxFloor;
+	}
+
+	/**
+	 * Whether the bank also serves the lobby
+	 * @return true if the elevators of the bank stop at floor 1 as well as at minFloor to maxFloor
+	 */
+	public boolean servesLobby()
+	{
+		return bServesLobby;
+	}
+
+	/**
+	 * The lowest floor that the elevators of the bank travel to
+	 * @return 1 if the bank serves the lobby, otherwise minFloor. Uses ONE-BASED indexing.
+	 */
+	public int getLowestFloor()
+	{
+		return bServesLobby ? 1 : minFloor;
+	}
+
+	/**
+	 * Whether the elevators of the bank stop at a floor
+	 * @param floorNum the floor to check, using ONE-BASED indexing
+	 * @return true if the floor is the lobby and the bank serves it, or if the floor is between minFloor and maxFloor
+	 */
+	public boolean servesFloor(int floorNum)
+	{
+		return ( floorNum == 1 && bServesLobby ) || ( floorNum >= minFloor && floorNum <= maxFloor );
+	}
+
+	/**
+	 * Checks that a passenger can travel between every pair of floors of a building divided into banks. Passengers whose start and destination
+	 * floor are not served by a common bank change elevators at the lobby, so either some bank must serve both floors, or the lobby must be
+	 * reachable directly from the start floor and the destination floor reachable directly from the lobby.
+	 * @param zones the banks of the building
+	 * @param totalFloors the number of floors in the building
+	 * @param totalElevators the number of elevators in the building. Elevators that are not part of a bank serve the whole building, so any
+	 * layout is reachable if the banks leave some elevators over.
+	 * @throws IllegalArgumentException if some floor cannot be reached from another floor
+	 */
+	public static void checkLayout(ArrayList<ElevatorZone> zones, int totalFloors, int totalElevators)
+	{
+		int zonedElevators = 0;
+		for(ElevatorZone zone : zones)
+		{
+			zonedElevators += zone.getElevatorNum();
+		}
+		if(zones.isEmpty() || zonedElevators < totalElevators)
+		{
+			return;
+		}
+		for(int startFloor = 1; startFloor <= totalFloors; ++startFloor)
+		{
+			for(int destinationFloor = 1; destinationFloor <= totalFloors; ++destinationFloor)
+			{
+				if(startFloor != destinationFloor && !isServedTogether(zones, startFloor, destinationFloor)
+						&& !( isServedTogether(zones, startFloor, 1) && isServedTogether(zones, 1, destinationFloor) ))
+				{
+					throw new IllegalArgumentException("No elevator zone takes passengers from floor " + startFloor + " to floor " + destinationFloor + ", either directly or by changing elevators at the lobby");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether any bank stops at both of two floors
+	 * @param zones the banks of the building
+	 * @param firstFloor one of the floors, using ONE-BASED indexing
+	 * @param secondFloor the other floor, using ONE-BASED indexing
+	 * @return true if at least one bank serves both floors
+	 */
+	private static boolean isServedTogether(ArrayList<ElevatorZone> zones, int firstFloor, int secondFloor)
+	{
+		for(ElevatorZone zone : zones)
+		{
+			if(zone.servesFloor(firstFloor) && zone.servesFloor(secondFloor))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,111 @@
+package pImpls;
+
+import java.util.Random;
+
+import pInterfaces.ArrivalProcessInterface;
+
+/**
+ * Arrival process which replays the distribution of inter-arrival times observed in a real building. Every inter-arrival time is drawn
+ * uniformly from the observed samples, so the simulation reproduces their mean, variance and shape without assuming any particular
+ * distribution.
+ */
+public class EmpiricalArrivalProcess implements ArrivalProcessInterface
+{
+	/**
+	 * The observed inter-arrival times, in milliseconds
+	 */
+	private long[] samples;
+
+	/**
+	 * The average of the observed inter-arrival times, in milliseconds
+	 */
+	private double meanInterArrivalTime;
+
+	/**
+	 * Constructor for EmpiricalArrivalProcess
+	 * @param inSamples the observed inter-arrival times, in milliseconds
+	 * @throws IllegalArgumentException if there are no samples, if any sample is negative, or if every sample is 0
+	 */
+	public EmpiricalArrivalProcess(long[] inSamples)
+	{
+		if(inSamples == null || inSamples.length == 0)
+		{
+			throw new IllegalArgumentException("An empirical arrival process needs at least one inter-arrival time");
+		}
+		long total = 0;
+		for(long sample : inSamples)
+		{
+			if(sample < 0)
+			{
+				throw new IllegalArgumentException("Inter-arrival times cannot be negative, but one was " + sample);
+			}
+			total += sample;
+		}
+		if(total == 0)
+		{
+			throw new IllegalArgumentException("At least one inter-arrival time must be greater than 0");
+		}
+		this.samples = inSamples.clone();
+		this.meanInterArrivalTime = (double) total / inSamples.length;
+	}
+
+	/**
+	 * Parses a comma or whitespace separated list of inter-arrival times, as found in the arrivalSamples element of the xmlInputs file
+	 * @param sampleList the inter-arrival times, in milliseconds
+	 * @return an arrival process which draws from the listed inter-arrival times
+	 * @throws IllegalArgumentException if sampleList is missing, empty, or contains anything other than non-negative whole numbers
+	 */
+	public static EmpiricalArrivalProcess parse(String sampleList)
+	{
+		if(sampleList == null || sampleList.trim().isEmpty())
+		{
+			throw new IllegalArgumentException("The empirical arrival process needs an arrivalSamples element");
+		}
+		String[] tokens = sampleList.trim().split("[,\\s]+");
+		long[] parsedSamples = new long[tokens.length];
+		for(int i = 0; i < tokens.length; ++i)
+		{
+			parsedSamples[i] = Long.parseLong(tokens[i]);
+		}
+		return new EmpiricalArrivalProcess(parsedSamples);
+	}
+
+	/**
+	 * Creates an arrival process with the same shape as this one but a different average rate, by stretching or compressing every sample by
+	 * the same factor. Used by traffic windows, which each have their own rate but share the samples of the configuration.
+	 * @param peoplePerMin the average number of passengers that should arrive every minute
+	 * @return a new arrival process whose samples are scaled so that their mean is 60000 / peoplePerMin milliseconds
+	 * @throws IllegalArgumentException if peoplePerMin is not positive, or if it is so high that every scaled sample rounds to 0
+	 */
+	public EmpiricalArrivalProcess scaledTo(double peoplePerMin)
+	{
+		if(!(peoplePerMin > 0))
+		{
+			throw new IllegalArgumentException("The arrival rate must be positive, but was " + peoplePerMin);
+		}
+		double factor = 60000 / peoplePerMin / this.meanInterArrivalTime;
+		long[] scaledSamples = new long[this.samples.length];
+		for(int i = 0; i < this.samples.length; ++i)
+		{
+			scaledSamples[i] = Math.round(this.samples[i] * factor);
+		}
+		return new EmpiricalArrivalProcess(scaledSamples);
+	}
+
+	/**
+	 * Draws one of the observed inter-arrival times, each with equal probability
+	 * @param randomGenerator the source of the index of the sample to return
+	 * @return the time until the next passenger arrives, in milliseconds
+	 */
+	@Override
+	public long nextInterArrivalTime(Random randomGenerator)
+	{
+		return this.samples[randomGenerator.nextInt(this.samples.length)];
+	}
+
+	@Override
+	public double getMeanRate()
+	{
+		return 60000 / this.meanInterArrivalTime;
+	}
+}
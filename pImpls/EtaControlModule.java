@@ -0,0 +1,133 @@
+package pImpls;
+
+import java.util.ArrayList;
+
+import pExceptions.NegativeFloorException;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * An implementation of the ControlModule interface which sends the elevator that can reach the calling floor soonest. The estimated time of
+ * arrival of every elevator is computed from its current floor, direction, the stops already in its request queue, its travel speed and its
+ * door speed.
+ */
+public class EtaControlModule extends AbstractControlModule
+{
+	/**
+	 * Constructor which creates the floors and elevators described by the configuration of a specific simulation.
+	 * @param inContext the simulation that this control module belongs to
+	 */
+	public EtaControlModule(SimulationContext inContext)
+	{
+		super(inContext);
+	}
+
+	/**
+	 * Constructor which takes over the floors, elevators and pending hall calls of a running simulation.
+	 * @param inPrevious the control module being replaced
+	 */
+	public EtaControlModule(AbstractControlModule inPrevious)
+	{
+		super(inPrevious);
+	}
+
+	/**
+	 * Offers the call to every elevator that could stop at the floor on its current trip, cheapest first, until one of them accepts it. An
+	 * elevator can take the call on its current trip if it has nothing else to do, or if it is already travelling in the requested direction and
+	 * has not yet passed the floor.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @return true if an elevator accepted the call, otherwise false
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection.
+	 */
+	@Override
+	protected boolean assignCall(int floorNumber, Direction directionRequest) throws NegativeFloorException
+	{
+		ArrayList<ElevatorInterface> candidates = new ArrayList<ElevatorInterface>();
+		ArrayList<Long> costs = new ArrayList<Long>();
+		for(ElevatorInterface curElev : this.elevators)
+		{
+			if(!curElev.isRunning() || !canStopOnCurrentTrip(curElev, floorNumber, directionRequest) || !hasRoomAt(curElev, floorNumber))
+			{
+				continue;
+			}
+			long cost = estimateArrivalTime(curElev, floorNumber, directionRequest);
+
+			//insertion sort, so elevators with the same cost are still tried in array order
+			int insertAt = costs.size();
+			while(insertAt > 0 && costs.get(insertAt - 1) > cost)
+			{
+				insertAt--;
+			}
+			candidates.add(insertAt, curElev);
+			costs.add(insertAt, cost);
+		}
+
+		for(int i = 0; i < candidates.size(); ++i)
+		{
+			if(offerCall(candidates.get(i), floorNumber, directionRequest, " eta " + costs.get(i)))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether an elevator could stop at a floor on its current trip without turning around first
+	 * @param elevator the elevator to check
+	 * @param floorNumber the ZERO-BASED floor number of the call
+	 * @param directionRequest the direction of the call
+	 * @return true if the elevator has no stops left, or if it is travelling in directionRequest and has not yet passed the floor
+	 */
+	protected boolean canStopOnCurrentTrip(ElevatorInterface elevator, int floorNumber, Direction directionRequest)
+	{
+		Direction direction = elevator.getDirection();
+		if(direction == Direction.IDLE || elevator.getRequestQueue().isEmpty())
+		{
+			return true;
+		}
+		int target = floorNumber + 1;
+		int current = elevator.getCurrentFloor();
+		return direction == directionRequest && ( direction == Direction.UP ? target >= current : target <= current );
+	}
+
+	/**
+	 * Estimates how long it would take an elevator to reach the calling floor on its current trip. Every floor travelled costs the elevator's
+	 * speed, and every stop made on the way costs one door cycle (opening and closing). Callers only offer calls to elevators that pass
+	 * canStopOnCurrentTrip, so an elevator that would have to turn around first is not estimated.
+	 * @param elevator the elevator to estimate the arrival time of
+	 * @param floorNumber the ZERO-BASED floor number of the call
+	 * @param directionRequest the direction of the call
+	 * @return the estimated time of arrival, in milliseconds, or Long.MAX_VALUE if the elevator cannot stop at the floor on its current trip
+	 */
+	public long estimateArrivalTime(ElevatorInterface elevator, int floorNumber, Direction directionRequest)
+	{
+		int target = floorNumber + 1;
+		int current = elevator.getCurrentFloor();
+		Direction direction = elevator.getDirection();
+		long travelTime = elevator.getSpeed();
+		long stopTime = 2L * elevator.getDoorSpeed();
+		ArrayList<Integer> stops = elevator.getRequestQueue();
+
+		if(direction == Direction.IDLE || stops.isEmpty())
+		{
+			return Math.abs(target - current) * travelTime;
+		}
+		if(!canStopOnCurrentTrip(elevator, floorNumber, directionRequest))
+		{
+			return Long.MAX_VALUE;
+		}
+
+		//the elevator stops at the floor on its way, after any stops in between
+		boolean bGoingUp = direction == Direction.UP;
+		int stopsBefore = 0;
+		for(int stop : stops)
+		{
+			if(bGoingUp ? ( stop > current && stop < target ) : ( stop < current && stop > target ))
+			{
+				stopsBefore++;
+			}
+		}
+		return Math.abs(target - current) * travelTime + stopsBefore * stopTime;
+	}
+}
@@ -1,5 +1,7 @@
 package pImpls;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Iterator;
 
 import pExceptions.NegativeCapacityException;
 import pExceptions.NegativeElevatorException;
@@ -16,20 +18,52 @@ import pInterfaces.FloorInterface;
 public class Floor implements FloorInterface
 {
 	/**
-	 * Collection of Person objects whose destination floors are higher than this object's floorNumber value, using zero-based indexing
+	 * Queue of Person objects whose destination floors are higher than this object's floorNumber value, using zero-based indexing. People
+	 * board from the front, so taking the longest-waiting people off the floor never shifts the rest of the queue.
 	 */
-	private ArrayList<Person> goingUp;
+	private ArrayDeque<Person> goingUp;
 
 	/**
-	 * Collection of Person objects whose destination floors are lower than this object's floorNumber value, using zero-based indexing
+	 * Queue of Person objects whose destination floors are lower than this object's floorNumber value, using zero-based indexing
 	 */
-	private ArrayList<Person> goingDown;
+	private ArrayDeque<Person> goingDown;
 
 	/**
 	 * Integer value representing this floor's position within the simulation environment using zero-based indexing
 	 */
 	private int floorNumber;
 
+	/**
+	 * Whether the UP hall button is lit, meaning an elevator has accepted a call going up and has not opened its doors for it yet
+	 */
+	private boolean bUpCallRegistered;
+
+	/**
+	 * Whether the DOWN hall button is lit, meaning an elevator has accepted a call going down and has not opened its doors for it yet
+	 */
+	private boolean bDownCallRegistered;
+
+	/**
+	 * The number of people that the elevators on their way for the UP call will have room for
+	 */
+	private int upPromisedCapacity;
+
+	/**
+	 * The number of people that the elevators on their way for the DOWN call will have room for
+	 */
+	private int downPromisedCapacity;
+
+	/**
+	 * The simulation that this floor belongs to
+	 */
+	private SimulationContext context;
+
+	/**
+	 * The block outside the heap that this floor publishes its waiting counts and hall buttons to, or null if its state is only kept in its
+	 * own fields
+	 */
+	private OffHeapStateTable stateTable;
+
 	/** 
 	 * Constructor which allows for the initializations of the floor array as well as handling floor identification numbers.
 	 * @param inFloorId The identification number that will be assigned to each floor.
@@ -37,32 +71,71 @@ public class Floor implements FloorInterface
 	 */
 	public Floor(int inFloorId) throws NegativeFloorException
 	{
+		this(SimulationContext.getDefault(), inFloorId);
+	}
+
+	/** 
+	 * Constructor for a floor that belongs to a specific simulation.
+	 * @param inContext the simulation that this floor belongs to. Elevators are summoned through the control module of this context.
+	 * @param inFloorId The identification number that will be assigned to each floor.
+	 * @throws NegativeFloorException if inFloorId is outside the bounds of the simulation (less than 1 or greater than the number of floors in the simulation)
+	 */
+	public Floor(SimulationContext inContext, int inFloorId) throws NegativeFloorException
+	{
+		this.context = inContext;
 		setFloorNumber(inFloorId);
 		initializeFloorArrays();
+		this.stateTable = inContext.getStateTable();
 	}
 
 	/**
-	 * Places a Person object in this floor. Once inside, they summon an elevator by calling summonElevator
+	 * Places a Person object in this floor. Once inside, they enter their destination with the control module. The floor's monitor is released
+	 * before the control module is called, since the control module takes elevator locks and elevators take this monitor while holding theirs.
 	 * @param inPerson the Person object being added to the floor. Must not be null.
 	 * @throws NullPassengerException if inPerson is null
 	 */
 	@Override
-	public synchronized void addPersonToFloor(Person inPerson) throws NullPassengerException
+	public void addPersonToFloor(Person inPerson) throws NullPassengerException
 	{
 		if(inPerson == null)
 		{
 			throw new NullPassengerException("The passenger meant to be placed on this floor is null!");
 		}
-		int destinationFloor = inPerson.getDestinationFloor();
-		if(destinationFloor < this.getId() || destinationFloor == XmlParser.getTotalFloorNumber())
+		synchronized(this)
 		{
-			goingDown.add(inPerson);
-			summonElevator(Direction.DOWN);
+			inPerson.setArrivalTime(context.getStatistics().getTime());
+			context.getEventLog().record("arrive person " + inPerson.getID() + " at floor " + this.getId());
+			int destinationFloor = inPerson.getDestinationFloor();
+			if(destinationFloor < this.getId())
+			{
+				goingDown.add(inPerson);
+			}
+			else if(destinationFloor > this.getId())
+			{
+				goingUp.add(inPerson);
+			}
+			else
+			{
+				return;
+			}
+			publishWaiting();
 		}
-		else if(destinationFloor > this.getId())
+		registerDestination(inPerson);
+	}
+
+	/**
+	 * Enters the Person's destination at the hall panel, letting the control module pick an elevator for them.
+	 * @param inPerson the Person object who has just arrived on this floor.
+	 */
+	private void registerDestination(Person inPerson)
+	{
+		try
+		{
+			context.getControlModule().destinationCallReceiver(this.floorNumber, inPerson);
+		}
+		catch (NegativeCapacityException | NegativeElevatorException | NegativeFloorException e)
 		{
-			goingUp.add(inPerson);
-			summonElevator(Direction.UP);
+			e.printStackTrace();
 		}
 	}
 
@@ -73,13 +146,13 @@ public class Floor implements FloorInterface
 	@Override
 	public void summonElevator(Direction directionToGo)
 	{
-		if(directionToGo != Direction.IDLE)
+		if(directionToGo != null && directionToGo != Direction.IDLE)
 		{
 			try
 			{
 				//elevatorCallReceiver's floor index is zero-based, so instead of using this.getId(), we want to pass the
 				//zero-based floorNumber index instead
-				ElevatorControlModule.getInstance().elevatorCallReceiver(this.floorNumber, directionToGo);
+				context.getControlModule().elevatorCallReceiver(this.floorNumber, directionToGo);
 			}
 			catch (NegativeCapacityException | NegativeElevatorException | NegativeFloorException e)
 			{
@@ -101,70 +174,230 @@ public class Floor implements FloorInterface
 
 	/**
 	 * Accessor for all of the Person objects who are waiting for elevators on this floor, regardless of direction
-	 * @return The collection of Person objects waiting for elevators on this floor.
+	 * @return a copy of the Person objects waiting for elevators on this floor, those going up first, each in the order they arrived.
 	 */
 	@Override
 	public synchronized ArrayList<Person> getWaitingPeople()
 	{
-		ArrayList<Person> listToReturn = this.goingUp;
+		ArrayList<Person> listToReturn = new ArrayList<Person>(this.goingUp.size() + this.goingDown.size());
+		listToReturn.addAll(this.goingUp);
 		listToReturn.addAll(this.goingDown);
 		return listToReturn;
 	}
 
 	/**
-	 * removes the people that desire to get off at the floor.
+	 * Whether anybody on this floor is still waiting to travel in the specified direction
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if at least one Person object on this floor wants to travel in directionToGo, otherwise false
+	 */
+	@Override
+	public boolean hasWaitingPeople(Direction directionToGo)
+	{
+		if(directionToGo != Direction.UP && directionToGo != Direction.DOWN)
+		{
+			return false;
+		}
+		if(this.stateTable != null)
+		{
+			return this.stateTable.getWaiting(this.floorNumber, directionToGo) > 0;
+		}
+		synchronized(this)
+		{
+			return directionToGo == Direction.UP ? !this.goingUp.isEmpty() : !this.goingDown.isEmpty();
+		}
+	}
+
+	/**
+	 * Whether anybody on this floor who wants to travel in the specified direction could board an elevator. The elevator's id is read before
+	 * taking this floor's monitor, since reading it takes the elevator's lock.
+	 * @param elevatorToEnter the elevator to check
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if at least one Person object waiting to travel in directionToGo could board elevatorToEnter, otherwise false
+	 */
+	@Override
+	public boolean hasWaitingPeopleFor(ElevatorInterface elevatorToEnter, Direction directionToGo)
+	{
+		int elevatorId = elevatorToEnter.getElevatorId();
+		synchronized(this)
+		{
+			ArrayDeque<Person> waiting = directionToGo == Direction.UP ? this.goingUp : this.goingDown;
+			for(Person curPerson : waiting)
+			{
+				if(canBoard(curPerson, elevatorId, elevatorToEnter))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Lights the hall button for the specified direction, and adds the room in the elevator that accepted the call to the room already
+	 * promised for that direction
+	 * @param directionToGo the direction of the call. Must be either UP or DOWN
+	 * @param promisedCapacity the number of people the elevator that accepted the call will have room for when it arrives
+	 */
+	@Override
+	public synchronized void registerHallCall(Direction directionToGo, int promisedCapacity)
+	{
+		if(directionToGo == Direction.UP)
+		{
+			this.bUpCallRegistered = true;
+			this.upPromisedCapacity += promisedCapacity;
+		}
+		else if(directionToGo == Direction.DOWN)
+		{
+			this.bDownCallRegistered = true;
+			this.downPromisedCapacity += promisedCapacity;
+		}
+		else
+		{
+			return;
+		}
+		if(this.stateTable != null)
+		{
+			this.stateTable.setHallCall(this.floorNumber, directionToGo, true);
+		}
+	}
+
+	/**
+	 * Whether the elevators on their way for the call in the specified direction have room for everybody waiting
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if the hall button is lit and the promised room is at least the number of people waiting to travel in directionToGo
+	 */
+	@Override
+	public synchronized boolean isHallCallCovered(Direction directionToGo)
+	{
+		if(directionToGo == Direction.UP)
+		{
+			return this.bUpCallRegistered && this.goingUp.size() <= this.upPromisedCapacity;
+		}
+		else if(directionToGo == Direction.DOWN)
+		{
+			return this.bDownCallRegistered && this.goingDown.size() <= this.downPromisedCapacity;
+		}
+		return false;
+	}
+
+	/**
+	 * Whether the hall button for the specified direction is lit
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if a call in directionToGo has been registered and not served yet, otherwise false
+	 */
+	@Override
+	public boolean isHallCallRegistered(Direction directionToGo)
+	{
+		if(directionToGo != Direction.UP && directionToGo != Direction.DOWN)
+		{
+			return false;
+		}
+		if(this.stateTable != null)
+		{
+			return this.stateTable.isHallCallRegistered(this.floorNumber, directionToGo);
+		}
+		synchronized(this)
+		{
+			return directionToGo == Direction.UP ? this.bUpCallRegistered : this.bDownCallRegistered;
+		}
+	}
+
+	/**
+	 * Whether a Person may board an elevator. Under destination dispatch a Person only boards the elevator they were assigned to, and nobody
+	 * boards an elevator whose zone does not include their destination.
+	 * @param inPerson the waiting Person
+	 * @param elevatorId the id of elevatorToEnter
+	 * @param elevatorToEnter the elevator whose doors are open
+	 * @return true if inPerson may board elevatorToEnter
+	 */
+	private boolean canBoard(Person inPerson, int elevatorId, ElevatorInterface elevatorToEnter)
+	{
+		int assignedElevator = inPerson.getAssignedElevator();
+		if(assignedElevator != Person.ANY_ELEVATOR && assignedElevator != elevatorId)
+		{
+			return false;
+		}
+		return elevatorToEnter.servesFloor(inPerson.getDestinationFloor());
+	}
+
+	/**
+	 * removes the people that desire to get off at the floor. Everybody who fits is moved into the elevator in one step, longest-waiting first.
 	 * @param elevatorToEnter places the people from the floor onto the specified elevator.
 	 * @param directionToGo the direction decides if a person will get off at the given floor or not.
 	 */
 	@Override
 	public synchronized void removeFromFloor(ElevatorInterface elevatorToEnter, Direction directionToGo) 
 	{
-		if(directionToGo != Direction.IDLE)
+		if(directionToGo != null && directionToGo != Direction.IDLE)
 		{
-			ArrayList<Person> peopleToRemove;
+			//the call in this direction has been answered, so the hall button goes out. anybody left behind has to be summoned for again
+			ArrayDeque<Person> peopleToRemove;
 			if(directionToGo == Direction.UP)
 			{
 				peopleToRemove = this.goingUp;
+				this.bUpCallRegistered = false;
+				this.upPromisedCapacity = 0;
 			}
 			else
 			{
 				peopleToRemove = this.goingDown;
+				this.bDownCallRegistered = false;
+				this.downPromisedCapacity = 0;
 			}
-			int i;
-			boolean bRemovalSuccessful = true;
-			for(i = 0; i < peopleToRemove.size() && bRemovalSuccessful; ++i)
+			if(this.stateTable != null)
 			{
-				Person curPerson = peopleToRemove.get(i);
-				try
-				{
-					bRemovalSuccessful = elevatorToEnter.addPassenger(curPerson);
-				}
-				catch (NullPassengerException | NegativeFloorException e)
-				{
-					e.printStackTrace();
-				}
+				this.stateTable.setHallCall(this.floorNumber, directionToGo, false);
 			}
-			int removalIndex;
-			if(!bRemovalSuccessful)
+			int room = elevatorToEnter.getCapacity() - elevatorToEnter.getLoad();
+			if(room <= 0 || peopleToRemove.isEmpty())
 			{
-				removalIndex = i;
+				return;
 			}
-			else
+
+			int elevatorId = elevatorToEnter.getElevatorId();
+			ArrayList<Person> boarding = new ArrayList<Person>(Math.min(room, peopleToRemove.size()));
+			Iterator<Person> waiting = peopleToRemove.iterator();
+			while(waiting.hasNext() && boarding.size() < room)
 			{
-				removalIndex = peopleToRemove.size();
+				Person curPerson = waiting.next();
+				if(canBoard(curPerson, elevatorId, elevatorToEnter))
+				{
+					boarding.add(curPerson);
+					waiting.remove();
+				}
 			}
-			for(int j = 0; j < removalIndex; ++j)
+			try
 			{
-				try
+				int boarded = elevatorToEnter.boardPassengers(boarding);
+				long boardingTime = context.getStatistics().getTime();
+				for(int i = 0; i < boarded; ++i)
 				{
-					peopleToRemove.remove(0);
-
+					boarding.get(i).setBoardingTime(boardingTime);
 				}
-				catch(IndexOutOfBoundsException e)
+				//anybody the elevator turned away goes back to the front of the queue, in the order they were waiting
+				for(int i = boarding.size() - 1; i >= boarded; --i)
 				{
-					e.printStackTrace();
+					peopleToRemove.addFirst(boarding.get(i));
 				}
 			}
+			catch (NullPassengerException | NegativeFloorException e)
+			{
+				e.printStackTrace();
+			}
+			publishWaiting();
+		}
+	}
+
+	/**
+	 * Publishes the number of people waiting in each direction to the state table, if this floor's simulation keeps one. Must be called
+	 * while holding this floor's monitor.
+	 */
+	private void publishWaiting()
+	{
+		if(this.stateTable != null)
+		{
+			this.stateTable.setWaiting(this.floorNumber, Direction.UP, this.goingUp.size());
+			this.stateTable.setWaiting(this.floorNumber, Direction.DOWN, this.goingDown.size());
 		}
 	}
 
@@ -175,7 +408,7 @@ public class Floor implements FloorInterface
 	 */
 	private synchronized void setFloorNumber(int inNum) throws NegativeFloorException
 	{
-		if(inNum < 0 || inNum >= XmlParser.getTotalFloorNumber())
+		if(inNum < 0 || inNum >= context.getConfig().getTotalFloorNumber())
 		{
 			throw new NegativeFloorException("Attempting to create a floor with an index that is outside the bounds of the simulation! (inNum: " + inNum + ")");
 		}
@@ -187,7 +420,7 @@ public class Floor implements FloorInterface
 	 */
 	private synchronized void initializeFloorArrays()
 	{
-		goingUp = new ArrayList<Person>();
-		goingDown = new ArrayList<Person>();
+		goingUp = new ArrayDeque<Person>();
+		goingDown = new ArrayDeque<Person>();
 	}
 }
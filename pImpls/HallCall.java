@@ -0,0 +1,70 @@
+package pImpls;
+
+/**
+ * A request made by pressing the up or down button on a floor. Two calls are equal if they were made from the same floor in the same
+ * direction, since a single elevator stop answers both.
+ */
+public class HallCall
+{
+	/**
+	 * The floor the call was made from. This value is an internal representation, so it uses ZERO-BASED indexing
+	 */
+	private int floorNumber;
+
+	/**
+	 * The direction the waiting passengers want to travel. Either UP or DOWN
+	 */
+	private Direction direction;
+
+	/**
+	 * Constructor for HallCall
+	 * @param inFloorNumber the ZERO-BASED floor the call was made from
+	 * @param inDirection the direction the waiting passengers want to travel
+	 */
+	public HallCall(int inFloorNumber, Direction inDirection)
+	{
+		this.floorNumber = inFloorNumber;
+		this.direction = inDirection;
+	}
+
+	/**
+	 * Accessor for the floor the call was made from
+	 * @return the ZERO-BASED floor number
+	 */
+	public int getFloorNumber()
+	{
+		return this.floorNumber;
+	}
+
+	/**
+	 * Accessor for the direction the waiting passengers want to travel
+	 * @return either UP or DOWN
+	 */
+	public Direction getDirection()
+	{
+		return this.direction;
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if(!(other instanceof HallCall))
+		{
+			return false;
+		}
+		HallCall otherCall = (HallCall) other;
+		return this.floorNumber == otherCall.floorNumber && this.direction == otherCall.direction;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.floorNumber * 31 + this.direction.hashCode();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "floor " + this.floorNumber + " " + this.direction;
+	}
+}
@@ -0,0 +1,350 @@
+package pImpls;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import pExceptions.NegativeFloorException;
+import pInterfaces.ControlModuleInterface;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * Runs the elevator selection algorithm of a threaded-mode simulation on one dedicated thread. Floors and elevators hand their hall calls to
+ * a HallCallRingBuffer and return straight away, and the dispatcher thread takes the calls out in batches and passes them to whichever control
+ * module is in charge at the time. Since this thread is the only one that assigns hall calls, the selection algorithm never races with itself
+ * over the same floors and elevators, and the threads of the simulation never wait for each other to finish dispatching. Queueing a call never
+ * waits either: a call that finds the buffer full is deferred with the control module's other pending hall calls, and the dispatcher thread
+ * retries it once it has emptied the buffer, so a burst of calls neither blocks whoever makes them nor spreads the selection algorithm over
+ * their threads.
+ * Work that is not a plain hall call, such as a destination call or a batch of calls waiting for its window to close, is handed over as a task
+ * and runs on the dispatcher thread as well. Handing over a task never waits, so it is safe for threads that hold an elevator's lock.
+ */
+public class HallCallDispatcher implements Runnable
+{
+	/**
+	 * The number of hall calls the buffer can hold
+	 */
+	public static final int QUEUE_SIZE = 1024;
+
+	/**
+	 * The largest number of calls taken out of the buffer at once
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	/**
+	 * The calls waiting to be dispatched
+	 */
+	private HallCallRingBuffer queue = new HallCallRingBuffer(QUEUE_SIZE);
+
+	/**
+	 * The control module whose current delegate every call is dispatched to
+	 */
+	private ElevatorControlModule controlModule;
+
+	/**
+	 * The thread that dispatches the calls, or null before start is called
+	 */
+	private volatile Thread dispatcherThread;
+
+	/**
+	 * Whether the dispatcher thread should keep running
+	 */
+	private volatile boolean bRunning;
+
+	/**
+	 * Whether the dispatcher thread has found the buffer empty and is about to park, or is parked
+	 */
+	private volatile boolean bSleeping;
+
+	/**
+	 * Whether an elevator has become idle or changed direction since the deferred hall calls were last retried
+	 */
+	private AtomicBoolean bRetryRequested = new AtomicBoolean();
+
+	/**
+	 * The elevator that most recently became idle or changed direction
+	 */
+	private volatile ElevatorInterface changedElevator;
+
+	/**
+	 * The tasks waiting to run on the dispatcher thread, oldest first. Guarded by its own monitor.
+	 */
+	private ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+
+	/**
+	 * The tasks waiting for their delay to pass, ordered by the System.nanoTime at which they are due. Guarded by the monitor of tasks.
+	 */
+	private PriorityQueue<SimulationEvent> timedTasks = new PriorityQueue<SimulationEvent>();
+
+	/**
+	 * The number of tasks scheduled so far, so that tasks due at the same time run in the order they were scheduled
+	 */
+	private long timedTaskCount;
+
+	/**
+	 * Whether tasks have been handed over or scheduled since the dispatcher thread last took them, so it can check without taking the monitor
+	 * of tasks
+	 */
+	private volatile boolean bTasksChanged;
+
+	/**
+	 * The number of calls that found the buffer full
+	 */
+	private LongAdder overflowCount = new LongAdder();
+
+	/**
+	 * Constructor for HallCallDispatcher. The dispatcher does not take calls until start is called.
+	 * @param inControlModule the control module whose current delegate every call is dispatched to
+	 */
+	public HallCallDispatcher(ElevatorControlModule inControlModule)
+	{
+		this.controlModule = inControlModule;
+	}
+
+	/**
+	 * Starts the dispatcher thread
+	 */
+	public void start()
+	{
+		bRunning = true;
+		Thread thread = new Thread(this, "hall-call-dispatcher");
+		thread.setDaemon(true);
+		dispatcherThread = thread;
+		thread.start();
+	}
+
+	/**
+	 * Stops the dispatcher thread once it has dispatched the calls that are already in the buffer
+	 */
+	public void shutDown()
+	{
+		bRunning = false;
+		wakeUp();
+	}
+
+	/**
+	 * Queues a hall call for the dispatcher thread. Never waits, so it may be called while holding an elevator's or floor's lock. If the buffer
+	 * is full, the call is deferred with the pending hall calls of the current delegate instead, and the dispatcher thread retries it once it
+	 * has dispatched the calls already in the buffer.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 */
+	public void submit(int floorNumber, Direction directionRequest)
+	{
+		if(offer(floorNumber, directionRequest))
+		{
+			return;
+		}
+		ControlModuleInterface delegate = controlModule.getDelegate();
+		if(delegate instanceof AbstractControlModule)
+		{
+			((AbstractControlModule) delegate).getPendingCalls().add(new HallCall(floorNumber, directionRequest));
+		}
+		//the retry does not depend on which elevator asked for it, so the last elevator that did is kept
+		requestRetry(changedElevator);
+	}
+
+	/**
+	 * Queues a hall call for the dispatcher thread if the buffer has room. Never waits, so it may be called while holding an elevator's lock.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @return true if the call was queued, or false if the buffer is full
+	 */
+	public boolean offer(int floorNumber, Direction directionRequest)
+	{
+		if(!queue.offer(new HallCall(floorNumber, directionRequest)))
+		{
+			overflowCount.increment();
+			return false;
+		}
+		wakeUp();
+		return true;
+	}
+
+	/**
+	 * Runs a task on the dispatcher thread as soon as it has dispatched the calls already in the buffer. Never waits, so it may be called
+	 * while holding an elevator's lock.
+	 * @param task the work to run on the dispatcher thread
+	 */
+	public void execute(Runnable task)
+	{
+		synchronized(tasks)
+		{
+			tasks.add(task);
+			bTasksChanged = true;
+		}
+		wakeUp();
+	}
+
+	/**
+	 * Runs a task on the dispatcher thread once a delay has passed. Never waits, so it may be called while holding an elevator's lock.
+	 * @param delayMillis the wall-clock time to wait before running the task, in milliseconds. Must not be negative.
+	 * @param task the work to run on the dispatcher thread
+	 */
+	public void schedule(long delayMillis, Runnable task)
+	{
+		if(delayMillis < 0)
+		{
+			throw new IllegalArgumentException("Attempting to schedule a dispatcher task in the past! (delay: " + delayMillis + ")");
+		}
+		synchronized(tasks)
+		{
+			timedTasks.add(new SimulationEvent(System.nanoTime() + delayMillis * 1000000L, timedTaskCount++, task));
+			bTasksChanged = true;
+		}
+		wakeUp();
+	}
+
+	/**
+	 * Asks the dispatcher thread to retry the deferred hall calls. Several requests made before the dispatcher gets to them are handled
+	 * together.
+	 * @param elevator the elevator that has become idle or changed direction
+	 */
+	public void requestRetry(ElevatorInterface elevator)
+	{
+		changedElevator = elevator;
+		bRetryRequested.set(true);
+		wakeUp();
+	}
+
+	/**
+	 * Accessor for the number of calls that could not be queued straight away
+	 * @return the number of calls that found the buffer full and were deferred or refused
+	 */
+	public long getOverflowCount()
+	{
+		return overflowCount.sum();
+	}
+
+	/**
+	 * Dispatches batches of calls and runs tasks until shutDown is called, parking whenever there is nothing to do. Tasks that are not due
+	 * yet when shutDown is called are dropped. A call or task that throws is reported and skipped, since this thread is the only one that
+	 * dispatches and must outlive any single failure.
+	 */
+	@Override
+	public void run()
+	{
+		ArrayList<HallCall> batch = new ArrayList<HallCall>(BATCH_SIZE);
+		HashSet<HallCall> seen = new HashSet<HallCall>();
+		long nextDue = Long.MAX_VALUE;
+		while(bRunning || !queue.isEmpty() || bTasksChanged)
+		{
+			if(bTasksChanged || ( nextDue != Long.MAX_VALUE && System.nanoTime() - nextDue >= 0 ))
+			{
+				nextDue = runTasks();
+			}
+			if(queue.drainTo(batch, BATCH_SIZE) > 0)
+			{
+				dispatch(batch, seen);
+				batch.clear();
+				seen.clear();
+			}
+			else if(bRetryRequested.getAndSet(false))
+			{
+				try
+				{
+					controlModule.getDelegate().elevatorDirectionChanged(changedElevator);
+				}
+				catch (RuntimeException e)
+				{
+					e.printStackTrace();
+				}
+			}
+			else
+			{
+				bSleeping = true;
+				//a call queued after the buffer was found empty, but before bSleeping was set, would otherwise never wake this thread up
+				if(queue.isEmpty() && !bRetryRequested.get() && bRunning && !bTasksChanged)
+				{
+					if(nextDue == Long.MAX_VALUE)
+					{
+						LockSupport.park(this);
+					}
+					else
+					{
+						LockSupport.parkNanos(this, nextDue - System.nanoTime());
+					}
+				}
+				bSleeping = false;
+			}
+		}
+	}
+
+	/**
+	 * Runs the tasks that have been handed over and the timed tasks that are due
+	 * @return the System.nanoTime at which the next timed task is due, or Long.MAX_VALUE if there is none
+	 */
+	private long runTasks()
+	{
+		ArrayList<Runnable> ready = new ArrayList<Runnable>();
+		long nextDue = Long.MAX_VALUE;
+		synchronized(tasks)
+		{
+			long now = System.nanoTime();
+			while(!timedTasks.isEmpty() && timedTasks.peek().getEventTime() - now <= 0)
+			{
+				ready.add(timedTasks.poll()::fire);
+			}
+			ready.addAll(tasks);
+			tasks.clear();
+			if(!timedTasks.isEmpty())
+			{
+				nextDue = timedTasks.peek().getEventTime();
+			}
+			bTasksChanged = false;
+		}
+		for(Runnable task : ready)
+		{
+			try
+			{
+				task.run();
+			}
+			catch (RuntimeException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		return nextDue;
+	}
+
+	/**
+	 * Hands every call of a batch to the current delegate, skipping repeats of a floor and direction that is already in the batch
+	 * @param batch the calls taken out of the buffer, oldest first
+	 * @param seen an empty set used to find the repeats
+	 */
+	private void dispatch(ArrayList<HallCall> batch, HashSet<HallCall> seen)
+	{
+		ControlModuleInterface delegate = controlModule.getDelegate();
+		for(HallCall call : batch)
+		{
+			if(!seen.add(call))
+			{
+				continue;
+			}
+			try
+			{
+				delegate.elevatorCallReceiver(call.getFloorNumber(), call.getDirection());
+			}
+			catch (NegativeFloorException | RuntimeException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Unparks the dispatcher thread if it is parked or about to park
+	 */
+	private void wakeUp()
+	{
+		Thread thread = dispatcherThread;
+		if(bSleeping && thread != null)
+		{
+			LockSupport.unpark(thread);
+		}
+	}
+}
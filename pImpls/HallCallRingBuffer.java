@@ -0,0 +1,149 @@
+package pImpls;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded queue of hall calls which any number of threads may add to at the same time, but which only one thread may take from. Neither
+ * side ever takes a lock: producers claim a slot with a single compare-and-set and the consumer reads slots in order, so a thread making a
+ * call never waits for the dispatcher or for another caller. Every slot carries a sequence number which tells both sides whether the slot
+ * is free to write or ready to read.
+ */
+public class HallCallRingBuffer
+{
+	/**
+	 * The calls in the buffer. A slot is only read once its sequence number says it has been written.
+	 */
+	private HallCall[] slots;
+
+	/**
+	 * The sequence number of every slot. A slot whose sequence equals the position a producer wants to write is free, and a slot whose
+	 * sequence is one past the position the consumer wants to read holds a call.
+	 */
+	private AtomicLongArray sequences;
+
+	/**
+	 * Maps a position to its slot. The capacity is a power of two, so this is one less than the capacity.
+	 */
+	private int mask;
+
+	/**
+	 * The next position a producer will write to
+	 */
+	private AtomicLong tail = new AtomicLong();
+
+	/**
+	 * The next position the consumer will read from. Only ever touched by the consumer thread.
+	 */
+	private long head;
+
+	/**
+	 * Constructor for HallCallRingBuffer
+	 * @param inCapacity the number of calls the buffer can hold. Must be a power of two.
+	 * @throws IllegalArgumentException if inCapacity is not a positive power of two
+	 */
+	public HallCallRingBuffer(int inCapacity)
+	{
+		if(inCapacity < 1 || Integer.bitCount(inCapacity) != 1)
+		{
+			throw new IllegalArgumentException("The capacity of a hall call buffer must be a power of two, but was " + inCapacity);
+		}
+		this.slots = new HallCall[inCapacity];
+		this.sequences = new AtomicLongArray(inCapacity);
+		for(int i = 0; i < inCapacity; ++i)
+		{
+			this.sequences.set(i, i);
+		}
+		this.mask = inCapacity - 1;
+	}
+
+	/**
+	 * Adds a call to the buffer. May be called from any thread.
+	 * @param call the call to add. Must not be null.
+	 * @return true if the call was added, or false if the buffer is full
+	 */
+	public boolean offer(HallCall call)
+	{
+		long position;
+		int index;
+		while(true)
+		{
+			position = tail.get();
+			index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if(difference == 0)
+			{
+				if(tail.compareAndSet(position, position + 1))
+				{
+					break;
+				}
+			}
+			else if(difference < 0)
+			{
+				//the consumer has not read this slot since the buffer last wrapped around
+				return false;
+			}
+		}
+		slots[index] = call;
+		//publishing the sequence makes the call visible to the consumer. This is a full volatile write rather than a lazySet, so that a
+		//producer which then finds the consumer awake can rely on the consumer seeing the call before it parks
+		sequences.set(index, position + 1);
+		return true;
+	}
+
+	/**
+	 * Takes the oldest call out of the buffer. May only be called from the consumer thread.
+	 * @return the oldest call, or null if the buffer is empty
+	 */
+	public HallCall poll()
+	{
+		int index = (int) head & mask;
+		if(sequences.get(index) != head + 1)
+		{
+			return null;
+		}
+		HallCall call = slots[index];
+		slots[index] = null;
+		//hands the slot back to the producers for the next lap around the buffer
+		sequences.lazySet(index, head + slots.length);
+		head++;
+		return call;
+	}
+
+	/**
+	 * Takes up to maxCalls of the oldest calls out of the buffer. May only be called from the consumer thread.
+	 * @param batch the list the calls are appended to, oldest first
+	 * @param maxCalls the largest number of calls to take
+	 * @return the number of calls taken
+	 */
+	public int drainTo(ArrayList<HallCall> batch, int maxCalls)
+	{
+		int taken = 0;
+		HallCall call;
+		while(taken < maxCalls && ( call = poll() ) != null)
+		{
+			batch.add(call);
+			taken++;
+		}
+		return taken;
+	}
+
+	/**
+	 * Whether the buffer holds no calls. Only exact when called from the consumer thread.
+	 * @return true if the consumer would find no call to take right now
+	 */
+	public boolean isEmpty()
+	{
+		return sequences.get((int) head & mask) != head + 1;
+	}
+
+	/**
+	 * Accessor for the number of calls the buffer can hold
+	 * @return the capacity of the buffer
+	 */
+	public int getCapacity()
+	{
+		return slots.length;
+	}
+}
@@ -0,0 +1,59 @@
+package pImpls;
+
+import pInterfaces.ElevatorInterface;
+import pInterfaces.ParkingPolicyInterface;
+
+/**
+ * Parking policy which sends every idle elevator back to the lowest floor it serves, which is the lobby unless the elevator belongs to a bank
+ * that skips it. This is the original behaviour of the simulation, and suits the morning rush when nearly every call starts at the lobby.
+ */
+public class LobbyParkingPolicy implements ParkingPolicyInterface
+{
+	/**
+	 * Calls are not needed to find the lobby, so nothing is recorded
+	 * @param floorNum the ONE-BASED floor the passenger arrived on
+	 * @param time the simulation time of the call, in milliseconds
+	 */
+	@Override
+	public void recordCall(int floorNum, long time)
+	{
+	}
+
+	/**
+	 * Picks the lowest floor the elevator serves
+	 * @param elevator the elevator that has been idle long enough to be parked
+	 * @param time the current simulation time, in milliseconds
+	 * @return the ONE-BASED lowest floor served by the elevator
+	 */
+	@Override
+	public int chooseParkingFloor(ElevatorInterface elevator, long time)
+	{
+		return getLowestServedFloor(elevator);
+	}
+
+	/**
+	 * Nothing is remembered about parked elevators, so there is nothing to release
+	 * @param elevator the elevator which is no longer parked
+	 */
+	@Override
+	public void releaseParkingFloor(ElevatorInterface elevator)
+	{
+	}
+
+	/**
+	 * Finds the lowest floor an elevator stops at
+	 * @param elevator the elevator to check
+	 * @return the ONE-BASED lowest floor served by the elevator, or its current floor if it serves none
+	 */
+	static int getLowestServedFloor(ElevatorInterface elevator)
+	{
+		for(int floorNum = 1; floorNum <= elevator.getCurrentFloor(); ++floorNum)
+		{
+			if(elevator.servesFloor(floorNum))
+			{
+				return floorNum;
+			}
+		}
+		return elevator.getCurrentFloor();
+	}
+}
@@ -0,0 +1,56 @@
+package pImpls;
+
+import java.util.Iterator;
+
+import pExceptions.NegativeFloorException;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * An implementation of the ControlModule interface which sends the nearest elevator that is idle or already travelling toward the calling floor
+ * in the requested direction. The candidates come from the simulation's ElevatorPositionIndex, so only the elevators actually offered the call
+ * are looked at, however many elevators there are.
+ */
+public class NearestElevatorControlModule extends AbstractControlModule
+{
+	/**
+	 * Constructor which creates the floors and elevators described by the configuration of a specific simulation.
+	 * @param inContext the simulation that this control module belongs to
+	 */
+	public NearestElevatorControlModule(SimulationContext inContext)
+	{
+		super(inContext);
+	}
+
+	/**
+	 * Constructor which takes over the floors, elevators and pending hall calls of a running simulation.
+	 * @param inPrevious the control module being replaced
+	 */
+	public NearestElevatorControlModule(AbstractControlModule inPrevious)
+	{
+		super(inPrevious);
+	}
+
+	/**
+	 * Offers the call to the eligible elevators of this control module, nearest first, until one of them accepts it. Elevators at the same
+	 * distance are offered the call moving elevators first.
+	 * @param floorNumber the ZERO-BASED floor number where the request is originating from.
+	 * @param directionRequest the direction that will lead to the requested floor.
+	 * @return true if an elevator accepted the call, otherwise false
+	 * @throws NegativeFloorException if the floorNumber is outside the bounds of the floor collection.
+	 */
+	@Override
+	protected boolean assignCall(int floorNumber, Direction directionRequest) throws NegativeFloorException
+	{
+		boolean handledRequest = false;
+		Iterator<ElevatorInterface> candidates = context.getElevatorIndex().findNearest(floorNumber, directionRequest);
+		while(candidates.hasNext() && !handledRequest)
+		{
+			ElevatorInterface curElev = candidates.next();
+			if(isManaged(curElev))
+			{
+				handledRequest = offerCall(curElev, floorNumber, directionRequest, "");
+			}
+		}
+		return handledRequest;
+	}
+}
@@ -0,0 +1,496 @@
+package pImpls;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An experimental mirror of the hot state of every elevator and floor of a simulation, kept in a single contiguous block of memory outside the
+ * garbage collected heap, for benchmarking only.
+ * Every elevator owns a fixed-size record holding its ZERO-BASED current floor, its direction, its load and one bit per floor it will stop at.
+ * Every floor owns a record holding the number of people waiting to travel up and down and which of its hall buttons are lit.
+ * The block is written only by the owner of each record, while it holds its own lock, and every value is published with release semantics
+ * and read with acquire semantics. Other threads can therefore read or scan the records without taking any elevator or floor lock, and a
+ * scan walks adjacent memory instead of chasing a reference per elevator.
+ * The table is not a storage backend. Elevator and Floor keep their state in their own fields and write every change through to the table as
+ * well; only a few of their accessors, such as Elevator.getCurrentFloor or Floor.hasWaitingPeople, read the table instead of the fields, which
+ * spares them a lock but does not make them any faster for the control modules. Selecting the table therefore costs an extra write per update
+ * and buys nothing during a simulation: no control module scans it, and hall calls are still assigned through the ElevatorPositionIndex. It
+ * exists so that StateStorageBenchmark can measure scanning a contiguous block against the fields and the index, and a simulation runs
+ * exactly the same whichever storage is selected.
+ * The table is selected with the optional stateStorage element of the configuration.
+ */
+public class OffHeapStateTable
+{
+	/**
+	 * Value of the optional stateStorage element which keeps the state of elevators and floors in their own fields. This is the default.
+	 */
+	public static final String HEAP_STATE = "heap";
+
+	/**
+	 * Value of the optional stateStorage element which also mirrors the hot state of elevators and floors into an OffHeapStateTable, for benchmarking
+	 */
+	public static final String OFF_HEAP_STATE = "offheap";
+
+	/**
+	 * Reads and writes the int fields of a record
+	 */
+	private static final VarHandle INT_FIELD = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+	/**
+	 * Reads and writes the words of the stop bits of an elevator record
+	 */
+	private static final VarHandle LONG_FIELD = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+	/**
+	 * Offset of the ZERO-BASED current floor within an elevator record
+	 */
+	private static final int ELEVATOR_FLOOR = 0;
+
+	/**
+	 * Offset of the ordinal of the direction within an elevator record
+	 */
+	private static final int ELEVATOR_DIRECTION = 4;
+
+	/**
+	 * Offset of the number of passengers within an elevator record
+	 */
+	private static final int ELEVATOR_LOAD = 8;
+
+	/**
+	 * Offset of the flags within an elevator record. The record is only in use while ACTIVE is set.
+	 */
+	private static final int ELEVATOR_FLAGS = 12;
+
+	/**
+	 * Offset of the first word of the stop bits within an elevator record
+	 */
+	private static final int ELEVATOR_STOPS = 16;
+
+	/**
+	 * Offset of the number of people waiting to travel up within a floor record
+	 */
+	private static final int FLOOR_WAITING_UP = 0;
+
+	/**
+	 * Offset of the number of people waiting to travel down within a floor record
+	 */
+	private static final int FLOOR_WAITING_DOWN = 4;
+
+	/**
+	 * Offset of the lit hall buttons within a floor record
+	 */
+	private static final int FLOOR_HALL_CALLS = 8;
+
+	/**
+	 * Size of a floor record in bytes
+	 */
+	private static final int FLOOR_STRIDE = 16;
+
+	/**
+	 * Flag of an elevator record which is in use by a running elevator
+	 */
+	private static final int ACTIVE = 1;
+
+	/**
+	 * Flag of a floor record whose UP hall button is lit
+	 */
+	private static final int UP_CALL = 1;
+
+	/**
+	 * Flag of a floor record whose DOWN hall button is lit
+	 */
+	private static final int DOWN_CALL = 2;
+
+	/**
+	 * The directions, indexed by the ordinal stored in an elevator record
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/**
+	 * The block of memory holding every elevator record followed by every floor record
+	 */
+	private final ByteBuffer block;
+
+	/**
+	 * The number of elevator records in the block
+	 */
+	private final int elevatorCount;
+
+	/**
+	 * The number of floor records in the block, which is also the number of stop bits of an elevator record
+	 */
+	private final int floorCount;
+
+	/**
+	 * Size of an elevator record in bytes
+	 */
+	private final int elevatorStride;
+
+	/**
+	 * Offset of the first floor record within the block
+	 */
+	private final int floorBase;
+
+	/**
+	 * The next elevator record to hand out
+	 */
+	private final AtomicInteger nextElevatorSlot = new AtomicInteger();
+
+	/**
+	 * Creates a table with room for the given number of elevators and floors
+	 * @param inElevatorCount the number of elevator records. Must be positive.
+	 * @param inFloorCount the number of floors in the simulation. Must be positive.
+	 */
+	public OffHeapStateTable(int inElevatorCount, int inFloorCount)
+	{
+		if(inElevatorCount < 1 || inFloorCount < 1)
+		{
+			throw new IllegalArgumentException("Attempting to create a state table without elevators or floors! (inElevatorCount: " + inElevatorCount + ", inFloorCount: " + inFloorCount + ")");
+		}
+		this.elevatorCount = inElevatorCount;
+		this.floorCount = inFloorCount;
+		this.elevatorStride = ELEVATOR_STOPS + ( ( inFloorCount + 63 ) >>> 6 ) * Long.BYTES;
+		long size = (long)inElevatorCount * this.elevatorStride + (long)inFloorCount * FLOOR_STRIDE;
+		if(size > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Attempting to create a state table larger than 2 GB! (inElevatorCount: " + inElevatorCount + ", inFloorCount: " + inFloorCount + ")");
+		}
+		this.floorBase = inElevatorCount * this.elevatorStride;
+		this.block = ByteBuffer.allocateDirect((int)size).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Hands out the record of a new elevator. The record starts out on floor 0, IDLE, empty and without stops.
+	 * @return the slot of the record, or -1 if every record has been handed out already
+	 */
+	public int registerElevator()
+	{
+		int slot = this.nextElevatorSlot.getAndIncrement();
+		if(slot >= this.elevatorCount)
+		{
+			return -1;
+		}
+		int record = elevatorRecord(slot);
+		setInt(record + ELEVATOR_DIRECTION, Direction.IDLE.ordinal());
+		setInt(record + ELEVATOR_FLAGS, ACTIVE);
+		return slot;
+	}
+
+	/**
+	 * Marks the record of an elevator that has been shut down, so that scans no longer consider it
+	 * @param slot the slot returned by registerElevator
+	 */
+	public void releaseElevator(int slot)
+	{
+		setInt(elevatorRecord(slot) + ELEVATOR_FLAGS, 0);
+	}
+
+	/**
+	 * Whether the record of an elevator belongs to a running elevator
+	 * @param slot the slot returned by registerElevator
+	 * @return true if the elevator has been registered and not released
+	 */
+	public boolean isElevatorActive(int slot)
+	{
+		return ( getInt(elevatorRecord(slot) + ELEVATOR_FLAGS) & ACTIVE ) != 0;
+	}
+
+	/**
+	 * Publishes the floor an elevator is on
+	 * @param slot the slot returned by registerElevator
+	 * @param inFloor the ZERO-BASED floor
+	 */
+	public void setElevatorFloor(int slot, int inFloor)
+	{
+		setInt(elevatorRecord(slot) + ELEVATOR_FLOOR, inFloor);
+	}
+
+	/**
+	 * Reads the floor an elevator is on
+	 * @param slot the slot returned by registerElevator
+	 * @return the ZERO-BASED floor
+	 */
+	public int getElevatorFloor(int slot)
+	{
+		return getInt(elevatorRecord(slot) + ELEVATOR_FLOOR);
+	}
+
+	/**
+	 * Publishes the direction an elevator is travelling in
+	 * @param slot the slot returned by registerElevator
+	 * @param inDirection the direction
+	 */
+	public void setElevatorDirection(int slot, Direction inDirection)
+	{
+		setInt(elevatorRecord(slot) + ELEVATOR_DIRECTION, inDirection.ordinal());
+	}
+
+	/**
+	 * Reads the direction an elevator is travelling in
+	 * @param slot the slot returned by registerElevator
+	 * @return the direction
+	 */
+	public Direction getElevatorDirection(int slot)
+	{
+		return DIRECTIONS[getInt(elevatorRecord(slot) + ELEVATOR_DIRECTION)];
+	}
+
+	/**
+	 * Publishes the number of passengers inside an elevator
+	 * @param slot the slot returned by registerElevator
+	 * @param inLoad the number of passengers
+	 */
+	public void setElevatorLoad(int slot, int inLoad)
+	{
+		setInt(elevatorRecord(slot) + ELEVATOR_LOAD, inLoad);
+	}
+
+	/**
+	 * Reads the number of passengers inside an elevator
+	 * @param slot the slot returned by registerElevator
+	 * @return the number of passengers
+	 */
+	public int getElevatorLoad(int slot)
+	{
+		return getInt(elevatorRecord(slot) + ELEVATOR_LOAD);
+	}
+
+	/**
+	 * Sets the stop bit of a floor in the record of an elevator. Only the owner of the record may change its stops.
+	 * @param slot the slot returned by registerElevator
+	 * @param inFloor the ZERO-BASED floor the elevator will stop at
+	 */
+	public void addStop(int slot, int inFloor)
+	{
+		int word = stopWord(slot, inFloor);
+		LONG_FIELD.setRelease(this.block, word, (long)LONG_FIELD.getAcquire(this.block, word) | ( 1L << inFloor ));
+	}
+
+	/**
+	 * Clears the stop bit of a floor in the record of an elevator. Only the owner of the record may change its stops.
+	 * @param slot the slot returned by registerElevator
+	 * @param inFloor the ZERO-BASED floor the elevator no longer stops at
+	 */
+	public void removeStop(int slot, int inFloor)
+	{
+		int word = stopWord(slot, inFloor);
+		LONG_FIELD.setRelease(this.block, word, (long)LONG_FIELD.getAcquire(this.block, word) & ~( 1L << inFloor ));
+	}
+
+	/**
+	 * Whether an elevator will stop at a floor
+	 * @param slot the slot returned by registerElevator
+	 * @param inFloor the ZERO-BASED floor
+	 * @return true if the stop bit of inFloor is set
+	 */
+	public boolean hasStop(int slot, int inFloor)
+	{
+		return ( (long)LONG_FIELD.getAcquire(this.block, stopWord(slot, inFloor)) & ( 1L << inFloor ) ) != 0;
+	}
+
+	/**
+	 * Counts the floors an elevator will stop at
+	 * @param slot the slot returned by registerElevator
+	 * @return the number of stop bits that are set
+	 */
+	public int getStopCount(int slot)
+	{
+		int record = elevatorRecord(slot);
+		int count = 0;
+		for(int word = record + ELEVATOR_STOPS; word < record + this.elevatorStride; word += Long.BYTES)
+		{
+			count += Long.bitCount((long)LONG_FIELD.getAcquire(this.block, word));
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the closest running elevator that can answer a hall call without turning around: one that is IDLE, or one that is travelling
+	 * in the direction of the call and has not passed the floor yet. This walks the elevator records in order and takes no locks.
+	 * It is not used for dispatch: unlike ElevatorPositionIndex.findNearest it yields a single elevator, and elevators at the same distance
+	 * are decided by the lowest slot.
+	 * @param inFloor the ZERO-BASED floor of the call
+	 * @param inDirection the direction of the call. Must be either UP or DOWN
+	 * @return the slot of the closest such elevator, or -1 if there is none
+	 */
+	public int findNearestElevator(int inFloor, Direction inDirection)
+	{
+		int idle = Direction.IDLE.ordinal();
+		int wanted = inDirection.ordinal();
+		int registered = Math.min(this.nextElevatorSlot.get(), this.elevatorCount);
+		int bestSlot = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		for(int slot = 0, record = 0; slot < registered; ++slot, record += this.elevatorStride)
+		{
+			if(( getInt(record + ELEVATOR_FLAGS) & ACTIVE ) == 0)
+			{
+				continue;
+			}
+			int floor = getInt(record + ELEVATOR_FLOOR);
+			int direction = getInt(record + ELEVATOR_DIRECTION);
+			int distance = floor - inFloor;
+			if(direction == wanted)
+			{
+				distance = inDirection == Direction.UP ? -distance : distance;
+				if(distance < 0)
+				{
+					continue;
+				}
+			}
+			else if(direction == idle)
+			{
+				distance = Math.abs(distance);
+			}
+			else
+			{
+				continue;
+			}
+			if(distance < bestDistance)
+			{
+				bestDistance = distance;
+				bestSlot = slot;
+			}
+		}
+		return bestSlot;
+	}
+
+	/**
+	 * Publishes the number of people waiting on a floor to travel in a direction
+	 * @param inFloor the ZERO-BASED floor
+	 * @param inDirection either UP or DOWN
+	 * @param inWaiting the number of people waiting
+	 */
+	public void setWaiting(int inFloor, Direction inDirection, int inWaiting)
+	{
+		setInt(floorRecord(inFloor) + ( inDirection == Direction.UP ? FLOOR_WAITING_UP : FLOOR_WAITING_DOWN ), inWaiting);
+	}
+
+	/**
+	 * Reads the number of people waiting on a floor to travel in a direction
+	 * @param inFloor the ZERO-BASED floor
+	 * @param inDirection either UP or DOWN
+	 * @return the number of people waiting
+	 */
+	public int getWaiting(int inFloor, Direction inDirection)
+	{
+		return getInt(floorRecord(inFloor) + ( inDirection == Direction.UP ? FLOOR_WAITING_UP : FLOOR_WAITING_DOWN ));
+	}
+
+	/**
+	 * Publishes whether the hall button of a floor is lit. Only the owner of the floor record may change it.
+	 * @param inFloor the ZERO-BASED floor
+	 * @param inDirection either UP or DOWN
+	 * @param bRegistered true if the button is lit
+	 */
+	public void setHallCall(int inFloor, Direction inDirection, boolean bRegistered)
+	{
+		int field = floorRecord(inFloor) + FLOOR_HALL_CALLS;
+		int flag = inDirection == Direction.UP ? UP_CALL : DOWN_CALL;
+		int calls = getInt(field);
+		setInt(field, bRegistered ? calls | flag : calls & ~flag);
+	}
+
+	/**
+	 * Whether the hall button of a floor is lit
+	 * @param inFloor the ZERO-BASED floor
+	 * @param inDirection either UP or DOWN
+	 * @return true if the button is lit
+	 */
+	public boolean isHallCallRegistered(int inFloor, Direction inDirection)
+	{
+		return ( getInt(floorRecord(inFloor) + FLOOR_HALL_CALLS) & ( inDirection == Direction.UP ? UP_CALL : DOWN_CALL ) ) != 0;
+	}
+
+	/**
+	 * Accessor for the number of elevator records
+	 * @return the number of elevators this table has room for
+	 */
+	public int getElevatorCount()
+	{
+		return this.elevatorCount;
+	}
+
+	/**
+	 * Accessor for the number of floor records
+	 * @return the number of floors this table has room for
+	 */
+	public int getFloorCount()
+	{
+		return this.floorCount;
+	}
+
+	/**
+	 * The size of the block of memory outside the heap
+	 * @return the size of the block in bytes
+	 */
+	public int getFootprint()
+	{
+		return this.block.capacity();
+	}
+
+	/**
+	 * Finds the record of an elevator
+	 * @param slot the slot returned by registerElevator
+	 * @return the offset of the record within the block
+	 */
+	private int elevatorRecord(int slot)
+	{
+		if(slot < 0 || slot >= this.elevatorCount)
+		{
+			throw new IndexOutOfBoundsException("Elevator slot " + slot + " is outside of the state table! (elevatorCount: " + this.elevatorCount + ")");
+		}
+		return slot * this.elevatorStride;
+	}
+
+	/**
+	 * Finds the word holding the stop bit of a floor in the record of an elevator
+	 * @param slot the slot returned by registerElevator
+	 * @param inFloor the ZERO-BASED floor
+	 * @return the offset of the word within the block
+	 */
+	private int stopWord(int slot, int inFloor)
+	{
+		if(inFloor < 0 || inFloor >= this.floorCount)
+		{
+			throw new IndexOutOfBoundsException("Floor " + inFloor + " is outside of the state table! (floorCount: " + this.floorCount + ")");
+		}
+		return elevatorRecord(slot) + ELEVATOR_STOPS + ( inFloor >>> 6 ) * Long.BYTES;
+	}
+
+	/**
+	 * Finds the record of a floor
+	 * @param inFloor the ZERO-BASED floor
+	 * @return the offset of the record within the block
+	 */
+	private int floorRecord(int inFloor)
+	{
+		if(inFloor < 0 || inFloor >= this.floorCount)
+		{
+			throw new IndexOutOfBoundsException("Floor " + inFloor + " is outside of the state table! (floorCount: " + this.floorCount + ")");
+		}
+		return this.floorBase + inFloor * FLOOR_STRIDE;
+	}
+
+	/**
+	 * Reads an int field of the block with acquire semantics
+	 * @param offset the offset of the field within the block
+	 * @return the value of the field
+	 */
+	private int getInt(int offset)
+	{
+		return (int)INT_FIELD.getAcquire(this.block, offset);
+	}
+
+	/**
+	 * Writes an int field of the block with release semantics
+	 * @param offset the offset of the field within the block
+	 * @param value the new value of the field
+	 */
+	private void setInt(int offset, int value)
+	{
+		INT_FIELD.setRelease(this.block, offset, value);
+	}
+}
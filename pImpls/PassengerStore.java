@@ -0,0 +1,262 @@
+package pImpls;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps a compact record of every passenger of a simulation, so that long runs can be analysed afterwards without holding on to a Person
+ * object per arrival. Each record is a row across parallel primitive arrays: the ID, the ONE-BASED origin and destination floors, and the
+ * times at which the passenger arrived, boarded and was delivered, in milliseconds of simulation time. A record takes 20 bytes, so a day of
+ * ten million passengers fits in about 200 MB. The arrays are allocated in fixed-size chunks, so the store never copies its records while it
+ * grows. A Person can be rebuilt from a record through PersonFactory when a full object is needed.
+ */
+public class PassengerStore
+{
+	/**
+	 * Value of the optional passengerRecords element which keeps no per-passenger records. This is the default.
+	 */
+	public static final String NO_RECORDS = "none";
+
+	/**
+	 * Value of the optional passengerRecords element which keeps a compact record of every passenger in a PassengerStore
+	 */
+	public static final String COMPACT_RECORDS = "compact";
+
+	/**
+	 * Time stored for an event that has not happened yet, such as the delivery of a passenger who is still travelling
+	 */
+	public static final long NOT_YET = -1;
+
+	/**
+	 * Number of bits of a record index that select the record within its chunk
+	 */
+	private static final int CHUNK_SHIFT = 16;
+
+	/**
+	 * Number of records in every chunk
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	/**
+	 * Selects the record within its chunk
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * The ID of every passenger
+	 */
+	private ArrayList<int[]> ids = new ArrayList<int[]>();
+
+	/**
+	 * The ONE-BASED floor every passenger arrived on
+	 */
+	private ArrayList<short[]> origins = new ArrayList<short[]>();
+
+	/**
+	 * The ONE-BASED floor every passenger travels to
+	 */
+	private ArrayList<short[]> destinations = new ArrayList<short[]>();
+
+	/**
+	 * The time every passenger arrived, in milliseconds of simulation time
+	 */
+	private ArrayList<int[]> arrivalTimes = new ArrayList<int[]>();
+
+	/**
+	 * The time every passenger boarded the elevator that delivered them, or NOT_YET
+	 */
+	private ArrayList<int[]> boardingTimes = new ArrayList<int[]>();
+
+	/**
+	 * The time every passenger was delivered, or NOT_YET
+	 */
+	private ArrayList<int[]> deliveryTimes = new ArrayList<int[]>();
+
+	/**
+	 * The number of records in the store
+	 */
+	private int size;
+
+	/**
+	 * The number of records whose passenger has been delivered
+	 */
+	private int deliveredCount;
+
+	/**
+	 * Adds the record of a passenger who has just arrived
+	 * @param inId the ID of the passenger
+	 * @param inOrigin the ONE-BASED floor the passenger arrived on
+	 * @param inDestination the ONE-BASED floor the passenger travels to
+	 * @param inArrivalTime the time the passenger arrived, in milliseconds of simulation time
+	 * @return the index of the new record
+	 * @throws IllegalArgumentException if a floor does not fit into a short or the time does not fit into an int
+	 */
+	public synchronized int add(int inId, int inOrigin, int inDestination, long inArrivalTime)
+	{
+		if(inOrigin < 0 || inOrigin > Short.MAX_VALUE || inDestination < 0 || inDestination > Short.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Passenger " + inId + " travels between floors that cannot be stored! (origin: " + inOrigin + ", destination: " + inDestination + ")");
+		}
+		if(( size & CHUNK_MASK ) == 0)
+		{
+			ids.add(new int[CHUNK_SIZE]);
+			origins.add(new short[CHUNK_SIZE]);
+			destinations.add(new short[CHUNK_SIZE]);
+			arrivalTimes.add(new int[CHUNK_SIZE]);
+			boardingTimes.add(new int[CHUNK_SIZE]);
+			deliveryTimes.add(new int[CHUNK_SIZE]);
+		}
+		int record = size;
+		int chunk = record >>> CHUNK_SHIFT;
+		int offset = record & CHUNK_MASK;
+		ids.get(chunk)[offset] = inId;
+		origins.get(chunk)[offset] = (short) inOrigin;
+		destinations.get(chunk)[offset] = (short) inDestination;
+		arrivalTimes.get(chunk)[offset] = toStoredTime(inArrivalTime);
+		boardingTimes.get(chunk)[offset] = (int) NOT_YET;
+		deliveryTimes.get(chunk)[offset] = (int) NOT_YET;
+		size++;
+		return record;
+	}
+
+	/**
+	 * Completes the record of a passenger who has reached their destination
+	 * @param record the index of the passenger's record
+	 * @param inBoardingTime the time the passenger boarded the elevator that delivered them, in milliseconds of simulation time
+	 * @param inDeliveryTime the time the passenger was delivered, in milliseconds of simulation time
+	 * @throws IndexOutOfBoundsException if there is no such record
+	 */
+	public synchronized void recordDelivery(int record, long inBoardingTime, long inDeliveryTime)
+	{
+		checkRecord(record);
+		int chunk = record >>> CHUNK_SHIFT;
+		int offset = record & CHUNK_MASK;
+		if(deliveryTimes.get(chunk)[offset] == NOT_YET)
+		{
+			deliveredCount++;
+		}
+		boardingTimes.get(chunk)[offset] = toStoredTime(inBoardingTime);
+		deliveryTimes.get(chunk)[offset] = toStoredTime(inDeliveryTime);
+	}
+
+	/**
+	 * Accessor for the ID of a passenger
+	 * @param record the index of the passenger's record
+	 * @return the ID the passenger was created with
+	 */
+	public synchronized int getId(int record)
+	{
+		checkRecord(record);
+		return ids.get(record >>> CHUNK_SHIFT)[record & CHUNK_MASK];
+	}
+
+	/**
+	 * Accessor for the floor a passenger arrived on
+	 * @param record the index of the passenger's record
+	 * @return the ONE-BASED origin floor
+	 */
+	public synchronized int getOrigin(int record)
+	{
+		checkRecord(record);
+		return origins.get(record >>> CHUNK_SHIFT)[record & CHUNK_MASK];
+	}
+
+	/**
+	 * Accessor for the floor a passenger travels to
+	 * @param record the index of the passenger's record
+	 * @return the ONE-BASED destination floor
+	 */
+	public synchronized int getDestination(int record)
+	{
+		checkRecord(record);
+		return destinations.get(record >>> CHUNK_SHIFT)[record & CHUNK_MASK];
+	}
+
+	/**
+	 * Accessor for the time a passenger arrived
+	 * @param record the index of the passenger's record
+	 * @return the arrival time in milliseconds of simulation time
+	 */
+	public synchronized long getArrivalTime(int record)
+	{
+		checkRecord(record);
+		return arrivalTimes.get(record >>> CHUNK_SHIFT)[record & CHUNK_MASK];
+	}
+
+	/**
+	 * Accessor for the time a passenger boarded the elevator that delivered them
+	 * @param record the index of the passenger's record
+	 * @return the boarding time in milliseconds of simulation time, or NOT_YET if the passenger has not been delivered
+	 */
+	public synchronized long getBoardingTime(int record)
+	{
+		checkRecord(record);
+		return boardingTimes.get(record >>> CHUNK_SHIFT)[record & CHUNK_MASK];
+	}
+
+	/**
+	 * Accessor for the time a passenger was delivered
+	 * @param record the index of the passenger's record
+	 * @return the delivery time in milliseconds of simulation time, or NOT_YET if the passenger is still on their way
+	 */
+	public synchronized long getDeliveryTime(int record)
+	{
+		checkRecord(record);
+		return deliveryTimes.get(record >>> CHUNK_SHIFT)[record & CHUNK_MASK];
+	}
+
+	/**
+	 * Accessor for the number of records in the store
+	 * @return the number of passengers recorded so far
+	 */
+	public synchronized int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Accessor for the number of passengers who have reached their destination
+	 * @return the number of records with a delivery time
+	 */
+	public synchronized int getDeliveredCount()
+	{
+		return deliveredCount;
+	}
+
+	/**
+	 * Estimates how much heap the records take up, counting the chunks that have been allocated
+	 * @return the size of the record arrays in bytes
+	 */
+	public synchronized long getFootprint()
+	{
+		//four int arrays and two short arrays per chunk
+		return (long) ids.size() * CHUNK_SIZE * ( 4 * 4 + 2 * 2 );
+	}
+
+	/**
+	 * Makes sure a record exists
+	 * @param record the index of the record
+	 * @throws IndexOutOfBoundsException if there is no such record
+	 */
+	private void checkRecord(int record)
+	{
+		if(record < 0 || record >= size)
+		{
+			throw new IndexOutOfBoundsException("There is no passenger record " + record + "! (records: " + size + ")");
+		}
+	}
+
+	/**
+	 * Converts a time into the form it is stored in
+	 * @param time a time in milliseconds of simulation time, or NOT_YET
+	 * @return the time as an int
+	 * @throws IllegalArgumentException if the time is more than Integer.MAX_VALUE milliseconds (about 24 days) into the simulation
+	 */
+	private static int toStoredTime(long time)
+	{
+		if(time < NOT_YET || time > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("The time " + time + " cannot be stored in a passenger record!");
+		}
+		return (int) time;
+	}
+}
@@ -0,0 +1,65 @@
+package pImpls;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+/**
+ * Holds the hall calls that no elevator could accept when they were made. Each floor and direction is held at most once, and calls are handed
+ * back in the order they were first made, so the longest-waiting floors are retried first.
+ */
+public class PendingHallCalls
+{
+	/**
+	 * The calls waiting to be assigned, in the order they were first made
+	 */
+	private LinkedHashSet<HallCall> pendingCalls = new LinkedHashSet<HallCall>();
+
+	/**
+	 * The total number of calls that have been added, not counting duplicates
+	 */
+	private long totalDeferred;
+
+	/**
+	 * Adds a call that could not be assigned to an elevator
+	 * @param call the call to add
+	 * @return true if the call was added, or false if the same floor and direction was already waiting
+	 */
+	public synchronized boolean add(HallCall call)
+	{
+		boolean added = pendingCalls.add(call);
+		if(added)
+		{
+			totalDeferred++;
+		}
+		return added;
+	}
+
+	/**
+	 * Removes every waiting call so it can be retried. Calls that still cannot be assigned should be added again.
+	 * @return the waiting calls, oldest first
+	 */
+	public synchronized ArrayList<HallCall> drain()
+	{
+		ArrayList<HallCall> drainedCalls = new ArrayList<HallCall>(pendingCalls);
+		pendingCalls.clear();
+		return drainedCalls;
+	}
+
+	/**
+	 * Accessor for the number of calls currently waiting
+	 * @return the number of distinct floor and direction pairs waiting for an elevator
+	 */
+	public synchronized int size()
+	{
+		return pendingCalls.size();
+	}
+
+	/**
+	 * Accessor for the number of calls that have been deferred since the simulation started
+	 * @return the number of calls added, not counting duplicates of calls that were already waiting
+	 */
+	public synchronized long getTotalDeferred()
+	{
+		return totalDeferred;
+	}
+}
@@ -24,6 +24,47 @@ public class Person
 	 */
 	private int personID;
 
+	/**
+	 * The simulation time (in milliseconds) at which this Person was placed on their start floor
+	 */
+	private long arrivalTime;
+
+	/**
+	 * The simulation time (in milliseconds) at which this Person entered an elevator
+	 */
+	private long boardingTime;
+
+	/**
+	 * The number of floors in the simulation that this Person belongs to. Used to validate the start and destination floors
+	 */
+	private int totalFloors;
+
+	/**
+	 * Value of assignedElevator for a Person who may board any elevator travelling in their direction
+	 */
+	public static final int ANY_ELEVATOR = -1;
+
+	/**
+	 * The ZERO-BASED ID of the elevator that a destination-dispatch controller has assigned this Person to, or ANY_ELEVATOR
+	 */
+	private int assignedElevator = ANY_ELEVATOR;
+
+	/**
+	 * The ZERO-BASED floor this Person is ultimately going to when their current trip only takes them as far as a transfer floor, or -1 if
+	 * destinationFloor is their final destination
+	 */
+	private int finalDestinationFloor = -1;
+
+	/**
+	 * The position of this Person in the passenger list of the elevator they are riding, or -1 while they are not inside an elevator
+	 */
+	private int elevatorSlot = -1;
+
+	/**
+	 * The index of this Person's record in the PassengerStore of their simulation, or -1 if no record is kept for them
+	 */
+	private int passengerRecord = -1;
+
 	/**
 	 * Constructor which allows for properties to be applied to a person in the building.
 	 * @param floorToStop The stopping floor number that the person will stop at.
@@ -32,6 +73,19 @@ public class Person
 	 */
 	public Person(int inID, int floorToStart, int floorToStop) throws NegativeFloorException
 	{
+		this(SimulationContext.getDefault(), inID, floorToStart, floorToStop);
+	}
+
+	/**
+	 * Constructor for a Person who belongs to a specific simulation.
+	 * @param context the simulation whose floors this Person will travel between.
+	 * @param floorToStart The starting floor number that the person will stop at.
+	 * @param floorToStop The stopping floor number that the person will stop at.
+	 * @throws NegativeFloorException if either floorToStart or floorToStop are outside the bounds of the simulation
+	 */
+	public Person(SimulationContext context, int inID, int floorToStart, int floorToStop) throws NegativeFloorException
+	{
+		this.totalFloors = context.getConfig().getTotalFloorNumber();
 		setPersonID(inID);
 		setDestinationFloor(floorToStop);
 		setCurrentFloor(floorToStart);
@@ -64,6 +118,135 @@ public class Person
 		return personID;
 	}
 
+	/**
+	 * Accessor for the time at which this Person was placed on their start floor.
+	 * @return the simulation time (in milliseconds) at which this Person arrived.
+	 */
+	public long getArrivalTime()
+	{
+		return arrivalTime;
+	}
+
+	/**
+	 * Mutator which records the time at which this Person was placed on their start floor.
+	 * @param inTime the simulation time (in milliseconds) at which this Person arrived.
+	 */
+	public void setArrivalTime(long inTime)
+	{
+		arrivalTime = inTime;
+	}
+
+	/**
+	 * Accessor for the time at which this Person entered an elevator.
+	 * @return the simulation time (in milliseconds) at which this Person boarded.
+	 */
+	public long getBoardingTime()
+	{
+		return boardingTime;
+	}
+
+	/**
+	 * Mutator which records the time at which this Person entered an elevator.
+	 * @param inTime the simulation time (in milliseconds) at which this Person boarded.
+	 */
+	public void setBoardingTime(long inTime)
+	{
+		boardingTime = inTime;
+	}
+
+	/**
+	 * Accessor for the position of this Person in the passenger list of the elevator they are riding. Only used by Elevator.
+	 * @return the index of this Person in the elevator's passenger list, or -1 if they are not inside an elevator
+	 */
+	int getElevatorSlot()
+	{
+		return elevatorSlot;
+	}
+
+	/**
+	 * Mutator for the position of this Person in the passenger list of the elevator they are riding. Only used by Elevator.
+	 * @param inSlot the index of this Person in the elevator's passenger list, or -1 once they have left the elevator
+	 */
+	void setElevatorSlot(int inSlot)
+	{
+		elevatorSlot = inSlot;
+	}
+
+	/**
+	 * Accessor for this Person's record in the PassengerStore of their simulation
+	 * @return the index of the record, or -1 if no record is kept for this Person
+	 */
+	public int getPassengerRecord()
+	{
+		return passengerRecord;
+	}
+
+	/**
+	 * Mutator for this Person's record in the PassengerStore of their simulation
+	 * @param inRecord the index of the record
+	 */
+	public void setPassengerRecord(int inRecord)
+	{
+		passengerRecord = inRecord;
+	}
+
+	/**
+	 * Accessor for the elevator this Person has been told to wait for.
+	 * @return the ZERO-BASED ID of the assigned elevator, or ANY_ELEVATOR if this Person may board any elevator going their way.
+	 */
+	public int getAssignedElevator()
+	{
+		return assignedElevator;
+	}
+
+	/**
+	 * Mutator which tells this Person which elevator to wait for. Used by destination-dispatch controllers.
+	 * @param inElevatorId the ZERO-BASED ID of the elevator to board, or ANY_ELEVATOR.
+	 */
+	public void setAssignedElevator(int inElevatorId)
+	{
+		assignedElevator = inElevatorId;
+	}
+
+	/**
+	 * Splits this Person's trip in two, for a building where no single elevator bank serves both their start and their destination. This
+	 * Person first travels to transferFloor, and then on to their original destination.
+	 * @param transferFloor the ONE-BASED floor to change elevators at
+	 * @throws NegativeFloorException if transferFloor is outside the bounds of the simulation
+	 */
+	public void planTransfer(int transferFloor) throws NegativeFloorException
+	{
+		int finalDestination = this.destinationFloor;
+		setDestinationFloor(transferFloor);
+		this.finalDestinationFloor = finalDestination;
+	}
+
+	/**
+	 * Whether this Person still has to change elevators before reaching their final destination
+	 * @return true if getDestinationFloor is a transfer floor rather than this Person's final destination
+	 */
+	public boolean hasTransfer()
+	{
+		return this.finalDestinationFloor >= 0;
+	}
+
+	/**
+	 * Starts the second part of a trip that was split by planTransfer. This Person is now on the transfer floor and heads for their final
+	 * destination.
+	 * @throws NegativeFloorException if this Person has no transfer planned
+	 */
+	public void completeTransfer() throws NegativeFloorException
+	{
+		if(!hasTransfer())
+		{
+			throw new NegativeFloorException("Person " + getID() + " does not have a transfer planned!");
+		}
+		setCurrentFloor(getDestinationFloor());
+		setDestinationFloor(this.finalDestinationFloor + 1);
+		this.finalDestinationFloor = -1;
+		this.assignedElevator = ANY_ELEVATOR;
+	}
+
 	/**
 	 * Handles the destination floor of the requesting elevator.
 	 * @param inDest The floor number that the Person will want to go to. This value will be added to the elevator's request queue upon entering
@@ -72,7 +255,7 @@ public class Person
 	 */
 	public void setDestinationFloor(int inDest) throws NegativeFloorException
 	{
-		if(inDest < 1 || inDest > XmlParser.getTotalFloorNumber())
+		if(inDest < 1 || inDest > totalFloors)
 		{
 			throw new NegativeFloorException("This passenger's destination floor does not exist in the simulation! (inDest: " + inDest + ")");
 		}
@@ -87,7 +270,7 @@ public class Person
 	 */
 	private void setCurrentFloor(int inCur) throws NegativeFloorException
 	{
-		if(inCur < 1 || inCur > XmlParser.getTotalFloorNumber())
+		if(inCur < 1 || inCur > totalFloors)
 		{
 			throw new NegativeFloorException("This passenger's current floor does not exist in the simulation! (inCur: " + inCur + ")");
 		}
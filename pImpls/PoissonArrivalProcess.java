@@ -0,0 +1,49 @@
+package pImpls;
+
+import java.util.Random;
+
+import pInterfaces.ArrivalProcessInterface;
+
+/**
+ * Arrival process in which passengers arrive independently of each other at a constant average rate. The times between arrivals are
+ * exponentially distributed, which is the usual model for people walking into a building.
+ */
+public class PoissonArrivalProcess implements ArrivalProcessInterface
+{
+	/**
+	 * The average time between two arrivals, in milliseconds
+	 */
+	private double meanInterArrivalTime;
+
+	/**
+	 * Constructor for PoissonArrivalProcess
+	 * @param peoplePerMin the average number of passengers that arrive every minute
+	 * @throws IllegalArgumentException if peoplePerMin is not positive
+	 */
+	public PoissonArrivalProcess(double peoplePerMin)
+	{
+		if(peoplePerMin <= 0)
+		{
+			throw new IllegalArgumentException("The arrival rate must be positive, but was " + peoplePerMin);
+		}
+		this.meanInterArrivalTime = 60000 / peoplePerMin;
+	}
+
+	/**
+	 * Draws an exponentially distributed time until the next arrival
+	 * @param randomGenerator the source of the uniform random number that is transformed into the inter-arrival time
+	 * @return the time until the next passenger arrives, in milliseconds
+	 */
+	@Override
+	public long nextInterArrivalTime(Random randomGenerator)
+	{
+		//inverse transform sampling. 1 - nextDouble() is in (0, 1], so the logarithm is always finite
+		return Math.round(-this.meanInterArrivalTime * Math.log(1 - randomGenerator.nextDouble()));
+	}
+
+	@Override
+	public double getMeanRate()
+	{
+		return 60000 / this.meanInterArrivalTime;
+	}
+}
@@ -0,0 +1,115 @@
+package pImpls;
+
+import java.util.PriorityQueue;
+
+/**
+ * Virtual clock which drives the discrete-event version of the simulation. Instead of letting every Elevator thread burn real time with wait(),
+ * each timed action is placed in a priority queue of SimulationEvent objects and the clock jumps straight from one event to the next. This lets a
+ * full day of simulated time complete in seconds.
+ */
+public class SimulationClock
+{
+	/**
+	 * The events that have yet to fire, ordered by their simulated time
+	 */
+	private PriorityQueue<SimulationEvent> eventQueue;
+
+	/**
+	 * The current simulated time, measured in milliseconds since the start of the simulation
+	 */
+	private long currentTime;
+
+	/**
+	 * The number of events that have been scheduled so far. Used to keep events with identical timestamps in the order they were scheduled
+	 */
+	private long eventsScheduled;
+
+	/**
+	 * The number of events that have been fired so far
+	 */
+	private long eventsFired;
+
+	/**
+	 * Constructor for SimulationClock. The clock starts at time 0 with no pending events.
+	 */
+	public SimulationClock()
+	{
+		this.eventQueue = new PriorityQueue<SimulationEvent>();
+		this.currentTime = 0;
+	}
+
+	/**
+	 * Accessor for the clock of the default SimulationContext. Objects that belong to a specific SimulationContext should use
+	 * SimulationContext.getClock() instead.
+	 * @return the SimulationClock owned by the default context
+	 */
+	public static SimulationClock getInstance()
+	{
+		return SimulationContext.getDefault().getClock();
+	}
+
+	/**
+	 * Accessor for the current simulated time
+	 * @return the number of simulated milliseconds that have passed since the simulation started
+	 */
+	public synchronized long getCurrentTime()
+	{
+		return this.currentTime;
+	}
+
+	/**
+	 * Schedules an action to occur after the specified amount of simulated time has passed.
+	 * @param delay the number of simulated milliseconds from now at which the action should fire. Must not be negative.
+	 * @param action the work to perform once the event fires. Must not be null.
+	 * @return the SimulationEvent that was scheduled, which may be used to cancel the action before it fires
+	 */
+	public synchronized SimulationEvent schedule(long delay, Runnable action)
+	{
+		if(delay < 0)
+		{
+			throw new IllegalArgumentException("Attempting to schedule a simulation event in the past! (delay: " + delay + ")");
+		}
+		SimulationEvent event = new SimulationEvent(this.currentTime + delay, this.eventsScheduled++, action);
+		this.eventQueue.add(event);
+		return event;
+	}
+
+	/**
+	 * Fires every pending event whose timestamp is less than or equal to endTime, advancing the clock as each one fires. Events scheduled
+	 * while this method runs are fired as well if they fall within endTime. Once this method returns, the clock reads endTime.
+	 * @param endTime the simulated time (in milliseconds) at which to stop firing events.
+	 */
+	public synchronized void runUntil(long endTime)
+	{
+		while(!this.eventQueue.isEmpty() && this.eventQueue.peek().getEventTime() <= endTime)
+		{
+			SimulationEvent nextEvent = this.eventQueue.poll();
+			if(nextEvent.isCancelled())
+			{
+				continue;
+			}
+			this.currentTime = nextEvent.getEventTime();
+			this.eventsFired++;
+			nextEvent.fire();
+		}
+		this.currentTime = Math.max(this.currentTime, endTime);
+	}
+
+	/**
+	 * Accessor for the number of events that are waiting to fire, including events that have been cancelled but not yet discarded
+	 * @return the number of events inside the event queue
+	 */
+	public synchronized int getPendingEventCount()
+	{
+		return this.eventQueue.size();
+	}
+
+	/**
+	 * Accessor for the total number of events that have fired since this clock was created
+	 * @return the number of events fired so far
+	 */
+	public synchronized long getEventsFired()
+	{
+		return this.eventsFired;
+	}
+}
@@ -0,0 +1,449 @@
+package pImpls;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The configuration of a single simulation, as read from an xmlInputs file by XmlParser. Every SimulationContext owns its own configuration,
+ * so several buildings with different configurations can be simulated in the same process.
+ */
+public class SimulationConfig
+{
+	/**
+	 * The numeric values read from the xmlInputs file, keyed by element name
+	 */
+	private HashMap<String, Integer> inputHash;
+
+	/**
+	 * The text values read from the xmlInputs file, keyed by element name
+	 */
+	private HashMap<String, String> optionHash;
+
+	/**
+	 * The windows of the optional trafficProfile element, in order of their start time. Empty if the element is missing.
+	 */
+	private ArrayList<TrafficWindow> trafficWindows = new ArrayList<TrafficWindow>();
+
+	/**
+	 * The banks of the optional zones element, in the order their elevators are created. Empty if the element is missing.
+	 */
+	private ArrayList<ElevatorZone> zones = new ArrayList<ElevatorZone>();
+
+	/**
+	 * Constructor for SimulationConfig. Only XmlParser should create configurations from scratch.
+	 * @param inInputs the numeric values read from the xmlInputs file
+	 * @param inOptions the text values read from the xmlInputs file
+	 */
+	SimulationConfig(HashMap<String, Integer> inInputs, HashMap<String, String> inOptions)
+	{
+		this.inputHash = inInputs;
+		this.optionHash = inOptions;
+	}
+
+	/**
+	 * Copy constructor for SimulationConfig. Changes made to the copy do not affect the original.
+	 * @param other the configuration to copy
+	 */
+	public SimulationConfig(SimulationConfig other)
+	{
+		this.inputHash = new HashMap<String, Integer>(other.inputHash);
+		this.optionHash = new HashMap<String, String>(other.optionHash);
+		this.trafficWindows = new ArrayList<TrafficWindow>(other.trafficWindows);
+		this.zones = new ArrayList<ElevatorZone>(other.zones);
+	}
+
+	public int getTotalElevatorNumber()
+	{
+		return inputHash.get("elevators");
+	}
+
+	public int getTotalFloorNumber()
+	{
+		return inputHash.get("floors");
+	}
+
+	public int getElevTravelTime()
+	{
+		return inputHash.get("elevTravelTime");
+	}
+
+	public int getElevDoorTime()
+	{
+		return inputHash.get("elevDoorTime");
+	}
+
+	public int getPeoplePerMin()
+	{
+		return inputHash.get("peoplePerMin");
+	}
+
+	public int getDuration()
+	{
+		//the value in the xml file is measured in minutes, not milliseconds
+		return inputHash.get("duration") * 60000;
+	}
+
+	public int getElevCapacity()
+	{
+		return inputHash.get("elevCapacity");
+	}
+
+	/**
+	 * Mutator for the number of people every elevator can hold
+	 * @param inCapacity the capacity of every elevator the control module creates
+	 */
+	public void setElevCapacity(int inCapacity)
+	{
+		inputHash.put("elevCapacity", inCapacity);
+	}
+
+	public int getDoorSpeed()
+	{
+		return inputHash.get("doorSpeed");
+	}
+
+	public String getEngine()
+	{
+		return optionHash.get("engine");
+	}
+
+	/**
+	 * Mutator for the engine used by this configuration
+	 * @param inEngine either XmlParser.EVENT_ENGINE or XmlParser.THREADED_ENGINE
+	 */
+	public void setEngine(String inEngine)
+	{
+		optionHash.put("engine", inEngine);
+	}
+
+	/**
+	 * Whether the simulation should be driven by a SimulationClock instead of one thread per elevator
+	 * @return true if the engine is set to "event", otherwise false
+	 */
+	public boolean isEventDriven()
+	{
+		return XmlParser.EVENT_ENGINE.equalsIgnoreCase(getEngine());
+	}
+
+	/**
+	 * Whether threaded-mode elevators should run on virtual threads instead of platform threads
+	 * @return true if the optional elevatorThreads element is set to "virtual", otherwise false
+	 */
+	public boolean usesVirtualThreads()
+	{
+		return ElevatorThreadFactory.VIRTUAL_THREADS.equalsIgnoreCase(optionHash.get("elevatorThreads"));
+	}
+
+	/**
+	 * Mutator for the kind of thread that threaded-mode elevators run on
+	 * @param inThreads either ElevatorThreadFactory.VIRTUAL_THREADS or ElevatorThreadFactory.PLATFORM_THREADS
+	 */
+	public void setElevatorThreads(String inThreads)
+	{
+		optionHash.put("elevatorThreads", inThreads);
+	}
+
+	/**
+	 * Mutator for the number of elevators in the simulation
+	 * @param inElevators the number of elevators that the control module should create
+	 */
+	public void setTotalElevatorNumber(int inElevators)
+	{
+		inputHash.put("elevators", inElevators);
+	}
+
+	/**
+	 * Whether the optional seed element is present. Without a seed, every run draws a different sequence of random numbers.
+	 * @return true if this configuration specifies a seed, otherwise false
+	 */
+	public boolean hasSeed()
+	{
+		return optionHash.get("seed") != null;
+	}
+
+	/**
+	 * The seed from which every random number in the simulation is derived. Event-driven runs with the same seed are reproducible bit for bit.
+	 * @return the value of the optional seed element
+	 * @throws NumberFormatException if the seed element is missing or is not a number
+	 */
+	public long getSeed()
+	{
+		return Long.parseLong(optionHash.get("seed"));
+	}
+
+	/**
+	 * Mutator for the seed from which every random number in the simulation is derived
+	 * @param inSeed the seed to use
+	 */
+	public void setSeed(long inSeed)
+	{
+		optionHash.put("seed", Long.toString(inSeed));
+	}
+
+	/**
+	 * The file that the event log should be written to
+	 * @return the value of the optional eventLog element, or null if the event log should not be written to a file
+	 */
+	public String getEventLogPath()
+	{
+		return optionHash.get("eventLog");
+	}
+
+	/**
+	 * Mutator for the file that the event log should be written to
+	 * @param inEventLogPath the file to write the event log to, or null if the event log should not be written to a file
+	 */
+	public void setEventLogPath(String inEventLogPath)
+	{
+		optionHash.put("eventLog", inEventLogPath);
+	}
+
+	/**
+	 * The name of the arrival process which decides when passengers arrive
+	 * @return the value of the optional arrivalProcess element, or "poisson" if it is missing
+	 */
+	public String getArrivalProcess()
+	{
+		return optionHash.get("arrivalProcess");
+	}
+
+	/**
+	 * Mutator for the name of the arrival process which decides when passengers arrive
+	 * @param inArrivalProcess one of the names accepted by ArrivalProcessFactory
+	 */
+	public void setArrivalProcess(String inArrivalProcess)
+	{
+		optionHash.put("arrivalProcess", inArrivalProcess);
+	}
+
+	/**
+	 * The observed inter-arrival times used by the empirical arrival process
+	 * @return the value of the optional arrivalSamples element (a comma separated list of milliseconds), or null if it is missing
+	 */
+	public String getArrivalSamples()
+	{
+		return optionHash.get("arrivalSamples");
+	}
+
+	/**
+	 * Mutator for the observed inter-arrival times used by the empirical arrival process
+	 * @param inSamples a comma separated list of inter-arrival times, in milliseconds
+	 */
+	public void setArrivalSamples(String inSamples)
+	{
+		optionHash.put("arrivalSamples", inSamples);
+	}
+
+	/**
+	 * The name of the ControlModule implementation which picks the elevator that answers each hall call
+	 * @return the value of the optional controller element, or "firstFit" if it is missing
+	 */
+	public String getController()
+	{
+		return optionHash.get("controller");
+	}
+
+	/**
+	 * Mutator for the name of the ControlModule implementation which picks the elevator that answers each hall call
+	 * @param inController one of the names accepted by ControlImplFactory
+	 */
+	public void setController(String inController)
+	{
+		optionHash.put("controller", inController);
+	}
+
+	/**
+	 * The trace file of recorded arrivals to replay instead of generating random passengers
+	 * @return the value of the optional trace element, or null if passengers should be generated by the traffic profile
+	 */
+	public String getTracePath()
+	{
+		return optionHash.get("trace");
+	}
+
+	/**
+	 * Mutator for the trace file of recorded arrivals to replay
+	 * @param inTracePath the trace file, or null to generate random passengers instead
+	 */
+	public void setTracePath(String inTracePath)
+	{
+		optionHash.put("trace", inTracePath);
+	}
+
+	/**
+	 * How many times faster than recorded a trace should be replayed. A value of 60 replays an hour of recorded arrivals in a simulated minute.
+	 * @return the value of the optional traceCompression element, or 1 if it is missing
+	 */
+	public double getTraceCompression()
+	{
+		return Double.parseDouble(optionHash.get("traceCompression"));
+	}
+
+	/**
+	 * Mutator for how many times faster than recorded a trace should be replayed
+	 * @param inCompression the compression factor. Must be positive.
+	 * @throws IllegalArgumentException if inCompression is not a finite number greater than 0
+	 */
+	public void setTraceCompression(double inCompression)
+	{
+		if(!(inCompression > 0) || Double.isInfinite(inCompression))
+		{
+			throw new IllegalArgumentException("The trace compression must be a positive number, but was " + inCompression);
+		}
+		optionHash.put("traceCompression", Double.toString(inCompression));
+	}
+
+	/**
+	 * The windows of the traffic profile, which vary the arrival rate and the origin/destination matrix over the course of the simulation
+	 * @return the windows of the optional trafficProfile element in order of their start time, or an empty list if the element is missing
+	 */
+	public ArrayList<TrafficWindow> getTrafficWindows()
+	{
+		return trafficWindows;
+	}
+
+	/**
+	 * Mutator for the windows of the traffic profile
+	 * @param inWindows the windows, in order of their start time. An empty list means uniform traffic at peoplePerMin for the whole simulation.
+	 */
+	public void setTrafficWindows(ArrayList<TrafficWindow> inWindows)
+	{
+		this.trafficWindows = new ArrayList<TrafficWindow>(inWindows);
+	}
+
+	/**
+	 * The elevator banks of the building. The first bank gets the first elevators, the next bank the elevators after those, and so on. Any
+	 * elevators left over serve the whole building.
+	 * @return the banks of the optional zones element, or an empty list if every elevator serves the whole building
+	 */
+	public ArrayList<ElevatorZone> getZones()
+	{
+		return zones;
+	}
+
+	/**
+	 * Mutator for the elevator banks of the building
+	 * @param inZones the banks, in the order their elevators are created. An empty list means every elevator serves the whole building.
+	 */
+	public void setZones(ArrayList<ElevatorZone> inZones)
+	{
+		this.zones = new ArrayList<ElevatorZone>(inZones);
+	}
+
+	/**
+	 * How long the batch controller collects hall calls before assigning them all at once
+	 * @return the value of the optional batchWindow element in milliseconds, or 500 if it is missing
+	 */
+	public int getBatchWindow()
+	{
+		return inputHash.get("batchWindow");
+	}
+
+	/**
+	 * Mutator for how long the batch controller collects hall calls before assigning them
+	 * @param inBatchWindow the window in milliseconds. Must not be negative.
+	 */
+	public void setBatchWindow(int inBatchWindow)
+	{
+		inputHash.put("batchWindow", inBatchWindow);
+	}
+
+	/**
+	 * The name of the policy which decides where idle elevators wait for their next call
+	 * @return the value of the optional parkingPolicy element, or "lobby" if it is missing
+	 */
+	public String getParkingPolicy()
+	{
+		return optionHash.get("parkingPolicy");
+	}
+
+	/**
+	 * Mutator for the name of the policy which decides where idle elevators wait for their next call
+	 * @param inParkingPolicy one of the names accepted by ParkingPolicyFactory
+	 */
+	public void setParkingPolicy(String inParkingPolicy)
+	{
+		optionHash.put("parkingPolicy", inParkingPolicy);
+	}
+
+	/**
+	 * How long the demand parking policy remembers a call
+	 * @return the value of the optional parkingWindow element in milliseconds, or 300000 (five minutes) if it is missing
+	 */
+	public int getParkingWindow()
+	{
+		return inputHash.get("parkingWindow");
+	}
+
+	/**
+	 * Mutator for how long the demand parking policy remembers a call
+	 * @param inParkingWindow the window in milliseconds. Must be positive.
+	 */
+	public void setParkingWindow(int inParkingWindow)
+	{
+		inputHash.put("parkingWindow", inParkingWindow);
+	}
+
+	/**
+	 * Whether a compact record of every passenger should be kept in a PassengerStore
+	 * @return true if the optional passengerRecords element is set to "compact", otherwise false
+	 */
+	public boolean keepsPassengerRecords()
+	{
+		return PassengerStore.COMPACT_RECORDS.equalsIgnoreCase(optionHash.get("passengerRecords"));
+	}
+
+	/**
+	 * Mutator for whether a compact record of every passenger is kept
+	 * @param inPassengerRecords either PassengerStore.COMPACT_RECORDS or PassengerStore.NO_RECORDS
+	 */
+	public void setPassengerRecords(String inPassengerRecords)
+	{
+		optionHash.put("passengerRecords", inPassengerRecords);
+	}
+
+	/**
+	 * Whether the hot state of elevators and floors should also be mirrored outside the heap in an OffHeapStateTable, for benchmarking
+	 * @return true if the optional stateStorage element is set to "offheap", otherwise false
+	 */
+	public boolean usesOffHeapState()
+	{
+		return OffHeapStateTable.OFF_HEAP_STATE.equalsIgnoreCase(optionHash.get("stateStorage"));
+	}
+
+	/**
+	 * Mutator for whether the hot state of elevators and floors is mirrored outside the heap
+	 * @param inStateStorage either OffHeapStateTable.HEAP_STATE or OffHeapStateTable.OFF_HEAP_STATE
+	 */
+	public void setStateStorage(String inStateStorage)
+	{
+		optionHash.put("stateStorage", inStateStorage);
+	}
+
+	/**
+	 * Whether the progress messages of the simulation should be printed
+	 * @return false if the optional console element is set to "off", otherwise true
+	 */
+	public boolean printsToConsole()
+	{
+		return !SimulationConsole.CONSOLE_OFF.equalsIgnoreCase(optionHash.get("console"));
+	}
+
+	/**
+	 * Mutator for whether the progress messages of the simulation are printed
+	 * @param inConsole either SimulationConsole.CONSOLE_ON or SimulationConsole.CONSOLE_OFF
+	 */
+	public void setConsole(String inConsole)
+	{
+		optionHash.put("console", inConsole);
+	}
+
+	/**
+	 * The number of independent replicas of the simulation to run. Values greater than 1 run a batch instead of a single simulation.
+	 * @return the value of the optional replicas element, or 1 if it is missing
+	 */
+	public int getReplicas()
+	{
+		return inputHash.get("replicas");
+	}
+}
@@ -0,0 +1,57 @@
+package pImpls;
+
+import java.io.PrintStream;
+
+/**
+ * Where the progress messages of one simulation are printed. Every SimulationContext has its own console, so a simulation can be silenced
+ * without touching System.out, which would silence every other thread in the JVM as well. A quiet console drops messages without taking any
+ * lock, and callers on hot paths check isEnabled first so they do not build messages that would be dropped anyway.
+ * The console is selected with the optional console element of the configuration.
+ */
+public class SimulationConsole
+{
+	/**
+	 * Value of the optional console element which prints progress messages to System.out. This is the default.
+	 */
+	public static final String CONSOLE_ON = "on";
+
+	/**
+	 * Value of the optional console element which drops every progress message
+	 */
+	public static final String CONSOLE_OFF = "off";
+
+	/**
+	 * The stream that messages are printed to, or null if this console is quiet
+	 */
+	private PrintStream out;
+
+	/**
+	 * Constructor for SimulationConsole.
+	 * @param inOut the stream to print messages to, or null to drop every message
+	 */
+	public SimulationConsole(PrintStream inOut)
+	{
+		this.out = inOut;
+	}
+
+	/**
+	 * Whether messages printed to this console are shown anywhere
+	 * @return true if this console prints its messages, or false if it drops them
+	 */
+	public boolean isEnabled()
+	{
+		return this.out != null;
+	}
+
+	/**
+	 * Prints a progress message on a line of its own, unless this console is quiet
+	 * @param message the message to print
+	 */
+	public void println(String message)
+	{
+		if(this.out != null)
+		{
+			this.out.println(message);
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package pImpls;
+
+import java.util.Random;
+
+import pExceptions.NegativeCapacityException;
+import pExceptions.NegativeElevatorException;
+import pExceptions.NegativeFloorException;
+import pFactories.ParkingPolicyFactory;
+import pInterfaces.ControlModuleInterface;
+import pInterfaces.ParkingPolicyInterface;
+
+/**
+ * Holds the objects that make up one independent simulation: its configuration, clock, statistics, control module (which owns the floors and
+ * elevators) and environment. A SimulationContext is handed to every object created through the factories in pFactories, so objects find each
+ * other through their context instead of through static singletons. This allows several buildings to be simulated in the same process.
+ */
+public class SimulationContext
+{
+	/**
+	 * The configuration that every object in this context is created from
+	 */
+	private SimulationConfig config;
+
+	/**
+	 * The clock which drives every elevator and passenger arrival in this context when it is event-driven
+	 */
+	private SimulationClock clock;
+
+	/**
+	 * The statistics collected while this context's simulation runs
+	 */
+	private SimulationStatistics statistics;
+
+	/**
+	 * The log of every decision made during this context's simulation
+	 */
+	private SimulationEventLog eventLog;
+
+	/**
+	 * Where the progress messages of this context's simulation are printed
+	 */
+	private SimulationConsole console;
+
+	/**
+	 * The seed from which every random number stream in this context is derived
+	 */
+	private long seed;
+
+	/**
+	 * Creates the threads that this context's elevators run on when it is not event-driven
+	 */
+	private ElevatorThreadFactory elevatorThreadFactory;
+
+	/**
+	 * Keeps track of where every running elevator of this context is, sorted by floor
+	 */
+	private ElevatorPositionIndex elevatorIndex;
+
+	/**
+	 * Decides where this context's idle elevators wait for their next call
+	 */
+	private ParkingPolicyInterface parkingPolicy;
+
+	/**
+	 * The compact record of every passenger of this context, or null if the configuration does not ask for one
+	 */
+	private PassengerStore passengerStore;
+
+	/**
+	 * The block outside the heap mirroring the hot state of every elevator and floor of this context, or null if the configuration does not mirror it
+	 */
+	private OffHeapStateTable stateTable;
+
+	/**
+	 * The control module owned by this context. Created upon the first call to getControlModule()
+	 */
+	private volatile ElevatorControlModule controlModule;
+
+	/**
+	 * The environment owned by this context. Created upon the first call to getEnvironment()
+	 */
+	private volatile SimulationEnvironment environment;
+
+	/**
+	 * Constructor for SimulationContext. Creates a fresh clock and statistics collector for the context.
+	 * @param inConfig the configuration that every object in this context should be created from. Must not be null.
+	 */
+	public SimulationContext(SimulationConfig inConfig)
+	{
+		if(inConfig == null)
+		{
+			throw new IllegalArgumentException("Attempting to create a simulation context without a configuration!");
+		}
+		this.config = inConfig;
+		this.clock = new SimulationClock();
+		this.statistics = new SimulationStatistics(inConfig.isEventDriven() ? this.clock : null);
+		this.eventLog = new SimulationEventLog(this.statistics, inConfig.getEventLogPath());
+		this.console = new SimulationConsole(inConfig.printsToConsole() ? System.out : null);
+		this.seed = inConfig.hasSeed() ? inConfig.getSeed() : System.nanoTime();
+		this.elevatorThreadFactory = new ElevatorThreadFactory(inConfig.usesVirtualThreads(), this.console);
+		this.elevatorIndex = new ElevatorPositionIndex();
+		this.parkingPolicy = ParkingPolicyFactory.createParkingPolicy(this);
+		if(inConfig.keepsPassengerRecords())
+		{
+			this.passengerStore = new PassengerStore();
+		}
+		if(inConfig.usesOffHeapState())
+		{
+			this.stateTable = new OffHeapStateTable(inConfig.getTotalElevatorNumber(), inConfig.getTotalFloorNumber());
+		}
+	}
+
+	/**
+	 * Accessor for the context used by the singleton accessors such as ElevatorControlModule.getInstance(). The default context is created
+	 * from the xmlInputs file in the working directory upon the first call to this method.
+	 * @return the default SimulationContext
+	 */
+	public static SimulationContext getDefault()
+	{
+		return DefaultContextHolder.DEFAULT_CONTEXT;
+	}
+
+	/**
+	 * Whether the objects in this context are driven by its SimulationClock instead of one thread per elevator
+	 * @return true if this context's configuration selects the event engine, otherwise false
+	 */
+	public boolean isEventDriven()
+	{
+		return this.config.isEventDriven();
+	}
+
+	/**
+	 * Accessor for this context's configuration
+	 * @return the SimulationConfig owned by this context
+	 */
+	public SimulationConfig getConfig()
+	{
+		return this.config;
+	}
+
+	/**
+	 * Accessor for this context's clock
+	 * @return the SimulationClock owned by this context
+	 */
+	public SimulationClock getClock()
+	{
+		return this.clock;
+	}
+
+	/**
+	 * Accessor for this context's statistics
+	 * @return the SimulationStatistics owned by this context
+	 */
+	public SimulationStatistics getStatistics()
+	{
+		return this.statistics;
+	}
+
+	/**
+	 * Accessor for this context's event log
+	 * @return the SimulationEventLog owned by this context
+	 */
+	public SimulationEventLog getEventLog()
+	{
+		return this.eventLog;
+	}
+
+	/**
+	 * Accessor for where this context's progress messages are printed
+	 * @return the SimulationConsole owned by this context
+	 */
+	public SimulationConsole getConsole()
+	{
+		return this.console;
+	}
+
+	/**
+	 * Accessor for the index of this context's running elevators
+	 * @return the ElevatorPositionIndex owned by this context
+	 */
+	public ElevatorPositionIndex getElevatorIndex()
+	{
+		return this.elevatorIndex;
+	}
+
+	/**
+	 * Accessor for the policy which decides where this context's idle elevators wait
+	 * @return the parking policy named by the configuration's parkingPolicy element
+	 */
+	public ParkingPolicyInterface getParkingPolicy()
+	{
+		return this.parkingPolicy;
+	}
+
+	/**
+	 * Accessor for the compact record of every passenger of this context
+	 * @return the PassengerStore of this context, or null if the configuration's passengerRecords element does not ask for one
+	 */
+	public PassengerStore getPassengerStore()
+	{
+		return this.passengerStore;
+	}
+
+	/**
+	 * Accessor for the block outside the heap mirroring the hot state of every elevator and floor of this context
+	 * @return the OffHeapStateTable of this context, or null if the configuration's stateStorage element does not ask for the mirror
+	 */
+	public OffHeapStateTable getStateTable()
+	{
+		return this.stateTable;
+	}
+
+	/**
+	 * Accessor for the seed from which this context's random number streams are derived
+	 * @return the seed from the configuration, or a seed based on the time this context was created if the configuration does not specify one
+	 */
+	public long getSeed()
+	{
+		return this.seed;
+	}
+
+	/**
+	 * Creates an independent random number stream for one source of randomness in the simulation. Each source (for example "arrivals") gets its
+	 * own stream derived from this context's seed, so drawing more or fewer numbers from one stream never shifts the numbers drawn from another.
+	 * This keeps the passengers identical between runs that use different dispatch algorithms with the same seed.
+	 * @param streamName the name of the source of randomness
+	 * @return a new Random whose sequence depends only on this context's seed and streamName
+	 */
+	public Random createRandomStream(String streamName)
+	{
+		//SplitMix64 finalizer, so streams with similar names and seeds are not correlated
+		long streamSeed = this.seed + 0x9E3779B97F4A7C15L * ( streamName.hashCode() + 1 );
+		streamSeed = ( streamSeed ^ ( streamSeed >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+		streamSeed = ( streamSeed ^ ( streamSeed >>> 27 ) ) * 0x94D049BB133111EBL;
+		return new Random(streamSeed ^ ( streamSeed >>> 31 ));
+	}
+
+	/**
+	 * Accessor for the factory which creates the threads that this context's elevators run on
+	 * @return the ElevatorThreadFactory owned by this context
+	 */
+	public ElevatorThreadFactory getElevatorThreadFactory()
+	{
+		return this.elevatorThreadFactory;
+	}
+
+	/**
+	 * Accessor for this context's control module. The control module, along with its floors and elevators, is created upon the first call to
+	 * this method.
+	 * @return the control module owned by this context
+	 * @throws NegativeElevatorException if the control module needs to be created and the configuration specifies fewer than 1 elevator
+	 * @throws NegativeCapacityException if the control module needs to be created and the configuration specifies an elevator capacity less than 1
+	 * @throws NegativeFloorException if the control module needs to be created and the configuration specifies fewer than 1 floor
+	 */
+	public ControlModuleInterface getControlModule() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	{
+		if(this.controlModule == null)
+		{
+			//only this context is locked, so other contexts may create their control modules at the same time
+			synchronized(this)
+			{
+				if(this.controlModule == null)
+				{
+					this.controlModule = new ElevatorControlModule(this);
+				}
+			}
+		}
+		return this.controlModule;
+	}
+
+	/**
+	 * Accessor for the thread that assigns the hall calls of this context, without creating the control module
+	 * @return the dispatcher of a threaded simulation, or null if the simulation is event-driven or its control module has not been created yet
+	 */
+	public HallCallDispatcher getDispatcher()
+	{
+		ElevatorControlModule module = this.controlModule;
+		return module == null ? null : module.getDispatcher();
+	}
+
+	/**
+	 * Accessor for this context's environment. The environment is created upon the first call to this method.
+	 * @return the SimulationEnvironment owned by this context
+	 * @throws NegativeElevatorException if the control module needs to be created and the configuration specifies fewer than 1 elevator
+	 * @throws NegativeCapacityException if the control module needs to be created and the configuration specifies an elevator capacity less than 1
+	 * @throws NegativeFloorException if the control module needs to be created and the configuration specifies fewer than 1 floor
+	 */
+	public SimulationEnvironment getEnvironment() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	{
+		if(this.environment == null)
+		{
+			synchronized(this)
+			{
+				if(this.environment == null)
+				{
+					this.environment = new SimulationEnvironment(this);
+				}
+			}
+		}
+		return this.environment;
+	}
+
+	/**
+	 * Lazily creates the default context the first time it is needed. The JVM guarantees that this happens exactly once without any locking
+	 * on the part of SimulationContext.
+	 */
+	private static class DefaultContextHolder
+	{
+		private static final SimulationContext DEFAULT_CONTEXT = new SimulationContext(XmlParser.getConfig());
+	}
+}
@@ -1,5 +1,7 @@
 package pImpls;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Random;
 
 import pExceptions.NegativeCapacityException;
@@ -14,26 +16,39 @@ import pFactories.PersonFactory;
 public class SimulationEnvironment
 {
 	/**
-	 * The private SimulationEnvironment instance required for this class to be considered a singleton.
+	 * The simulation that this environment drives
 	 */
-	private volatile static SimulationEnvironment instance;
+	private SimulationContext context;
 
 	/**
-	 * Default private constructor for the SimulationEnvironment. Passes off default values to the ElevatorControlModule's getInstance() method,
-	 * which will call the Module's constructor
+	 * The number of Person objects that have been created since the simulation started. Used as the ID of the next Person object
+	 */
+	private int totalPeopleCreated;
+
+	/**
+	 * Decides when each Person object arrives and which floors it travels between
+	 */
+	private TrafficProfile trafficProfile;
+
+	/**
+	 * Constructor for the SimulationEnvironment, called upon the first call to SimulationContext.getEnvironment(). Creates the context's
+	 * control module, which will create the floors and elevators of the simulation
+	 * @param inContext the simulation that this environment drives
 	 * @throws NegativeElevatorException if the ECM constructor receives a total elevator number that is less than 1
 	 * @throws NegativeCapacityException if the ECM constructor receives an elevator capacity number that is less than 1
 	 * @throws NegativeFloorException if the ECM constructor receives a total floor number that is less than 1
 	 */
-	private SimulationEnvironment() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
+	SimulationEnvironment(SimulationContext inContext) throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
 	{                
-		ElevatorControlModule.getInstance(); 
+		this.context = inContext;
+		this.trafficProfile = new TrafficProfile(inContext.getConfig());
+		context.getControlModule(); 
 	}
 
 	/**
-	 * Public "default" accessor for the singleton instance of this class. If the instance has not been created yet, it is initialized with private default
-	 * values. Once instance has been initialized, this is the preferred method to call in order to access it.
-	 * @return The static SimulationEnvironment object that is owned by all instances of this class, initialized to hold the default number of floors
+	 * Public "default" accessor for the environment of the default SimulationContext, which is created from the xmlInputs file in the working
+	 * directory. Simulations that belong to another context should use SimulationContext.getEnvironment() instead.
+	 * @return The SimulationEnvironment object owned by the default context, initialized to hold the default number of floors
 	 * and elevators if this is the first time that this method is being called.
 	 * @throws NegativeElevatorException if the default elevator number passed into the object is less than 1.
 	 * @throws NegativeCapacityException if the capacity of the elevators that are created on first call is less than 1.
@@ -41,17 +56,7 @@ public class SimulationEnvironment
 	 */
 	public static SimulationEnvironment getInstance() throws NegativeFloorException, NegativeCapacityException, NegativeElevatorException
 	{
-		synchronized(SimulationEnvironment.class)
-		{
-			if(instance == null)
-			{
-				synchronized(SimulationEnvironment.class)
-				{
-					instance = new SimulationEnvironment();
-				}
-			}
-			return instance;
-		}	
+		return SimulationContext.getDefault().getEnvironment();
 	}
 
 	/**
@@ -60,25 +65,213 @@ public class SimulationEnvironment
 	public void startSimulation()
 	{
 
+		if(context.isEventDriven())
+		{
+			startEventDrivenSimulation();
+			return;
+		}
 		try
 		{          
-			System.out.println("The simulation will run for " + ( XmlParser.getDuration() / 1000 ) + " seconds.");
-			getInstance().randPersonGenerator(XmlParser.getDuration(), XmlParser.getPeoplePerMin());
+			context.getConsole().println("The simulation will run for " + ( context.getConfig().getDuration() / 1000 ) + " seconds.");
+			if(context.getConfig().getTracePath() != null)
+			{
+				tracePersonGenerator(context.getConfig().getDuration());
+			}
+			else
+			{
+				randPersonGenerator(context.getConfig().getDuration());
+			}
 
 			//let the thread wait enough time for every elevator to reach the default floor
 			//movement speed * ( door open speed + door close speed ) * number of floors
-			int totalSleepTime = XmlParser.getTotalFloorNumber() * ( ( XmlParser.getElevDoorTime() * 2 ) + XmlParser.getElevTravelTime() );
-			System.out.println("The simulation will sleep for " + totalSleepTime / 1000 + " seconds before shutting down completely.");
+			int totalSleepTime = getShutdownDelay();
+			context.getConsole().println("The simulation will sleep for " + totalSleepTime / 1000 + " seconds before shutting down completely.");
 			Thread.sleep(totalSleepTime);
-			System.out.println("The simulation is shutting down now");
-			getInstance().stopSimluation();  // kill simulation after time is up (determined by randPersGen method
+			context.getConsole().println("The simulation is shutting down now");
+			stopSimluation();  // kill simulation after time is up (determined by randPersGen method
+			context.getEventLog().close();
+		}
+		catch(InterruptedException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Begins the simulation using the SimulationClock instead of real time. Every arrival and every elevator movement is
+	 * scheduled as an event, so the simulation finishes as quickly as the events can be processed.
+	 */
+	private void startEventDrivenSimulation()
+	{
+		long tStart = System.currentTimeMillis();
+		context.getConsole().println("The event-driven simulation will run for " + ( context.getConfig().getDuration() / 1000 ) + " simulated seconds.");
+		runEventDriven();
+		SimulationClock clock = context.getClock();
+		SimulationEventLog eventLog = context.getEventLog();
+		context.getConsole().println("Seed " + context.getSeed() + " produced " + eventLog.getEntryCount() + " log entries with checksum " + Long.toHexString(eventLog.getChecksum()) + ".");
+		context.getConsole().println("Simulated " + ( clock.getCurrentTime() / 1000 ) + " seconds (" + clock.getEventsFired() + " events) in " + ( System.currentTimeMillis() - tStart ) + " milliseconds.");
+		PassengerStore passengerStore = context.getPassengerStore();
+		if(passengerStore != null)
+		{
+			context.getConsole().println("Kept " + passengerStore.size() + " passenger records (" + passengerStore.getDeliveredCount() + " delivered) in " + ( passengerStore.getFootprint() / 1024 ) + " KB.");
+		}
+	}
+
+	/**
+	 * Runs the whole simulation on the calling thread using the SimulationClock, then shuts every elevator down. Each arrival schedules the next
+	 * one using the traffic profile, or replays the trace file if the configuration names one. Arrival times are drawn from the context's
+	 * "arrivals" stream and floor numbers from its "destinations" stream, so the run is reproducible whenever the configuration specifies a seed.
+	 */
+	void runEventDriven()
+	{
+		final long totalSimTime = context.getConfig().getDuration();
+		if(context.getConfig().getTracePath() != null)
+		{
+			scheduleTraceReplay(totalSimTime);
+		}
+		else
+		{
+			scheduleRandomArrivals(totalSimTime);
+		}
+
+		long endTime = totalSimTime + getShutdownDelay();
+		context.getClock().runUntil(endTime);
+		context.getConsole().println("The simulation is shutting down now");
+		stopSimluation();
+		context.getEventLog().close();
+	}
+
+	/**
+	 * Schedules the first arrival drawn from the traffic profile. Every arrival schedules the next one when it fires.
+	 * @param totalSimTime the time (in milliseconds) after which nobody else arrives
+	 */
+	private void scheduleRandomArrivals(final long totalSimTime)
+	{
+		final Random arrivalGenerator = context.createRandomStream("arrivals");
+		final Random floorGenerator = context.createRandomStream("destinations");
+		final SimulationClock clock = context.getClock();
+
+		long firstArrival = trafficProfile.nextArrivalTime(0, arrivalGenerator);
+		if(firstArrival < totalSimTime)
+		{
+			clock.schedule(firstArrival, new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					long now = clock.getCurrentTime();
+					createRandomPerson(now, floorGenerator);
+					long nextArrival = trafficProfile.nextArrivalTime(now, arrivalGenerator);
+					if(nextArrival < totalSimTime)
+					{
+						clock.schedule(nextArrival - now, this);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Schedules the first arrival of the trace file. Every arrival reads the next one from the file and schedules it when it fires, so only one
+	 * arrival of the trace is held in memory at a time. The first arrival of the trace happens at the start of the simulation.
+	 * @param totalSimTime the time (in milliseconds) after which the rest of the trace is ignored
+	 */
+	private void scheduleTraceReplay(final long totalSimTime)
+	{
+		final SimulationClock clock = context.getClock();
+		final double compression = context.getConfig().getTraceCompression();
+		final TraceReader traceReader;
+		final TraceArrival firstArrival;
+		try
+		{
+			traceReader = new TraceReader(Paths.get(context.getConfig().getTracePath()));
+			firstArrival = traceReader.next();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return;
+		}
+		if(firstArrival == null)
+		{
+			closeTrace(traceReader);
+			return;
+		}
+
+		clock.schedule(0, new Runnable()
+		{
+			private TraceArrival nextArrival = firstArrival;
+
+			@Override
+			public void run()
+			{
+				long now = clock.getCurrentTime();
+				createPerson(nextArrival.getStartFloor(), nextArrival.getDestinationFloor());
+				try
+				{
+					nextArrival = traceReader.next();
+				}
+				catch (IOException e)
+				{
+					e.printStackTrace();
+					nextArrival = null;
+				}
+				if(nextArrival == null)
+				{
+					closeTrace(traceReader);
+					return;
+				}
+				long arrivalTime = getTraceTime(nextArrival, firstArrival, compression);
+				if(arrivalTime >= totalSimTime)
+				{
+					closeTrace(traceReader);
+					return;
+				}
+				//arrivals recorded out of order are replayed as soon as possible
+				clock.schedule(Math.max(0, arrivalTime - now), this);
+			}
+		});
+	}
+
+	/**
+	 * Converts the recorded time of an arrival to a simulation time
+	 * @param arrival the arrival to convert
+	 * @param firstArrival the first arrival of the trace, which happens at the start of the simulation
+	 * @param compression how many times faster than recorded the trace is replayed
+	 * @return the simulation time of arrival, in milliseconds
+	 */
+	private static long getTraceTime(TraceArrival arrival, TraceArrival firstArrival, double compression)
+	{
+		return Math.round(( arrival.getTimestamp() - firstArrival.getTimestamp() ) / compression);
+	}
+
+	/**
+	 * Closes a trace file once the simulation no longer needs it
+	 * @param traceReader the trace file to close
+	 */
+	private static void closeTrace(TraceReader traceReader)
+	{
+		try
+		{
+			traceReader.close();
 		}
-		catch(InterruptedException | NegativeFloorException | NegativeCapacityException | NegativeElevatorException e)
+		catch (IOException e)
 		{
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Computes how long the simulation should keep running after the last Person has been created, which is enough time for every elevator to
+	 * reach the default floor.
+	 * @return movement speed * ( door open speed + door close speed ) * number of floors, in milliseconds
+	 */
+	private int getShutdownDelay()
+	{
+		SimulationConfig config = context.getConfig();
+		return config.getTotalFloorNumber() * ( ( config.getElevDoorTime() * 2 ) + config.getElevTravelTime() );
+	}
+
 	/**
 	 * Ends the simulation
 	 */
@@ -86,7 +279,7 @@ public class SimulationEnvironment
 	{
 		try
 		{
-			ElevatorControlModule.getInstance().shutDown();
+			context.getControlModule().shutDown();
 		}
 		catch (NegativeFloorException | NegativeCapacityException
 				| NegativeElevatorException e)
@@ -106,7 +299,7 @@ public class SimulationEnvironment
 	{
 		try
 		{
-			ElevatorControlModule.getInstance().addPersonToFloor(inPerson, floorNum);
+			context.getControlModule().addPersonToFloor(inPerson, floorNum);
 		}
 		catch (NegativeCapacityException | NegativeElevatorException e)
 		{
@@ -115,42 +308,98 @@ public class SimulationEnvironment
 	}
 
 	/**
-	 * Helper method to generate a specified number of Person objects per minute while the simualation is running
+	 * Helper method to generate Person objects one at a time, as decided by the traffic profile, while the simualation is running
 	 * @param totalSimTime the amount of time (in milliseconds) that the simulation should run for
-	 * @param personRate the number of Person objects that should be created every minute (60000 milliseconds)
 	 */
-	private void randPersonGenerator(long totalSimTime, int personRate)
+	private void randPersonGenerator(long totalSimTime)
 	{
 		long tStart = System.currentTimeMillis();
-		int totalFloors = XmlParser.getTotalFloorNumber();
 		try
 		{
-			Random randomGenerator = new Random();
-			int totalPeopleCreated = 0;
-			while(totalSimTime > (System.currentTimeMillis()- tStart))
+			Random arrivalGenerator = context.createRandomStream("arrivals");
+			Random floorGenerator = context.createRandomStream("destinations");
+			long nextArrival = trafficProfile.nextArrivalTime(0, arrivalGenerator);
+			while(nextArrival < totalSimTime)
 			{
-				int randStartFloor, randEndFloor;
+				Thread.sleep(Math.max(0, nextArrival - (System.currentTimeMillis() - tStart)));
+				createRandomPerson(nextArrival, floorGenerator);
+				nextArrival = trafficProfile.nextArrivalTime(nextArrival, arrivalGenerator);
+			}
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+		}
+	}
 
-				for(int i = 0; i < XmlParser.getPeoplePerMin(); ++i)
+	/**
+	 * Helper method to replay the arrivals of the trace file in real time while the simulation is running
+	 * @param totalSimTime the amount of time (in milliseconds) that the simulation should run for
+	 */
+	private void tracePersonGenerator(long totalSimTime)
+	{
+		long tStart = System.currentTimeMillis();
+		double compression = context.getConfig().getTraceCompression();
+		try (TraceReader traceReader = new TraceReader(Paths.get(context.getConfig().getTracePath())))
+		{
+			TraceArrival firstArrival = traceReader.next();
+			TraceArrival nextArrival = firstArrival;
+			while(nextArrival != null)
+			{
+				long arrivalTime = getTraceTime(nextArrival, firstArrival, compression);
+				if(arrivalTime >= totalSimTime)
 				{
-					//make sure these two numbers aren't the same
-					do
-					{
-						randStartFloor =  randomGenerator.nextInt(totalFloors) + 1;
-						randEndFloor = randomGenerator.nextInt(totalFloors) + 1;
-					}
-					while(randStartFloor == randEndFloor);
-					Person newPerson = PersonFactory.createPerson(totalPeopleCreated++, randStartFloor, randEndFloor);
-					System.out.println("Person " + newPerson.getID() + " going to floor " + randEndFloor + " is being created and added to a floor #: " + randStartFloor);
-
-					addPersonToFloor(newPerson, randStartFloor);
+					break;
 				}
-				Thread.sleep(60000);
+				Thread.sleep(Math.max(0, arrivalTime - (System.currentTimeMillis() - tStart)));
+				createPerson(nextArrival.getStartFloor(), nextArrival.getDestinationFloor());
+				nextArrival = traceReader.next();
 			}
 		}
 		catch (Exception e)
 		{
 			e.printStackTrace();
 		}
-	}   
+	}
+
+	/**
+	 * Helper method which creates a Person object with random start and destination floors and places it on its start floor
+	 * @param arrivalTime the time at which the Person arrives, which decides the traffic window its floors are drawn from
+	 * @param randomGenerator the source of the random floor numbers
+	 */
+	private void createRandomPerson(long arrivalTime, Random randomGenerator)
+	{
+		int[] trip = trafficProfile.pickTrip(arrivalTime, randomGenerator);
+		createPerson(trip[0], trip[1]);
+	}
+
+	/**
+	 * Helper method which creates a Person object and places it on its start floor
+	 * @param startFloor the floor the Person arrives at. NOTE: uses ONE-BASED indexing
+	 * @param endFloor the floor the Person travels to. NOTE: uses ONE-BASED indexing
+	 */
+	private void createPerson(int startFloor, int endFloor)
+	{
+		try
+		{
+			Person newPerson = PersonFactory.createPerson(context, totalPeopleCreated++, startFloor, endFloor);
+			context.getStatistics().personCreated();
+			PassengerStore passengerStore = context.getPassengerStore();
+			if(passengerStore != null)
+			{
+				newPerson.setPassengerRecord(passengerStore.add(newPerson.getID(), startFloor, endFloor, context.getStatistics().getTime()));
+			}
+			context.getEventLog().record("create person " + newPerson.getID() + " from " + startFloor + " to " + endFloor);
+			if(context.getConsole().isEnabled())
+			{
+				context.getConsole().println("Person " + newPerson.getID() + " going to floor " + endFloor + " is being created and added to a floor #: " + startFloor);
+			}
+
+			addPersonToFloor(newPerson, startFloor);
+		}
+		catch (NegativeFloorException | NullPassengerException e)
+		{
+			e.printStackTrace();
+		}
+	}
 }
@@ -0,0 +1,92 @@
+package pImpls;
+
+/**
+ * A single timestamped action inside the discrete-event simulation. Events are ordered by the simulated time at which they fire; events that
+ * share a timestamp fire in the order that they were scheduled, which keeps the event ordering identical from run to run.
+ */
+public class SimulationEvent implements Comparable<SimulationEvent>
+{
+	/**
+	 * The simulated time (in milliseconds) at which this event should fire
+	 */
+	private long eventTime;
+
+	/**
+	 * The order in which this event was scheduled. Used to break ties between events that share the same eventTime
+	 */
+	private long sequenceNumber;
+
+	/**
+	 * The work that should be performed once the simulation clock reaches eventTime
+	 */
+	private Runnable action;
+
+	/**
+	 * Whether this event has been cancelled. Cancelled events stay inside the event queue but are skipped once they reach the front of it
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * Constructor for SimulationEvent. Events should only be created through SimulationClock.schedule().
+	 * @param inTime the simulated time (in milliseconds) at which this event should fire.
+	 * @param inSequence the order in which this event was scheduled.
+	 * @param inAction the work to perform once the event fires. Must not be null.
+	 */
+	SimulationEvent(long inTime, long inSequence, Runnable inAction)
+	{
+		if(inAction == null)
+		{
+			throw new IllegalArgumentException("Attempting to schedule a simulation event without an action!");
+		}
+		this.eventTime = inTime;
+		this.sequenceNumber = inSequence;
+		this.action = inAction;
+	}
+
+	/**
+	 * Accessor for the simulated time at which this event fires
+	 * @return the simulated time (in milliseconds) at which this event fires
+	 */
+	public long getEventTime()
+	{
+		return this.eventTime;
+	}
+
+	/**
+	 * Prevents this event from firing. Cancelling an event that has already fired has no effect.
+	 */
+	public void cancel()
+	{
+		this.cancelled = true;
+	}
+
+	/**
+	 * Accessor for the cancellation state of this event
+	 * @return true if cancel() has been called on this event, otherwise false
+	 */
+	public boolean isCancelled()
+	{
+		return this.cancelled;
+	}
+
+	/**
+	 * Performs the work associated with this event
+	 */
+	void fire()
+	{
+		this.action.run();
+	}
+
+	/**
+	 * Orders events by their eventTime, falling back to the order in which they were scheduled
+	 */
+	@Override
+	public int compareTo(SimulationEvent other)
+	{
+		if(this.eventTime != other.eventTime)
+		{
+			return Long.compare(this.eventTime, other.eventTime);
+		}
+		return Long.compare(this.sequenceNumber, other.sequenceNumber);
+	}
+}
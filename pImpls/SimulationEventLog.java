@@ -0,0 +1,115 @@
+package pImpls;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Records the decisions made during a simulation run (arrivals, dispatch decisions, boarding, alighting and elevator movement) as timestamped
+ * entries. Every entry is folded into a running 64-bit FNV-1a checksum, so two runs can be compared for bit-for-bit reproducibility without
+ * keeping the entries in memory. The entries may optionally be written to a file as well.
+ */
+public class SimulationEventLog
+{
+	/**
+	 * Starting value of the 64-bit FNV-1a checksum
+	 */
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/**
+	 * Multiplier of the 64-bit FNV-1a checksum
+	 */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * The statistics object whose time is used to timestamp every entry
+	 */
+	private SimulationStatistics timeSource;
+
+	/**
+	 * The file that entries are written to, or null if entries are only folded into the checksum
+	 */
+	private PrintWriter logWriter;
+
+	/**
+	 * The checksum of every entry recorded so far
+	 */
+	private long checksum = FNV_OFFSET_BASIS;
+
+	/**
+	 * The number of entries recorded so far
+	 */
+	private long entryCount;
+
+	/**
+	 * Constructor for SimulationEventLog.
+	 * @param inTimeSource the statistics object whose time is used to timestamp every entry
+	 * @param logPath the file to write every entry to, or null if entries should only be folded into the checksum
+	 */
+	public SimulationEventLog(SimulationStatistics inTimeSource, String logPath)
+	{
+		this.timeSource = inTimeSource;
+		if(logPath != null)
+		{
+			try
+			{
+				this.logWriter = new PrintWriter(new FileWriter(logPath));
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Records an entry, prefixed with the current simulation time
+	 * @param entry a description of the decision being recorded
+	 */
+	public synchronized void record(String entry)
+	{
+		String line = this.timeSource.getTime() + " " + entry;
+		for(int i = 0; i < line.length(); ++i)
+		{
+			this.checksum ^= line.charAt(i);
+			this.checksum *= FNV_PRIME;
+		}
+		this.checksum ^= '\n';
+		this.checksum *= FNV_PRIME;
+		this.entryCount++;
+		if(this.logWriter != null)
+		{
+			this.logWriter.println(line);
+		}
+	}
+
+	/**
+	 * Accessor for the checksum of every entry recorded so far. Two runs with identical entries in an identical order have identical checksums.
+	 * @return the 64-bit FNV-1a checksum of the log
+	 */
+	public synchronized long getChecksum()
+	{
+		return this.checksum;
+	}
+
+	/**
+	 * Accessor for the number of entries recorded so far
+	 * @return the number of entries in the log
+	 */
+	public synchronized long getEntryCount()
+	{
+		return this.entryCount;
+	}
+
+	/**
+	 * Flushes and closes the log file, if there is one. Entries recorded afterwards are only folded into the checksum.
+	 */
+	public synchronized void close()
+	{
+		if(this.logWriter != null)
+		{
+			this.logWriter.close();
+			this.logWriter = null;
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package pImpls;
+
+/**
+ * Collects the passenger metrics of a single simulation run, such as how long Person objects waited on their floor and how long their whole
+ * trip took.
+ */
+public class SimulationStatistics
+{
+	/**
+	 * The clock used to timestamp passengers. Set to null when the simulation runs in real time
+	 */
+	private SimulationClock eventClock;
+
+	/**
+	 * The wall-clock time at which this object was created, used to timestamp passengers when the simulation runs in real time
+	 */
+	private long startTime;
+
+	/**
+	 * The number of Person objects created by the simulation
+	 */
+	private int peopleCreated;
+
+	/**
+	 * The number of Person objects that have reached their destination floor
+	 */
+	private int peopleDelivered;
+
+	/**
+	 * The sum of the time (in milliseconds) that every delivered Person spent waiting on their start floor
+	 */
+	private long totalWaitTime;
+
+	/**
+	 * The sum of the time (in milliseconds) between every delivered Person arriving on their start floor and leaving the elevator
+	 */
+	private long totalTripTime;
+
+	/**
+	 * The longest time (in milliseconds) that any delivered Person spent waiting on their start floor
+	 */
+	private long maxWaitTime;
+
+	/**
+	 * The number of hall calls made again because a full elevator left people behind
+	 */
+	private int resummonedCalls;
+
+	/**
+	 * The number of hall calls handed to the elevator selection algorithm, counting every retry of a deferred call
+	 */
+	private int dispatchedCalls;
+
+	/**
+	 * The number of hall calls dropped because the hall button for the same floor and direction was already lit
+	 */
+	private int coalescedCalls;
+
+	/**
+	 * Constructor for SimulationStatistics.
+	 * @param inClock the clock used to timestamp passengers, or null if passengers should be timestamped in real time
+	 */
+	public SimulationStatistics(SimulationClock inClock)
+	{
+		this.eventClock = inClock;
+		this.startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Accessor for the statistics of the default SimulationContext. Objects that belong to a specific SimulationContext should use
+	 * SimulationContext.getStatistics() instead.
+	 * @return the SimulationStatistics owned by the default context
+	 */
+	public static SimulationStatistics getInstance()
+	{
+		return SimulationContext.getDefault().getStatistics();
+	}
+
+	/**
+	 * Accessor for the current time of the simulation
+	 * @return the simulated time in event-driven mode, otherwise the number of milliseconds since this object was created
+	 */
+	public long getTime()
+	{
+		if(this.eventClock != null)
+		{
+			return this.eventClock.getCurrentTime();
+		}
+		return System.currentTimeMillis() - this.startTime;
+	}
+
+	/**
+	 * Records that a new Person object has entered the simulation
+	 */
+	public synchronized void personCreated()
+	{
+		this.peopleCreated++;
+	}
+
+	/**
+	 * Records that a Person object has left an elevator at its destination floor
+	 * @param inPerson the Person object that has reached its destination
+	 */
+	public synchronized void personDelivered(Person inPerson)
+	{
+		long waitTime = inPerson.getBoardingTime() - inPerson.getArrivalTime();
+		this.peopleDelivered++;
+		this.totalWaitTime += waitTime;
+		this.totalTripTime += getTime() - inPerson.getArrivalTime();
+		this.maxWaitTime = Math.max(this.maxWaitTime, waitTime);
+	}
+
+	/**
+	 * Records that a full elevator left people behind on a floor, so their hall call had to be made again
+	 */
+	public synchronized void callResummoned()
+	{
+		this.resummonedCalls++;
+	}
+
+	/**
+	 * Records that a hall call was handed to the elevator selection algorithm
+	 */
+	public synchronized void callDispatched()
+	{
+		this.dispatchedCalls++;
+	}
+
+	/**
+	 * Records that a hall call was dropped because an identical call was already registered, saving one run of the selection algorithm
+	 */
+	public synchronized void callCoalesced()
+	{
+		this.coalescedCalls++;
+	}
+
+	/**
+	 * Accessor for the number of Person objects created by the simulation
+	 * @return the number of Person objects created so far
+	 */
+	public synchronized int getPeopleCreated()
+	{
+		return this.peopleCreated;
+	}
+
+	/**
+	 * Accessor for the number of Person objects that have reached their destination
+	 * @return the number of Person objects delivered so far
+	 */
+	public synchronized int getPeopleDelivered()
+	{
+		return this.peopleDelivered;
+	}
+
+	/**
+	 * Accessor for the average time that a delivered Person spent waiting on their start floor
+	 * @return the average wait time in milliseconds, or 0 if nobody has been delivered
+	 */
+	public synchronized double getAverageWaitTime()
+	{
+		return this.peopleDelivered == 0 ? 0 : (double)this.totalWaitTime / this.peopleDelivered;
+	}
+
+	/**
+	 * Accessor for the average time between a delivered Person arriving on their start floor and leaving the elevator
+	 * @return the average trip time in milliseconds, or 0 if nobody has been delivered
+	 */
+	public synchronized double getAverageTripTime()
+	{
+		return this.peopleDelivered == 0 ? 0 : (double)this.totalTripTime / this.peopleDelivered;
+	}
+
+	/**
+	 * Accessor for the longest time that a delivered Person spent waiting on their start floor
+	 * @return the longest wait time in milliseconds
+	 */
+	public synchronized long getMaxWaitTime()
+	{
+		return this.maxWaitTime;
+	}
+
+	/**
+	 * Accessor for the number of hall calls made again because a full elevator left people behind
+	 * @return the number of calls made again so far
+	 */
+	public synchronized int getResummonedCalls()
+	{
+		return this.resummonedCalls;
+	}
+
+	/**
+	 * Accessor for the number of hall calls handed to the elevator selection algorithm
+	 * @return the number of times the selection algorithm has run so far, including retries of deferred calls
+	 */
+	public synchronized int getDispatchedCalls()
+	{
+		return this.dispatchedCalls;
+	}
+
+	/**
+	 * Accessor for the number of hall calls dropped because the hall button was already lit
+	 * @return the number of runs of the selection algorithm saved so far
+	 */
+	public synchronized int getCoalescedCalls()
+	{
+		return this.coalescedCalls;
+	}
+}
@@ -0,0 +1,178 @@
+package pImpls;
+
+import java.util.Iterator;
+
+import pInterfaces.ControlModuleInterface;
+import pInterfaces.ElevatorInterface;
+
+/**
+ * Compares how long it takes to find the nearest elevator for a hall call in three ways: reading the fields of every Elevator object in turn,
+ * scanning the records of an OffHeapStateTable, and asking the ElevatorPositionIndex, which is what the control modules actually dispatch
+ * with. For each kind of storage, a building with the requested number of elevators is created from the xmlInputs file, and a hall call on
+ * every floor in both directions is answered the requested number of times.
+ * The checksums of the three are comparable, but elevators at the same distance are a tie that the two scans give to the lowest elevator
+ * number and the index may give to another, so the index's checksum only matches theirs when no query is a tie. While every elevator is
+ * still waiting on the same floor, every query is one.
+ * Usage: java pImpls.StateStorageBenchmark [elevatorCount] [rounds]
+ */
+public class StateStorageBenchmark
+{
+	/**
+	 * The number of rounds that are run and thrown away before measuring, so that every query is compiled
+	 */
+	private static final int WARMUP_ROUNDS = 20;
+
+	public static void main(String[] args) throws Exception
+	{
+		int elevatorCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+		SimulationContext heapContext = createContext(elevatorCount, OffHeapStateTable.HEAP_STATE);
+		ControlModuleInterface heapModule = heapContext.getControlModule();
+		ElevatorPositionIndex index = heapContext.getElevatorIndex();
+		SimulationContext offHeapContext = createContext(elevatorCount, OffHeapStateTable.OFF_HEAP_STATE);
+		ControlModuleInterface offHeapModule = offHeapContext.getControlModule();
+		OffHeapStateTable table = offHeapContext.getStateTable();
+		int floorCount = table.getFloorCount();
+
+		for(int i = 0; i < WARMUP_ROUNDS; ++i)
+		{
+			scanFields(heapModule, floorCount);
+			scanTable(table, floorCount);
+			queryIndex(index, floorCount);
+		}
+		long tStart = System.nanoTime();
+		long heapChecksum = 0;
+		for(int i = 0; i < rounds; ++i)
+		{
+			heapChecksum += scanFields(heapModule, floorCount);
+		}
+		long heapTime = System.nanoTime() - tStart;
+		tStart = System.nanoTime();
+		long tableChecksum = 0;
+		for(int i = 0; i < rounds; ++i)
+		{
+			tableChecksum += scanTable(table, floorCount);
+		}
+		long tableTime = System.nanoTime() - tStart;
+		tStart = System.nanoTime();
+		long indexChecksum = 0;
+		for(int i = 0; i < rounds; ++i)
+		{
+			indexChecksum += queryIndex(index, floorCount);
+		}
+		long indexTime = System.nanoTime() - tStart;
+		heapModule.shutDown();
+		offHeapModule.shutDown();
+
+		long queries = (long)rounds * floorCount * 2;
+		System.out.println(String.format("%-10s %10s %10s %16s %14s", "State", "Elevators", "Queries", "ns/query", "Checksum"));
+		System.out.println(String.format("%-10s %10d %10d %16.1f %14d", OffHeapStateTable.HEAP_STATE, elevatorCount, queries, (double)heapTime / queries, heapChecksum));
+		System.out.println(String.format("%-10s %10d %10d %16.1f %14d", OffHeapStateTable.OFF_HEAP_STATE, elevatorCount, queries, (double)tableTime / queries, tableChecksum));
+		System.out.println(String.format("%-10s %10d %10d %16.1f %14d", "index", elevatorCount, queries, (double)indexTime / queries, indexChecksum));
+		System.out.println("Off-heap block: " + table.getFootprint() + " bytes for " + table.getElevatorCount() + " elevators and " + floorCount + " floors");
+	}
+
+	/**
+	 * Creates an event-driven simulation from the xmlInputs file with the requested number of elevators, keeping its state in the requested kind of storage
+	 * @param elevatorCount the number of elevators to create
+	 * @param stateStorage either OffHeapStateTable.HEAP_STATE or OffHeapStateTable.OFF_HEAP_STATE
+	 * @return the context of the simulation
+	 */
+	private static SimulationContext createContext(int elevatorCount, String stateStorage)
+	{
+		SimulationConfig config = new SimulationConfig(XmlParser.getConfig());
+		config.setEngine(XmlParser.EVENT_ENGINE);
+		config.setTotalElevatorNumber(elevatorCount);
+		config.setStateStorage(stateStorage);
+		//every elevator logs its start-up, which would drown out the results
+		config.setConsole(SimulationConsole.CONSOLE_OFF);
+		return new SimulationContext(config);
+	}
+
+	/**
+	 * Answers a hall call on every floor in both directions by reading the floor and direction of every Elevator through its accessors
+	 * @param controlModule the control module of a building that keeps its state on the heap
+	 * @param floorCount the number of floors in the building
+	 * @return the sum of the chosen elevator numbers, so that the work cannot be optimised away
+	 */
+	private static long scanFields(ControlModuleInterface controlModule, int floorCount)
+	{
+		long checksum = 0;
+		int elevatorNum = controlModule.getElevatorNum();
+		for(int floor = 0; floor < floorCount; ++floor)
+		{
+			for(Direction direction : new Direction[] { Direction.UP, Direction.DOWN })
+			{
+				int bestElevator = -1;
+				int bestDistance = Integer.MAX_VALUE;
+				for(int i = 1; i <= elevatorNum; ++i)
+				{
+					ElevatorInterface elevator = controlModule.getElevator(i);
+					int distance = elevator.getCurrentFloor() - 1 - floor;
+					Direction elevatorDirection = elevator.getDirection();
+					if(elevatorDirection == direction)
+					{
+						distance = direction == Direction.UP ? -distance : distance;
+						if(distance < 0)
+						{
+							continue;
+						}
+					}
+					else if(elevatorDirection == Direction.IDLE)
+					{
+						distance = Math.abs(distance);
+					}
+					else
+					{
+						continue;
+					}
+					if(distance < bestDistance)
+					{
+						bestDistance = distance;
+						bestElevator = i - 1;
+					}
+				}
+				checksum += bestElevator;
+			}
+		}
+		return checksum;
+	}
+
+	/**
+	 * Answers a hall call on every floor in both directions by scanning the records of the state table
+	 * @param table the state table of a building that keeps its state off the heap
+	 * @param floorCount the number of floors in the building
+	 * @return the sum of the chosen elevator slots, so that the work cannot be optimised away
+	 */
+	private static long scanTable(OffHeapStateTable table, int floorCount)
+	{
+		long checksum = 0;
+		for(int floor = 0; floor < floorCount; ++floor)
+		{
+			checksum += table.findNearestElevator(floor, Direction.UP);
+			checksum += table.findNearestElevator(floor, Direction.DOWN);
+		}
+		return checksum;
+	}
+
+	/**
+	 * Answers a hall call on every floor in both directions by taking the first elevator produced by the position index, as the control modules do
+	 * @param index the position index of a building
+	 * @param floorCount the number of floors in the building
+	 * @return the sum of the chosen ZERO-BASED elevator numbers, so that the work cannot be optimised away
+	 */
+	private static long queryIndex(ElevatorPositionIndex index, int floorCount)
+	{
+		long checksum = 0;
+		for(int floor = 0; floor < floorCount; ++floor)
+		{
+			for(Direction direction : new Direction[] { Direction.UP, Direction.DOWN })
+			{
+				Iterator<ElevatorInterface> candidates = index.findNearest(floor, direction);
+				checksum += candidates.hasNext() ? candidates.next().getElevatorId() : -1;
+			}
+		}
+		return checksum;
+	}
+}
@@ -0,0 +1,62 @@
+package pImpls;
+
+/**
+ * One recorded passenger arrival read from a trace file by TraceReader.
+ */
+public class TraceArrival
+{
+	/**
+	 * The recorded time of the arrival, in milliseconds. Only the differences between the times of a trace matter.
+	 */
+	private long timestamp;
+
+	/**
+	 * The floor the passenger arrived at. NOTE: uses ONE-BASED indexing
+	 */
+	private int startFloor;
+
+	/**
+	 * The floor the passenger travelled to. NOTE: uses ONE-BASED indexing
+	 */
+	private int destinationFloor;
+
+	/**
+	 * Constructor for TraceArrival
+	 * @param inTimestamp the recorded time of the arrival, in milliseconds
+	 * @param inStartFloor the ONE-BASED floor the passenger arrived at
+	 * @param inDestinationFloor the ONE-BASED floor the passenger travelled to
+	 */
+	public TraceArrival(long inTimestamp, int inStartFloor, int inDestinationFloor)
+	{
+		this.timestamp = inTimestamp;
+		this.startFloor = inStartFloor;
+		this.destinationFloor = inDestinationFloor;
+	}
+
+	/**
+	 * Accessor for the recorded time of the arrival
+	 * @return the recorded time, in milliseconds
+	 */
+	public long getTimestamp()
+	{
+		return this.timestamp;
+	}
+
+	/**
+	 * Accessor for the floor the passenger arrived at
+	 * @return the ONE-BASED start floor
+	 */
+	public int getStartFloor()
+	{
+		return this.startFloor;
+	}
+
+	/**
+	 * Accessor for the floor the passenger travelled to
+	 * @return the ONE-BASED destination floor
+	 */
+	public int getDestinationFloor()
+	{
+		return this.destinationFloor;
+	}
+}
@@ -0,0 +1,163 @@
+package pImpls;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams recorded passenger arrivals from a trace file. Each line of the file holds a timestamp in milliseconds, a start floor and a
+ * destination floor, separated by commas (for example "1690000000000,1,7"). Blank lines, lines starting with '#' and a header line whose first
+ * field is not a number are skipped. The header, if there is one, must come before the first arrival, but may follow comments. The file is read through a fixed-size buffer, so traces of any size can be replayed without holding more
+ * than one line in memory.
+ */
+public class TraceReader implements Closeable
+{
+	/**
+	 * The default size of the read buffer, in bytes
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The channel the trace is read from
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Holds the bytes that have been read from the channel but not yet parsed
+	 */
+	private ByteBuffer readBuffer;
+
+	/**
+	 * Holds the characters of the line currently being read
+	 */
+	private StringBuilder lineBuilder = new StringBuilder();
+
+	/**
+	 * Whether the channel has been read to the end
+	 */
+	private boolean endOfFile;
+
+	/**
+	 * The number of the last line read, used in error messages
+	 */
+	private long lineNumber;
+
+	/**
+	 * Whether a line other than a blank line or a comment has been read. Only the first such line may be a header.
+	 */
+	private boolean bReadContent;
+
+	/**
+	 * Constructor for TraceReader, using the default buffer size
+	 * @param tracePath the trace file to read
+	 * @throws IOException if the file cannot be opened
+	 */
+	public TraceReader(Path tracePath) throws IOException
+	{
+		this(tracePath, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor for TraceReader
+	 * @param tracePath the trace file to read
+	 * @param bufferSize the number of bytes to read from the file at a time
+	 * @throws IOException if the file cannot be opened
+	 */
+	public TraceReader(Path tracePath, int bufferSize) throws IOException
+	{
+		this.channel = FileChannel.open(tracePath, StandardOpenOption.READ);
+		this.readBuffer = ByteBuffer.allocateDirect(bufferSize);
+		//start with an empty buffer, so the first read fills it
+		this.readBuffer.flip();
+	}
+
+	/**
+	 * Reads the next arrival from the trace
+	 * @return the next arrival, or null if the end of the trace has been reached
+	 * @throws IOException if the file cannot be read, or if a line is not a valid arrival
+	 */
+	public TraceArrival next() throws IOException
+	{
+		String line;
+		while((line = readLine()) != null)
+		{
+			line = line.trim();
+			if(line.isEmpty() || line.startsWith("#"))
+			{
+				continue;
+			}
+			boolean bFirstContent = !bReadContent;
+			bReadContent = true;
+			String[] fields = line.split("\\s*,\\s*");
+			if(fields.length < 3)
+			{
+				throw new IOException("Line " + lineNumber + " of the trace should hold a timestamp, a start floor and a destination floor: " + line);
+			}
+			try
+			{
+				return new TraceArrival(Long.parseLong(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+			}
+			catch (NumberFormatException e)
+			{
+				if(bFirstContent)
+				{
+					//header line
+					continue;
+				}
+				throw new IOException("Line " + lineNumber + " of the trace is not a valid arrival: " + line);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the next line of the file, refilling the buffer as needed. The trace is expected to be ASCII.
+	 * @return the next line without its line terminator, or null if the end of the file has been reached
+	 * @throws IOException if the file cannot be read
+	 */
+	private String readLine() throws IOException
+	{
+		lineBuilder.setLength(0);
+		while(true)
+		{
+			while(readBuffer.hasRemaining())
+			{
+				char nextChar = (char) ( readBuffer.get() & 0xff );
+				if(nextChar == '\n')
+				{
+					lineNumber++;
+					return lineBuilder.toString();
+				}
+				if(nextChar != '\r')
+				{
+					lineBuilder.append(nextChar);
+				}
+			}
+			if(endOfFile)
+			{
+				if(lineBuilder.length() == 0)
+				{
+					return null;
+				}
+				lineNumber++;
+				return lineBuilder.toString();
+			}
+			readBuffer.clear();
+			endOfFile = channel.read(readBuffer) < 0;
+			readBuffer.flip();
+		}
+	}
+
+	/**
+	 * Closes the trace file
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
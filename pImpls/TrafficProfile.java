@@ -0,0 +1,126 @@
+package pImpls;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import pFactories.ArrivalProcessFactory;
+import pInterfaces.ArrivalProcessInterface;
+
+/**
+ * Decides when passengers arrive and where they travel over the course of a simulated day. The day is split into TrafficWindows, each with its
+ * own arrival rate and origin/destination matrix, so a single run can contain a morning up-peak, a lunchtime peak and an evening down-peak.
+ * Every simulation should create its own profile, since the arrival processes it holds may keep state between arrivals.
+ */
+public class TrafficProfile
+{
+	/**
+	 * The windows of the day, in order of their start time
+	 */
+	private ArrayList<TrafficWindow> windows;
+
+	/**
+	 * The arrival process of every window, at the same index as the window. Null for windows in which nobody arrives.
+	 */
+	private ArrayList<ArrivalProcessInterface> arrivalProcesses;
+
+	/**
+	 * Constructor for TrafficProfile. Uses the traffic windows of the configuration, or a single uniform window lasting the whole simulation if
+	 * the configuration has none.
+	 * @param config the configuration describing the traffic and arrival process
+	 * @throws IllegalArgumentException if the windows overlap, or if a window's origin/destination matrix does not match the number of floors
+	 */
+	public TrafficProfile(SimulationConfig config)
+	{
+		this.windows = new ArrayList<TrafficWindow>(config.getTrafficWindows());
+		boolean bDefaultWindow = this.windows.isEmpty();
+		if(bDefaultWindow)
+		{
+			int totalFloors = config.getTotalFloorNumber();
+			this.windows.add(new TrafficWindow(0, config.getDuration(), config.getPeoplePerMin(), TrafficWindow.createPattern(TrafficWindow.UNIFORM, totalFloors)));
+		}
+		this.arrivalProcesses = new ArrayList<ArrivalProcessInterface>();
+		long previousEnd = 0;
+		for(TrafficWindow window : this.windows)
+		{
+			if(window.getStartTime() < previousEnd)
+			{
+				throw new IllegalArgumentException("Traffic windows must be listed in order and must not overlap");
+			}
+			if(window.getTotalFloors() != config.getTotalFloorNumber())
+			{
+				throw new IllegalArgumentException("A traffic window covers " + window.getTotalFloors() + " floors, but the building has " + config.getTotalFloorNumber());
+			}
+			previousEnd = window.getEndTime();
+			if(window.getPeoplePerMin() <= 0)
+			{
+				this.arrivalProcesses.add(null);
+			}
+			else if(bDefaultWindow)
+			{
+				//without a profile, an empirical arrival process keeps the rate of its samples
+				this.arrivalProcesses.add(ArrivalProcessFactory.createArrivalProcess(config));
+			}
+			else
+			{
+				//every window has its own rate, which an empirical arrival process reaches by scaling its samples
+				this.arrivalProcesses.add(ArrivalProcessFactory.createArrivalProcess(config, window.getPeoplePerMin()));
+			}
+		}
+	}
+
+	/**
+	 * Computes when the next passenger arrives. An arrival that would fall after the end of its window is discarded and drawn again from the
+	 * next window, which is exact for Poisson arrivals since they have no memory.
+	 * @param currentTime the time of the previous arrival (or the start of the simulation), in milliseconds
+	 * @param randomGenerator the source of any random numbers the arrival processes need
+	 * @return the time of the next arrival, in milliseconds, or Long.MAX_VALUE if nobody arrives after currentTime
+	 */
+	public long nextArrivalTime(long currentTime, Random randomGenerator)
+	{
+		long time = currentTime;
+		for(int i = 0; i < this.windows.size(); ++i)
+		{
+			TrafficWindow window = this.windows.get(i);
+			ArrivalProcessInterface arrivalProcess = this.arrivalProcesses.get(i);
+			if(window.getEndTime() <= time || arrivalProcess == null)
+			{
+				continue;
+			}
+			time = Math.max(time, window.getStartTime());
+			long arrivalTime = time + arrivalProcess.nextInterArrivalTime(randomGenerator);
+			if(arrivalTime < window.getEndTime())
+			{
+				return arrivalTime;
+			}
+			time = window.getEndTime();
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Draws the start and destination floor of a passenger arriving at the specified time
+	 * @param currentTime the arrival time of the passenger, in milliseconds
+	 * @param randomGenerator the source of the random trip
+	 * @return an array holding the start floor followed by the destination floor, both ONE-BASED, or null if no window covers currentTime
+	 */
+	public int[] pickTrip(long currentTime, Random randomGenerator)
+	{
+		for(TrafficWindow window : this.windows)
+		{
+			if(window.getStartTime() <= currentTime && currentTime < window.getEndTime())
+			{
+				return window.pickTrip(randomGenerator);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Accessor for the time at which the last window ends
+	 * @return the end of the profile, in milliseconds since the start of the simulation
+	 */
+	public long getEndTime()
+	{
+		return this.windows.get(this.windows.size() - 1).getEndTime();
+	}
+}
@@ -0,0 +1,251 @@
+package pImpls;
+
+import java.util.Random;
+
+/**
+ * One time window of a traffic profile. Within the window passengers arrive at a fixed average rate, and the start and destination floor of
+ * every passenger are drawn from an origin/destination matrix. Windows are immutable, so one window may be shared by every simulation that
+ * uses the same configuration.
+ */
+public class TrafficWindow
+{
+	/**
+	 * Name of the pattern in which every trip between two different floors is equally likely
+	 */
+	public static final String UNIFORM = "uniform";
+
+	/**
+	 * Name of the morning pattern, in which most passengers travel from the lobby to the upper floors
+	 */
+	public static final String UP_PEAK = "upPeak";
+
+	/**
+	 * Name of the evening pattern, in which most passengers travel from the upper floors to the lobby
+	 */
+	public static final String DOWN_PEAK = "downPeak";
+
+	/**
+	 * Name of the lunchtime pattern, in which passengers travel both to and from the lobby
+	 */
+	public static final String LUNCH = "lunch";
+
+	/**
+	 * The share of trips in a peak pattern which do not start or end at the lobby
+	 */
+	private static final double INTERFLOOR_SHARE = 0.1;
+
+	/**
+	 * The time at which this window starts, in milliseconds since the start of the simulation
+	 */
+	private long startTime;
+
+	/**
+	 * The time at which this window ends, in milliseconds since the start of the simulation. Passengers arriving at exactly this time belong to
+	 * the next window.
+	 */
+	private long endTime;
+
+	/**
+	 * The average number of passengers that arrive every minute during this window
+	 */
+	private double peoplePerMin;
+
+	/**
+	 * The number of floors covered by the origin/destination matrix
+	 */
+	private int totalFloors;
+
+	/**
+	 * The running total of the flattened origin/destination matrix. Entry origin * totalFloors + destination holds the sum of the weights of
+	 * every trip up to and including that one.
+	 */
+	private double[] cumulativeWeights;
+
+	/**
+	 * Constructor for TrafficWindow
+	 * @param inStartTime the time at which this window starts, in milliseconds
+	 * @param inEndTime the time at which this window ends, in milliseconds
+	 * @param inPeoplePerMin the average number of passengers that arrive every minute during this window
+	 * @param odMatrix the relative weight of every trip. odMatrix[origin][destination] uses ZERO-BASED floor numbers. Trips from a floor to
+	 * itself are ignored.
+	 * @throws IllegalArgumentException if the window ends before it starts, if the rate is negative, if the matrix is not square, if any weight
+	 * is negative, or if every weight is 0
+	 */
+	public TrafficWindow(long inStartTime, long inEndTime, double inPeoplePerMin, double[][] odMatrix)
+	{
+		if(inEndTime <= inStartTime)
+		{
+			throw new IllegalArgumentException("A traffic window must end after it starts");
+		}
+		if(inPeoplePerMin < 0)
+		{
+			throw new IllegalArgumentException("The arrival rate of a traffic window cannot be negative");
+		}
+		this.startTime = inStartTime;
+		this.endTime = inEndTime;
+		this.peoplePerMin = inPeoplePerMin;
+		this.totalFloors = odMatrix.length;
+		this.cumulativeWeights = new double[totalFloors * totalFloors];
+		double total = 0;
+		for(int origin = 0; origin < totalFloors; ++origin)
+		{
+			if(odMatrix[origin].length != totalFloors)
+			{
+				throw new IllegalArgumentException("Row " + ( origin + 1 ) + " of the origin/destination matrix has " + odMatrix[origin].length + " entries instead of " + totalFloors);
+			}
+			for(int destination = 0; destination < totalFloors; ++destination)
+			{
+				double weight = odMatrix[origin][destination];
+				if(weight < 0)
+				{
+					throw new IllegalArgumentException("Origin/destination weights cannot be negative");
+				}
+				if(origin != destination)
+				{
+					total += weight;
+				}
+				this.cumulativeWeights[origin * totalFloors + destination] = total;
+			}
+		}
+		if(total <= 0)
+		{
+			throw new IllegalArgumentException("At least one trip between two different floors must have a positive weight");
+		}
+	}
+
+	/**
+	 * Builds the origin/destination matrix of one of the named patterns
+	 * @param patternName one of UNIFORM, UP_PEAK, DOWN_PEAK or LUNCH
+	 * @param totalFloors the number of floors in the building. The lobby is the first floor.
+	 * @return the relative weight of every trip, using ZERO-BASED floor numbers
+	 * @throws IllegalArgumentException if patternName is not one of the named patterns
+	 */
+	public static double[][] createPattern(String patternName, int totalFloors)
+	{
+		double[][] odMatrix = new double[totalFloors][totalFloors];
+		double lobbyShare;
+		boolean fromLobby;
+		boolean toLobby;
+		if(UNIFORM.equalsIgnoreCase(patternName))
+		{
+			lobbyShare = 0;
+			fromLobby = false;
+			toLobby = false;
+		}
+		else if(UP_PEAK.equalsIgnoreCase(patternName))
+		{
+			lobbyShare = 1 - INTERFLOOR_SHARE;
+			fromLobby = true;
+			toLobby = false;
+		}
+		else if(DOWN_PEAK.equalsIgnoreCase(patternName))
+		{
+			lobbyShare = 1 - INTERFLOOR_SHARE;
+			fromLobby = false;
+			toLobby = true;
+		}
+		else if(LUNCH.equalsIgnoreCase(patternName))
+		{
+			lobbyShare = 1 - INTERFLOOR_SHARE;
+			fromLobby = true;
+			toLobby = true;
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown traffic pattern: " + patternName);
+		}
+
+		//spread the interfloor share (or everything, for the uniform pattern) evenly over every trip
+		double tripsPerFloor = totalFloors - 1;
+		double everyTripWeight = ( 1 - lobbyShare ) / ( totalFloors * tripsPerFloor );
+		for(int origin = 0; origin < totalFloors; ++origin)
+		{
+			for(int destination = 0; destination < totalFloors; ++destination)
+			{
+				if(origin != destination)
+				{
+					odMatrix[origin][destination] = everyTripWeight;
+				}
+			}
+		}
+
+		//then spread the lobby share over the trips which start or end at the lobby
+		double lobbyDirections = ( fromLobby ? 1 : 0 ) + ( toLobby ? 1 : 0 );
+		for(int floor = 1; floor < totalFloors && lobbyDirections > 0; ++floor)
+		{
+			if(fromLobby)
+			{
+				odMatrix[0][floor] += lobbyShare / ( lobbyDirections * tripsPerFloor );
+			}
+			if(toLobby)
+			{
+				odMatrix[floor][0] += lobbyShare / ( lobbyDirections * tripsPerFloor );
+			}
+		}
+		return odMatrix;
+	}
+
+	/**
+	 * Draws the start and destination floor of a passenger from the origin/destination matrix
+	 * @param randomGenerator the source of the random trip
+	 * @return an array holding the start floor followed by the destination floor. NOTE: both use ONE-BASED indexing, and they are never equal.
+	 */
+	public int[] pickTrip(Random randomGenerator)
+	{
+		double target = randomGenerator.nextDouble() * this.cumulativeWeights[this.cumulativeWeights.length - 1];
+		//binary search for the first trip whose running total exceeds the target. Trips with no weight (including a floor to itself) have the
+		//same running total as the trip before them, so they can never be picked
+		int low = 0;
+		int high = this.cumulativeWeights.length - 1;
+		while(low < high)
+		{
+			int mid = ( low + high ) >>> 1;
+			if(this.cumulativeWeights[mid] > target)
+			{
+				high = mid;
+			}
+			else
+			{
+				low = mid + 1;
+			}
+		}
+		int index = low;
+		return new int[] { index / totalFloors + 1, index % totalFloors + 1 };
+	}
+
+	/**
+	 * Accessor for the time at which this window starts
+	 * @return the start of this window, in milliseconds since the start of the simulation
+	 */
+	public long getStartTime()
+	{
+		return this.startTime;
+	}
+
+	/**
+	 * Accessor for the time at which this window ends
+	 * @return the end of this window, in milliseconds since the start of the simulation
+	 */
+	public long getEndTime()
+	{
+		return this.endTime;
+	}
+
+	/**
+	 * Accessor for the average arrival rate during this window
+	 * @return the average number of passengers that arrive every minute
+	 */
+	public double getPeoplePerMin()
+	{
+		return this.peoplePerMin;
+	}
+
+	/**
+	 * Accessor for the number of floors covered by this window's origin/destination matrix
+	 * @return the number of rows (and columns) of the matrix
+	 */
+	public int getTotalFloors()
+	{
+		return this.totalFloors;
+	}
+}
@@ -2,6 +2,7 @@ package pImpls;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -14,135 +15,321 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
+import pFactories.ArrivalProcessFactory;
+import pFactories.ControlImplFactory;
+import pFactories.ParkingPolicyFactory;
+
 
 public class XmlParser
 {
 
-	private static File xmlFile;
-	private static volatile HashMap<String, Integer> inputHash;   
+	private static volatile SimulationConfig defaultConfig;
+
+	/**
+	 * Value of the optional engine element which selects the discrete-event engine instead of one thread per elevator
+	 */
+	public static final String EVENT_ENGINE = "event";
+
+	/**
+	 * Value of the optional engine element which selects the original thread-per-elevator engine. This is the default.
+	 */
+	public static final String THREADED_ENGINE = "threaded";
 
 	public static void getInputs()
 	{
 		synchronized(XmlParser.class)
 		{
-			if (inputHash == null)
+			if (defaultConfig == null)
 			{
-				inputHash = new HashMap<String, Integer>();
+				defaultConfig = parse(new File(System.getProperty("user.dir") + "/xmlInputs.xml"));
+			}
+		}
+	}
 
-				try
-				{
-					//XML document initialization for parsing
-					DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-					DocumentBuilder dBuilder;
+	/**
+	 * Accessor for the configuration read from the xmlInputs file in the working directory. The file is parsed upon the first call to this method.
+	 * @return the configuration used by the default SimulationContext
+	 */
+	public static SimulationConfig getConfig()
+	{
+		if (defaultConfig == null)
+			getInputs();
+
+		return defaultConfig;
+	}
 
-					dBuilder = dbFactory.newDocumentBuilder();
+	/**
+	 * Reads a configuration from the specified file. Each call returns a new SimulationConfig, so this method may be used to load a separate
+	 * configuration for every building being simulated.
+	 * @param xmlFile the file containing the Input element to parse
+	 * @return the configuration described by xmlFile
+	 */
+	public static SimulationConfig parse(File xmlFile)
+	{
+		HashMap<String, Integer> inputHash = new HashMap<String, Integer>();
+		HashMap<String, String> optionHash = new HashMap<String, String>();
+		ArrayList<TrafficWindow> trafficWindows = new ArrayList<TrafficWindow>();
+		ArrayList<ElevatorZone> zones = new ArrayList<ElevatorZone>();
+
+		try
+		{
+			//XML document initialization for parsing
+			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+			DocumentBuilder dBuilder;
 
-					xmlFile = new File(System.getProperty("user.dir") + "/xmlInputs.xml");
+			dBuilder = dbFactory.newDocumentBuilder();
 
-					Document doc = dBuilder.parse(xmlFile);
+			Document doc = dBuilder.parse(xmlFile);
 
-					NodeList nodeList = doc.getElementsByTagName("Input");
+			NodeList nodeList = doc.getElementsByTagName("Input");
 
-					//  Looping through all of the nodes under "Input" tags
+			//  Looping through all of the nodes under "Input" tags
 
-					for (int temp = 0; temp <nodeList.getLength(); temp++ )
+			for (int temp = 0; temp <nodeList.getLength(); temp++ )
+			{
+				Node nNode = nodeList.item(temp);
+				Element eElement = (Element) nNode;
+
+				inputHash.put("floors", Integer.parseInt(eElement.getElementsByTagName("floors").item(0).getTextContent()));
+				inputHash.put("elevators", Integer.parseInt(eElement.getElementsByTagName("elevators").item(0).getTextContent()));
+				inputHash.put("elevTravelTime", Integer.parseInt(eElement.getElementsByTagName("elevTravelTime").item(0).getTextContent()));
+				inputHash.put("elevDoorTime", Integer.parseInt(eElement.getElementsByTagName("elevDoorTime").item(0).getTextContent()));
+				inputHash.put("peoplePerMin", Integer.parseInt(eElement.getElementsByTagName("peoplePerMin").item(0).getTextContent()));
+				inputHash.put("duration", Integer.parseInt(eElement.getElementsByTagName("duration").item(0).getTextContent()));
+				inputHash.put("elevCapacity",  Integer.parseInt(eElement.getElementsByTagName("elevCapacity").item(0).getTextContent()));
+				inputHash.put("doorSpeed",  Integer.parseInt(eElement.getElementsByTagName("doorSpeed").item(0).getTextContent()));
+
+				//optional elements fall back to their defaults when they are missing from the file
+				putOption(optionHash, eElement, "engine", THREADED_ENGINE);
+				putOptionalInput(inputHash, eElement, "replicas", 1);
+				putOption(optionHash, eElement, "elevatorThreads", ElevatorThreadFactory.PLATFORM_THREADS);
+				putOption(optionHash, eElement, "seed", null);
+				putOption(optionHash, eElement, "eventLog", null);
+				putOption(optionHash, eElement, "arrivalProcess", ArrivalProcessFactory.POISSON);
+				putOption(optionHash, eElement, "arrivalSamples", null);
+				putOption(optionHash, eElement, "controller", ControlImplFactory.FIRST_FIT);
+				putOption(optionHash, eElement, "trace", null);
+				putOption(optionHash, eElement, "traceCompression", "1");
+				checkTraceCompression(optionHash.get("traceCompression"));
+				putOptionalInput(inputHash, eElement, "batchWindow", 500);
+				putOption(optionHash, eElement, "parkingPolicy", ParkingPolicyFactory.LOBBY);
+				putOptionalInput(inputHash, eElement, "parkingWindow", 300000);
+				putOption(optionHash, eElement, "passengerRecords", PassengerStore.NO_RECORDS);
+				putOption(optionHash, eElement, "stateStorage", OffHeapStateTable.HEAP_STATE);
+				putOption(optionHash, eElement, "console", SimulationConsole.CONSOLE_ON);
+				parseTrafficProfile(trafficWindows, eElement, inputHash);
+				parseZones(zones, eElement, inputHash);
+			}
+		}
+		catch (ParserConfigurationException | SAXException | IOException e)
+		{
+			e.printStackTrace();
+		}
+		SimulationConfig config = new SimulationConfig(inputHash, optionHash);
+		config.setTrafficWindows(trafficWindows);
+		config.setZones(zones);
+		return config;
+	}
+
+	/**
+	 * Reads the windows of the optional trafficProfile element. Every window element has start and end attributes (in minutes), an optional
+	 * peoplePerMin attribute which defaults to the peoplePerMin element, and either a pattern attribute naming one of the patterns of
+	 * TrafficWindow or one row element per start floor holding the weight of every destination floor.
+	 * @param trafficWindows the list to add the windows to
+	 * @param eElement the Input element being parsed
+	 * @param inputHash the numeric values that have already been read from the Input element
+	 * @throws IllegalArgumentException if a window is missing its start or end, or if its matrix is malformed
+	 */
+	private static void parseTrafficProfile(ArrayList<TrafficWindow> trafficWindows, Element eElement, HashMap<String, Integer> inputHash)
+	{
+		NodeList profileNodes = eElement.getElementsByTagName("trafficProfile");
+		if(profileNodes.getLength() == 0)
+		{
+			return;
+		}
+		int totalFloors = inputHash.get("floors");
+		NodeList windowNodes = ((Element) profileNodes.item(0)).getElementsByTagName("window");
+		for(int i = 0; i < windowNodes.getLength(); ++i)
+		{
+			Element windowElement = (Element) windowNodes.item(i);
+			long startTime = Math.round(Double.parseDouble(windowElement.getAttribute("start")) * 60000);
+			long endTime = Math.round(Double.parseDouble(windowElement.getAttribute("end")) * 60000);
+			double peoplePerMin = windowElement.hasAttribute("peoplePerMin") ? Double.parseDouble(windowElement.getAttribute("peoplePerMin")) : inputHash.get("peoplePerMin");
+
+			double[][] odMatrix;
+			NodeList rowNodes = windowElement.getElementsByTagName("row");
+			if(rowNodes.getLength() > 0)
+			{
+				odMatrix = new double[rowNodes.getLength()][];
+				for(int row = 0; row < rowNodes.getLength(); ++row)
+				{
+					String[] weights = rowNodes.item(row).getTextContent().trim().split("[,\\s]+");
+					odMatrix[row] = new double[weights.length];
+					for(int column = 0; column < weights.length; ++column)
 					{
-						Node nNode = nodeList.item(temp);
-						Element eElement = (Element) nNode;
-
-						inputHash.put("floors", Integer.parseInt(eElement.getElementsByTagName("floors").item(0).getTextContent()));
-						inputHash.put("elevators", Integer.parseInt(eElement.getElementsByTagName("elevators").item(0).getTextContent()));
-						inputHash.put("elevTravelTime", Integer.parseInt(eElement.getElementsByTagName("elevTravelTime").item(0).getTextContent()));
-						inputHash.put("elevDoorTime", Integer.parseInt(eElement.getElementsByTagName("elevDoorTime").item(0).getTextContent()));
-						inputHash.put("peoplePerMin", Integer.parseInt(eElement.getElementsByTagName("peoplePerMin").item(0).getTextContent()));
-						inputHash.put("duration", Integer.parseInt(eElement.getElementsByTagName("duration").item(0).getTextContent()));
-						inputHash.put("elevCapacity",  Integer.parseInt(eElement.getElementsByTagName("elevCapacity").item(0).getTextContent()));
-						inputHash.put("doorSpeed",  Integer.parseInt(eElement.getElementsByTagName("doorSpeed").item(0).getTextContent()));
+						odMatrix[row][column] = Double.parseDouble(weights[column]);
 					}
 				}
-				catch (ParserConfigurationException | SAXException | IOException e)
-				{
-					e.printStackTrace();
-				}
 			}
+			else
+			{
+				String pattern = windowElement.hasAttribute("pattern") ? windowElement.getAttribute("pattern") : TrafficWindow.UNIFORM;
+				odMatrix = TrafficWindow.createPattern(pattern, totalFloors);
+			}
+			trafficWindows.add(new TrafficWindow(startTime, endTime, peoplePerMin, odMatrix));
 		}
 	}
 
-	public static int getTotalElevatorNumber()
+	/**
+	 * Reads the banks of the optional zones element. Every zone element has an elevators attribute with the number of elevators in the bank,
+	 * minFloor and maxFloor attributes with the ONE-BASED range of floors it serves, an optional lobby attribute which is true unless the bank
+	 * should skip the lobby, and an optional name attribute.
+	 * @param zones the list to add the banks to
+	 * @param eElement the Input element being parsed
+	 * @param inputHash the numeric values that have already been read from the Input element
+	 * @throws IllegalArgumentException if a bank is missing an attribute, has no elevators, or serves floors outside the building, or if some
+	 * floor cannot be reached from another floor directly or by changing elevators at the lobby
+	 */
+	private static void parseZones(ArrayList<ElevatorZone> zones, Element eElement, HashMap<String, Integer> inputHash)
 	{
-		if (inputHash == null)
-			getInputs();
-
-		Integer elevators = inputHash.get("elevators");
+		NodeList zonesNodes = eElement.getElementsByTagName("zones");
+		if(zonesNodes.getLength() == 0)
+		{
+			return;
+		}
+		int totalFloors = inputHash.get("floors");
+		NodeList zoneNodes = ((Element) zonesNodes.item(0)).getElementsByTagName("zone");
+		for(int i = 0; i < zoneNodes.getLength(); ++i)
+		{
+			Element zoneElement = (Element) zoneNodes.item(i);
+			String name = zoneElement.hasAttribute("name") ? zoneElement.getAttribute("name") : "zone " + ( i + 1 );
+			int elevatorNum = Integer.parseInt(zoneElement.getAttribute("elevators"));
+			int minFloor = Integer.parseInt(zoneElement.getAttribute("minFloor"));
+			int maxFloor = Integer.parseInt(zoneElement.getAttribute("maxFloor"));
+			boolean bServesLobby = !zoneElement.hasAttribute("lobby") || Boolean.parseBoolean(zoneElement.getAttribute("lobby"));
+			if(maxFloor > totalFloors)
+			{
+				throw new IllegalArgumentException("Elevator zone " + name + " serves floors above the top of the building! (maxFloor: " + maxFloor + ")");
+			}
+			zones.add(new ElevatorZone(name, elevatorNum, minFloor, maxFloor, bServesLobby));
+		}
+		ElevatorZone.checkLayout(zones, totalFloors, inputHash.get("elevators"));
+	}
 
-		return  elevators ;
+	/**
+	 * Checks the value of the traceCompression element, since replaying a trace divides every recorded time by it
+	 * @param compression the text of the traceCompression element
+	 * @throws IllegalArgumentException if the value is not a finite number greater than 0
+	 */
+	private static void checkTraceCompression(String compression)
+	{
+		double value = Double.parseDouble(compression);
+		if(!(value > 0) || Double.isInfinite(value))
+		{
+			throw new IllegalArgumentException("traceCompression must be a positive number, but was " + compression);
+		}
+	}
 
+	/**
+	 * Stores the text of an optional element, or defaultValue if the element is not present in the xmlInputs file
+	 * @param optionHash the map to store the value in
+	 * @param eElement the Input element being parsed
+	 * @param tagName the name of the optional element
+	 * @param defaultValue the value to store if the element is missing
+	 */
+	private static void putOption(HashMap<String, String> optionHash, Element eElement, String tagName, String defaultValue)
+	{
+		NodeList optionNodes = eElement.getElementsByTagName(tagName);
+		if(optionNodes.getLength() > 0)
+		{
+			optionHash.put(tagName, optionNodes.item(0).getTextContent().trim());
+		}
+		else
+		{
+			optionHash.put(tagName, defaultValue);
+		}
 	}
 
-	public static int getTotalFloorNumber()
+	/**
+	 * Stores the value of an optional numeric element, or defaultValue if the element is not present in the xmlInputs file
+	 * @param inputHash the map to store the value in
+	 * @param eElement the Input element being parsed
+	 * @param tagName the name of the optional element
+	 * @param defaultValue the value to store if the element is missing
+	 */
+	private static void putOptionalInput(HashMap<String, Integer> inputHash, Element eElement, String tagName, int defaultValue)
 	{
-		if (inputHash == null)
-			getInputs();
+		NodeList inputNodes = eElement.getElementsByTagName(tagName);
+		if(inputNodes.getLength() > 0)
+		{
+			inputHash.put(tagName, Integer.parseInt(inputNodes.item(0).getTextContent().trim()));
+		}
+		else
+		{
+			inputHash.put(tagName, defaultValue);
+		}
+	}
 
-		Integer floors = inputHash.get("floors");
-		return floors;
+	public static int getTotalElevatorNumber()
+	{
+		return getConfig().getTotalElevatorNumber();
+	}
 
+	public static int getTotalFloorNumber()
+	{
+		return getConfig().getTotalFloorNumber();
 	}
+
 	public static int getElevTravelTime()
 	{
-		if (inputHash == null)
-			getInputs();
-
-		int time = inputHash.get("elevTravelTime");
-		return time;
+		return getConfig().getElevTravelTime();
 	}
 
 	public static int getElevDoorTime()
 	{
-		if (inputHash == null)
-			getInputs();
-
-		Integer doorTime = inputHash.get("elevDoorTime");
-		return doorTime;
-
+		return getConfig().getElevDoorTime();
 	}
 
 	public static int getPeoplePerMin()
 	{
-		if (inputHash == null)
-			getInputs();
-
-		Integer peoplePerMin = inputHash.get("peoplePerMin");
-
-		return peoplePerMin;
+		return getConfig().getPeoplePerMin();
 	}
+
 	public static int getDuration()
 	{
-		if(inputHash == null)
-		{
-			getInputs();
-		}
-		int simulationDuration = inputHash.get("duration");
-
-		//the value in the xml file is measured in minutes, not milliseconds
-		return simulationDuration * 60000;
+		return getConfig().getDuration();
 	}   
 
 	public static int getElevCapacity()
 	{
-		if(inputHash == null)
-		{
-			getInputs();
-		}
-		return inputHash.get("elevCapacity");
+		return getConfig().getElevCapacity();
 	}
 
 	public static int getDoorSpeed()
 	{
-		if (inputHash == null)
-			getInputs();
+		return getConfig().getDoorSpeed();
+	}
 
-		int dspeed = inputHash.get("doorSpeed");
-		return dspeed;
+	public static String getEngine()
+	{
+		return getConfig().getEngine();
+	}
+
+	/**
+	 * Whether the simulation should be driven by the SimulationClock instead of one thread per elevator
+	 * @return true if the engine element in the xmlInputs file is set to "event", otherwise false
+	 */
+	public static boolean isEventDriven()
+	{
+		return getConfig().isEventDriven();
+	}
+
+	/**
+	 * The number of independent replicas of the simulation to run. Values greater than 1 run a batch instead of a single simulation.
+	 * @return the value of the optional replicas element, or 1 if it is missing
+	 */
+	public static int getReplicas()
+	{
+		return getConfig().getReplicas();
 	}
 }
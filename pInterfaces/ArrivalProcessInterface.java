@@ -0,0 +1,22 @@
+package pInterfaces;
+import java.util.Random;
+
+/**
+ * Decides when passengers arrive in the building. The simulation asks the arrival process for the time until the next passenger every time a
+ * passenger is created, so passengers arrive one at a time rather than in groups.
+ */
+public interface ArrivalProcessInterface
+{
+	/**
+	 * Computes how long to wait before the next passenger arrives
+	 * @param randomGenerator the source of any random numbers the arrival process needs
+	 * @return the time until the next passenger arrives, in milliseconds. Never negative.
+	 */
+	public long nextInterArrivalTime(Random randomGenerator);
+
+	/**
+	 * Accessor for the long-run average number of passengers that this arrival process creates every minute
+	 * @return the mean arrival rate, in passengers per minute
+	 */
+	public double getMeanRate();
+}
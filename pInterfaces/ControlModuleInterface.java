@@ -21,6 +21,16 @@ public interface ControlModuleInterface
 	 */
 	public void elevatorCallReceiver(int floorNumber, Direction directionRequest) throws NegativeFloorException;
 
+	/**
+	 * This method should be called by a FloorInterface object whenever a Person object is placed inside the FloorInterface. Unlike
+	 * elevatorCallReceiver, the implementing object learns where the Person is going, which lets a destination-dispatch controller assign the
+	 * Person to a specific elevator. Other controllers simply make an UP or DOWN hall call.
+	 * @param floorNumber The ZERO-BASED floor number that the Person object is waiting on.
+	 * @param inPerson The Person object that has just arrived on the floor.
+	 * @throws NegativeFloorException if floorNumber is outside the bounds of the simulation.
+	 */
+	public void destinationCallReceiver(int floorNumber, Person inPerson) throws NegativeFloorException;
+
 	/**
 	 * Accessor for retrieving an elevator at the specified index.
 	 * @param index the elevator number to retrieve. Must be between 1 and the maximum number of elevators in the simulation, inclusive.
@@ -43,6 +53,13 @@ public interface ControlModuleInterface
 	 */
 	public void elevatorDoorsOpened(ElevatorInterface elevator, int floorNumber) throws NegativeFloorException;
 
+	/**
+	 * Called by an ElevatorInterface object whenever it becomes idle or changes direction. Calls that could not be assigned earlier may be
+	 * acceptable to the elevator now.
+	 * @param elevator the ElevatorInterface object whose direction has changed
+	 */
+	public void elevatorDirectionChanged(ElevatorInterface elevator);
+
 	/**
 	 * Helper function which places a Person object on a specified floor. Once inside the floor in question, the Person object will force the floor
 	 * to summon an elevator
@@ -0,0 +1,24 @@
+package pInterfaces;
+import pImpls.AbstractControlModule;
+import pImpls.SimulationContext;
+
+/**
+ * Creates the control module for one elevator selection algorithm. Strategies are registered by name with ControlImplFactory, and can either
+ * build a control module for a new simulation or take over the floors, elevators and pending hall calls of a running one.
+ */
+public interface ControlStrategyInterface
+{
+	/**
+	 * Creates a control module which owns new floors and elevators
+	 * @param inContext the simulation whose configuration describes the floors and elevators
+	 * @return the new control module
+	 */
+	public AbstractControlModule createControlModule(SimulationContext inContext);
+
+	/**
+	 * Creates a control module which continues a running simulation, sharing the floors, elevators and pending hall calls of inPrevious
+	 * @param inPrevious the control module being replaced. Must not be null.
+	 * @return the new control module
+	 */
+	public AbstractControlModule takeOver(AbstractControlModule inPrevious);
+}
@@ -12,9 +12,11 @@ public interface ElevatorInterface
 	/**
 	 * Adds a floor to the elevator's request queue, indicating that the elevator should stop at the indicated floor.
 	 * @param floorNum the floor number to stop at.
+	 * @return true if the elevator will stop at the floor (or is stopping there now), or false if the floor is behind the elevator and the
+	 * request was rejected
 	 * @throws NegativeFloorException if floorNum is less than 1 or greater than the number of floors in the simulation.
 	 */
-	public void addFloorToQueue(int floorNum) throws NegativeFloorException;
+	public boolean addFloorToQueue(int floorNum) throws NegativeFloorException;
 
 	/**
 	 * Adds a Person object to the elevator. Once inside, their destination floor is added to the elevator's request queue.
@@ -32,6 +34,16 @@ public interface ElevatorInterface
 	 */
 	public boolean addPassengers(ArrayList<Person> inPeople) throws NullPassengerException, NegativeFloorException;
 
+	/**
+	 * Moves as many Person objects of a group into the elevator as it has room for, in one step. Their destination floors are added to the
+	 * elevator's request queue once every Person has boarded, each floor only once.
+	 * @param inPeople the Person objects waiting to board, in the order they should board
+	 * @return the number of Person objects that boarded. They are always the first ones of inPeople.
+	 * @throws NullPassengerException if any of the Person objects in inPeople are null
+	 * @throws NegativeFloorException if any of the Person objects have a destination floor that's less than 1 or greater than the number of floors in the simulation
+	 */
+	public int boardPassengers(ArrayList<Person> inPeople) throws NullPassengerException, NegativeFloorException;
+
 	/**
 	 * Open the doors of the elevator so Person objects may enter or leave this elevator.
 	 */
@@ -42,6 +54,12 @@ public interface ElevatorInterface
 	 */
 	public void closeDoors();
 
+	/**
+	 * Asks the elevator to open and close its doors at the floor it is on right now, without making the caller wait for the doors. The elevator
+	 * runs the door cycle itself, and does not leave the floor before it has.
+	 */
+	public void requestDoorCycle();
+
 	/**
 	 * Remove a Person from this elevator. Should be called once a Person has reached their destination floor and the doors have been opened.
 	 * @param inPassenger the Person object who has reached their destination and should leave.
@@ -63,6 +81,20 @@ public interface ElevatorInterface
 	 */
 	public int getCapacity();
 
+	/**
+	 * Accessor for the number of Person objects that are inside this elevator right now.
+	 * @return the number of passengers, never more than the capacity.
+	 */
+	public int getLoad();
+
+	/**
+	 * Computes how many more people this elevator could take on at a floor, counting the passengers who get off on the way there.
+	 * @param floorNum the floor to check. NOTE: this method uses ONE-BASED indexing.
+	 * @return the number of free spots the elevator will have once its passengers for floorNum and the floors before it on its current trip
+	 * have left. Every spot is free if the elevator has to turn around to reach floorNum.
+	 */
+	public int getFreeCapacityAt(int floorNum);
+
 	/**
 	 * Accessor for the container of Person objects that are currently inside this elevator. All of the destination floors of the people
 	 * in this container should be in the elevator's requests queue.
@@ -82,6 +114,25 @@ public interface ElevatorInterface
 	 */
 	public int getDoorSpeed();
 
+	/**
+	 * Accessor for how long it takes the elevator to travel between two adjacent floors.
+	 * @return the time (in milliseconds) it takes to traverse one floor.
+	 */
+	public int getSpeed();
+
+	/**
+	 * Accessor for the floors that this elevator has been asked to stop at.
+	 * @return a copy of the request queue. NOTE: uses ONE-BASED indexing
+	 */
+	public ArrayList<Integer> getRequestQueue();
+
+	/**
+	 * Whether this elevator stops at a floor. Elevators of a zoned bank only serve part of the building.
+	 * @param floorNum the floor to check, using ONE-BASED indexing
+	 * @return true if this elevator can pick up and drop off passengers at floorNum
+	 */
+	public boolean servesFloor(int floorNum);
+
 	/**
 	 * Accessor for the current floor.
 	 * @return returns the current floor
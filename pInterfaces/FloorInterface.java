@@ -39,4 +39,43 @@ public interface FloorInterface
 	 * @return The ArrayList containing all of the Person objects who are waiting for an elevator on this particular floor
 	 */
 	public ArrayList<Person> getWaitingPeople();
+
+	/**
+	 * Whether anybody on this floor is still waiting to travel in the specified direction
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if at least one Person object on this floor wants to travel in directionToGo, otherwise false
+	 */
+	public boolean hasWaitingPeople(Direction directionToGo);
+
+	/**
+	 * Whether anybody on this floor who wants to travel in the specified direction could board a specific elevator, taking its zone and any
+	 * destination-dispatch assignments into account
+	 * @param elevatorToEnter the elevator to check
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if at least one Person object waiting to travel in directionToGo could board elevatorToEnter, otherwise false
+	 */
+	public boolean hasWaitingPeopleFor(ElevatorInterface elevatorToEnter, Direction directionToGo);
+
+	/**
+	 * Lights the hall button for the specified direction once an elevator has accepted the call. The button stays lit until an elevator opens
+	 * its doors on this floor to take people in that direction.
+	 * @param directionToGo the direction of the call. Must be either UP or DOWN
+	 * @param promisedCapacity the number of people the elevator that accepted the call will have room for when it arrives
+	 */
+	public void registerHallCall(Direction directionToGo, int promisedCapacity);
+
+	/**
+	 * Whether the elevators on their way for the call in the specified direction have room for everybody waiting, so that another call in
+	 * that direction would not change anything
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if the hall button is lit and the elevators it summoned can take every Person waiting to travel in directionToGo
+	 */
+	public boolean isHallCallCovered(Direction directionToGo);
+
+	/**
+	 * Whether the hall button for the specified direction is lit
+	 * @param directionToGo the direction to check. Must be either UP or DOWN
+	 * @return true if a call in directionToGo has been registered and not served yet, otherwise false
+	 */
+	public boolean isHallCallRegistered(Direction directionToGo);
 }
\ No newline at end of file
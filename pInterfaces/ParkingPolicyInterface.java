@@ -0,0 +1,30 @@
+package pInterfaces;
+
+/**
+ * Decides where an elevator that has been sitting idle should wait for its next call. The control module tells the parking policy about
+ * every call it receives, so policies may learn where calls are likely to come from.
+ */
+public interface ParkingPolicyInterface
+{
+	/**
+	 * Records a call made by a passenger who has just arrived on a floor
+	 * @param floorNum the ONE-BASED floor the passenger arrived on
+	 * @param time the simulation time of the call, in milliseconds
+	 */
+	public void recordCall(int floorNum, long time);
+
+	/**
+	 * Picks the floor an idle elevator should park on
+	 * @param elevator the elevator that has been idle long enough to be parked
+	 * @param time the current simulation time, in milliseconds
+	 * @return the ONE-BASED floor the elevator should travel to. Always a floor the elevator serves, and the elevator's current floor if it
+	 * should stay where it is.
+	 */
+	public int chooseParkingFloor(ElevatorInterface elevator, long time);
+
+	/**
+	 * Lets the policy know that an elevator has been given work, so it no longer counts as parked
+	 * @param elevator the elevator which is no longer parked or travelling to its parking floor
+	 */
+	public void releaseParkingFloor(ElevatorInterface elevator);
+}